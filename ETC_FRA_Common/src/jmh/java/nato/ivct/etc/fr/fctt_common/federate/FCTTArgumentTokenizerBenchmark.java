@@ -0,0 +1,137 @@
+package nato.ivct.etc.fr.fctt_common.federate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the splitting of the attribute lists of the MOM reports,
+ * FCTTArgumentTokenizer against the former regular expression and
+ * replace/split code of the Object and Declaration base models.
+ *
+ * Run with: gradle :ETC_FRA_Common:jmh (adds -prof gc for the allocation
+ * rate per argument format).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FCTTArgumentTokenizerBenchmark
+{
+	/**
+	 * Number of attributes in the report
+	 */
+	@Param({"1", "8", "64"})
+	public int mAttributeCount;
+
+	/**
+	 * MAK RTI attribute list, like AttributeHandleSet{AttributeHandle(1), ...}
+	 */
+	private String mMakArgument;
+
+	/**
+	 * Pitch RTI attribute list with values, like {{1,12},{2,12},...}
+	 */
+	private String mPitchArgument;
+
+	/**
+	 * Tokenizer reused between the reports, as in the base models
+	 */
+	private final FCTTArgumentTokenizer mTokenizer = new FCTTArgumentTokenizer();
+
+	@Setup
+	public void setUp()
+	{
+		StringBuilder lMak = new StringBuilder("AttributeHandleSet{");
+		StringBuilder lPitch = new StringBuilder("{");
+		for (int i = 1; i <= mAttributeCount; i++)
+		{
+			lMak.append(i > 1 ? ", " : "").append("AttributeHandle(").append(i + 100).append(')');
+			lPitch.append(i > 1 ? "," : "").append('{').append(i + 100).append(",12}");
+		}
+		mMakArgument = lMak.append('}').toString();
+		mPitchArgument = lPitch.append('}').toString();
+	}
+
+	@Benchmark
+	public int makRegex()
+	{
+		String[] lSplit = regexGetS1(mMakArgument).split(",");
+		int lLength = 0;
+		for (int i = 0; i < lSplit.length; i++)
+		{
+			lLength += lSplit[i].trim().length();
+		}
+		return lLength;
+	}
+
+	@Benchmark
+	public int makTokenizer()
+	{
+		int lCount = mTokenizer.tokenizeMak(mMakArgument);
+		int lLength = 0;
+		for (int i = 0; i < lCount; i++)
+		{
+			lLength += mTokenizer.getTokenString(i).length();
+		}
+		return lLength;
+	}
+
+	@Benchmark
+	public int pitchSplit()
+	{
+		String lAttributesFull = mPitchArgument;
+		lAttributesFull = lAttributesFull.replace("{", "");
+		lAttributesFull = lAttributesFull.replace("}", "");
+		String[] lSplit = lAttributesFull.split(",");
+		int lLength = 0;
+		for (int i = 0; i < lSplit.length; i += 2)
+		{
+			lLength += lSplit[i].trim().length();
+		}
+		return lLength;
+	}
+
+	@Benchmark
+	public int pitchTokenizer()
+	{
+		int lCount = mTokenizer.tokenizePitch(mPitchArgument);
+		int lLength = 0;
+		for (int i = 0; i < lCount; i += 2)
+		{
+			lLength += mTokenizer.getTokenString(i).length();
+		}
+		return lLength;
+	}
+
+	/**
+	 * The former FCTTParse.getS1, compiling its pattern on each call
+	 * @param pString String formatted like S1{S2(S3)}
+	 * @return String S2(S3)
+	 */
+	private static String regexGetS1(String pString)
+	{
+		String retValue = "";
+		Pattern p = Pattern.compile("\\w+\\{(.*)\\}");
+		Matcher m = p.matcher(pString);
+		if (m.find() && m.groupCount() == 1)
+		{
+			retValue = m.group(1);
+		}
+		return retValue;
+	}
+}
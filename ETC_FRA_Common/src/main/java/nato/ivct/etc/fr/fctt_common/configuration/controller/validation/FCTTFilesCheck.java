@@ -583,8 +583,8 @@ public class FCTTFilesCheck
 	private DataHLA convertISimModelIntoDataHLA(ISimModel pModel)
 	{
 		DataHLA lRoot = new DataHLA();		
-		lRoot.childrenProperty().add(buildObjectDataModel(pModel.getEntities()));
-		lRoot.childrenProperty().add(buildInteractionDataModel(pModel.getInteractions()));
+		lRoot.getChildren().add(buildObjectDataModel(pModel.getEntities()));
+		lRoot.getChildren().add(buildInteractionDataModel(pModel.getInteractions()));
 
 		return lRoot;
 	}	
@@ -597,7 +597,7 @@ public class FCTTFilesCheck
 	private DataHLA buildObjectDataModel(EList<ISimEntityClass> lAllObjects)
 	{
 		DataHLA lRootObject = new DataHLA(TextInternationalization.getString("content.object"));
-		lRootObject.dataTypeProperty().setValue(eModelDataHLAType.Root);
+		lRootObject.setDataType(eModelDataHLAType.Root);
 
 		//Stores all DataHLA created with their name as key
 		HashMap<String, DataHLA> lDataHLACreated = new HashMap<String, DataHLA>();
@@ -607,18 +607,18 @@ public class FCTTFilesCheck
 		{
 			//Creation of the data model as DataHLA
 			DataHLA lCurrentObject = new DataHLA();
-			lCurrentObject.nameProperty().setValue(lObject.getName());
-			lCurrentObject.dataTypeProperty().setValue(eModelDataHLAType.Object);
+			lCurrentObject.setName(lObject.getName());
+			lCurrentObject.setDataType(eModelDataHLAType.Object);
 			
 			//For each attribute of the current objet class
 			for (ISimAttribute lAttribute : lObject.getAllAttributes())
 			{
 				//Creation of the data model as DataHLA
 				DataHLA lCurrentAttribute = new DataHLA();
-				lCurrentAttribute.dataTypeProperty().setValue(eModelDataHLAType.Attribute);
-				lCurrentAttribute.nameProperty().setValue(lAttribute.getName());
-				lCurrentAttribute.receivedCountProperty().setValue(0);
-				lCurrentAttribute.sentCountProperty().setValue(0);
+				lCurrentAttribute.setDataType(eModelDataHLAType.Attribute);
+				lCurrentAttribute.setName(lAttribute.getName());
+				lCurrentAttribute.setReceivedCount(0);
+				lCurrentAttribute.setSentCount(0);
 
 				//Getting of the information about the publishing and the subscribing of the current attribute
 				Metadata lMetadataAttribute = this.getMetaData("sharing", lAttribute);
@@ -638,53 +638,53 @@ public class FCTTFilesCheck
 				//If the current attribute isn't declared "subscribed" or "published" or "neither", so its state is "not expected"
 				if ( (lMetadataAttribute == null) || (lObjectNotInSOM) )
 				{
-					lCurrentAttribute.sendingStateProperty().setValue(eModelState.NoInformation);
-					lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.NoInformation);
-					lCurrentAttribute.receptionStateProperty().setValue(eModelState.NoInformation);
-					lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.NoInformation);
+					lCurrentAttribute.setSendingState(eModelState.NoInformation);
+					lCurrentAttribute.setOldSendingState(eModelState.NoInformation);
+					lCurrentAttribute.setReceptionState(eModelState.NoInformation);
+					lCurrentAttribute.setOldReceptionState(eModelState.NoInformation);
 				}
 				else
 				{
 					switch (lMetadataAttribute.getValue()) 
 					{
 					case FCTT_Constant.SHARE_PUBLISH :
-						lCurrentAttribute.sendingStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.receptionStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setSendingState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setOldSendingState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setReceptionState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setOldReceptionState(eModelState.NotExpectedNotSeen);
 						break;
 					case FCTT_Constant.SHARE_SUBSCRIBE :
-						lCurrentAttribute.sendingStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.receptionStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setSendingState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setOldSendingState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setReceptionState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setOldReceptionState(eModelState.ExpectedNotSeen);
 						break;
 					case FCTT_Constant.SHARE_PUBLISH_SUBSCRIBE :
-						lCurrentAttribute.sendingStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.receptionStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setSendingState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setOldSendingState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setReceptionState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setOldReceptionState(eModelState.ExpectedNotSeen);
 						break;
 					case FCTT_Constant.SHARE_NEITHER :
-						lCurrentAttribute.sendingStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.receptionStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setSendingState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setOldSendingState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setReceptionState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setOldReceptionState(eModelState.NotExpectedNotSeen);
 						break;
 					default:
-						lCurrentAttribute.sendingStateProperty().setValue(eModelState.NoInformation);
-						lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.NoInformation);
-						lCurrentAttribute.receptionStateProperty().setValue(eModelState.NoInformation);
-						lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.NoInformation);
+						lCurrentAttribute.setSendingState(eModelState.NoInformation);
+						lCurrentAttribute.setOldSendingState(eModelState.NoInformation);
+						lCurrentAttribute.setReceptionState(eModelState.NoInformation);
+						lCurrentAttribute.setOldReceptionState(eModelState.NoInformation);
 					}
 				}
 
 				//Add the attributes as child of the current object class
-				lCurrentObject.childrenProperty().add(lCurrentAttribute);
+				lCurrentObject.getChildren().add(lCurrentAttribute);
 			}
 
 			//Put the newly DataHLA in the hashmap to retrieve it easily
-			lDataHLACreated.put(lCurrentObject.nameProperty().get(), lCurrentObject);
+			lDataHLACreated.put(lCurrentObject.getName(), lCurrentObject);
 		}
 
 		//Creation of the dependency between objects class
@@ -702,7 +702,7 @@ public class FCTTFilesCheck
 				lCurrentParent = lDataHLACreated.get(lObject.getParent().getName());
 			}
 
-			lCurrentParent.childrenProperty().add(lCurrentChild);
+			lCurrentParent.getChildren().add(lCurrentChild);
 		}
 
 		return lRootObject;
@@ -716,7 +716,7 @@ public class FCTTFilesCheck
 	private DataHLA buildInteractionDataModel(EList<ISimInteractionClass> lAllInteractions)
 	{
 		DataHLA lRootInteraction = new DataHLA(TextInternationalization.getString("content.interaction"));
-		lRootInteraction.dataTypeProperty().setValue(eModelDataHLAType.Root);
+		lRootInteraction.setDataType(eModelDataHLAType.Root);
 
 		//Stores all DataHLA created with their name as key
 		HashMap<String, DataHLA> lDataHLACreated = new HashMap<String, DataHLA>();
@@ -726,18 +726,18 @@ public class FCTTFilesCheck
 		{
 			//Creation of the data model as DataHLA
 			DataHLA lCurrentInteraction = new DataHLA();
-			lCurrentInteraction.nameProperty().setValue(lInteraction.getName());
-			lCurrentInteraction.dataTypeProperty().setValue(eModelDataHLAType.Interaction);			
+			lCurrentInteraction.setName(lInteraction.getName());
+			lCurrentInteraction.setDataType(eModelDataHLAType.Interaction);			
 
 			//For each attribute of the current interaction
 			for (ISimAttribute lAttribute : lInteraction.getAllParameters())
 			{
 				//Creation of the data model as DataHLA
 				DataHLA lCurrentAttribute = new DataHLA();
-				lCurrentAttribute.dataTypeProperty().setValue(eModelDataHLAType.Attribute);
-				lCurrentAttribute.nameProperty().setValue(lAttribute.getName());
-				lCurrentAttribute.receivedCountProperty().setValue(0);
-				lCurrentAttribute.sentCountProperty().setValue(0);
+				lCurrentAttribute.setDataType(eModelDataHLAType.Attribute);
+				lCurrentAttribute.setName(lAttribute.getName());
+				lCurrentAttribute.setReceivedCount(0);
+				lCurrentAttribute.setSentCount(0);
 
 				//Getting of the information about the publishing and the subscribing of the current attribute
 				Metadata lMetadataAttribute = this.getMetaData("sharing", lAttribute);
@@ -756,10 +756,10 @@ public class FCTTFilesCheck
 				//If the current attribute isn't declared "subscribed" or "published" or "neither", so its state is "not expected"
 				if ( (lMetadataAttribute == null) || (lInterNotInSOM) )
 				{
-					lCurrentAttribute.sendingStateProperty().setValue(eModelState.NoInformation);
-					lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.NoInformation);
-					lCurrentAttribute.receptionStateProperty().setValue(eModelState.NoInformation);
-					lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.NoInformation);
+					lCurrentAttribute.setSendingState(eModelState.NoInformation);
+					lCurrentAttribute.setOldSendingState(eModelState.NoInformation);
+					lCurrentAttribute.setReceptionState(eModelState.NoInformation);
+					lCurrentAttribute.setOldReceptionState(eModelState.NoInformation);
 				}
 				else
 				{
@@ -767,44 +767,44 @@ public class FCTTFilesCheck
 					switch (lMetadataAttribute.getValue()) 
 					{
 					case FCTT_Constant.SHARE_PUBLISH :
-						lCurrentAttribute.sendingStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.receptionStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setSendingState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setOldSendingState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setReceptionState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setOldReceptionState(eModelState.NotExpectedNotSeen);
 						break;
 					case FCTT_Constant.SHARE_SUBSCRIBE :
-						lCurrentAttribute.sendingStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.receptionStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setSendingState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setOldSendingState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setReceptionState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setOldReceptionState(eModelState.ExpectedNotSeen);
 						break;
 					case FCTT_Constant.SHARE_PUBLISH_SUBSCRIBE :
-						lCurrentAttribute.sendingStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.receptionStateProperty().setValue(eModelState.ExpectedNotSeen);
-						lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setSendingState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setOldSendingState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setReceptionState(eModelState.ExpectedNotSeen);
+						lCurrentAttribute.setOldReceptionState(eModelState.ExpectedNotSeen);
 						break;
 					case FCTT_Constant.SHARE_NEITHER :
-						lCurrentAttribute.sendingStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.receptionStateProperty().setValue(eModelState.NotExpectedNotSeen);
-						lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setSendingState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setOldSendingState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setReceptionState(eModelState.NotExpectedNotSeen);
+						lCurrentAttribute.setOldReceptionState(eModelState.NotExpectedNotSeen);
 						break;
 					default:
-						lCurrentAttribute.sendingStateProperty().setValue(eModelState.NoInformation);
-						lCurrentAttribute.oldSendingStateProperty().setValue(eModelState.NoInformation);
-						lCurrentAttribute.receptionStateProperty().setValue(eModelState.NoInformation);
-						lCurrentAttribute.oldReceptionStateProperty().setValue(eModelState.NoInformation);
+						lCurrentAttribute.setSendingState(eModelState.NoInformation);
+						lCurrentAttribute.setOldSendingState(eModelState.NoInformation);
+						lCurrentAttribute.setReceptionState(eModelState.NoInformation);
+						lCurrentAttribute.setOldReceptionState(eModelState.NoInformation);
 					}
 
 				}
 
 				//Add the attributes as child of the current interaction
-				lCurrentInteraction.childrenProperty().add(lCurrentAttribute);
+				lCurrentInteraction.getChildren().add(lCurrentAttribute);
 			}
 
 			//Put the newly DataHLA in the hashmap to retrieve it easily
-			lDataHLACreated.put(lCurrentInteraction.nameProperty().get(), lCurrentInteraction);
+			lDataHLACreated.put(lCurrentInteraction.getName(), lCurrentInteraction);
 		}
 
 		//Creation of the dependency between interactions
@@ -822,7 +822,7 @@ public class FCTTFilesCheck
 				lCurrentParent = lDataHLACreated.get(lInteraction.getParent().getName());
 			}
 
-			lCurrentParent.childrenProperty().add(lCurrentChild);
+			lCurrentParent.getChildren().add(lCurrentChild);
 		}
 		return lRootInteraction;
 	}
@@ -11,7 +11,6 @@ import java.util.List;
 
 import org.slf4j.Logger;
 
-import javafx.collections.ObservableList;
 import nato.ivct.etc.fr.fctt_common.resultServices.model.ServiceHLA;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelServiceHLAType;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelState;
@@ -81,8 +80,8 @@ public class FCTTParserServices
 			{
 
 				lCurrentGroupServices = new ServiceHLA(lTokens[1], null);
-				lCurrentGroupServices.serviceTypeProperty().set(eModelServiceHLAType.Group);
-				lRoot.childrenProperty().add(lCurrentGroupServices);
+				lCurrentGroupServices.setServiceType(eModelServiceHLAType.Group);
+				lRoot.getChildren().add(lCurrentGroupServices);
 			}
 			// It's a service
 			else
@@ -99,10 +98,10 @@ public class FCTTParserServices
 					if (mListServ.containsKey(iServiceName)) 
 					{
 						eModelState lState = mListServ.get(iServiceName);
-						lCurrentService.stateProperty().setValue(lState);
-						lCurrentService.oldStateProperty().setValue(lState);
-						lCurrentService.serviceTypeProperty().set(eModelServiceHLAType.Service);
-						lCurrentGroupServices.childrenProperty().add(lCurrentService);
+						lCurrentService.setState(lState);
+						lCurrentService.setOldState(lState);
+						lCurrentService.setServiceType(eModelServiceHLAType.Service);
+						lCurrentGroupServices.getChildren().add(lCurrentService);
 						break;
 					}
 					else
@@ -110,19 +109,14 @@ public class FCTTParserServices
 						// Service not declared in SOM
 						eModelState lStateNewServ = eModelState.NoInformation;
 						ServiceHLA lNewService = new ServiceHLA(lServiceName, llistServiceNames);
-						lNewService.stateProperty().setValue(lStateNewServ);
-						lNewService.oldStateProperty().setValue(lStateNewServ);
-						lNewService.serviceTypeProperty().set(eModelServiceHLAType.Service);
+						lNewService.setState(lStateNewServ);
+						lNewService.setOldState(lStateNewServ);
+						lNewService.setServiceType(eModelServiceHLAType.Service);
 						
-						ObservableList<ServiceHLA> lGrpList = lRoot.childrenProperty();
-						for(ServiceHLA iGrpServices:lGrpList) 
+						if (lRoot.getChildren().contains(lCurrentGroupServices))
 						{
-							if (iGrpServices.nameProperty().getName().equals(lCurrentGroupServices.nameProperty().getName()))
-							{
-								lCurrentGroupServices.childrenProperty().add(lNewService);
-								break;
-							}
-						}						
+							lCurrentGroupServices.getChildren().add(lNewService);
+						}
 						
 						logger.warn(TextInternationalization.getString("files.check.SOM.services.notDeclared") + iServiceName);
 					}
@@ -0,0 +1,388 @@
+package nato.ivct.etc.fr.fctt_common.federate;
+
+import java.util.Arrays;
+
+/**
+ * Splits the HLAsuppliedArguments and HLAreturnedArguments strings of the
+ * MOM reports into handle or name tokens, without regular expressions.
+ *
+ * MAK RTI formats a set like S1{a, b, c}, Pitch RTI like {a,b,c} or
+ * {{a,x},{b,y}}. The tokens are the same as the ones given by the former
+ * FCTTParse.getS1(...).split(",") for MAK and by replace("{", ""),
+ * replace("}", "") and split(",") for Pitch, each trimmed. The tokens are
+ * views of the tokenized string, the instance can be reused for several
+ * strings. Not thread safe.
+ */
+public class FCTTArgumentTokenizer
+{
+	/**
+	 * A token, as a view of the tokenized string
+	 */
+	private static final class Token implements CharSequence
+	{
+		/**
+		 * Tokenized string
+		 */
+		private final String mString;
+
+		/**
+		 * Start of the token in the string
+		 */
+		private final int mStart;
+
+		/**
+		 * End of the token in the string, exclusive
+		 */
+		private final int mEnd;
+
+		/**
+		 * @param pString Tokenized string
+		 * @param pStart Start of the token in the string
+		 * @param pEnd End of the token in the string, exclusive
+		 */
+		private Token(String pString, int pStart, int pEnd)
+		{
+			mString = pString;
+			mStart = pStart;
+			mEnd = pEnd;
+		}
+
+		@Override
+		public int length()
+		{
+			return mEnd - mStart;
+		}
+
+		@Override
+		public char charAt(int pIndex)
+		{
+			if ((pIndex < 0) || (pIndex >= mEnd - mStart))
+			{
+				throw new IndexOutOfBoundsException("Index: " + pIndex);
+			}
+			return mString.charAt(mStart + pIndex);
+		}
+
+		@Override
+		public CharSequence subSequence(int pStart, int pEnd)
+		{
+			if ((pStart < 0) || (pStart > pEnd) || (pEnd > mEnd - mStart))
+			{
+				throw new IndexOutOfBoundsException("Start: " + pStart + ", end: " + pEnd);
+			}
+			return new Token(mString, mStart + pStart, mStart + pEnd);
+		}
+
+		@Override
+		public String toString()
+		{
+			return mString.substring(mStart, mEnd);
+		}
+	}
+
+	/**
+	 * Tokenized string
+	 */
+	private String mString = "";
+
+	/**
+	 * Start of each token in the string
+	 */
+	private int[] mStarts = new int[16];
+
+	/**
+	 * End of each token in the string, exclusive
+	 */
+	private int[] mEnds = new int[16];
+
+	/**
+	 * Token built when braces are inside a Pitch token, null if the token is a view
+	 */
+	private String[] mBuiltTokens = new String[16];
+
+	/**
+	 * Whether each token is empty before trimming
+	 */
+	private boolean[] mEmpty = new boolean[16];
+
+	/**
+	 * Number of tokens
+	 */
+	private int mCount = 0;
+
+	/**
+	 * Split a MAK RTI argument like S1{a, b, c} into its trimmed elements
+	 * @param pString Argument to split
+	 * @return int Number of tokens, one empty token if the argument has no S1{...} part
+	 */
+	public int tokenizeMak(String pString)
+	{
+		reset(pString);
+
+		long lBounds = findS1(pString);
+		if (lBounds < 0)
+		{
+			addToken(0, 0, null, true);
+			return mCount;
+		}
+
+		int lStart = (int) (lBounds >>> 32);
+		int lEnd = (int) lBounds;
+		int lTokenStart = lStart;
+		for (int i = lStart; i <= lEnd; i++)
+		{
+			if ((i == lEnd) || (pString.charAt(i) == ','))
+			{
+				int lTrimStart = lTokenStart;
+				int lTrimEnd = i;
+				while ((lTrimStart < lTrimEnd) && (pString.charAt(lTrimStart) <= ' '))
+				{
+					lTrimStart++;
+				}
+				while ((lTrimEnd > lTrimStart) && (pString.charAt(lTrimEnd - 1) <= ' '))
+				{
+					lTrimEnd--;
+				}
+				addToken(lTrimStart, lTrimEnd, null, i == lTokenStart);
+				lTokenStart = i + 1;
+			}
+		}
+
+		removeTrailingEmptyTokens();
+		return mCount;
+	}
+
+	/**
+	 * Split a Pitch RTI argument like {a,b,c} or {{a,x},{b,y}} into its
+	 * trimmed elements, the braces are ignored
+	 * @param pString Argument to split
+	 * @return int Number of tokens
+	 */
+	public int tokenizePitch(String pString)
+	{
+		reset(pString);
+
+		int lLength = pString.length();
+		int lTokenStart = 0;
+		for (int i = 0; i <= lLength; i++)
+		{
+			if ((i == lLength) || (pString.charAt(i) == ','))
+			{
+				addPitchToken(lTokenStart, i);
+				lTokenStart = i + 1;
+			}
+		}
+
+		removeTrailingEmptyTokens();
+		return mCount;
+	}
+
+	/**
+	 * @return int Number of tokens
+	 */
+	public int getTokenCount()
+	{
+		return mCount;
+	}
+
+	/**
+	 * @param pIndex Token index
+	 * @return CharSequence Token, as a view of the tokenized string
+	 */
+	public CharSequence getToken(int pIndex)
+	{
+		checkIndex(pIndex);
+		if (mBuiltTokens[pIndex] != null)
+		{
+			return mBuiltTokens[pIndex];
+		}
+		return new Token(mString, mStarts[pIndex], mEnds[pIndex]);
+	}
+
+	/**
+	 * @param pIndex Token index
+	 * @return String Token
+	 */
+	public String getTokenString(int pIndex)
+	{
+		checkIndex(pIndex);
+		if (mBuiltTokens[pIndex] != null)
+		{
+			return mBuiltTokens[pIndex];
+		}
+		return mString.substring(mStarts[pIndex], mEnds[pIndex]);
+	}
+
+	/**
+	 * For a string formatted like S1{S2(S3)}
+	 * @param pString String to decode
+	 * @return String S2(S3), empty if the string has no S1{...} part
+	 */
+	public static String getS1(String pString)
+	{
+		long lBounds = findS1(pString);
+		if (lBounds < 0)
+		{
+			return "";
+		}
+		return pString.substring((int) (lBounds >>> 32), (int) lBounds);
+	}
+
+	/**
+	 * Find the content of S1{...} like the first match of \w+\{(.*)\}: after
+	 * the first '{' following a word character, up to the last '}' of its line
+	 * @param pString String to decode
+	 * @return long Start of the content in the high int and end in the low int, -1 if none
+	 */
+	private static long findS1(String pString)
+	{
+		int lLength = pString.length();
+		for (int lOpen = 1; lOpen < lLength; lOpen++)
+		{
+			if ((pString.charAt(lOpen) == '{') && isWordChar(pString.charAt(lOpen - 1)))
+			{
+				int lClose = -1;
+				int i = lOpen + 1;
+				while ((i < lLength) && !isLineTerminator(pString.charAt(i)))
+				{
+					if (pString.charAt(i) == '}')
+					{
+						lClose = i;
+					}
+					i++;
+				}
+				if (lClose >= 0)
+				{
+					return ((long) (lOpen + 1) << 32) | lClose;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Add the token of the characters between two commas of a Pitch argument
+	 * @param pStart Start of the characters
+	 * @param pEnd End of the characters, exclusive
+	 */
+	private void addPitchToken(int pStart, int pEnd)
+	{
+		// Trim the braces and the spaces around the token
+		int lTrimStart = pStart;
+		int lTrimEnd = pEnd;
+		boolean lEmpty = true;
+		while ((lTrimStart < lTrimEnd) && isBraceOrSpace(mString.charAt(lTrimStart)))
+		{
+			lEmpty &= isBrace(mString.charAt(lTrimStart));
+			lTrimStart++;
+		}
+		while ((lTrimEnd > lTrimStart) && isBraceOrSpace(mString.charAt(lTrimEnd - 1)))
+		{
+			lEmpty &= isBrace(mString.charAt(lTrimEnd - 1));
+			lTrimEnd--;
+		}
+
+		String lBuiltToken = null;
+		for (int i = lTrimStart; i < lTrimEnd; i++)
+		{
+			if (isBrace(mString.charAt(i)))
+			{
+				// Braces inside the token, build it as replace and trim would
+				lBuiltToken = mString.substring(pStart, pEnd).replace("{", "").replace("}", "").trim();
+				break;
+			}
+		}
+
+		if (lTrimStart < lTrimEnd)
+		{
+			lEmpty = false;
+		}
+		addToken(lTrimStart, lTrimEnd, lBuiltToken, lEmpty);
+	}
+
+	/**
+	 * Start the tokenizing of a string
+	 * @param pString String to tokenize
+	 */
+	private void reset(String pString)
+	{
+		Arrays.fill(mBuiltTokens, 0, mCount, null);
+		mString = pString;
+		mCount = 0;
+	}
+
+	/**
+	 * @param pStart Start of the token in the string
+	 * @param pEnd End of the token in the string, exclusive
+	 * @param pBuiltToken Token if it is not a view, null if it is
+	 * @param pEmpty Whether the token is empty before trimming
+	 */
+	private void addToken(int pStart, int pEnd, String pBuiltToken, boolean pEmpty)
+	{
+		if (mCount == mStarts.length)
+		{
+			mStarts = Arrays.copyOf(mStarts, mCount * 2);
+			mEnds = Arrays.copyOf(mEnds, mCount * 2);
+			mBuiltTokens = Arrays.copyOf(mBuiltTokens, mCount * 2);
+			mEmpty = Arrays.copyOf(mEmpty, mCount * 2);
+		}
+		mStarts[mCount] = pStart;
+		mEnds[mCount] = pEnd;
+		mBuiltTokens[mCount] = pBuiltToken;
+		mEmpty[mCount] = pEmpty;
+		mCount++;
+	}
+
+	/**
+	 * Remove the trailing tokens empty before trimming, as String.split does
+	 * when the string has at least one comma
+	 */
+	private void removeTrailingEmptyTokens()
+	{
+		if (mCount == 1)
+		{
+			return;
+		}
+		while ((mCount > 0) && mEmpty[mCount - 1])
+		{
+			mCount--;
+			mBuiltTokens[mCount] = null;
+		}
+	}
+
+	/**
+	 * @param pIndex Token index
+	 */
+	private void checkIndex(int pIndex)
+	{
+		if ((pIndex < 0) || (pIndex >= mCount))
+		{
+			throw new IndexOutOfBoundsException("Index: " + pIndex + ", tokens: " + mCount);
+		}
+	}
+
+	private static boolean isWordChar(char pChar)
+	{
+		return ((pChar >= 'a') && (pChar <= 'z')) || ((pChar >= 'A') && (pChar <= 'Z')) || isDigit(pChar) || (pChar == '_');
+	}
+
+	static boolean isDigit(char pChar)
+	{
+		return (pChar >= '0') && (pChar <= '9');
+	}
+
+	static boolean isLineTerminator(char pChar)
+	{
+		return (pChar == '\n') || (pChar == '\r') || (pChar == '\u0085') || (pChar == (char) 0x2028) || (pChar == (char) 0x2029);
+	}
+
+	private static boolean isBrace(char pChar)
+	{
+		return (pChar == '{') || (pChar == '}');
+	}
+
+	private static boolean isBraceOrSpace(char pChar)
+	{
+		return isBrace(pChar) || (pChar <= ' ');
+	}
+}
@@ -56,6 +56,26 @@ public class FCTTHandleList
 	 */
 	private HashMap<HashSet<String>, String> mHandleParameter = null;
 
+	/**
+	 * HashMap containing the handle of an object class name, the reverse of mHandleObj
+	 */
+	private HashMap<String, String> mObjNameToHandle = null;
+
+	/**
+	 * HashMap containing the handle of an interaction class name, the reverse of mHandleInt
+	 */
+	private HashMap<String, String> mIntNameToHandle = null;
+
+	/**
+	 * Names of the attributes of all object classes
+	 */
+	private HashSet<String> mAttributeNames = null;
+
+	/**
+	 * HashMap containing, per object class name, the attribute name corresponding to a handle
+	 */
+	private HashMap<String, HashMap<String, String>> mAttributeByClassAndHandle = null;
+
 	/**
 	 * @param pModel HLA data model
 	 * @param pRTIAmb RTI ambassador
@@ -70,6 +90,10 @@ public class FCTTHandleList
 		mHandleInt = new HashMap<String, String>();
 		mHandleAttribute = new HashMap<HashSet<String>, String>();
 		mHandleParameter = new HashMap<HashSet<String>, String>();
+		mObjNameToHandle = new HashMap<String, String>();
+		mIntNameToHandle = new HashMap<String, String>();
+		mAttributeNames = new HashSet<String>();
+		mAttributeByClassAndHandle = new HashMap<String, HashMap<String, String>>();
 	}
 
 	/**
@@ -131,6 +155,14 @@ public class FCTTHandleList
 			try {
 				lObjectClassHandle = mRTIAmb.getObjectClassHandle(lObjectClassName);
 				mHandleObj.put(lObjectClassHandle.toString(), lObjectClassName);
+				mObjNameToHandle.put(lObjectClassName, lObjectClassHandle.toString());
+
+				HashMap<String, String> lAttributeByHandle = mAttributeByClassAndHandle.get(lObjectClassName);
+				if (lAttributeByHandle == null)
+				{
+					lAttributeByHandle = new HashMap<String, String>();
+					mAttributeByClassAndHandle.put(lObjectClassName, lAttributeByHandle);
+				}
 
 				//For each attribute of the current objet class
 				for (ISimAttribute lAttribute : lObject.getAllAttributes())
@@ -144,6 +176,8 @@ public class FCTTHandleList
 						lHashSet.add(lObjectClassName);
 						lHashSet.add(lAttributeHandle.toString());
 						mHandleAttribute.put(lHashSet, lAttClassName);
+						mAttributeNames.add(lAttClassName);
+						lAttributeByHandle.put(lAttributeHandle.toString(), lAttClassName);
 					}
 					catch (NameNotFound e)
 					{
@@ -204,6 +238,7 @@ public class FCTTHandleList
 			{
 				lInterClassHandle =  mRTIAmb.getInteractionClassHandle(lInterClassName);
 				mHandleInt.put(lInterClassHandle.toString(), lInterClassName);
+				mIntNameToHandle.put(lInterClassName, lInterClassHandle.toString());
 
 				//For each attribute of the current interaction
 				for (ISimAttribute lAttribute : lInteraction.getAllParameters())
@@ -268,17 +303,10 @@ public class FCTTHandleList
      */
 	public String getInteractionClassName(String pParam)
 	{
-		String lReturnValue="";
-		if (mHandleInt.containsKey(pParam))
+		String lReturnValue = mHandleInt.get(pParam);
+		if (lReturnValue == null)
 		{
-			lReturnValue = mHandleInt.get(pParam);
-		}
-		else
-		{
-			if (mHandleInt.containsValue(pParam))
-			{
-				lReturnValue = pParam;
-			}
+			lReturnValue = mIntNameToHandle.containsKey(pParam) ? pParam : "";
 		}
 		return lReturnValue;
 	}
@@ -290,17 +318,10 @@ public class FCTTHandleList
 	 */
 	public String getObjectClassName(String pParam)
 	{
-		String lReturnValue="";
-		if (mHandleObj.containsKey(pParam))
-		{
-			lReturnValue = mHandleObj.get(pParam);
-		}
-		else
+		String lReturnValue = mHandleObj.get(pParam);
+		if (lReturnValue == null)
 		{
-			if (mHandleObj.containsValue(pParam))
-			{
-				lReturnValue = pParam;
-			}
+			lReturnValue = mObjNameToHandle.containsKey(pParam) ? pParam : "";
 		}
 		return lReturnValue;
 	}
@@ -315,18 +336,16 @@ public class FCTTHandleList
 	{
 		String lReturnValue="";
 
-		if (mHandleAttribute.containsValue(pParam))
+		if (mAttributeNames.contains(pParam))
 		{
 			lReturnValue = pParam;
 		}
 		else
 		{
-			HashSet<String> lHashSet = new HashSet<String>();
-			lHashSet.add(pObjectClassName);
-			lHashSet.add(pParam);
-			if (mHandleAttribute.containsKey(lHashSet))
+			HashMap<String, String> lAttributeByHandle = mAttributeByClassAndHandle.get(pObjectClassName);
+			if ((lAttributeByHandle != null) && lAttributeByHandle.containsKey(pParam))
 			{
-				lReturnValue = mHandleAttribute.get(lHashSet);
+				lReturnValue = lAttributeByHandle.get(pParam);
 			}
 		}
 
@@ -1,8 +1,5 @@
 package nato.ivct.etc.fr.fctt_common.federate;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 public class FCTTParse 
 {
 
@@ -34,50 +31,58 @@ public class FCTTParse
 	 */
 	private static String decodeParam1(String pString, int pInd)
 	{
+		String retValue = FCTTArgumentTokenizer.getS1(pString);
 
-		String retValue ="";
-		Pattern p = Pattern .compile("\\w+\\{(.*)\\}");
-		Matcher m = p.matcher(pString);
-
-		if (m.find() && m.groupCount() ==1) 
+		if (pInd == 1)
 		{
-			if (pInd == 0)
-			{
-				retValue = m.group(1);
-			}
-			if (pInd == 1)
-			{
-				String lType = m.group(1);
-				retValue = decodeParam2(lType,1);
-			}
-			if (pInd == 2)
-			{
-				String lType = m.group(1);
-				retValue = decodeParam2(lType,2);
-			}
+			retValue = decodeParam2(retValue,1);
+		}
+		if (pInd == 2)
+		{
+			retValue = decodeParam2(retValue,2);
 		}
 
 		return retValue;
 	}
 
 	/**
-	 * For a string formatted like S2(N1)
+	 * For a string formatted like S2(N1), same as the first match of (.*)\((\d+)\):
+	 * the last (N1) of the first line having one
 	 * @param pString
 	 * @param pInd
 	 * @return
-	 * if pInd==0 return S2(N1)
 	 * if pInd==1 return S2
 	 * if pInd==2 return N1
 	 */
-	private static String decodeParam2(String pString, int pInd)
+	static String decodeParam2(String pString, int pInd)
 	{
-		String retValue ="";
-		Pattern p = Pattern.compile("(.*)\\((\\d+)\\)");
-		Matcher m = p.matcher(pString);
-		if (m.find()&& m.groupCount() ==2) 
+		int lLength = pString.length();
+		int lLineStart = 0;
+		while (lLineStart <= lLength)
 		{
-			retValue = m.group(pInd);
+			int lLineEnd = lLineStart;
+			while ((lLineEnd < lLength) && !FCTTArgumentTokenizer.isLineTerminator(pString.charAt(lLineEnd)))
+			{
+				lLineEnd++;
+			}
+
+			for (int lOpen = lLineEnd - 1; lOpen >= lLineStart; lOpen--)
+			{
+				if (pString.charAt(lOpen) == '(')
+				{
+					int lClose = lOpen + 1;
+					while ((lClose < lLineEnd) && FCTTArgumentTokenizer.isDigit(pString.charAt(lClose)))
+					{
+						lClose++;
+					}
+					if ((lClose > lOpen + 1) && (lClose < lLineEnd) && (pString.charAt(lClose) == ')'))
+					{
+						return (pInd == 1) ? pString.substring(lLineStart, lOpen) : pString.substring(lOpen + 1, lClose);
+					}
+				}
+			}
+			lLineStart = lLineEnd + 1;
 		}
-		return retValue;
+		return "";
 	}
 }
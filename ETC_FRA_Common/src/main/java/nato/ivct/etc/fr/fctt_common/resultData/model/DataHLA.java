@@ -1,94 +1,90 @@
 package nato.ivct.etc.fr.fctt_common.resultData.model;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import nato.ivct.etc.fr.fctt_common.mainWindow.model.IObjectHLA;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelDataHLAType;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelState;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+/**
+ * Represents a HLA data.
+ * The data is kept in plain fields, the JavaFX properties for the FCTT GUI are only created
+ * when one of them is asked for (see DataHLAProperties).
+ */
 public class DataHLA implements IObjectHLA
 {
+	/**
+	 * The states by ordinal
+	 */
+	private static final eModelState[] STATES = eModelState.values();
+	
+	/**
+	 * The data types by ordinal
+	 */
+	private static final eModelDataHLAType[] DATA_TYPES = eModelDataHLAType.values();
+	
 	/**
 	 * Name of the data
 	 */
-	private StringProperty mName;
+	private String mName;
 	
 	/**
 	 * Number of sending of the data (Published)
 	 */
-	private IntegerProperty mSentCount;
+	private int mSentCount;
 	
 	/**
-	 * Current state for the sending
+	 * Current state for the sending, as ordinal
 	 */
-	private ObjectProperty<eModelState> mSendingState;
+	private byte mSendingState;
 	
 	/**
-	 * Old state for the sending
+	 * Old state for the sending, as ordinal
 	 */
-	private ObjectProperty<eModelState> mOldSendingState;
+	private byte mOldSendingState;
 	
 	/**
 	 * Number of reception of the data (Subscribed)
 	 */
-	private IntegerProperty mReceivedCount;
+	private int mReceivedCount;
 	
 	/**
-	 * Current state of the reception
+	 * Current state of the reception, as ordinal
 	 */
-	private ObjectProperty<eModelState> mReceptionState;
+	private byte mReceptionState;
 	
 	/**
-	 * Old state of the reception
+	 * Old state of the reception, as ordinal
 	 */
-	private ObjectProperty<eModelState> mOldReceptionState;
+	private byte mOldReceptionState;
 	
 	/**
 	 * Children of the data
 	 */
-	private ObservableList<DataHLA> mChildren;
+	private List<DataHLA> mChildren;
+	
+	/**
+	 * Type of the data, as ordinal
+	 */
+	private byte mDataType;
 	
 	/**
-	 * Type of the data
+	 * JavaFX properties of the data, null until a property is asked for.
+	 * Once created, they hold the data instead of the fields above.
 	 */
-	private ObjectProperty<eModelDataHLAType> mDataType;
+	private DataHLAProperties mProperties;
 	
 	/**
 	 * Constructor
 	 */
 	public DataHLA()
 	{
-		mName = new SimpleStringProperty();
-		mName.setValue("");
-		
-		mSentCount = new SimpleIntegerProperty();
-		mSentCount.setValue(0);
-		
-		mSendingState = new SimpleObjectProperty<eModelState>();
-		mSendingState.setValue(eModelState.NotConcerned);
-		
-		mOldSendingState = new SimpleObjectProperty<eModelState>();
-		mOldSendingState.setValue(eModelState.NotConcerned);
-		
-		mReceivedCount = new SimpleIntegerProperty();
-		mReceivedCount.setValue(0);
-		
-		mReceptionState = new SimpleObjectProperty<eModelState>();
-		mReceptionState.setValue(eModelState.NotConcerned);
-		
-		mOldReceptionState = new SimpleObjectProperty<eModelState>();
-		mOldReceptionState.setValue(eModelState.NotConcerned);
-		
-		mChildren = FXCollections.observableArrayList();
-		
-		mDataType = new SimpleObjectProperty<eModelDataHLAType>();
-		mDataType.setValue(eModelDataHLAType.Root);
+		this("");
 	}
 	
 	/**
@@ -97,75 +93,235 @@ public class DataHLA implements IObjectHLA
 	 */
 	public DataHLA(String pName)
 	{
-		mName = new SimpleStringProperty();
-		mName.setValue(pName);
-		
-		mSentCount = new SimpleIntegerProperty();
-		mSentCount.setValue(0);
-		
-		mSendingState = new SimpleObjectProperty<eModelState>();
-		mSendingState.setValue(eModelState.NotConcerned);
-		
-		mOldSendingState = new SimpleObjectProperty<eModelState>();
-		mOldSendingState.setValue(eModelState.NotConcerned);
-		
-		mReceivedCount = new SimpleIntegerProperty();
-		mReceivedCount.setValue(0);
-		
-		mReceptionState = new SimpleObjectProperty<eModelState>();
-		mReceptionState.setValue(eModelState.NotConcerned);
-		
-		mOldReceptionState = new SimpleObjectProperty<eModelState>();
-		mOldReceptionState.setValue(eModelState.NotConcerned);
-		
-		mChildren = FXCollections.observableArrayList();
-		
-		mDataType = new SimpleObjectProperty<eModelDataHLAType>();
-		mDataType.setValue(eModelDataHLAType.Root);
+		mName = pName;
+		mSentCount = 0;
+		mSendingState = toOrdinal(eModelState.NotConcerned);
+		mOldSendingState = toOrdinal(eModelState.NotConcerned);
+		mReceivedCount = 0;
+		mReceptionState = toOrdinal(eModelState.NotConcerned);
+		mOldReceptionState = toOrdinal(eModelState.NotConcerned);
+		mChildren = new ArrayList<DataHLA>();
+		mDataType = toOrdinal(eModelDataHLAType.Root);
+	}
+	
+	/**
+	 * @param pValue Enum value, may be null
+	 * @return The ordinal of the value, -1 for null
+	 */
+	private static byte toOrdinal(Enum<?> pValue)
+	{
+		return pValue == null ? -1 : (byte) pValue.ordinal();
+	}
+	
+	/**
+	 * @param pOrdinal Ordinal of a state, -1 for null
+	 * @return The state
+	 */
+	private static eModelState toState(byte pOrdinal)
+	{
+		return pOrdinal < 0 ? null : STATES[pOrdinal];
+	}
+	
+	public String getName()
+	{
+		return mProperties == null ? mName : mProperties.mName.get();
+	}
+	
+	public void setName(String pName)
+	{
+		if (mProperties == null)
+		{
+			mName = pName;
+		}
+		else
+		{
+			mProperties.mName.set(pName);
+		}
+	}
+	
+	public int getSentCount()
+	{
+		return mProperties == null ? mSentCount : mProperties.mSentCount.get();
+	}
+	
+	public void setSentCount(int pSentCount)
+	{
+		if (mProperties == null)
+		{
+			mSentCount = pSentCount;
+		}
+		else
+		{
+			mProperties.mSentCount.set(pSentCount);
+		}
+	}
+	
+	public eModelState getSendingState()
+	{
+		return mProperties == null ? toState(mSendingState) : mProperties.mSendingState.get();
+	}
+	
+	public void setSendingState(eModelState pState)
+	{
+		if (mProperties == null)
+		{
+			mSendingState = toOrdinal(pState);
+		}
+		else
+		{
+			mProperties.mSendingState.set(pState);
+		}
+	}
+	
+	public eModelState getOldSendingState()
+	{
+		return mProperties == null ? toState(mOldSendingState) : mProperties.mOldSendingState.get();
+	}
+	
+	public void setOldSendingState(eModelState pState)
+	{
+		if (mProperties == null)
+		{
+			mOldSendingState = toOrdinal(pState);
+		}
+		else
+		{
+			mProperties.mOldSendingState.set(pState);
+		}
+	}
+	
+	public int getReceivedCount()
+	{
+		return mProperties == null ? mReceivedCount : mProperties.mReceivedCount.get();
+	}
+	
+	public void setReceivedCount(int pReceivedCount)
+	{
+		if (mProperties == null)
+		{
+			mReceivedCount = pReceivedCount;
+		}
+		else
+		{
+			mProperties.mReceivedCount.set(pReceivedCount);
+		}
+	}
+	
+	public eModelState getReceptionState()
+	{
+		return mProperties == null ? toState(mReceptionState) : mProperties.mReceptionState.get();
+	}
+	
+	public void setReceptionState(eModelState pState)
+	{
+		if (mProperties == null)
+		{
+			mReceptionState = toOrdinal(pState);
+		}
+		else
+		{
+			mProperties.mReceptionState.set(pState);
+		}
+	}
+	
+	public eModelState getOldReceptionState()
+	{
+		return mProperties == null ? toState(mOldReceptionState) : mProperties.mOldReceptionState.get();
+	}
+	
+	public void setOldReceptionState(eModelState pState)
+	{
+		if (mProperties == null)
+		{
+			mOldReceptionState = toOrdinal(pState);
+		}
+		else
+		{
+			mProperties.mOldReceptionState.set(pState);
+		}
+	}
+	
+	public List<DataHLA> getChildren()
+	{
+		return mProperties == null ? mChildren : mProperties.mChildren;
+	}
+	
+	public eModelDataHLAType getDataType()
+	{
+		if (mProperties != null)
+		{
+			return mProperties.mDataType.get();
+		}
+		return mDataType < 0 ? null : DATA_TYPES[mDataType];
+	}
+	
+	public void setDataType(eModelDataHLAType pDataType)
+	{
+		if (mProperties == null)
+		{
+			mDataType = toOrdinal(pDataType);
+		}
+		else
+		{
+			mProperties.mDataType.set(pDataType);
+		}
+	}
+	
+	/**
+	 * Get the JavaFX properties, create them from the fields at the first call
+	 * @return The JavaFX properties of the data
+	 */
+	private DataHLAProperties properties()
+	{
+		if (mProperties == null)
+		{
+			mProperties = new DataHLAProperties(this);
+		}
+		return mProperties;
 	}
 		
 	public StringProperty nameProperty()
 	{
-		return mName;
+		return properties().mName;
 	}
 	
 	public IntegerProperty sentCountProperty()
 	{
-		return mSentCount;
+		return properties().mSentCount;
 	}
 	
 	public ObjectProperty<eModelState> sendingStateProperty()
 	{
-		return mSendingState;
+		return properties().mSendingState;
 	}
 	
 	public ObjectProperty<eModelState> oldSendingStateProperty()
 	{
-		return mOldSendingState;
+		return properties().mOldSendingState;
 	}
 	
 	public IntegerProperty receivedCountProperty()
 	{
-		return mReceivedCount;
+		return properties().mReceivedCount;
 	}
 	
 	public ObjectProperty<eModelState> receptionStateProperty()
 	{
-		return mReceptionState;
+		return properties().mReceptionState;
 	}
 	
 	public ObjectProperty<eModelState> oldReceptionStateProperty()
 	{
-		return mOldReceptionState;
+		return properties().mOldReceptionState;
 	}
 	
 	public ObservableList<DataHLA> childrenProperty()
 	{
-		return mChildren;
+		return properties().mChildren;
 	}
 	
 	public ObjectProperty<eModelDataHLAType> dataTypeProperty()
 	{
-		return mDataType;
+		return properties().mDataType;
 	}
-}
\ No newline at end of file
+}
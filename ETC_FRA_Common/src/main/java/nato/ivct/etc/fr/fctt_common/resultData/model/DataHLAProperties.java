@@ -0,0 +1,73 @@
+package nato.ivct.etc.fr.fctt_common.resultData.model;
+
+import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelDataHLAType;
+import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelState;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * The JavaFX properties of a DataHLA for the FCTT GUI.
+ * Created by the first call of a property method of the DataHLA, from then on they hold its data.
+ */
+final class DataHLAProperties
+{
+	final StringProperty mName;
+	
+	final IntegerProperty mSentCount;
+	
+	final ObjectProperty<eModelState> mSendingState;
+	
+	final ObjectProperty<eModelState> mOldSendingState;
+	
+	final IntegerProperty mReceivedCount;
+	
+	final ObjectProperty<eModelState> mReceptionState;
+	
+	final ObjectProperty<eModelState> mOldReceptionState;
+	
+	/**
+	 * Backed by the list of children of the DataHLA
+	 */
+	final ObservableList<DataHLA> mChildren;
+	
+	final ObjectProperty<eModelDataHLAType> mDataType;
+	
+	/**
+	 * Constructor
+	 * @param pData The data whose current values are taken
+	 */
+	DataHLAProperties(DataHLA pData)
+	{
+		mName = new SimpleStringProperty();
+		mName.setValue(pData.getName());
+		
+		mSentCount = new SimpleIntegerProperty();
+		mSentCount.setValue(pData.getSentCount());
+		
+		mSendingState = new SimpleObjectProperty<eModelState>();
+		mSendingState.setValue(pData.getSendingState());
+		
+		mOldSendingState = new SimpleObjectProperty<eModelState>();
+		mOldSendingState.setValue(pData.getOldSendingState());
+		
+		mReceivedCount = new SimpleIntegerProperty();
+		mReceivedCount.setValue(pData.getReceivedCount());
+		
+		mReceptionState = new SimpleObjectProperty<eModelState>();
+		mReceptionState.setValue(pData.getReceptionState());
+		
+		mOldReceptionState = new SimpleObjectProperty<eModelState>();
+		mOldReceptionState.setValue(pData.getOldReceptionState());
+		
+		mChildren = FXCollections.observableList(pData.getChildren());
+		
+		mDataType = new SimpleObjectProperty<eModelDataHLAType>();
+		mDataType.setValue(pData.getDataType());
+	}
+}
@@ -2,21 +2,67 @@ package nato.ivct.etc.fr.fctt_common.resultData.model;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import nato.ivct.etc.fr.fctt_common.mainWindow.model.IObjectHLA;
+import nato.ivct.etc.fr.fctt_common.utils.ResultsWriter;
 import nato.ivct.etc.fr.fctt_common.utils.StringWrapper;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eBuildResults;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelDataHLAType;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelDataHLAUpdatingWay;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelState;
+import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eResultsFormat;
 
 public class ResultDataModel 
 {
+	/**
+	 * An attribute of an indexed node, stamped with the last update which counted it
+	 */
+	private static class IndexedAttribute
+	{
+		private final DataHLA mAttribute;
+
+		private long mUpdateStamp;
+
+		private IndexedAttribute(DataHLA pAttribute)
+		{
+			mAttribute = pAttribute;
+		}
+	}
+
+	/**
+	 * A node of the data model with its attributes, the entry of the index
+	 */
+	private static class IndexedData
+	{
+		/**
+		 * The children of type attribute, in the order of the data model
+		 */
+		private List<DataHLA> mAttributes = new ArrayList<DataHLA>();
+
+		/**
+		 * The children of type attribute by name in lower case
+		 */
+		private Map<String, List<IndexedAttribute>> mAttributesByName = new HashMap<String, List<IndexedAttribute>>();
+	}
+
 	/**
 	 * Stores the data model of the result data view
 	 */
 	private DataHLA mDataModel;
 
+	/**
+	 * Nodes of the data model by full class name in lower case
+	 */
+	private Map<String, IndexedData> mDataByFullClassName;
+
+	/**
+	 * Stamp of the current object update, an attribute is counted once per update
+	 */
+	private long mUpdateGeneration;
+
 	/**
 	 * Indicates no SOM compliance error
 	 */
@@ -28,6 +74,8 @@ public class ResultDataModel
 	public ResultDataModel()
 	{
 		mDataModel = new DataHLA();
+		mDataByFullClassName = new HashMap<String, IndexedData>();
+		indexDataRecursively(mDataModel, "");
 		mValidated = true;
 	}
 
@@ -40,97 +88,104 @@ public class ResultDataModel
 	public void updateState(String pClassName, ArrayList<String> pAttributes, eModelDataHLAUpdatingWay pUpdatingWay)
 	{
 		//Searched the data concerned
-		DataHLA lDataConcerned = searchDataHLAByName(pClassName.toLowerCase(), mDataModel, "");
+		IndexedData lDataConcerned = mDataByFullClassName.get(pClassName.toLowerCase());
 
 		//If the data has been found
 		if (lDataConcerned != null)
 		{		
-			ArrayList<DataHLA> lAttributesConcerned = new ArrayList<DataHLA>();
-			//In the case of an object, keep only attributes updated
+			//In the case of an object, update only the attributes updated
 			if (pAttributes != null)
 			{
-				//Keep only the attributes update 
-				for (DataHLA lChild : lDataConcerned.childrenProperty())
+				//In the order of the report, once even if the name is repeated
+				long lGeneration = ++mUpdateGeneration;
+				for (String lAttributeName : pAttributes)
 				{
-					if (lChild.dataTypeProperty().get() == eModelDataHLAType.Attribute && pAttributes.contains(lChild.nameProperty().get().toLowerCase()))
+					List<IndexedAttribute> lChildren = lDataConcerned.mAttributesByName.get(lAttributeName);
+					if (lChildren != null)
 					{
-						lAttributesConcerned.add(lChild);
+						for (IndexedAttribute lAttributeToUpdate : lChildren)
+						{
+							if (lAttributeToUpdate.mUpdateStamp != lGeneration)
+							{
+								lAttributeToUpdate.mUpdateStamp = lGeneration;
+								updateAttributeState(lAttributeToUpdate.mAttribute, pUpdatingWay);
+							}
+						}
 					}
 				}		
 			}
 			//In the case of an interaction, all attributes are updated
 			else
 			{
-				//Keep all the attributes cause it's an interaction
-				for (DataHLA lChild : lDataConcerned.childrenProperty())
+				for (DataHLA lAttributeToUpdate : lDataConcerned.mAttributes)
 				{
-					if (lChild.dataTypeProperty().get() == eModelDataHLAType.Attribute)
-					{
-						lAttributesConcerned.add(lChild);
-					}
+					updateAttributeState(lAttributeToUpdate, pUpdatingWay);
 				}
 			}			
+		}
+	}
 
-			//For each attributes to update
-			for (DataHLA lAttributeToUpdate : lAttributesConcerned)
-			{			
-				if (pUpdatingWay == eModelDataHLAUpdatingWay.Send)
-				{
-					//Increment its counter
-					lAttributeToUpdate.sentCountProperty().setValue(lAttributeToUpdate.sentCountProperty().get() + 1);
+	/**
+	 * Update the state and the counter of an attribute
+	 * @param pAttributeToUpdate Concerned attribute
+	 * @param pUpdatingWay send or receive
+	 */
+	private void updateAttributeState(DataHLA pAttributeToUpdate, eModelDataHLAUpdatingWay pUpdatingWay)
+	{
+		if (pUpdatingWay == eModelDataHLAUpdatingWay.Send)
+		{
+			//Increment its counter
+			pAttributeToUpdate.setSentCount(pAttributeToUpdate.getSentCount() + 1);
 
-					//Update its state
-					if (lAttributeToUpdate.sendingStateProperty().get() == eModelState.ExpectedNotSeen)
-					{
-						lAttributeToUpdate.sendingStateProperty().setValue(eModelState.ExpectedSeen);		
-					}
-					else if (lAttributeToUpdate.sendingStateProperty().get() == eModelState.NoInformation)
-					{
-						lAttributeToUpdate.sendingStateProperty().setValue(eModelState.NotExpectedSeen);
-					}
-					else if (lAttributeToUpdate.sendingStateProperty().get() == eModelState.NotExpectedNotSeen)
-					{
-						lAttributeToUpdate.sendingStateProperty().setValue(eModelState.NotExpectedSeen);
-					}
-				}
-				else
-				{
-					//Increment its counter
-					lAttributeToUpdate.receivedCountProperty().setValue(lAttributeToUpdate.receivedCountProperty().get() + 1);
+			//Update its state
+			if (pAttributeToUpdate.getSendingState() == eModelState.ExpectedNotSeen)
+			{
+				pAttributeToUpdate.setSendingState(eModelState.ExpectedSeen);		
+			}
+			else if (pAttributeToUpdate.getSendingState() == eModelState.NoInformation)
+			{
+				pAttributeToUpdate.setSendingState(eModelState.NotExpectedSeen);
+			}
+			else if (pAttributeToUpdate.getSendingState() == eModelState.NotExpectedNotSeen)
+			{
+				pAttributeToUpdate.setSendingState(eModelState.NotExpectedSeen);
+			}
+		}
+		else
+		{
+			//Increment its counter
+			pAttributeToUpdate.setReceivedCount(pAttributeToUpdate.getReceivedCount() + 1);
 
-					//Update its state
-					if (lAttributeToUpdate.receptionStateProperty().get() == eModelState.ExpectedNotSeen)
-					{
-						lAttributeToUpdate.receptionStateProperty().setValue(eModelState.ExpectedSeen);		
-					}
-					else if (lAttributeToUpdate.receptionStateProperty().get() == eModelState.NoInformation)
-					{
-						lAttributeToUpdate.receptionStateProperty().setValue(eModelState.NotExpectedSeen);
-					}
-					else if (lAttributeToUpdate.receptionStateProperty().get() == eModelState.NotExpectedNotSeen)
-					{
-						lAttributeToUpdate.receptionStateProperty().setValue(eModelState.NotExpectedSeen);
-					}
-				}
+			//Update its state
+			if (pAttributeToUpdate.getReceptionState() == eModelState.ExpectedNotSeen)
+			{
+				pAttributeToUpdate.setReceptionState(eModelState.ExpectedSeen);		
+			}
+			else if (pAttributeToUpdate.getReceptionState() == eModelState.NoInformation)
+			{
+				pAttributeToUpdate.setReceptionState(eModelState.NotExpectedSeen);
+			}
+			else if (pAttributeToUpdate.getReceptionState() == eModelState.NotExpectedNotSeen)
+			{
+				pAttributeToUpdate.setReceptionState(eModelState.NotExpectedSeen);
 			}
 		}
 	}
 
 	/**
-	 * Searched recursively in the tree of DataHLA by name
-	 * @param pFullClassNameSearched Full class name of the data searched
+	 * Index recursively the tree of DataHLA by full class name.
+	 * A full class name is kept for the first node in depth first order, a node before its children.
 	 * @param pCurrentNode Current node of type DataHLA (it's a tree)
-	 * @return DataHLA object which represents the data searched
+	 * @param pCurrentFullClassName Full class name of the parent node
 	 */
-	private DataHLA searchDataHLAByName(String pFullClassNameSearched, DataHLA pCurrentNode, String pCurrentFullClassName)
+	private void indexDataRecursively(DataHLA pCurrentNode, String pCurrentFullClassName)
 	{
-		DataHLA lDataSearched = null;		
 		String lCurrentFullClassName = null;
 
 		//Each node contains only its name, not the full class name from the root (example : physicalentity and its full class name hlaobjectroot.baseentity.physicalentity).
 		//So, it's necessary to build the full class name progressively with the searched in the tree
 		//If the current node is a root, the full class name to test is empty because the name of a root node isn't a part of the full class name
-		if (pCurrentNode.dataTypeProperty().get() == eModelDataHLAType.Root)
+		if (pCurrentNode.getDataType() == eModelDataHLAType.Root)
 		{
 			lCurrentFullClassName = "";
 		}
@@ -140,33 +195,34 @@ public class ResultDataModel
 			//so it's necessary to do a concatenation with a dot
 			if (pCurrentFullClassName != "")
 			{
-				lCurrentFullClassName = pCurrentFullClassName+"."+pCurrentNode.nameProperty().get().toLowerCase();
+				lCurrentFullClassName = pCurrentFullClassName+"."+pCurrentNode.getName().toLowerCase();
 			}
 			//If the current full class name tested is empty, it means the last current node tested was a root,
 			//so it musn't have a dot at start
 			else
 			{
-				lCurrentFullClassName = pCurrentNode.nameProperty().get().toLowerCase();
+				lCurrentFullClassName = pCurrentNode.getName().toLowerCase();
 			}
 		}
 
-		if (lCurrentFullClassName.equals(pFullClassNameSearched) == true)
+		if (mDataByFullClassName.containsKey(lCurrentFullClassName) == false)
 		{
-			lDataSearched = pCurrentNode;
-		}
-		else
-		{		
-			for (DataHLA lCurrentData : pCurrentNode.childrenProperty())
+			IndexedData lIndexedData = new IndexedData();
+			for (DataHLA lChild : pCurrentNode.getChildren())
 			{
-				lDataSearched = searchDataHLAByName(pFullClassNameSearched, lCurrentData, lCurrentFullClassName);
-
-				if (lDataSearched != null)
+				if (lChild.getDataType() == eModelDataHLAType.Attribute)
 				{
-					break;
+					lIndexedData.mAttributes.add(lChild);
+					lIndexedData.mAttributesByName.computeIfAbsent(lChild.getName().toLowerCase(), k -> new ArrayList<IndexedAttribute>(1)).add(new IndexedAttribute(lChild));
 				}
 			}
+			mDataByFullClassName.put(lCurrentFullClassName, lIndexedData);
+		}
+
+		for (DataHLA lCurrentData : pCurrentNode.getChildren())
+		{
+			indexDataRecursively(lCurrentData, lCurrentFullClassName);
 		}
-		return lDataSearched;
 	}
 
 	/**
@@ -186,10 +242,10 @@ public class ResultDataModel
 	 */
 	private int computeMaxDataNameLengthRecursively(DataHLA pCurrentNode, int pCurrentTreeLevel)
 	{
-		int lLengthCurrentNode = (pCurrentTreeLevel*4) + pCurrentNode.nameProperty().get().length() + 5; 
+		int lLengthCurrentNode = (pCurrentTreeLevel*4) + pCurrentNode.getName().length() + 5; 
 		int lMaxLength = lLengthCurrentNode;
 
-		for (DataHLA lCurrentData : pCurrentNode.childrenProperty())
+		for (DataHLA lCurrentData : pCurrentNode.getChildren())
 		{
 			int lLengthChildNode = computeMaxDataNameLengthRecursively(lCurrentData, pCurrentTreeLevel + 1);
 
@@ -211,66 +267,62 @@ public class ResultDataModel
 	 */
 	public StringWrapper writeResults(eBuildResults pBuildResults, StringWrapper pWriter, String pFormatter)
 	{
+		StringBuilder lBuffer = new StringBuilder();
+
 		try 
 		{
-			pWriter.setString(writeResultsRecursively(mDataModel, pWriter, -1, pFormatter, pBuildResults));
+			writeResults(pBuildResults, new ResultsWriter(lBuffer, pFormatter));
 		} 
 		catch (IOException e) 
 		{
 
 		}
 
+		pWriter.setString(lBuffer.toString());
 		return pWriter;
 	}
 
 	/**
-	 * Write the current results into the buffered writer
+	 * Write the current results into the stream of the results writer
+	 * @param pBuildResults Results criteria
+	 * @param pWriter Results writer
+	 * @throws IOException I/O error
+	 */
+	public void writeResults(eBuildResults pBuildResults, ResultsWriter pWriter) throws IOException
+	{
+		pWriter.begin("sentCount", "sendingState", "oldSendingState", "receivedCount", "receptionState", "oldReceptionState");
+		writeResultsRecursively(mDataModel, pWriter, -1, pBuildResults);
+		pWriter.end();
+	}
+
+	/**
+	 * Write the current results into the stream of the results writer
 	 * @param pCurrentNode Node to explore
-	 * @param pWriter Stream into which write current results
+	 * @param pWriter Results writer
 	 * @param pTreeLevel Tree depth level
-	 * @param pFormatter Results format string
 	 * @param pBuildResults Results criteria
-	 * @return String Result element for data
 	 * @throws IOException I/O error
 	 */
-	public String writeResultsRecursively(DataHLA pCurrentNode,
-  										  StringWrapper pWriter,
-	  									  int pTreeLevel,
-		 								  String pFormatter,
-										  eBuildResults pBuildResults) throws IOException
+	private void writeResultsRecursively(DataHLA pCurrentNode,
+										 ResultsWriter pWriter,
+										 int pTreeLevel,
+										 eBuildResults pBuildResults) throws IOException
 	{
-		String lCurrentNodeBuffer = "";
-
-		for (DataHLA lCurrentData : pCurrentNode.childrenProperty())
-		{
-			String lChildrenBuffer = writeResultsRecursively(lCurrentData, pWriter, pTreeLevel + 1, pFormatter, pBuildResults);
-			if (lChildrenBuffer != "")
-			{
-				lCurrentNodeBuffer = lCurrentNodeBuffer+lChildrenBuffer;
-			}
-		}
-
-		String lTabulation = "";
-		for (int i = 0; i < pTreeLevel; i++)
-		{
-			lTabulation += "    ";
-		}			
-
-		if (pCurrentNode.dataTypeProperty().get() == eModelDataHLAType.Attribute)
+		if (pCurrentNode.getDataType() == eModelDataHLAType.Attribute)
 		{			
 			// Ignore RTI reserved attribute
-			if (!pCurrentNode.nameProperty().get().equals("HLAprivilegeToDeleteObject"))
+			if (!pCurrentNode.getName().equals("HLAprivilegeToDeleteObject"))
 			{
-				if ( pCurrentNode.receptionStateProperty().get() == eModelState.NotExpectedSeen 
- 				  || pCurrentNode.receptionStateProperty().get() == eModelState.ExpectedNotSeen 
-				  || pCurrentNode.sendingStateProperty().get() == eModelState.NotExpectedSeen  
-				  || pCurrentNode.sendingStateProperty().get() == eModelState.ExpectedNotSeen	)
+				if ( pCurrentNode.getReceptionState() == eModelState.NotExpectedSeen 
+ 				  || pCurrentNode.getReceptionState() == eModelState.ExpectedNotSeen 
+				  || pCurrentNode.getSendingState() == eModelState.NotExpectedSeen  
+				  || pCurrentNode.getSendingState() == eModelState.ExpectedNotSeen	)
 				{
 					// Data not certificated
 					mValidated = false;
 					if (pBuildResults == eBuildResults.DataNotCertificated)
 					{
-						lCurrentNodeBuffer = FormatResultData(pFormatter, pCurrentNode, lTabulation);
+						writeResultData(pWriter, pCurrentNode, pTreeLevel);
 					}	
 				}
 				else
@@ -279,41 +331,53 @@ public class ResultDataModel
 					if (pBuildResults == eBuildResults.DataCertificated)
 					{
 						// 2017/11/15 ETC FRA V1.3, Capgemini, to avoid "NoInformation" in results files
-						if ((pCurrentNode.sendingStateProperty().get() != eModelState.NoInformation) &&
-							(pCurrentNode.receptionStateProperty().get() != eModelState.NoInformation))
-								lCurrentNodeBuffer = FormatResultData(pFormatter, pCurrentNode, lTabulation);
+						if ((pCurrentNode.getSendingState() != eModelState.NoInformation) &&
+							(pCurrentNode.getReceptionState() != eModelState.NoInformation))
+								writeResultData(pWriter, pCurrentNode, pTreeLevel);
 					}
 				}
 			}
 		}
 		else
 		{
-			if (lCurrentNodeBuffer != "")
+			// The name of the node is written before its first written child
+			pWriter.beginGroup(pCurrentNode.getName(), pTreeLevel);
+			for (DataHLA lCurrentData : pCurrentNode.getChildren())
 			{
-				lCurrentNodeBuffer = lTabulation+pCurrentNode.nameProperty().get()+"\r\n"+lCurrentNodeBuffer;
+				writeResultsRecursively(lCurrentData, pWriter, pTreeLevel + 1, pBuildResults);
 			}
+			pWriter.endGroup();
 		}
-
-		return lCurrentNodeBuffer;
 	}
 
-
-	
 	/**
-	 * @param pFormatter
-	 * @param pCurrentNode
-	 * @param pTabulation
-	 * @return
+	 * Write the row of an attribute
+	 * @param pWriter Results writer
+	 * @param pCurrentNode Attribute to write
+	 * @param pTreeLevel Tree depth level
+	 * @throws IOException I/O error
 	 */
-	private String FormatResultData(String pFormatter, DataHLA pCurrentNode, String pTabulation)
+	private void writeResultData(ResultsWriter pWriter, DataHLA pCurrentNode, int pTreeLevel) throws IOException
 	{
-		String lCurrentNodeBuffer = String.format(pFormatter, 
-				pTabulation+pCurrentNode.nameProperty().get(), 
-				pCurrentNode.sentCountProperty().get(), 
-				"R : "+pCurrentNode.sendingStateProperty().get()+" (D : "+pCurrentNode.oldSendingStateProperty().get()+")", 
-				pCurrentNode.receivedCountProperty().get(), 
-				"R : "+pCurrentNode.receptionStateProperty().get()+" (D : "+pCurrentNode.oldReceptionStateProperty().get()+")");
-		return lCurrentNodeBuffer;
+		if (pWriter.getFormat() == eResultsFormat.Text)
+		{
+			pWriter.writeText(pCurrentNode.getName(), 
+							  pTreeLevel, 
+							  pCurrentNode.getSentCount(), 
+							  "R : "+pCurrentNode.getSendingState()+" (D : "+pCurrentNode.getOldSendingState()+")", 
+							  pCurrentNode.getReceivedCount(), 
+							  "R : "+pCurrentNode.getReceptionState()+" (D : "+pCurrentNode.getOldReceptionState()+")");
+		}
+		else
+		{
+			pWriter.writeRecord(pCurrentNode.getName(), 
+								pCurrentNode.getSentCount(), 
+								pCurrentNode.getSendingState(), 
+								pCurrentNode.getOldSendingState(), 
+								pCurrentNode.getReceivedCount(), 
+								pCurrentNode.getReceptionState(), 
+								pCurrentNode.getOldReceptionState());
+		}
 	}
 	
 	
@@ -332,15 +396,15 @@ public class ResultDataModel
 	 */
 	public void clearResultsRecursively(DataHLA pCurrentNode)
 	{
-		for (DataHLA lCurrentData : pCurrentNode.childrenProperty())
+		for (DataHLA lCurrentData : pCurrentNode.getChildren())
 		{
 			clearResultsRecursively(lCurrentData);
 		}
 
-		pCurrentNode.receptionStateProperty().setValue(pCurrentNode.oldReceptionStateProperty().get());
-		pCurrentNode.sendingStateProperty().setValue(pCurrentNode.oldSendingStateProperty().get()); 
-		pCurrentNode.receivedCountProperty().setValue(0); 
-		pCurrentNode.sentCountProperty().setValue(0); 
+		pCurrentNode.setReceptionState(pCurrentNode.getOldReceptionState());
+		pCurrentNode.setSendingState(pCurrentNode.getOldSendingState()); 
+		pCurrentNode.setReceivedCount(0); 
+		pCurrentNode.setSentCount(0); 
 	}
 
 	/**
@@ -353,12 +417,15 @@ public class ResultDataModel
 	}
 
 	/**
-	 * Set the data model
+	 * Set the data model, the tree of data must be complete
 	 * @param pDataModel DataHLA object which represents the data model
 	 */
 	public void setDataModel(DataHLA pDataModel)
 	{
 		mDataModel = pDataModel;
+
+		mDataByFullClassName = new HashMap<String, IndexedData>();
+		indexDataRecursively(mDataModel, "");
 	}
 	
 	/**
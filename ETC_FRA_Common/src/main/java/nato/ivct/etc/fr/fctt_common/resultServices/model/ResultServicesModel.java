@@ -1,13 +1,16 @@
 package nato.ivct.etc.fr.fctt_common.resultServices.model;
 
 import java.io.IOException;
-import java.util.stream.Collectors;
+import java.util.HashMap;
+import java.util.Map;
 
 import nato.ivct.etc.fr.fctt_common.mainWindow.model.IObjectHLA;
+import nato.ivct.etc.fr.fctt_common.utils.ResultsWriter;
 import nato.ivct.etc.fr.fctt_common.utils.StringWrapper;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eBuildResults;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelServiceHLAType;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelState;
+import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eResultsFormat;
 
 /**
  * Contains data of the results service view
@@ -19,6 +22,11 @@ public class ResultServicesModel
 	 */
 	private ServiceHLA mDataModel;
 	
+	/**
+	 * Services of the data model by method name in lower case
+	 */
+	private Map<String, ServiceHLA> mServicesByMethodName;
+	
 	/**
 	 * Indicates no SOM compliance error
 	 */
@@ -30,6 +38,7 @@ public class ResultServicesModel
 	public ResultServicesModel()
 	{
 		mDataModel = new ServiceHLA();
+		mServicesByMethodName = new HashMap<String, ServiceHLA>();
 		mValidated = true;
 	}
 	
@@ -40,57 +49,45 @@ public class ResultServicesModel
 	public void updateState(String pServiceName)
 	{
 		//Searched the service concerned
-		ServiceHLA lServiceConcerned = searchServiceHLAByName(pServiceName.toLowerCase(), mDataModel);
+		ServiceHLA lServiceConcerned = mServicesByMethodName.get(pServiceName.toLowerCase());
 		
 		if (lServiceConcerned != null)
 		{		
 			//Increment its counter
-			lServiceConcerned.callCountProperty().setValue(lServiceConcerned.callCountProperty().get() + 1);
+			lServiceConcerned.setCallCount(lServiceConcerned.getCallCount() + 1);
 			
 			//Update its state
-			if (lServiceConcerned.stateProperty().get() == eModelState.ExpectedNotSeen)
+			if (lServiceConcerned.getState() == eModelState.ExpectedNotSeen)
 			{
-				lServiceConcerned.stateProperty().setValue(eModelState.ExpectedSeen);		
+				lServiceConcerned.setState(eModelState.ExpectedSeen);		
 			}
-			else if (lServiceConcerned.stateProperty().get() == eModelState.NoInformation)
+			else if (lServiceConcerned.getState() == eModelState.NoInformation)
 			{
-				lServiceConcerned.stateProperty().setValue(eModelState.NotExpectedSeen);
+				lServiceConcerned.setState(eModelState.NotExpectedSeen);
 			}
-			else if (lServiceConcerned.stateProperty().get() == eModelState.NotExpectedNotSeen)
+			else if (lServiceConcerned.getState() == eModelState.NotExpectedNotSeen)
 			{
-				lServiceConcerned.stateProperty().setValue(eModelState.NotExpectedSeen);
+				lServiceConcerned.setState(eModelState.NotExpectedSeen);
 			}
 		}
 	}
 	
 	/**
-	 * Searched recursively in the tree of ServiceHLA by name
-	 * @param pServiceName Name of the service searched
+	 * Index recursively the tree of ServiceHLA by method name.
+	 * A method name is kept for the first node in depth first order, a node before its children.
 	 * @param pCurrentNode Current node of type ServiceHLA (it's a tree)
-	 * @return ServiceHLA object which represents the service searched
 	 */
-	private ServiceHLA searchServiceHLAByName(String pServiceName, ServiceHLA pCurrentNode)
+	private void indexServicesRecursively(ServiceHLA pCurrentNode)
 	{
-		ServiceHLA lServiceSearched = null;
-		
-		if (pCurrentNode.methodsName().stream().map(String::toLowerCase).collect(Collectors.toList()).contains(pServiceName) == true)
+		for (String lMethodName : pCurrentNode.methodsName())
 		{
-			lServiceSearched = pCurrentNode;
-		}
-		else
-		{		
-			for (ServiceHLA lCurrentService : pCurrentNode.childrenProperty())
-			{
-				lServiceSearched = searchServiceHLAByName(pServiceName, lCurrentService);
-				
-				if (lServiceSearched != null)
-				{
-					break;
-				}
-			}
+			mServicesByMethodName.putIfAbsent(lMethodName.toLowerCase(), pCurrentNode);
 		}
 		
-		return lServiceSearched;
+		for (ServiceHLA lCurrentService : pCurrentNode.getChildren())
+		{
+			indexServicesRecursively(lCurrentService);
+		}
 	}
 	
 	/**
@@ -110,10 +107,10 @@ public class ResultServicesModel
 	 */
 	private int computeMaxServiceNameLengthRecursively(ServiceHLA pCurrentNode, int pCurrentTreeLevel)
 	{
-		int lLengthCurrentNode = pCurrentTreeLevel*4 + pCurrentNode.nameProperty().get().length(); 
+		int lLengthCurrentNode = pCurrentTreeLevel*4 + pCurrentNode.getName().length(); 
 		int lMaxLength = lLengthCurrentNode;
 			
-		for (ServiceHLA lCurrentData : pCurrentNode.childrenProperty())
+		for (ServiceHLA lCurrentData : pCurrentNode.getChildren())
 		{
 			int lLengthChildNode = computeMaxServiceNameLengthRecursively(lCurrentData, pCurrentTreeLevel + 1);
 			
@@ -135,66 +132,58 @@ public class ResultServicesModel
 	 */
 	public StringWrapper writeResults(eBuildResults pBuildResults, StringWrapper pWriter, String pFormatter)
 	{
+		StringBuilder lBuffer = new StringBuilder();
+
 		try 
 		{
-			pWriter.setString(writeResultsRecursively(mDataModel, pWriter, 0, pFormatter, pBuildResults));
+			writeResults(pBuildResults, new ResultsWriter(lBuffer, pFormatter));
 		} 
 		catch (IOException e) 
 		{
 
 		}
 		
+		pWriter.setString(lBuffer.toString());
 		return pWriter;
 	}
 	
 	/**
-	 * Write recursively the current results into the StringWrapper
+	 * Write the current results into the stream of the results writer
+	 * @param pBuildResults Action to do
+	 * @param pWriter Results writer
+	 * @throws IOException I/O error
+	 */
+	public void writeResults(eBuildResults pBuildResults, ResultsWriter pWriter) throws IOException
+	{
+		pWriter.begin("callCount", "state", "oldState");
+		writeResultsRecursively(mDataModel, pWriter, 0, pBuildResults);
+		pWriter.end();
+	}
+	
+	/**
+	 * Write recursively the current results into the stream of the results writer
 	 * @param pCurrentNode Node Current node to treat
-	 * @param pWriter Object which stores a string, allows to pass by reference a string
+	 * @param pWriter Results writer
 	 * @param pTreeLevel Indicates the current level on which the recursion works
-	 * @param pFormatter Formatter to write the results
 	 * @param pBuildResults Action to do
-	 * @return String with all results of services
 	 * @throws IOException I/O error
 	 */
-	public String writeResultsRecursively(ServiceHLA pCurrentNode,
-										  StringWrapper pWriter,
-										  int pTreeLevel,
-										  String pFormatter,
-										  eBuildResults pBuildResults) throws IOException
+	private void writeResultsRecursively(ServiceHLA pCurrentNode,
+										 ResultsWriter pWriter,
+										 int pTreeLevel,
+										 eBuildResults pBuildResults) throws IOException
 	{
-		String lCurrentNodeBuffer = "";				
-
-		for (ServiceHLA lCurrentData : pCurrentNode.childrenProperty())
-		{
-			//Go down in the tree until the leafs
-			String lChildrenBuffer = writeResultsRecursively(lCurrentData, pWriter, pTreeLevel + 1, pFormatter, pBuildResults);
-			
-			//If there is at least one child write, concatenates the results in the current node
-			if (lChildrenBuffer != "")
-			{
-				lCurrentNodeBuffer = lCurrentNodeBuffer+lChildrenBuffer;
-			}
-		}
-		
-		//Computes how many tabulation (here a tabulation is 4 spaces) must be displayed according to the level of the tree
-		String lTabulation = "";
-		for (int i = 0; i < pTreeLevel; i++)
-		{
-			lTabulation += "    ";
-		}			
-		
 		//Check if the current node is a service and not a group or a root
-		if (pCurrentNode.serviceTypeProperty().get() == eModelServiceHLAType.Service)
+		if (pCurrentNode.getServiceType() == eModelServiceHLAType.Service)
 		{			
-			if ( pCurrentNode.stateProperty().get() == eModelState.NotExpectedSeen 
-					|| pCurrentNode.stateProperty().get() == eModelState.ExpectedNotSeen )
+			if ( pCurrentNode.getState() == eModelState.NotExpectedSeen 
+					|| pCurrentNode.getState() == eModelState.ExpectedNotSeen )
 			{
 				// Service not certificated
 				mValidated = false;
 				if (pBuildResults == eBuildResults.ServicesNotCertificated)
 				{
-					lCurrentNodeBuffer = FormatResultService(pFormatter, pCurrentNode, lTabulation);
+					writeResultService(pWriter, pCurrentNode, pTreeLevel);
 				}
 			}
 			else
@@ -202,36 +191,47 @@ public class ResultServicesModel
 				// Service certificated
 				if (pBuildResults == eBuildResults.ServicesCertificated)
 				{
-					lCurrentNodeBuffer = FormatResultService(pFormatter, pCurrentNode, lTabulation);
+					writeResultService(pWriter, pCurrentNode, pTreeLevel);
 				}
 			}
 		}
 		//If the current node isn't a service
 		else
 		{
-			//If at least one child of the current node has been written, concatenates the children results and the name of the current node
-			if (lCurrentNodeBuffer != "")
+			//The name of the current node is written before its first written child
+			pWriter.beginGroup(pCurrentNode.getName(), pTreeLevel);
+			for (ServiceHLA lCurrentData : pCurrentNode.getChildren())
 			{
-				lCurrentNodeBuffer = lTabulation+pCurrentNode.nameProperty().get()+"\r\n"+lCurrentNodeBuffer;
+				//Go down in the tree until the leafs
+				writeResultsRecursively(lCurrentData, pWriter, pTreeLevel + 1, pBuildResults);
 			}
+			pWriter.endGroup();
 		}
-		
-		return lCurrentNodeBuffer;
 	}
 
 	/**
-	 * @param pFormatter
-	 * @param pCurrentNode
-	 * @param pTabulation
-	 * @return
+	 * Write the row of a service
+	 * @param pWriter Results writer
+	 * @param pCurrentNode Service to write
+	 * @param pTreeLevel Indicates the level of the service in the tree
+	 * @throws IOException I/O error
 	 */
-	private String FormatResultService(String pFormatter, ServiceHLA pCurrentNode, String pTabulation)
+	private void writeResultService(ResultsWriter pWriter, ServiceHLA pCurrentNode, int pTreeLevel) throws IOException
 	{
-		String lCurrentNodeBuffer = String.format(pFormatter, 
-				pTabulation+pCurrentNode.nameProperty().get(), 
-				pCurrentNode.callCountProperty().get(), 
-				"R : "+pCurrentNode.stateProperty().get()+" (D : "+pCurrentNode.oldStateProperty().get()+")");
-		return lCurrentNodeBuffer;
+		if (pWriter.getFormat() == eResultsFormat.Text)
+		{
+			pWriter.writeText(pCurrentNode.getName(), 
+							  pTreeLevel, 
+							  pCurrentNode.getCallCount(), 
+							  "R : "+pCurrentNode.getState()+" (D : "+pCurrentNode.getOldState()+")");
+		}
+		else
+		{
+			pWriter.writeRecord(pCurrentNode.getName(), 
+								pCurrentNode.getCallCount(), 
+								pCurrentNode.getState(), 
+								pCurrentNode.getOldState());
+		}
 	}
 
 	/**
@@ -248,13 +248,13 @@ public class ResultServicesModel
 	 */
 	public void clearResultsRecursively(ServiceHLA pCurrentNode)
 	{
-		for (ServiceHLA lCurrentData : pCurrentNode.childrenProperty())
+		for (ServiceHLA lCurrentData : pCurrentNode.getChildren())
 		{
 			clearResultsRecursively(lCurrentData);
 		}
 		
-		pCurrentNode.stateProperty().setValue(pCurrentNode.oldStateProperty().get());
-		pCurrentNode.callCountProperty().setValue(0); 
+		pCurrentNode.setState(pCurrentNode.getOldState());
+		pCurrentNode.setCallCount(0); 
 	}
 	
 	/**
@@ -267,12 +267,15 @@ public class ResultServicesModel
 	}
 	
 	/**
-	 * Set the data model
+	 * Set the data model, the tree of services must be complete
 	 * @param pDataModel object which represents the data model
 	 */
 	public void setDataModel(ServiceHLA pDataModel)
 	{
 		mDataModel = pDataModel;
+		
+		mServicesByMethodName = new HashMap<String, ServiceHLA>();
+		indexServicesRecursively(mDataModel);
 	}
 	
 	/**
@@ -8,22 +8,30 @@ import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelServiceHLAType;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelState;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
 /**
- * Represents a HLA Service
+ * Represents a HLA Service.
+ * The data is kept in plain fields, the JavaFX properties for the FCTT GUI are only created
+ * when one of them is asked for (see ServiceHLAProperties).
  */
 public class ServiceHLA implements IObjectHLA
 {
+	/**
+	 * The states by ordinal
+	 */
+	private static final eModelState[] STATES = eModelState.values();
+	
+	/**
+	 * The service types by ordinal
+	 */
+	private static final eModelServiceHLAType[] SERVICE_TYPES = eModelServiceHLAType.values();
+	
 	/**
 	 * Name of the service
 	 */
-	private StringProperty mName;
+	private String mName;
 	
 	/**
 	 * All methods name in lower case which matches with the service
@@ -33,53 +41,40 @@ public class ServiceHLA implements IObjectHLA
 	/**
 	 * Current number of call of this service
 	 */
-	private IntegerProperty mCallCount;
+	private int mCallCount;
 	
 	/**
 	 * Children services if the current object represents a group of services and not a single service
 	 */
-	private ObservableList<ServiceHLA> mChildren;
+	private List<ServiceHLA> mChildren;
 	
 	/**
-	 * Current state of the service
+	 * Current state of the service, as ordinal
 	 */
-	private ObjectProperty<eModelState> mState;
+	private byte mState;
 	
 	/**
-	 * Old state of the service
+	 * Old state of the service, as ordinal
 	 */
-	private ObjectProperty<eModelState> mOldState;
+	private byte mOldState;
 	
 	/**
-	 * Type of the data
+	 * Type of the data, as ordinal
 	 */
-	private ObjectProperty<eModelServiceHLAType> mServiceType;
+	private byte mServiceType;
+	
+	/**
+	 * JavaFX properties of the service, null until a property is asked for.
+	 * Once created, they hold the data instead of the fields above.
+	 */
+	private ServiceHLAProperties mProperties;
 	
 	/**
 	 * Constructor
 	 */
 	public ServiceHLA()
 	{
-		super();
-
-		mName = new SimpleStringProperty();
-		mName.setValue("");
-		
-		mMethodsName = new ArrayList<String>();
-		
-		mCallCount = new SimpleIntegerProperty();
-		mCallCount.setValue(0);
-		
-		mChildren = FXCollections.observableArrayList();
-		
-		mState = new SimpleObjectProperty<eModelState>();
-		mState.setValue(eModelState.NotConcerned);
-		
-		mOldState = new SimpleObjectProperty<eModelState>();
-		mOldState.setValue(eModelState.NotConcerned);
-		
-		mServiceType = new SimpleObjectProperty<eModelServiceHLAType>();
-		mServiceType.setValue(eModelServiceHLAType.Root);
+		this("", null);
 	}
 	
 	/**
@@ -89,9 +84,7 @@ public class ServiceHLA implements IObjectHLA
 	 */
 	public ServiceHLA(String pName, List<String> pMethodsName) 
 	{
-		this();
-		mName = new SimpleStringProperty();
-		mName.setValue(pName);
+		mName = pName;
 		
 		if (pMethodsName != null)
 		{
@@ -102,24 +95,46 @@ public class ServiceHLA implements IObjectHLA
 			mMethodsName = new ArrayList<String>();
 		}
 		
-		mCallCount = new SimpleIntegerProperty();
-		mCallCount.setValue(0);
-		
-		mChildren = FXCollections.observableArrayList();
-		
-		mState = new SimpleObjectProperty<eModelState>();
-		mState.setValue(eModelState.NotConcerned);
-		
-		mOldState = new SimpleObjectProperty<eModelState>();
-		mOldState.setValue(eModelState.NotConcerned);
-		
-		mServiceType = new SimpleObjectProperty<eModelServiceHLAType>();
-		mServiceType.setValue(eModelServiceHLAType.Root);
+		mCallCount = 0;
+		mChildren = new ArrayList<ServiceHLA>();
+		mState = toOrdinal(eModelState.NotConcerned);
+		mOldState = toOrdinal(eModelState.NotConcerned);
+		mServiceType = toOrdinal(eModelServiceHLAType.Root);
 	}
-
-	public StringProperty nameProperty()
+	
+	/**
+	 * @param pValue Enum value, may be null
+	 * @return The ordinal of the value, -1 for null
+	 */
+	private static byte toOrdinal(Enum<?> pValue)
 	{
-		return mName;
+		return pValue == null ? -1 : (byte) pValue.ordinal();
+	}
+	
+	/**
+	 * @param pOrdinal Ordinal of a state, -1 for null
+	 * @return The state
+	 */
+	private static eModelState toState(byte pOrdinal)
+	{
+		return pOrdinal < 0 ? null : STATES[pOrdinal];
+	}
+	
+	public String getName()
+	{
+		return mProperties == null ? mName : mProperties.mName.get();
+	}
+	
+	public void setName(String pName)
+	{
+		if (mProperties == null)
+		{
+			mName = pName;
+		}
+		else
+		{
+			mProperties.mName.set(pName);
+		}
 	}
 	
 	public List<String> methodsName()
@@ -127,28 +142,123 @@ public class ServiceHLA implements IObjectHLA
 		return mMethodsName;
 	}
 	
+	public int getCallCount()
+	{
+		return mProperties == null ? mCallCount : mProperties.mCallCount.get();
+	}
+	
+	public void setCallCount(int pCallCount)
+	{
+		if (mProperties == null)
+		{
+			mCallCount = pCallCount;
+		}
+		else
+		{
+			mProperties.mCallCount.set(pCallCount);
+		}
+	}
+	
+	public eModelState getState()
+	{
+		return mProperties == null ? toState(mState) : mProperties.mState.get();
+	}
+	
+	public void setState(eModelState pState)
+	{
+		if (mProperties == null)
+		{
+			mState = toOrdinal(pState);
+		}
+		else
+		{
+			mProperties.mState.set(pState);
+		}
+	}
+	
+	public eModelState getOldState()
+	{
+		return mProperties == null ? toState(mOldState) : mProperties.mOldState.get();
+	}
+	
+	public void setOldState(eModelState pState)
+	{
+		if (mProperties == null)
+		{
+			mOldState = toOrdinal(pState);
+		}
+		else
+		{
+			mProperties.mOldState.set(pState);
+		}
+	}
+	
+	public List<ServiceHLA> getChildren()
+	{
+		return mProperties == null ? mChildren : mProperties.mChildren;
+	}
+	
+	public eModelServiceHLAType getServiceType()
+	{
+		if (mProperties != null)
+		{
+			return mProperties.mServiceType.get();
+		}
+		return mServiceType < 0 ? null : SERVICE_TYPES[mServiceType];
+	}
+	
+	public void setServiceType(eModelServiceHLAType pServiceType)
+	{
+		if (mProperties == null)
+		{
+			mServiceType = toOrdinal(pServiceType);
+		}
+		else
+		{
+			mProperties.mServiceType.set(pServiceType);
+		}
+	}
+	
+	/**
+	 * Get the JavaFX properties, create them from the fields at the first call
+	 * @return The JavaFX properties of the service
+	 */
+	private ServiceHLAProperties properties()
+	{
+		if (mProperties == null)
+		{
+			mProperties = new ServiceHLAProperties(this);
+		}
+		return mProperties;
+	}
+
+	public StringProperty nameProperty()
+	{
+		return properties().mName;
+	}
+	
 	public IntegerProperty callCountProperty()
 	{
-		return mCallCount;
+		return properties().mCallCount;
 	}
 	
 	public ObjectProperty<eModelState> stateProperty()
 	{
-		return mState;
+		return properties().mState;
 	}	
 	
 	public ObjectProperty<eModelState> oldStateProperty()
 	{
-		return mOldState;
+		return properties().mOldState;
 	}	
 
 	public ObservableList<ServiceHLA> childrenProperty()
 	{
-		return mChildren;
+		return properties().mChildren;
 	}
 	
 	public ObjectProperty<eModelServiceHLAType> serviceTypeProperty()
 	{
-		return mServiceType;
+		return properties().mServiceType;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package nato.ivct.etc.fr.fctt_common.resultServices.model;
+
+import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelServiceHLAType;
+import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelState;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * The JavaFX properties of a ServiceHLA for the FCTT GUI.
+ * Created by the first call of a property method of the ServiceHLA, from then on they hold its data.
+ */
+final class ServiceHLAProperties
+{
+	final StringProperty mName;
+	
+	final IntegerProperty mCallCount;
+	
+	/**
+	 * Backed by the list of children of the ServiceHLA
+	 */
+	final ObservableList<ServiceHLA> mChildren;
+	
+	final ObjectProperty<eModelState> mState;
+	
+	final ObjectProperty<eModelState> mOldState;
+	
+	final ObjectProperty<eModelServiceHLAType> mServiceType;
+	
+	/**
+	 * Constructor
+	 * @param pService The service whose current values are taken
+	 */
+	ServiceHLAProperties(ServiceHLA pService)
+	{
+		mName = new SimpleStringProperty();
+		mName.setValue(pService.getName());
+		
+		mCallCount = new SimpleIntegerProperty();
+		mCallCount.setValue(pService.getCallCount());
+		
+		mChildren = FXCollections.observableList(pService.getChildren());
+		
+		mState = new SimpleObjectProperty<eModelState>();
+		mState.setValue(pService.getState());
+		
+		mOldState = new SimpleObjectProperty<eModelState>();
+		mOldState.setValue(pService.getOldState());
+		
+		mServiceType = new SimpleObjectProperty<eModelServiceHLAType>();
+		mServiceType.setValue(pService.getServiceType());
+	}
+}
@@ -62,6 +62,16 @@ public class FCTT_Constant
 	 * Extension name of report file 
 	 */
 	public static final String REPORT_FILE_NAME_EX			= ".txt"; 
+
+	/**
+	 * Extension name of CSV report file 
+	 */
+	public static final String REPORT_FILE_NAME_EX_CSV		= ".csv"; 
+
+	/**
+	 * Extension name of JSON report file 
+	 */
+	public static final String REPORT_FILE_NAME_EX_JSON		= ".json"; 
 	
 	/**
 	 * Date format for name file 
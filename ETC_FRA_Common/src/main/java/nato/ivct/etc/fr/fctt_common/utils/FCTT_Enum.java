@@ -7,4 +7,5 @@ public class FCTT_Enum
 	public enum eModelDataHLAUpdatingWay { Send, Receive };
 	public enum eModelServiceHLAType { Group, Service, Root };
 	public enum eBuildResults { MaxLengthServices, MaxLengthData, ServicesCertificated, ServicesNotCertificated, DataCertificated, DataNotCertificated };
+	public enum eResultsFormat { Text, Csv, Json };
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package nato.ivct.etc.fr.fctt_common.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+
+import org.slf4j.Logger;
+
+import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eResultsFormat;
+
+/**
+ * Writes the results of one kind (certified or not) into a results file or
+ * a stream: the header in the text format only, then the rows of a results
+ * model through a ResultsWriter.
+ */
+public class ResultsFile
+{
+	/**
+	 * Rows of a results model
+	 */
+	public interface Rows
+	{
+		/**
+		 * Write the rows into the results writer
+		 * @param pWriter Results writer
+		 * @throws IOException I/O error
+		 */
+		void write(ResultsWriter pWriter) throws IOException;
+	}
+
+	/**
+	 * Write the header and the rows into a results file, an error is logged
+	 * @param pFile Results file, UTF-8 encoded
+	 * @param pFormat Format of the results
+	 * @param pHeader Header of the text format, with the column names
+	 * @param pFormatter Results format string
+	 * @param pRows Rows of the results model
+	 * @param pLogger Logger of the error
+	 * @return boolean True if the file is written
+	 */
+	public static boolean save(File pFile, eResultsFormat pFormat, String pHeader, String pFormatter, Rows pRows, Logger pLogger)
+	{
+		try (Writer lWriter = Files.newBufferedWriter(pFile.toPath(), StandardCharsets.UTF_8))
+		{
+			write(lWriter, pFormat, pHeader, pFormatter, pRows);
+			return true;
+		}
+		catch (IOException | InvalidPathException e)
+		{
+			pLogger.error("Cannot write results file " + pFile.getAbsolutePath());
+			return false;
+		}
+	}
+
+	/**
+	 * Write the header and the rows into a stream
+	 * @param pOutput Stream into which write the results
+	 * @param pFormat Format of the results
+	 * @param pHeader Header of the text format, with the column names
+	 * @param pFormatter Results format string
+	 * @param pRows Rows of the results model
+	 * @throws IOException I/O error
+	 */
+	public static void write(Appendable pOutput, eResultsFormat pFormat, String pHeader, String pFormatter, Rows pRows) throws IOException
+	{
+		if (pFormat == eResultsFormat.Text)
+		{
+			pOutput.append(pHeader);
+		}
+		pRows.write(new ResultsWriter(pOutput, pFormat, pFormatter));
+	}
+}
@@ -0,0 +1,411 @@
+package nato.ivct.etc.fr.fctt_common.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.List;
+
+import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eResultsFormat;
+
+/**
+ * Writes the rows of a results tree directly into a stream, as text or as
+ * CSV or JSON records.
+ *
+ * The groups of the tree (object classes, service groups...) are kept
+ * pending and written before the first row below them, so that a group
+ * without any row is not written.
+ */
+public class ResultsWriter
+{
+	/**
+	 * Line separator of the results
+	 */
+	private static final String NEW_LINE = "\r\n";
+
+	/**
+	 * Indentation of one tree level in the text format
+	 */
+	private static final String TABULATION = "    ";
+
+	/**
+	 * Stream into which write the results
+	 */
+	private final Appendable mWriter;
+
+	/**
+	 * Format of the results
+	 */
+	private final eResultsFormat mFormat;
+
+	/**
+	 * Format string of the text rows
+	 */
+	private final String mTextFormat;
+
+	/**
+	 * Formatter of the text rows, created on first use
+	 */
+	private Formatter mFormatter;
+
+	/**
+	 * Value column names of the CSV and JSON records
+	 */
+	private String[] mColumns = new String[0];
+
+	/**
+	 * Names of the groups from the top of the tree to the current node
+	 */
+	private final List<String> mGroups = new ArrayList<String>();
+
+	/**
+	 * Tree level of the first group
+	 */
+	private int mFirstGroupLevel;
+
+	/**
+	 * Number of groups already written in the text format
+	 */
+	private int mWrittenGroups;
+
+	/**
+	 * Number of records written
+	 */
+	private int mRecordCount;
+
+	/**
+	 * Constructor of a text writer
+	 * @param pWriter Stream into which write the results
+	 * @param pTextFormat Format string of the rows, the first argument is the indented name
+	 */
+	public ResultsWriter(Appendable pWriter, String pTextFormat)
+	{
+		this(pWriter, eResultsFormat.Text, pTextFormat);
+	}
+
+	/**
+	 * Constructor
+	 * @param pWriter Stream into which write the results
+	 * @param pFormat Format of the results
+	 * @param pTextFormat Format string of the text rows, the first argument is the indented name
+	 */
+	public ResultsWriter(Appendable pWriter, eResultsFormat pFormat, String pTextFormat)
+	{
+		mWriter = pWriter;
+		mFormat = pFormat;
+		mTextFormat = pTextFormat;
+	}
+
+	/**
+	 * Get the format of the results
+	 * @return eResultsFormat Format of the results
+	 */
+	public eResultsFormat getFormat()
+	{
+		return mFormat;
+	}
+
+	/**
+	 * Start the results, writes the CSV header or opens the JSON array
+	 * @param pColumns Value column names of the CSV and JSON records
+	 * @throws IOException I/O error
+	 */
+	public void begin(String... pColumns) throws IOException
+	{
+		mColumns = pColumns;
+		mGroups.clear();
+		mWrittenGroups = 0;
+		mRecordCount = 0;
+
+		if (mFormat == eResultsFormat.Csv)
+		{
+			mWriter.append("group,name");
+			for (String lColumn : mColumns)
+			{
+				mWriter.append(',').append(lColumn);
+			}
+			mWriter.append(NEW_LINE);
+		}
+		else if (mFormat == eResultsFormat.Json)
+		{
+			mWriter.append('[');
+		}
+	}
+
+	/**
+	 * End the results, closes the JSON array
+	 * @throws IOException I/O error
+	 */
+	public void end() throws IOException
+	{
+		if (mFormat == eResultsFormat.Json)
+		{
+			if (mRecordCount > 0)
+			{
+				mWriter.append(NEW_LINE);
+			}
+			mWriter.append(']').append(NEW_LINE);
+		}
+	}
+
+	/**
+	 * Enter a group of the tree
+	 * @param pName Group name
+	 * @param pTreeLevel Tree depth level of the group
+	 */
+	public void beginGroup(String pName, int pTreeLevel)
+	{
+		if (mGroups.isEmpty())
+		{
+			mFirstGroupLevel = pTreeLevel;
+		}
+		mGroups.add(pName);
+	}
+
+	/**
+	 * Leave the current group of the tree
+	 */
+	public void endGroup()
+	{
+		mGroups.remove(mGroups.size() - 1);
+		if (mWrittenGroups > mGroups.size())
+		{
+			mWrittenGroups = mGroups.size();
+		}
+	}
+
+	/**
+	 * Write a row in the text format, after the pending groups
+	 * @param pName Row name
+	 * @param pTreeLevel Tree depth level of the row
+	 * @param pValues Format arguments after the indented name
+	 * @throws IOException I/O error
+	 */
+	public void writeText(String pName, int pTreeLevel, Object... pValues) throws IOException
+	{
+		for (; mWrittenGroups < mGroups.size(); mWrittenGroups++)
+		{
+			appendTabulation(mFirstGroupLevel + mWrittenGroups);
+			mWriter.append(mGroups.get(mWrittenGroups)).append(NEW_LINE);
+		}
+
+		if (mFormatter == null)
+		{
+			mFormatter = new Formatter(mWriter);
+		}
+
+		Object[] lArgs = new Object[pValues.length + 1];
+		lArgs[0] = tabulation(pTreeLevel) + pName;
+		System.arraycopy(pValues, 0, lArgs, 1, pValues.length);
+		mFormatter.format(mTextFormat, lArgs);
+		if (mFormatter.ioException() != null)
+		{
+			throw mFormatter.ioException();
+		}
+	}
+
+	/**
+	 * Write a CSV or JSON record, the group is the path of the current groups
+	 * @param pName Row name
+	 * @param pValues Values of the columns given to begin
+	 * @throws IOException I/O error
+	 */
+	public void writeRecord(String pName, Object... pValues) throws IOException
+	{
+		String lGroup = groupPath();
+
+		if (mFormat == eResultsFormat.Csv)
+		{
+			appendCsv(lGroup);
+			mWriter.append(',');
+			appendCsv(pName);
+			for (Object lValue : pValues)
+			{
+				mWriter.append(',');
+				appendCsv(lValue == null ? "" : lValue.toString());
+			}
+			mWriter.append(NEW_LINE);
+		}
+		else if (mFormat == eResultsFormat.Json)
+		{
+			mWriter.append(mRecordCount > 0 ? "," : "").append(NEW_LINE);
+			mWriter.append("{\"group\":");
+			appendJson(lGroup);
+			mWriter.append(",\"name\":");
+			appendJson(pName);
+			for (int i = 0; i < pValues.length && i < mColumns.length; i++)
+			{
+				mWriter.append(',');
+				appendJson(mColumns[i]);
+				mWriter.append(':');
+				if (pValues[i] == null)
+				{
+					mWriter.append("null");
+				}
+				else if (pValues[i] instanceof Number)
+				{
+					mWriter.append(pValues[i].toString());
+				}
+				else
+				{
+					appendJson(pValues[i].toString());
+				}
+			}
+			mWriter.append('}');
+		}
+		mRecordCount++;
+	}
+
+	/**
+	 * @param pFormat Format of the results
+	 * @return String Extension name of the results file
+	 */
+	public static String getFileExtension(eResultsFormat pFormat)
+	{
+		switch (pFormat)
+		{
+		case Csv :
+			return FCTT_Constant.REPORT_FILE_NAME_EX_CSV;
+		case Json :
+			return FCTT_Constant.REPORT_FILE_NAME_EX_JSON;
+		default :
+			return FCTT_Constant.REPORT_FILE_NAME_EX;
+		}
+	}
+
+	/**
+	 * @param pValue Format name, case insensitive
+	 * @return eResultsFormat Format, null if unknown
+	 */
+	public static eResultsFormat parseFormat(String pValue)
+	{
+		for (eResultsFormat lFormat : eResultsFormat.values())
+		{
+			if (lFormat.name().equalsIgnoreCase(pValue))
+			{
+				return lFormat;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param pTreeLevel Tree depth level
+	 * @return String Indentation of the level
+	 */
+	private static String tabulation(int pTreeLevel)
+	{
+		StringBuilder lTabulation = new StringBuilder();
+		for (int i = 0; i < pTreeLevel; i++)
+		{
+			lTabulation.append(TABULATION);
+		}
+		return lTabulation.toString();
+	}
+
+	/**
+	 * @param pTreeLevel Tree depth level
+	 * @throws IOException I/O error
+	 */
+	private void appendTabulation(int pTreeLevel) throws IOException
+	{
+		for (int i = 0; i < pTreeLevel; i++)
+		{
+			mWriter.append(TABULATION);
+		}
+	}
+
+	/**
+	 * @return String Non empty names of the current groups separated by dots
+	 */
+	private String groupPath()
+	{
+		StringBuilder lPath = new StringBuilder();
+		for (String lGroup : mGroups)
+		{
+			if (!lGroup.isEmpty())
+			{
+				if (lPath.length() > 0)
+				{
+					lPath.append('.');
+				}
+				lPath.append(lGroup);
+			}
+		}
+		return lPath.toString();
+	}
+
+	/**
+	 * Write a CSV field, quoted if needed
+	 * @param pValue Field value
+	 * @throws IOException I/O error
+	 */
+	private void appendCsv(String pValue) throws IOException
+	{
+		boolean lQuoted = false;
+		for (int i = 0; i < pValue.length() && !lQuoted; i++)
+		{
+			char lChar = pValue.charAt(i);
+			lQuoted = (lChar == ',' || lChar == '"' || lChar == '\r' || lChar == '\n');
+		}
+
+		if (!lQuoted)
+		{
+			mWriter.append(pValue);
+			return;
+		}
+
+		mWriter.append('"');
+		for (int i = 0; i < pValue.length(); i++)
+		{
+			char lChar = pValue.charAt(i);
+			if (lChar == '"')
+			{
+				mWriter.append('"');
+			}
+			mWriter.append(lChar);
+		}
+		mWriter.append('"');
+	}
+
+	/**
+	 * Write a JSON string
+	 * @param pValue String value
+	 * @throws IOException I/O error
+	 */
+	private void appendJson(String pValue) throws IOException
+	{
+		mWriter.append('"');
+		for (int i = 0; i < pValue.length(); i++)
+		{
+			char lChar = pValue.charAt(i);
+			switch (lChar)
+			{
+			case '"' :
+				mWriter.append("\\\"");
+				break;
+			case '\\' :
+				mWriter.append("\\\\");
+				break;
+			case '\r' :
+				mWriter.append("\\r");
+				break;
+			case '\n' :
+				mWriter.append("\\n");
+				break;
+			case '\t' :
+				mWriter.append("\\t");
+				break;
+			default :
+				if (lChar < 0x20)
+				{
+					mWriter.append(String.format("\\u%04x", (int) lChar));
+				}
+				else
+				{
+					mWriter.append(lChar);
+				}
+			}
+		}
+		mWriter.append('"');
+	}
+}
@@ -0,0 +1,312 @@
+package nato.ivct.etc.fr.fctt_common.federate;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Compares FCTTArgumentTokenizer and FCTTParse with the former regular
+ * expression and replace/split code of FCTTParse and the Object and
+ * Declaration base models.
+ */
+public class FCTTArgumentTokenizerTest
+{
+	/**
+	 * Corner cases of the MAK RTI arguments and of getS1
+	 */
+	private static final String[] MAK_CASES =
+	{
+		"AttributeHandleSet{AttributeHandle(1), AttributeHandle(2)}",
+		"AttributeHandleSet{}",
+		"AttributeHandleSet{ }",
+		"",
+		"no braces",
+		"{a,b}",
+		"x {a}",
+		"_{a}",
+		"9{a}",
+		"\u00e9{a}",
+		// Greedy up to the last brace of the line
+		"a{b{c}d}",
+		"a{b}}",
+		"a{b}c{d}",
+		// \w+\{ backtracking: the first S1{ has no closing brace on its line
+		"a{b\n}c{d}",
+		"a{b,c",
+		"aa{b{c",
+		"a{{b}",
+		// Unicode line terminators end the match
+		"a{b}\nc{d}",
+		"a{b\r\n}",
+		"a{b}\r}",
+		"a{b\u0085}",
+		"a{b}\u0085}",
+		"a{b\u2028}",
+		"a{b}\u2029}",
+		"a{b\u2028}c{d}",
+		// Trailing empty tokens and trimming
+		"a{x,y,,}",
+		"a{,,}",
+		"a{,}",
+		"a{,x}",
+		"a{x, }",
+		"a{ x , y }",
+		"a{\tx\t,\ty\t}",
+		"a{x,,y}",
+	};
+
+	/**
+	 * Corner cases of the Pitch RTI arguments
+	 */
+	private static final String[] PITCH_CASES =
+	{
+		"{1,2,3}",
+		"{{1,12},{2,12}}",
+		"{}",
+		"",
+		"{ }",
+		"{ {} }",
+		"{ a , b }",
+		"{a,,b}",
+		"{a,b,,}",
+		"{a,}",
+		"{a, }",
+		"{a,{}}",
+		",",
+		"{,}",
+		",,a",
+		// Braces inside the tokens
+		"{a{b},c}",
+		"{a, {b} ,c}",
+		"{a}{b}",
+		"{a} {b},c",
+		"{{a} x {b}}",
+		"a\n,b\u2028",
+	};
+
+	/**
+	 * Corner cases of decodeParam2
+	 */
+	private static final String[] PARAM2_CASES =
+	{
+		"AttributeHandle(12)",
+		"A(1)(2)",
+		"A(x)",
+		"A()",
+		"A(12)x",
+		"A(1)x(y)",
+		"(5)",
+		"A(\uff11)",
+		"A(1)\nB(2)",
+		"A\nB(2)",
+		"A(1\n)B(2)",
+		"A(1)\u2028B(2)",
+		"A\u0085B(2)",
+		"A\r\n(3)",
+		"",
+		"(",
+		"A((1))",
+	};
+
+	/**
+	 * The former FCTTParse.getS1
+	 * @param pString String formatted like S1{S2(S3)}
+	 * @return String S2(S3)
+	 */
+	private static String regexGetS1(String pString)
+	{
+		String retValue = "";
+		Pattern p = Pattern.compile("\\w+\\{(.*)\\}");
+		Matcher m = p.matcher(pString);
+		if (m.find() && m.groupCount() == 1)
+		{
+			retValue = m.group(1);
+		}
+		return retValue;
+	}
+
+	/**
+	 * The former FCTTParse.decodeParam2
+	 * @param pString String formatted like S2(N1)
+	 * @param pInd 1 for S2, 2 for N1
+	 * @return String S2 or N1
+	 */
+	private static String regexDecodeParam2(String pString, int pInd)
+	{
+		String retValue = "";
+		Pattern p = Pattern.compile("(.*)\\((\\d+)\\)");
+		Matcher m = p.matcher(pString);
+		if (m.find() && m.groupCount() == 2)
+		{
+			retValue = m.group(pInd);
+		}
+		return retValue;
+	}
+
+	/**
+	 * The former MAK code of the base models
+	 * @param pString Argument to split
+	 * @return String[] Trimmed tokens
+	 */
+	private static String[] splitMak(String pString)
+	{
+		String[] lSplit = regexGetS1(pString).split(",");
+		for (int i = 0; i < lSplit.length; i++)
+		{
+			lSplit[i] = lSplit[i].trim();
+		}
+		return lSplit;
+	}
+
+	/**
+	 * The former Pitch code of the base models
+	 * @param pString Argument to split
+	 * @return String[] Trimmed tokens
+	 */
+	private static String[] splitPitch(String pString)
+	{
+		String lAttributesFull = pString;
+		lAttributesFull = lAttributesFull.replace("{", "");
+		lAttributesFull = lAttributesFull.replace("}", "");
+		String[] lSplit = lAttributesFull.split(",");
+		for (int i = 0; i < lSplit.length; i++)
+		{
+			lSplit[i] = lSplit[i].trim();
+		}
+		return lSplit;
+	}
+
+	/**
+	 * @param pTokenizer Tokenizer after tokenizing
+	 * @param pCount Number of tokens
+	 * @return String[] Tokens, checked to be the same as String and as CharSequence
+	 */
+	private static String[] tokens(FCTTArgumentTokenizer pTokenizer, int pCount)
+	{
+		assertEquals(pCount, pTokenizer.getTokenCount());
+		String[] lTokens = new String[pCount];
+		for (int i = 0; i < pCount; i++)
+		{
+			lTokens[i] = pTokenizer.getTokenString(i);
+			assertEquals(lTokens[i], pTokenizer.getToken(i).toString());
+		}
+		return lTokens;
+	}
+
+	private static void checkMak(FCTTArgumentTokenizer pTokenizer, String pString)
+	{
+		String lMessage = escape(pString);
+		assertEquals(lMessage, regexGetS1(pString), FCTTArgumentTokenizer.getS1(pString));
+		assertEquals(lMessage, regexGetS1(pString), FCTTParse.getS1(pString));
+		assertArrayEquals(lMessage, splitMak(pString), tokens(pTokenizer, pTokenizer.tokenizeMak(pString)));
+	}
+
+	private static void checkPitch(FCTTArgumentTokenizer pTokenizer, String pString)
+	{
+		assertArrayEquals(escape(pString), splitPitch(pString), tokens(pTokenizer, pTokenizer.tokenizePitch(pString)));
+	}
+
+	private static void checkParam2(String pString)
+	{
+		String lMessage = escape(pString);
+		assertEquals(lMessage, regexDecodeParam2(pString, 1), FCTTParse.decodeParam2(pString, 1));
+		assertEquals(lMessage, regexDecodeParam2(pString, 2), FCTTParse.decodeParam2(pString, 2));
+	}
+
+	/**
+	 * @param pString String to show in a failure message
+	 * @return String The string with the control and non ASCII characters escaped
+	 */
+	private static String escape(String pString)
+	{
+		StringBuilder lBuilder = new StringBuilder("\"");
+		for (int i = 0; i < pString.length(); i++)
+		{
+			char lChar = pString.charAt(i);
+			if ((lChar < ' ') || (lChar > '~'))
+			{
+				lBuilder.append(String.format("\\u%04x", (int) lChar));
+			}
+			else
+			{
+				lBuilder.append(lChar);
+			}
+		}
+		return lBuilder.append('"').toString();
+	}
+
+	@Test
+	public void testMakCases()
+	{
+		FCTTArgumentTokenizer lTokenizer = new FCTTArgumentTokenizer();
+		for (String lCase : MAK_CASES)
+		{
+			checkMak(lTokenizer, lCase);
+		}
+	}
+
+	@Test
+	public void testPitchCases()
+	{
+		FCTTArgumentTokenizer lTokenizer = new FCTTArgumentTokenizer();
+		for (String lCase : PITCH_CASES)
+		{
+			checkPitch(lTokenizer, lCase);
+		}
+	}
+
+	@Test
+	public void testDecodeParam2Cases()
+	{
+		for (String lCase : PARAM2_CASES)
+		{
+			checkParam2(lCase);
+		}
+		// Through getS2 and getS3
+		assertEquals("AttributeHandle", FCTTParse.getS2("AttributeHandleSet{AttributeHandle(12)}"));
+		assertEquals("12", FCTTParse.getS3("AttributeHandleSet{AttributeHandle(12)}"));
+	}
+
+	@Test
+	public void testManyTokens()
+	{
+		// More tokens than the initial capacity, one tokenizer reused for shorter strings
+		FCTTArgumentTokenizer lTokenizer = new FCTTArgumentTokenizer();
+		StringBuilder lMak = new StringBuilder("AttributeHandleSet{");
+		StringBuilder lPitch = new StringBuilder("{");
+		for (int i = 1; i <= 100; i++)
+		{
+			lMak.append(i > 1 ? ", " : "").append("AttributeHandle(").append(i).append(')');
+			lPitch.append(i > 1 ? "," : "").append('{').append(i).append(",12}");
+		}
+		checkMak(lTokenizer, lMak.append('}').toString());
+		checkPitch(lTokenizer, lPitch.append('}').toString());
+		checkMak(lTokenizer, MAK_CASES[0]);
+		checkPitch(lTokenizer, PITCH_CASES[1]);
+	}
+
+	@Test
+	public void testRandomStrings()
+	{
+		char[] lAlphabet = {'a', '1', '_', '{', '}', '(', ')', ',', ' ', '\t', '\n', '\r', '\u0085', '\u2028', '\u2029', '\u00e9'};
+		Random lRandom = new Random(1516);
+		FCTTArgumentTokenizer lTokenizer = new FCTTArgumentTokenizer();
+		for (int n = 0; n < 20000; n++)
+		{
+			char[] lChars = new char[lRandom.nextInt(16)];
+			for (int i = 0; i < lChars.length; i++)
+			{
+				lChars[i] = lAlphabet[lRandom.nextInt(lAlphabet.length)];
+			}
+			String lString = new String(lChars);
+			checkMak(lTokenizer, lString);
+			checkPitch(lTokenizer, lString);
+			checkParam2(lString);
+		}
+	}
+}
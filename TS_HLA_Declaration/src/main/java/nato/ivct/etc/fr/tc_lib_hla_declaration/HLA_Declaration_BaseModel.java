@@ -67,15 +67,17 @@ import hla.rti1516e.exceptions.SaveInProgress;
 import hla.rti1516e.exceptions.UnsupportedCallbackModel;
 
 import nato.ivct.etc.fr.fctt_common.configuration.controller.validation.FCTTFilesCheck;
+import nato.ivct.etc.fr.fctt_common.federate.FCTTArgumentTokenizer;
 import nato.ivct.etc.fr.fctt_common.federate.FCTTHandleList;
 import nato.ivct.etc.fr.fctt_common.federate.FCTTParse;
 import nato.ivct.etc.fr.fctt_common.resultData.model.DataHLA;
 import nato.ivct.etc.fr.fctt_common.resultData.model.ResultDataModel;
-import nato.ivct.etc.fr.fctt_common.utils.FCTT_Constant;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eBuildResults;
+import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eResultsFormat;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eModelDataHLAUpdatingWay;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Environment;
-import nato.ivct.etc.fr.fctt_common.utils.StringWrapper;
+import nato.ivct.etc.fr.fctt_common.utils.ResultsFile;
+import nato.ivct.etc.fr.fctt_common.utils.ResultsWriter;
 import nato.ivct.etc.fr.fctt_common.utils.TextInternationalization;
 
 import org.slf4j.Logger;
@@ -125,6 +127,11 @@ public class HLA_Declaration_BaseModel extends IVCT_BaseModel {
 	 * of the FOM
 	 */
 	protected FCTTHandleList 		handleList;
+
+	/**
+	 * Tokenizer of the MOM report arguments, used by the interaction callbacks
+	 */
+	private final FCTTArgumentTokenizer argumentTokenizer = new FCTTArgumentTokenizer();
 	 
     /**
      * @param logger reference to a logger
@@ -147,9 +154,9 @@ public class HLA_Declaration_BaseModel extends IVCT_BaseModel {
         this.HlaResultDataModel = null;
 
     	// Generate result files
-		String certifiedDataFileName = "HLA_Declaration_certified_data_" + FCTT_Environment.getDateForFileName() + FCTT_Constant.REPORT_FILE_NAME_EX;
+		String certifiedDataFileName = "HLA_Declaration_certified_data_" + FCTT_Environment.getDateForFileName() + ResultsWriter.getFileExtension(HlaDeclarationTcParam.getResultsFormat());
 		certifiedDataResultFile = new File(HlaDeclarationTcParam.getResultDir() + File.separator + certifiedDataFileName);        
-		String nonCertifiedDataFileName = "HLA_Declaration_non_certified_data_" + FCTT_Environment.getDateForFileName() + FCTT_Constant.REPORT_FILE_NAME_EX;
+		String nonCertifiedDataFileName = "HLA_Declaration_non_certified_data_" + FCTT_Environment.getDateForFileName() + ResultsWriter.getFileExtension(HlaDeclarationTcParam.getResultsFormat());
 		nonCertifiedDataResultFile = new File(HlaDeclarationTcParam.getResultDir() + File.separator + nonCertifiedDataFileName);        
 
         // TC local HLAunicodeString factory
@@ -324,42 +331,23 @@ public class HLA_Declaration_BaseModel extends IVCT_BaseModel {
 		try {
 			// Format output
 	    	int lMaxLengthData = HlaResultDataModel.computeMaxDataNameLength();
-	    	StringWrapper fileWriter = new StringWrapper("");
 	    	String formatter = "%-" + lMaxLengthData + "s %-5s %-45s %-5s %-45s%n";
-			String headerFormatter = "%-"+lMaxLengthData+"s %-50s %-50s%n";
+	    	String headerFormatter = "%-"+lMaxLengthData+"s %-50s %-50s%n";
 
 	    	// Write result files
-	    	String result;
+	    	String lColumns = String.format(headerFormatter, "", TextInternationalization.getString("resultsFile.headerColumns.data.sending"), TextInternationalization.getString("resultsFile.headerColumns.data.reception"));
+	    	String lCertifiedHeader = saveResultsWriteHeader(lCurrentDate, eBuildResults.DataCertificated) + lColumns;
+	    	String lNonCertifiedHeader = saveResultsWriteHeader(lCurrentDate, eBuildResults.DataNotCertificated) + lColumns;
+	    	ResultsFile.Rows lCertifiedRows = lWriter -> HlaResultDataModel.writeResults(eBuildResults.DataCertificated, lWriter);
+	    	ResultsFile.Rows lNonCertifiedRows = lWriter -> HlaResultDataModel.writeResults(eBuildResults.DataNotCertificated, lWriter);
+	    	ResultsFile.save(certifiedDataResultFile, tcParams.getResultsFormat(), lCertifiedHeader, formatter, lCertifiedRows, logger);
+	    	ResultsFile.save(nonCertifiedDataResultFile, tcParams.getResultsFormat(), lNonCertifiedHeader, formatter, lNonCertifiedRows, logger);
+
+	    	// Log results and results filenames
 	    	StringBuilder results = new StringBuilder("\n\n");
-	    	result = saveResultsWriteHeader(lCurrentDate, eBuildResults.DataCertificated);
-	    	results.append(result);
-			// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-	    	result = String.format(headerFormatter, "", TextInternationalization.getString("resultsFile.headerColumns.data.sending"), TextInternationalization.getString("resultsFile.headerColumns.data.reception"));
-	    	results.append(result);
-			// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-	    	result = HlaResultDataModel.writeResults(eBuildResults.DataCertificated, fileWriter, formatter).getString();
-	    	results.append(result);
-			// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-	    	
-			result = saveResultsWriteHeader(lCurrentDate, eBuildResults.DataNotCertificated);
-			results.append(result);
-			// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-	    	result = String.format(headerFormatter, "", TextInternationalization.getString("resultsFile.headerColumns.data.sending"), TextInternationalization.getString("resultsFile.headerColumns.data.reception"));
-	    	results.append(result);
-			// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-	    	result = HlaResultDataModel.writeResults(eBuildResults.DataNotCertificated, fileWriter, formatter).getString();
-	    	results.append(result);
+	    	ResultsFile.write(results, eResultsFormat.Text, lCertifiedHeader, formatter, lCertifiedRows);
+	    	ResultsFile.write(results, eResultsFormat.Text, lNonCertifiedHeader, formatter, lNonCertifiedRows);
 	    	results.append("\n\n");
-			// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-			
-			// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// Log results filenames
 	    	logger.info(results.toString());
 			logger.info(TextInternationalization.getString("etc_fra.lookAtResultsFiles")); 
 			logger.info(" - " + certifiedDataResultFile.getAbsolutePath()); 
@@ -496,12 +484,11 @@ public class HLA_Declaration_BaseModel extends IVCT_BaseModel {
 				    			String objectClassFull = handleList.getObjectClassName(FCTTParse.getS1(objectClass.getValue().trim()));
 				    			// Attributes
 				    			HLAunicodeString attributes = (HLAunicodeString) objectClassDecoder.get(1);
-				    			String lAttributesFull = FCTTParse.getS1(attributes.getValue());
-				    			String[] lAttributesFullSplit = lAttributesFull.split(",");		    		
+				    			int lAttributesCount = argumentTokenizer.tokenizeMak(attributes.getValue());
 			    				// Attributes names
-				    			ArrayList<String> lAttributes = new ArrayList<String>();
-				    			for (int i = 0; i < lAttributesFullSplit.length; i++)
-			    					lAttributes.add(handleList.getAttributeClassName(objectClassFull,lAttributesFullSplit[i].trim()).toLowerCase());
+				    			ArrayList<String> lAttributes = new ArrayList<String>(lAttributesCount);
+				    			for (int i = 0; i < lAttributesCount; i++)
+			    					lAttributes.add(handleList.getAttributeClassName(objectClassFull,argumentTokenizer.getTokenString(i)).toLowerCase());
 // 								logger.debug("publishObjectClass " + objectClassFull);
                                 // Update datas
 			    				HlaResultDataModel.updateState(objectClassFull,lAttributes,eModelDataHLAUpdatingWay.Send);
@@ -515,14 +502,11 @@ public class HLA_Declaration_BaseModel extends IVCT_BaseModel {
 				    			String objectClassFull = handleList.getObjectClassName(objectClass.getValue().trim());
 				    			// Attributes
 				    			HLAunicodeString attributes = (HLAunicodeString) objectClassDecoder.get(1);
-				    			String lAttributesFull = attributes.getValue();
-				    			lAttributesFull = lAttributesFull.replace("{", "");
-				    			lAttributesFull = lAttributesFull.replace("}", "");
-				    			String[] lAttributesFullSplit = lAttributesFull.split(",");		    		
+				    			int lAttributesCount = argumentTokenizer.tokenizePitch(attributes.getValue());
 			    				// Attributes names
-				    			ArrayList<String> lAttributes = new ArrayList<String>();
-				    			for (int i = 0; i < lAttributesFullSplit.length; i++)
-			    					lAttributes.add(handleList.getAttributeClassName(objectClassFull,lAttributesFullSplit[i].trim()).toLowerCase());
+				    			ArrayList<String> lAttributes = new ArrayList<String>(lAttributesCount);
+				    			for (int i = 0; i < lAttributesCount; i++)
+			    					lAttributes.add(handleList.getAttributeClassName(objectClassFull,argumentTokenizer.getTokenString(i)).toLowerCase());
 //								logger.debug("publishObjectClass " + objectClassFull);
                                 // Update datas
 			    				HlaResultDataModel.updateState(objectClassFull,lAttributes,eModelDataHLAUpdatingWay.Send);
@@ -538,12 +522,11 @@ public class HLA_Declaration_BaseModel extends IVCT_BaseModel {
 				    			String objectClassFull = handleList.getObjectClassName(FCTTParse.getS1(objectClass.getValue().trim()));
 				    			// Attributes
 				    			HLAunicodeString attributes = (HLAunicodeString) objectClassDecoder.get(1);
-				    			String lAttributesFull = FCTTParse.getS1(attributes.getValue());
-				    			String[] lAttributesFullSplit = lAttributesFull.split(",");		    		
+				    			int lAttributesCount = argumentTokenizer.tokenizeMak(attributes.getValue());
 			    				// Attributes names
-				    			ArrayList<String> lAttributes = new ArrayList<String>();
-				    			for (int i = 0; i < lAttributesFullSplit.length; i++)
-			    					lAttributes.add(handleList.getAttributeClassName(objectClassFull,lAttributesFullSplit[i].trim()).toLowerCase());
+				    			ArrayList<String> lAttributes = new ArrayList<String>(lAttributesCount);
+				    			for (int i = 0; i < lAttributesCount; i++)
+			    					lAttributes.add(handleList.getAttributeClassName(objectClassFull,argumentTokenizer.getTokenString(i)).toLowerCase());
 //								logger.debug("subscribeObjectClass " + objectClassFull);
 				    			// Update datas
 			    				HlaResultDataModel.updateState(objectClassFull,lAttributes,eModelDataHLAUpdatingWay.Receive);
@@ -556,14 +539,11 @@ public class HLA_Declaration_BaseModel extends IVCT_BaseModel {
 				    			String objectClassFull = handleList.getObjectClassName(objectClass.getValue().trim());
 				    			// Attributes
 				    			HLAunicodeString attributes = (HLAunicodeString) objectClassDecoder.get(1);
-				    			String lAttributesFull = attributes.getValue();
-				    			lAttributesFull = lAttributesFull.replace("{", "");
-				    			lAttributesFull = lAttributesFull.replace("}", "");
-				    			String[] lAttributesFullSplit = lAttributesFull.split(",");		    		
+				    			int lAttributesCount = argumentTokenizer.tokenizePitch(attributes.getValue());
 			    				// Attributes names
-				    			ArrayList<String> lAttributes = new ArrayList<String>();
-				    			for (int i = 0; i < lAttributesFullSplit.length; i++)
-			    					lAttributes.add(handleList.getAttributeClassName(objectClassFull,lAttributesFullSplit[i].trim()).toLowerCase());
+				    			ArrayList<String> lAttributes = new ArrayList<String>(lAttributesCount);
+				    			for (int i = 0; i < lAttributesCount; i++)
+			    					lAttributes.add(handleList.getAttributeClassName(objectClassFull,argumentTokenizer.getTokenString(i)).toLowerCase());
 //								logger.debug("subscribeObjectClass " + objectClassFull);
 				    			// Update datas
 			    				HlaResultDataModel.updateState(objectClassFull,lAttributes,eModelDataHLAUpdatingWay.Receive);
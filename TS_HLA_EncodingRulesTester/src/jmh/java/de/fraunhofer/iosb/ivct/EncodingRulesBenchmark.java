@@ -0,0 +1,93 @@
+package de.fraunhofer.iosb.ivct;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.fraunhofer.iosb.tc_lib_encodingrulestester.EncodingRulesException;
+import de.fraunhofer.iosb.tc_lib_encodingrulestester.HlaDataType;
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.ObjectClassHandle;
+
+/**
+ * Throughput of the buffer tests of representative RPR 2.0 attribute data
+ * types, both through the data type map and through the compiled data types.
+ *
+ * The data types are read from src/test/resources/RPR_FOM_v2.0_1516-2010.xml
+ * by AllTests.initDataTypeTree, the buffers are those of the unit tests.
+ * Run with: gradle :TS_HLA_EncodingRulesTester:jmh (adds -prof gc for the
+ * allocation rate per data type).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingRulesBenchmark {
+	// object class, attribute and a correctly encoded buffer in hex per benchmarked attribute
+	private static final Map<String, String[]> FIXTURES = new HashMap<String, String[]>();
+
+	static {
+		FIXTURES.put("EmitterType", new String[] {"HLAobjectRoot.EmbeddedSystem.EmitterSystem", "EmitterType", "0799"});
+		FIXTURES.put("HostObjectIdentifier", new String[] {"HLAobjectRoot.EmbeddedSystem.EmitterSystem", "HostObjectIdentifier", "565246466564657261746548616e646c653c323e3a313100"});
+		FIXTURES.put("EntityType", new String[] {"HLAobjectRoot.BaseEntity.PhysicalEntity.Platform.SurfaceVessel", "EntityType", "0103000d06010100"});
+		FIXTURES.put("EntityIdentifier", new String[] {"HLAobjectRoot.BaseEntity.PhysicalEntity.Platform.SurfaceVessel", "EntityIdentifier", "000100020001"});
+		FIXTURES.put("Marking", new String[] {"HLAobjectRoot.BaseEntity.PhysicalEntity.Platform.SurfaceVessel", "Marking", "015368697000000000000000"});
+		FIXTURES.put("Spatial", new String[] {"HLAobjectRoot.BaseEntity.PhysicalEntity.Platform.SurfaceVessel", "Spatial", "02000000000000004147da516c52598c415237f0d19471f84145a30bb6566d9d00000000bf14623824fc8df1400236a24105ddf4c0af4455a6ecc512"});
+		FIXTURES.put("TrackObjectIdentifiers", new String[] {"HLAobjectRoot.EmitterBeam.RadarBeam", "TrackObjectIdentifiers", "00000002484c416f626a6563743c313e00484c416f626a6563743c32323e00"});
+	}
+
+	@Param({"EmitterType", "HostObjectIdentifier", "EntityType", "EntityIdentifier", "Marking", "Spatial", "TrackObjectIdentifiers"})
+	public String attribute;
+
+	private HlaDataType hlaDataType;
+	private byte[] buffer;
+
+	private static byte[] hexToBytes(final String hexString) {
+		byte[] b = new byte[hexString.length() / 2];
+		for (int i = 0; i < b.length; i++) {
+			b[i] = (byte) Integer.parseInt(hexString.substring(2 * i, 2 * i + 2), 16);
+		}
+		return b;
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+		if (AllTests.hlaDataTypes.dataTypeMap.isEmpty()) {
+			AllTests.initDataTypeTree();
+			AllTests.hlaDataTypes.compile();
+		}
+		String[] fixture = FIXTURES.get(this.attribute);
+		ObjectClassHandle och = AllTests.dummyRtiImpl.getObjectClassHandle(fixture[0]);
+		AttributeHandle ah = AllTests.dummyRtiImpl.getAttributeHandle(och, fixture[1]);
+		this.hlaDataType = AllTests.hlaDataTypes.dataTypeMap.get(AllTests.attributeHandleDataTypeMap.get(ah));
+		this.buffer = hexToBytes(fixture[2]);
+		// Only correctly encoded buffers give comparable numbers
+		if (this.hlaDataType == null || AllTests.hlaDataTypes.testBuffer(this.hlaDataType, this.buffer) != this.buffer.length) {
+			throw new IllegalStateException("EncodingRulesBenchmark: invalid fixture: " + this.attribute);
+		}
+	}
+
+	@Benchmark
+	public int testBuffer() throws EncodingRulesException {
+		return this.hlaDataType.testBuffer(this.buffer, 0, AllTests.hlaDataTypes);
+	}
+
+	@Benchmark
+	public int testBufferCompiled() throws EncodingRulesException {
+		return AllTests.hlaDataTypes.testBuffer(this.hlaDataType, this.buffer);
+	}
+}
@@ -107,11 +107,19 @@ public class TC0002 extends AbstractTestCase {
 
     	long sleepTime = encodingRulesTesterTcParam.getTestTimeWait() / 10;
     	// Allow time to work and test some reflect/receive values.
+    	// With early completion, stop as soon as every attribute and parameter has enough results.
     	for (int i = 0; i < 10; i++) {
-    		if (encodingRulesTesterBaseModel.sleepFor(sleepTime)) {
+    		if (encodingRulesTesterBaseModel.waitForCompletion(sleepTime)) {
     			throw new TcInconclusive("sleepFor problem");
     		}
-            sendTcStatus ("running", i*10);
+    		if (encodingRulesTesterBaseModel.getEarlyCompletion()) {
+    			sendTcStatus ("running", encodingRulesTesterBaseModel.getCompletionPercent());
+    			if (encodingRulesTesterBaseModel.getWhetherComplete()) {
+    				break;
+    			}
+    		} else {
+    			sendTcStatus ("running", i*10);
+    		}
     	}
 
         encodingRulesTesterBaseModel.printResults();
@@ -121,6 +129,11 @@ public class TC0002 extends AbstractTestCase {
             throw new TcFailed(encodingRulesTesterBaseModel.getErrorText());
         }
 
+        // Buffers dropped by a full validation queue were not tested, will not be passed.
+        if (encodingRulesTesterBaseModel.getValidationDropped() != 0) {
+            throw new TcInconclusive("Validation queue overflow, not all received buffers were tested");
+        }
+
         // If not all attributes and parameters were checked, will not be passed.
         if ((encodingRulesTesterBaseModel.getWhetherAllAttibutesChecked() == false) && (encodingRulesTesterBaseModel.getWhetherAllInteractionsChecked() == false)) {
             throw new TcInconclusive("Have not seen all required attributes and parameters");
@@ -140,6 +153,10 @@ public class TC0002 extends AbstractTestCase {
 
     @Override
     protected void postambleAction(final Logger logger) throws TcInconclusive {
+        // Stop the validation workers
+        encodingRulesTesterBaseModel.stopValidation();
+        // Close the capture file
+        encodingRulesTesterBaseModel.closeCapture();
         // Terminate rti
         encodingRulesTesterBaseModel.terminateRti();
     }
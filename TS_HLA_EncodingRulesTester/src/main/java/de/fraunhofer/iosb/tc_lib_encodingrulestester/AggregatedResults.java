@@ -0,0 +1,226 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The attribute results of the removed object instances of one object class,
+ * so that the results of an object instance can be dropped when it is
+ * removed.
+ *
+ * Per attribute of the class, the counts of all removed instances are
+ * summed up and the instances with the most incorrect buffers are kept, at
+ * most a fixed number of them. The arrays are indexed by the local ids of
+ * the attributes within the class, their size depends on the number of
+ * attributes of the class only.
+ */
+final class AggregatedResults {
+	/**
+	 * A removed object instance with incorrect buffers of an attribute
+	 */
+	static final class FailingInstance {
+		private final String objectName;
+		private final long incorrectCount;
+		private final String text;
+		private final String federateName;
+
+		FailingInstance(final String objectName, final long incorrectCount, final String text, final String federateName) {
+			this.objectName = objectName;
+			this.incorrectCount = incorrectCount;
+			this.text = text;
+			this.federateName = federateName;
+		}
+
+		/**
+		 * @return the object instance name
+		 */
+		String getObjectName() {
+			return this.objectName;
+		}
+
+		/**
+		 * @return the number of incorrect buffers
+		 */
+		long getIncorrectCount() {
+			return this.incorrectCount;
+		}
+
+		/**
+		 * @return the text of the result
+		 */
+		String getText() {
+			return this.text;
+		}
+
+		/**
+		 * @return the federate name of the owner, null if not known
+		 */
+		String getFederateName() {
+			return this.federateName;
+		}
+	}
+
+	private final HandleIndex.MemberIds attributeIds;
+	private final int maxFailingInstances;
+	private long instanceCount = 0;
+	// Indexed by local attribute id
+	private final long[] managedCount;
+	private final long[] correctCount;
+	private final long[] incorrectCount;
+	private final long[] skippedCount;
+	private final long[] notUpdatedCount;
+	// Sorted by decreasing incorrect count, null if none
+	private final FailingInstance[][] failingInstances;
+
+	/**
+	 * @param attributeIds the ids of the attributes of the object class
+	 * @param maxFailingInstances the number of failing instances to keep per attribute
+	 */
+	AggregatedResults(final HandleIndex.MemberIds attributeIds, final int maxFailingInstances) {
+		this.attributeIds = attributeIds;
+		this.maxFailingInstances = maxFailingInstances;
+		int attributeCount = attributeIds.size();
+		this.managedCount = new long[attributeCount];
+		this.correctCount = new long[attributeCount];
+		this.incorrectCount = new long[attributeCount];
+		this.skippedCount = new long[attributeCount];
+		this.notUpdatedCount = new long[attributeCount];
+		this.failingInstances = new FailingInstance[attributeCount][];
+	}
+
+	/**
+	 * Add the results of a removed object instance, those of attributes
+	 * which are not of the object class are ignored
+	 *
+	 * @param objectName the object instance name, null if not known
+	 * @param attributeResults the results of the instance
+	 */
+	synchronized void add(final String objectName, final ResultStore.MemberResults<ResultInfoAttribute> attributeResults) {
+		this.instanceCount++;
+		HandleIndex.MemberIds instanceIds = attributeResults.getMemberIds();
+		for (int localId = 0; localId < attributeResults.length(); localId++) {
+			ResultInfoAttribute resultInfo = attributeResults.get(localId);
+			if (resultInfo == null) {
+				continue;
+			}
+			// The same local ids unless the instance was managed without its class
+			int attributeId = instanceIds == this.attributeIds ? localId : this.attributeIds.getLocalId(instanceIds.getId(localId));
+			if (attributeId < 0) {
+				continue;
+			}
+			long correct = resultInfo.getCorrectCount();
+			long incorrect = resultInfo.getIncorrectCount();
+			this.managedCount[attributeId]++;
+			this.correctCount[attributeId] += correct;
+			this.incorrectCount[attributeId] += incorrect;
+			this.skippedCount[attributeId] += resultInfo.getSkippedCount();
+			if (correct + incorrect == 0) {
+				this.notUpdatedCount[attributeId]++;
+			}
+			if (incorrect > 0 && this.maxFailingInstances > 0) {
+				addFailingInstance(attributeId, new FailingInstance(objectName, incorrect, resultInfo.getText(), resultInfo.getFederateName()));
+			}
+		}
+	}
+
+	private void addFailingInstance(final int attributeId, final FailingInstance failingInstance) {
+		FailingInstance[] instances = this.failingInstances[attributeId];
+		if (instances == null) {
+			instances = new FailingInstance[0];
+		}
+		int pos = instances.length;
+		while (pos > 0 && instances[pos - 1].incorrectCount < failingInstance.incorrectCount) {
+			pos--;
+		}
+		if (pos >= this.maxFailingInstances) {
+			return;
+		}
+		int length = Math.min(instances.length + 1, this.maxFailingInstances);
+		FailingInstance[] newInstances = Arrays.copyOf(instances, length);
+		System.arraycopy(instances, pos, newInstances, pos + 1, length - pos - 1);
+		newInstances[pos] = failingInstance;
+		this.failingInstances[attributeId] = newInstances;
+	}
+
+	/**
+	 * @return the ids of the attributes of the object class
+	 */
+	HandleIndex.MemberIds getAttributeIds() {
+		return this.attributeIds;
+	}
+
+	/**
+	 * @return the number of removed object instances
+	 */
+	synchronized long getInstanceCount() {
+		return this.instanceCount;
+	}
+
+	/**
+	 * @param attributeId the local attribute id within the class
+	 * @return the number of removed object instances managing the attribute
+	 */
+	synchronized long getManagedCount(final int attributeId) {
+		return this.managedCount[attributeId];
+	}
+
+	/**
+	 * @param attributeId the local attribute id within the class
+	 * @return the number of correct buffers
+	 */
+	synchronized long getCorrectCount(final int attributeId) {
+		return this.correctCount[attributeId];
+	}
+
+	/**
+	 * @param attributeId the local attribute id within the class
+	 * @return the number of incorrect buffers
+	 */
+	synchronized long getIncorrectCount(final int attributeId) {
+		return this.incorrectCount[attributeId];
+	}
+
+	/**
+	 * @param attributeId the local attribute id within the class
+	 * @return the number of buffers not tested due to sampling
+	 */
+	synchronized long getSkippedCount(final int attributeId) {
+		return this.skippedCount[attributeId];
+	}
+
+	/**
+	 * @param attributeId the local attribute id within the class
+	 * @return the number of removed object instances without a buffer of the attribute
+	 */
+	synchronized long getNotUpdatedCount(final int attributeId) {
+		return this.notUpdatedCount[attributeId];
+	}
+
+	/**
+	 * @param attributeId the local attribute id within the class
+	 * @return the kept instances with incorrect buffers, most incorrect buffers first
+	 */
+	synchronized List<FailingInstance> getFailingInstances(final int attributeId) {
+		if (this.failingInstances[attributeId] == null) {
+			return new ArrayList<FailingInstance>();
+		}
+		return new ArrayList<FailingInstance>(Arrays.asList(this.failingInstances[attributeId]));
+	}
+}
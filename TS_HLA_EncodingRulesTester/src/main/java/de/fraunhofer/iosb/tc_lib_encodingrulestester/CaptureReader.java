@@ -0,0 +1,187 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the buffers of a capture file written by CaptureWriter, in the order
+ * they were received.
+ */
+public class CaptureReader implements Closeable {
+	private final DataInputStream in;
+	private final int segmentSize;
+	private final long startTimeMillis;
+	private final List<String> names = new ArrayList<String>();
+	// Position within the file
+	private long position;
+
+	/**
+	 * @param captureFile the capture file
+	 * @throws IOException if the file cannot be read or is not a capture file
+	 */
+	public CaptureReader(final File captureFile) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(captureFile), 65536));
+		try {
+			byte[] magic = new byte[CaptureWriter.MAGIC.length];
+			this.in.readFully(magic);
+			if (Arrays.equals(magic, CaptureWriter.MAGIC) == false) {
+				throw new IOException("CaptureReader: not a capture file: " + captureFile);
+			}
+			int version = this.in.readInt();
+			if (version != CaptureWriter.VERSION) {
+				throw new IOException("CaptureReader: unsupported capture file version: " + version);
+			}
+			this.segmentSize = this.in.readInt();
+			this.startTimeMillis = this.in.readLong();
+		} catch (IOException e) {
+			this.in.close();
+			throw e;
+		}
+		this.position = CaptureWriter.HEADER_SIZE;
+	}
+
+	/**
+	 * @return the start time of the capture in milliseconds since the epoch
+	 */
+	public long getStartTimeMillis() {
+		return this.startTimeMillis;
+	}
+
+	private String name(final int id) throws IOException {
+		if (id == -1) {
+			return null;
+		}
+		if (id < 0 || id >= this.names.size()) {
+			throw new IOException("CaptureReader: unknown name id: " + id);
+		}
+		return this.names.get(id);
+	}
+
+	private String readName() throws IOException {
+		int length = this.in.readInt();
+		this.position += 4;
+		if (length == -1) {
+			return null;
+		}
+		if (length < 0) {
+			throw new IOException("CaptureReader: invalid name length: " + length);
+		}
+		byte[] b = new byte[length];
+		this.in.readFully(b);
+		this.position += length;
+		return new String(b, StandardCharsets.UTF_8);
+	}
+
+	private byte[] readValue() throws IOException {
+		int length = this.in.readInt();
+		if (length < 0) {
+			throw new IOException("CaptureReader: invalid buffer length: " + length);
+		}
+		byte[] value = new byte[length];
+		this.in.readFully(value);
+		this.position += 4 + length;
+		return value;
+	}
+
+	private void skip(final long n) throws IOException {
+		long remaining = n;
+		while (remaining > 0) {
+			long skipped = this.in.skip(remaining);
+			if (skipped <= 0) {
+				if (this.in.read() < 0) {
+					throw new EOFException();
+				}
+				skipped = 1;
+			}
+			remaining -= skipped;
+		}
+	}
+
+	/**
+	 * @return the next buffer, null at the end of the file
+	 * @throws IOException if the file cannot be read or is corrupt
+	 */
+	public CaptureRecord next() throws IOException {
+		try {
+			while (true) {
+				int type = this.in.read();
+				if (type < 0) {
+					return null;
+				}
+				this.position++;
+				switch (type) {
+				case CaptureWriter.END_OF_SEGMENT:
+					long nextSegment = (this.position - 1) / this.segmentSize * this.segmentSize + this.segmentSize;
+					skip(nextSegment - this.position);
+					this.position = nextSegment;
+					break;
+				case CaptureWriter.NAME:
+					int id = this.in.readInt();
+					this.position += 4;
+					if (id != this.names.size()) {
+						throw new IOException("CaptureReader: name id out of sequence: " + id);
+					}
+					String name = readName();
+					if (name == null) {
+						throw new IOException("CaptureReader: name without octets: " + id);
+					}
+					this.names.add(name);
+					break;
+				case CaptureWriter.ATTRIBUTE: {
+					long time = this.in.readLong();
+					String className = name(this.in.readInt());
+					String attributeName = name(this.in.readInt());
+					this.position += 8 + 4 + 4;
+					String objectName = readName();
+					return new CaptureRecord(true, time, className, objectName, attributeName, readValue());
+				}
+				case CaptureWriter.PARAMETER: {
+					long time = this.in.readLong();
+					String className = name(this.in.readInt());
+					String parameterName = name(this.in.readInt());
+					this.position += 8 + 4 + 4;
+					return new CaptureRecord(false, time, className, null, parameterName, readValue());
+				}
+				default:
+					throw new IOException("CaptureReader: unknown record type: " + type + " at: " + (this.position - 1));
+				}
+			}
+		} catch (EOFException e) {
+			// A record cut off at the end of the file, the capture was not closed
+			return null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException {
+		this.in.close();
+	}
+}
@@ -0,0 +1,88 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+/**
+ * An attribute or parameter buffer read from a capture file
+ */
+public final class CaptureRecord {
+	private final boolean attribute;
+	private final long time;
+	private final String className;
+	private final String objectName;
+	private final String memberName;
+	private final byte[] value;
+
+	/**
+	 * @param attribute whether the buffer is an attribute value
+	 * @param time the receive time in nanoseconds since the start of the capture
+	 * @param className the object or interaction class name
+	 * @param objectName the object instance name, null for a parameter
+	 * @param memberName the attribute or parameter name
+	 * @param value the buffer
+	 */
+	CaptureRecord(final boolean attribute, final long time, final String className, final String objectName, final String memberName, final byte[] value) {
+		this.attribute = attribute;
+		this.time = time;
+		this.className = className;
+		this.objectName = objectName;
+		this.memberName = memberName;
+		this.value = value;
+	}
+
+	/**
+	 * @return the receive time in nanoseconds since the start of the capture
+	 */
+	public long getTime() {
+		return this.time;
+	}
+
+	/**
+	 * @return whether the buffer is an attribute value, else a parameter value
+	 */
+	public boolean isAttribute() {
+		return this.attribute;
+	}
+
+	/**
+	 * @return the known object class name or the interaction class name
+	 */
+	public String getClassName() {
+		return this.className;
+	}
+
+	/**
+	 * @return the object instance name, null for a parameter
+	 */
+	public String getObjectName() {
+		return this.objectName;
+	}
+
+	/**
+	 * @return the attribute or parameter name
+	 */
+	public String getMemberName() {
+		return this.memberName;
+	}
+
+	/**
+	 * @return the buffer
+	 */
+	public byte[] getValue() {
+		return this.value;
+	}
+}
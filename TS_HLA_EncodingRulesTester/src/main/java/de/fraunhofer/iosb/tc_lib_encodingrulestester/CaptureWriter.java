@@ -0,0 +1,220 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Appends the received attribute and parameter buffers to a binary capture
+ * file, to reproduce a test run or to analyse it offline, see CaptureReader.
+ *
+ * The file is written through memory mapped segments, which are mapped
+ * (and so preallocated) one after the other as the file grows. A record
+ * never crosses a segment boundary, the unused rest of a segment starts
+ * with a zero octet. On close the file is cut to the written length, if the
+ * file system refuses to cut a mapped file it keeps the zero filled rest of
+ * the last segment, which a reader takes as the end of the file.
+ *
+ * File layout, all values big endian:
+ * <pre>
+ * header:    "HLACAP01", int version, int segment size, long start time (ms since the epoch)
+ * NAME:      1, int id, int length, UTF-8 octets
+ * ATTRIBUTE: 2, long time (ns since start), int class name id, int attribute name id, int object name length, UTF-8 octets, int length, octets
+ * PARAMETER: 3, long time (ns since start), int class name id, int parameter name id, int length, octets
+ * </pre>
+ * Class, attribute and parameter names are numbered, the NAME record of a
+ * name is written before its first use. The object instance names are
+ * written with each record, as their number grows with the run time. A name
+ * not known has the id or length -1.
+ */
+class CaptureWriter {
+	static final byte[] MAGIC = "HLACAP01".getBytes(StandardCharsets.US_ASCII);
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 24;
+	static final byte END_OF_SEGMENT = 0;
+	static final byte NAME = 1;
+	static final byte ATTRIBUTE = 2;
+	static final byte PARAMETER = 3;
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final int segmentSize;
+	private final long startNanos;
+	// The class, attribute and parameter names, their number is limited by the SOM files
+	private final Map<String, Integer> nameIds = new HashMap<String, Integer>();
+	// Start of the mapped segment within the file
+	private long segmentStart;
+	private MappedByteBuffer segment;
+	private long recordCount = 0;
+	private boolean closed = false;
+
+	/**
+	 * Create the capture file, an existing file is overwritten
+	 *
+	 * @param captureFile the capture file
+	 * @param segmentSize the size of the mapped segments
+	 * @throws IOException if the file cannot be created
+	 */
+	CaptureWriter(final File captureFile, final int segmentSize) throws IOException {
+		this.segmentSize = Math.max(segmentSize, HEADER_SIZE);
+		this.file = new RandomAccessFile(captureFile, "rw");
+		this.file.setLength(0);
+		this.channel = this.file.getChannel();
+		this.segmentStart = 0;
+		this.segment = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, this.segmentSize);
+		this.startNanos = System.nanoTime();
+		this.segment.put(MAGIC);
+		this.segment.putInt(VERSION);
+		this.segment.putInt(this.segmentSize);
+		this.segment.putLong(System.currentTimeMillis());
+	}
+
+	/**
+	 * Make sure the mapped segment has room for the next record
+	 *
+	 * @param recordSize the size of the record
+	 * @throws IOException if the next segment cannot be mapped
+	 */
+	private void reserve(final int recordSize) throws IOException {
+		if (this.segment.remaining() >= recordSize) {
+			return;
+		}
+		if (this.segment.hasRemaining()) {
+			this.segment.put(END_OF_SEGMENT);
+		}
+		this.segmentStart += this.segment.capacity();
+		// A record larger than a segment gets several segments
+		long size = ((long) recordSize + this.segmentSize - 1) / this.segmentSize * this.segmentSize;
+		this.segment = this.channel.map(FileChannel.MapMode.READ_WRITE, this.segmentStart, size);
+	}
+
+	/**
+	 * @param name the name
+	 * @return the id of the name, the NAME record is written on first use
+	 * @throws IOException if the next segment cannot be mapped
+	 */
+	private int nameId(final String name) throws IOException {
+		if (name == null) {
+			return -1;
+		}
+		Integer id = this.nameIds.get(name);
+		if (id != null) {
+			return id;
+		}
+		byte[] b = name.getBytes(StandardCharsets.UTF_8);
+		reserve(1 + 4 + 4 + b.length);
+		int newId = this.nameIds.size();
+		this.segment.put(NAME);
+		this.segment.putInt(newId);
+		this.segment.putInt(b.length);
+		this.segment.put(b);
+		this.nameIds.put(name, newId);
+		return newId;
+	}
+
+	/**
+	 * @param objectClassName the known object class name
+	 * @param objectName the object instance name
+	 * @param attributeName the attribute name
+	 * @param value the attribute value
+	 * @throws IOException if the next segment cannot be mapped
+	 */
+	synchronized void writeAttribute(final String objectClassName, final String objectName, final String attributeName, final byte[] value) throws IOException {
+		if (this.closed) {
+			return;
+		}
+		long time = System.nanoTime() - this.startNanos;
+		int classId = nameId(objectClassName);
+		int attributeId = nameId(attributeName);
+		byte[] b = objectName == null ? null : objectName.getBytes(StandardCharsets.UTF_8);
+		int objectNameLength = b == null ? 0 : b.length;
+		reserve(1 + 8 + 4 + 4 + 4 + objectNameLength + 4 + value.length);
+		this.segment.put(ATTRIBUTE);
+		this.segment.putLong(time);
+		this.segment.putInt(classId);
+		this.segment.putInt(attributeId);
+		if (b == null) {
+			this.segment.putInt(-1);
+		} else {
+			this.segment.putInt(b.length);
+			this.segment.put(b);
+		}
+		this.segment.putInt(value.length);
+		this.segment.put(value);
+		this.recordCount++;
+	}
+
+	/**
+	 * @param interactionClassName the interaction class name
+	 * @param parameterName the parameter name
+	 * @param value the parameter value
+	 * @throws IOException if the next segment cannot be mapped
+	 */
+	synchronized void writeParameter(final String interactionClassName, final String parameterName, final byte[] value) throws IOException {
+		if (this.closed) {
+			return;
+		}
+		long time = System.nanoTime() - this.startNanos;
+		int classId = nameId(interactionClassName);
+		int parameterId = nameId(parameterName);
+		reserve(1 + 8 + 4 + 4 + 4 + value.length);
+		this.segment.put(PARAMETER);
+		this.segment.putLong(time);
+		this.segment.putInt(classId);
+		this.segment.putInt(parameterId);
+		this.segment.putInt(value.length);
+		this.segment.put(value);
+		this.recordCount++;
+	}
+
+	/**
+	 * @return the number of buffers written
+	 */
+	synchronized long getRecordCount() {
+		return this.recordCount;
+	}
+
+	/**
+	 * Flush the written records and cut the file to the written length
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	synchronized void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		long length = this.segmentStart + this.segment.position();
+		// Write the segment out and drop it before the file is cut
+		this.segment.force();
+		this.segment = null;
+		try {
+			this.channel.truncate(length);
+		} catch (IOException e) {
+			// Some file systems do not cut a file still mapped, the rest of the segment is zero filled
+		} finally {
+			this.file.close();
+		}
+	}
+}
@@ -0,0 +1,490 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ParameterHandle;
+import hla.rti1516e.RTIambassador;
+
+/**
+ * Stores the result of reading the SOM files on disk, keyed by a hash of
+ * their content, so that a later test case with the same SOM files skips
+ * the XML parsing.
+ *
+ * The file holds the decoded data types, not compiled, and the data type
+ * names of the attributes and parameters. The handles cannot be stored as
+ * they differ between federation executions. Instead, while the SOM files
+ * are read, the RTI ambassador given to DataTreeBuilder records the class
+ * and member names each handle was looked up by, and loading looks them up
+ * again in the same order. A cache file which cannot be read or resolved is
+ * ignored, the SOM files are read as without cache.
+ */
+final class CompiledModelCache {
+	private static Logger logger = LoggerFactory.getLogger(CompiledModelCache.class);
+	private static final int MAGIC = 0x45525443;
+	// Increment on any change of the file layout or of the data written by HlaDataType.writeTo
+	private static final int FORMAT_VERSION = 1;
+
+	// The data type kinds
+	private static final byte BASIC = 0;
+	private static final byte SIMPLE = 1;
+	private static final byte ENUM = 2;
+	private static final byte FIXED_ARRAY = 3;
+	private static final byte VARIABLE_ARRAY = 4;
+	private static final byte FIXED_RECORD = 5;
+	private static final byte VARIANT_RECORD = 6;
+
+	// The handle kinds
+	private static final byte OBJECT_CLASS = 0;
+	private static final byte ATTRIBUTE = 1;
+	private static final byte INTERACTION_CLASS = 2;
+	private static final byte PARAMETER = 3;
+
+	/**
+	 * How a handle was looked up: the class name, or the class and the member name
+	 */
+	private static final class Lookup {
+		final byte kind;
+		final String name;
+		// The lookup of the class of a member, -1 for a class
+		final int classLookup;
+
+		Lookup(final byte kind, final String name, final int classLookup) {
+			this.kind = kind;
+			this.name = name;
+			this.classLookup = classLookup;
+		}
+	}
+
+	/**
+	 * Records the handle lookups and passes every call on
+	 */
+	private final class RecordingHandler implements InvocationHandler {
+		private final RTIambassador rtiAmbassador;
+
+		RecordingHandler(final RTIambassador rtiAmbassador) {
+			this.rtiAmbassador = rtiAmbassador;
+		}
+
+		@Override
+		public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+			Object result;
+			try {
+				result = method.invoke(this.rtiAmbassador, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+			switch (method.getName()) {
+			case "getObjectClassHandle":
+				record(result, OBJECT_CLASS, (String) args[0], null);
+				break;
+			case "getInteractionClassHandle":
+				record(result, INTERACTION_CLASS, (String) args[0], null);
+				break;
+			case "getAttributeHandle":
+				record(result, ATTRIBUTE, (String) args[1], args[0]);
+				break;
+			case "getParameterHandle":
+				record(result, PARAMETER, (String) args[1], args[0]);
+				break;
+			default:
+				break;
+			}
+			return result;
+		}
+	}
+
+	private final File cacheFile;
+	private final String key;
+	private final List<Lookup> lookups = new ArrayList<Lookup>();
+	// The first lookup of each handle
+	private final Map<Object, Integer> handleLookups = new HashMap<Object, Integer>();
+
+	/**
+	 * @param directory the directory of the cache files
+	 * @param somUrls the SOM files
+	 * @throws IOException if a SOM file cannot be read
+	 */
+	CompiledModelCache(final File directory, final URL[] somUrls) throws IOException {
+		this.key = key(somUrls);
+		this.cacheFile = new File(directory, "encodingrules-" + this.key + ".cache");
+	}
+
+	/**
+	 * @param somUrls the SOM files
+	 * @return the hex SHA-256 hash of the format version and the content of the SOM files
+	 * @throws IOException if a SOM file cannot be read
+	 */
+	static String key(final URL[] somUrls) throws IOException {
+		MessageDigest messageDigest;
+		try {
+			messageDigest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException("CompiledModelCache.key: " + e);
+		}
+		messageDigest.update((byte) FORMAT_VERSION);
+		byte[] buffer = new byte[65536];
+		for (URL somUrl : somUrls) {
+			long length = 0;
+			try (InputStream inputStream = somUrl.openStream()) {
+				for (int n = inputStream.read(buffer); n >= 0; n = inputStream.read(buffer)) {
+					messageDigest.update(buffer, 0, n);
+					length += n;
+				}
+			}
+			// Separates the files
+			for (int i = 56; i >= 0; i -= 8) {
+				messageDigest.update((byte) (length >>> i));
+			}
+		}
+		StringBuilder stringBuilder = new StringBuilder();
+		for (byte b : messageDigest.digest()) {
+			stringBuilder.append(String.format("%02x", b));
+		}
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * @return the cache file of the SOM files
+	 */
+	File getCacheFile() {
+		return this.cacheFile;
+	}
+
+	/**
+	 * @param rtiAmbassador the RTI ambassador
+	 * @return an RTI ambassador for DataTreeBuilder which records the handle lookups for store
+	 */
+	RTIambassador recordingAmbassador(final RTIambassador rtiAmbassador) {
+		return (RTIambassador) Proxy.newProxyInstance(RTIambassador.class.getClassLoader(), new Class<?>[] { RTIambassador.class }, new RecordingHandler(rtiAmbassador));
+	}
+
+	private void record(final Object handle, final byte kind, final String name, final Object classHandle) {
+		if (handle == null || this.handleLookups.containsKey(handle)) {
+			return;
+		}
+		int classLookup = -1;
+		if (classHandle != null) {
+			Integer index = this.handleLookups.get(classHandle);
+			if (index == null) {
+				return;
+			}
+			classLookup = index;
+		}
+		this.handleLookups.put(handle, this.lookups.size());
+		this.lookups.add(new Lookup(kind, name, classLookup));
+	}
+
+	/**
+	 * Write the cache file from the results of DataTreeBuilder using the recording RTI ambassador
+	 *
+	 * @param hlaDataTypes the decoded data types
+	 * @param interactionClassHandleMap the interactions to subscribe to
+	 * @param parameterHandleDataTypeMap the parameter dataType mapper
+	 * @param objectClassAttributeHandleMap the attribute dataType mapper
+	 * @param attributeHandleDataTypeMap holds attribute data
+	 * @return true means error, no cache file is written
+	 */
+	boolean store(final HlaDataTypes hlaDataTypes, final Map<InteractionClassHandle, Set<ParameterHandle>> interactionClassHandleMap, final Map<ParameterHandle, String> parameterHandleDataTypeMap, final Map<ObjectClassHandle, ObjectClassData> objectClassAttributeHandleMap, final Map<AttributeHandle, String> attributeHandleDataTypeMap) {
+		// Only the lookups of the handles used, with the lookups of their classes
+		boolean[] used = new boolean[this.lookups.size()];
+		List<Object> handles = new ArrayList<Object>();
+		handles.addAll(interactionClassHandleMap.keySet());
+		for (Set<ParameterHandle> parameterHandles : interactionClassHandleMap.values()) {
+			handles.addAll(parameterHandles);
+		}
+		handles.addAll(parameterHandleDataTypeMap.keySet());
+		handles.addAll(objectClassAttributeHandleMap.keySet());
+		for (ObjectClassData objectClassData : objectClassAttributeHandleMap.values()) {
+			handles.addAll(objectClassData.attributeHandleSet);
+		}
+		handles.addAll(attributeHandleDataTypeMap.keySet());
+		for (Object handle : handles) {
+			Integer index = this.handleLookups.get(handle);
+			if (index == null) {
+				logger.warn("CompiledModelCache.store: handle not looked up by name: " + handle);
+				return true;
+			}
+			for (int i = index; i >= 0 && used[i] == false; i = this.lookups.get(i).classLookup) {
+				used[i] = true;
+			}
+		}
+		int[] newIndex = new int[this.lookups.size()];
+		int usedCount = 0;
+		for (int i = 0; i < used.length; i++) {
+			newIndex[i] = used[i] ? usedCount++ : -1;
+		}
+
+		File tmpFile = null;
+		try {
+			File directory = this.cacheFile.getAbsoluteFile().getParentFile();
+			if (directory.isDirectory() == false && directory.mkdirs() == false) {
+				throw new IOException("cannot create directory: " + directory);
+			}
+			tmpFile = File.createTempFile("encodingrules-", ".tmp", directory);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(this.key);
+
+				// Data types shared by several names are written once
+				Map<HlaDataType, Integer> dataTypeIndex = new IdentityHashMap<HlaDataType, Integer>();
+				List<HlaDataType> dataTypes = new ArrayList<HlaDataType>();
+				for (HlaDataType hlaDataType : hlaDataTypes.dataTypeMap.values()) {
+					if (dataTypeIndex.containsKey(hlaDataType) == false) {
+						dataTypeIndex.put(hlaDataType, dataTypes.size());
+						dataTypes.add(hlaDataType);
+					}
+				}
+				out.writeInt(dataTypes.size());
+				for (HlaDataType hlaDataType : dataTypes) {
+					out.writeByte(dataTypeKind(hlaDataType));
+					hlaDataType.writeTo(out);
+				}
+				out.writeInt(hlaDataTypes.dataTypeMap.size());
+				for (Map.Entry<String, HlaDataType> entry : hlaDataTypes.dataTypeMap.entrySet()) {
+					HlaDataType.writeString(out, entry.getKey());
+					out.writeInt(dataTypeIndex.get(entry.getValue()));
+				}
+
+				out.writeInt(usedCount);
+				for (int i = 0; i < used.length; i++) {
+					if (used[i]) {
+						Lookup lookup = this.lookups.get(i);
+						out.writeByte(lookup.kind);
+						HlaDataType.writeString(out, lookup.name);
+						out.writeInt(lookup.classLookup < 0 ? -1 : newIndex[lookup.classLookup]);
+					}
+				}
+
+				out.writeInt(interactionClassHandleMap.size());
+				for (Map.Entry<InteractionClassHandle, Set<ParameterHandle>> entry : interactionClassHandleMap.entrySet()) {
+					out.writeInt(newIndex[this.handleLookups.get(entry.getKey())]);
+					out.writeInt(entry.getValue().size());
+					for (ParameterHandle parameterHandle : entry.getValue()) {
+						out.writeInt(newIndex[this.handleLookups.get(parameterHandle)]);
+					}
+				}
+				out.writeInt(parameterHandleDataTypeMap.size());
+				for (Map.Entry<ParameterHandle, String> entry : parameterHandleDataTypeMap.entrySet()) {
+					out.writeInt(newIndex[this.handleLookups.get(entry.getKey())]);
+					HlaDataType.writeString(out, entry.getValue());
+				}
+				out.writeInt(objectClassAttributeHandleMap.size());
+				for (Map.Entry<ObjectClassHandle, ObjectClassData> entry : objectClassAttributeHandleMap.entrySet()) {
+					out.writeInt(newIndex[this.handleLookups.get(entry.getKey())]);
+					out.writeInt(entry.getValue().classLevelDepth);
+					out.writeInt(entry.getValue().attributeHandleSet.size());
+					for (AttributeHandle attributeHandle : entry.getValue().attributeHandleSet) {
+						out.writeInt(newIndex[this.handleLookups.get(attributeHandle)]);
+					}
+				}
+				out.writeInt(attributeHandleDataTypeMap.size());
+				for (Map.Entry<AttributeHandle, String> entry : attributeHandleDataTypeMap.entrySet()) {
+					out.writeInt(newIndex[this.handleLookups.get(entry.getKey())]);
+					HlaDataType.writeString(out, entry.getValue());
+				}
+			}
+			// Other test cases may read the cache file at the same time
+			Files.move(tmpFile.toPath(), this.cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			logger.warn("CompiledModelCache.store: cannot write cache file: " + this.cacheFile + " " + e);
+			if (tmpFile != null) {
+				tmpFile.delete();
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static byte dataTypeKind(final HlaDataType hlaDataType) throws IOException {
+		if (hlaDataType instanceof HlaDataBasicType) {
+			return BASIC;
+		}
+		if (hlaDataType instanceof HlaDataSimpleType) {
+			return SIMPLE;
+		}
+		if (hlaDataType instanceof HlaDataEnumType) {
+			return ENUM;
+		}
+		if (hlaDataType instanceof HlaDataFixedArrayType) {
+			return FIXED_ARRAY;
+		}
+		if (hlaDataType instanceof HlaDataVariableArrayType) {
+			return VARIABLE_ARRAY;
+		}
+		if (hlaDataType instanceof HlaDataFixedRecordType) {
+			return FIXED_RECORD;
+		}
+		if (hlaDataType instanceof HlaDataVariantRecordType) {
+			return VARIANT_RECORD;
+		}
+		throw new IOException("unknown data type class: " + hlaDataType.getClass().getName());
+	}
+
+	private static HlaDataType readDataType(final DataInputStream in) throws IOException {
+		byte kind = in.readByte();
+		switch (kind) {
+		case BASIC:
+			return new HlaDataBasicType(in);
+		case SIMPLE:
+			return new HlaDataSimpleType(in);
+		case ENUM:
+			return new HlaDataEnumType(in);
+		case FIXED_ARRAY:
+			return new HlaDataFixedArrayType(in);
+		case VARIABLE_ARRAY:
+			return new HlaDataVariableArrayType(in);
+		case FIXED_RECORD:
+			return new HlaDataFixedRecordType(in);
+		case VARIANT_RECORD:
+			return new HlaDataVariantRecordType(in);
+		default:
+			throw new IOException("unknown data type kind: " + kind);
+		}
+	}
+
+	/**
+	 * Read the cache file and look up the handles, the maps are only filled if all succeeds
+	 *
+	 * @param rtiAmbassador the RTI ambassador to look up the handles
+	 * @param hlaDataTypes the data types to fill
+	 * @param interactionClassHandleMap the interactions to subscribe to
+	 * @param parameterHandleDataTypeMap the parameter dataType mapper
+	 * @param objectClassAttributeHandleMap the attribute dataType mapper
+	 * @param attributeHandleDataTypeMap holds attribute data
+	 * @return true if the cache file was read, false if there is none or it cannot be used
+	 */
+	boolean load(final RTIambassador rtiAmbassador, final HlaDataTypes hlaDataTypes, final Map<InteractionClassHandle, Set<ParameterHandle>> interactionClassHandleMap, final Map<ParameterHandle, String> parameterHandleDataTypeMap, final Map<ObjectClassHandle, ObjectClassData> objectClassAttributeHandleMap, final Map<AttributeHandle, String> attributeHandleDataTypeMap) {
+		if (this.cacheFile.isFile() == false) {
+			return false;
+		}
+		Map<String, HlaDataType> tmpDataTypeMap = new HashMap<String, HlaDataType>();
+		Map<InteractionClassHandle, Set<ParameterHandle>> tmpInteractionClassHandleMap = new HashMap<InteractionClassHandle, Set<ParameterHandle>>();
+		Map<ParameterHandle, String> tmpParameterHandleDataTypeMap = new HashMap<ParameterHandle, String>();
+		Map<ObjectClassHandle, ObjectClassData> tmpObjectClassAttributeHandleMap = new HashMap<ObjectClassHandle, ObjectClassData>();
+		Map<AttributeHandle, String> tmpAttributeHandleDataTypeMap = new HashMap<AttributeHandle, String>();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.cacheFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readUTF().equals(this.key) == false) {
+				logger.warn("CompiledModelCache.load: cache file of another format or SOM: " + this.cacheFile);
+				return false;
+			}
+
+			HlaDataType[] dataTypes = new HlaDataType[in.readInt()];
+			for (int i = 0; i < dataTypes.length; i++) {
+				dataTypes[i] = readDataType(in);
+			}
+			for (int i = in.readInt(); i > 0; i--) {
+				String dataTypeName = HlaDataType.readString(in);
+				tmpDataTypeMap.put(dataTypeName, dataTypes[in.readInt()]);
+			}
+
+			// Look up the handles as DataTreeBuilder did
+			Object[] handles = new Object[in.readInt()];
+			for (int i = 0; i < handles.length; i++) {
+				byte kind = in.readByte();
+				String name = HlaDataType.readString(in);
+				int classLookup = in.readInt();
+				switch (kind) {
+				case OBJECT_CLASS:
+					handles[i] = rtiAmbassador.getObjectClassHandle(name);
+					break;
+				case ATTRIBUTE:
+					handles[i] = rtiAmbassador.getAttributeHandle((ObjectClassHandle) handles[classLookup], name);
+					break;
+				case INTERACTION_CLASS:
+					handles[i] = rtiAmbassador.getInteractionClassHandle(name);
+					break;
+				case PARAMETER:
+					handles[i] = rtiAmbassador.getParameterHandle((InteractionClassHandle) handles[classLookup], name);
+					break;
+				default:
+					throw new IOException("unknown handle kind: " + kind);
+				}
+			}
+
+			for (int i = in.readInt(); i > 0; i--) {
+				InteractionClassHandle interactionClassHandle = (InteractionClassHandle) handles[in.readInt()];
+				Set<ParameterHandle> parameterHandleSet = new HashSet<ParameterHandle>();
+				for (int j = in.readInt(); j > 0; j--) {
+					parameterHandleSet.add((ParameterHandle) handles[in.readInt()]);
+				}
+				tmpInteractionClassHandleMap.put(interactionClassHandle, parameterHandleSet);
+			}
+			for (int i = in.readInt(); i > 0; i--) {
+				ParameterHandle parameterHandle = (ParameterHandle) handles[in.readInt()];
+				tmpParameterHandleDataTypeMap.put(parameterHandle, HlaDataType.readString(in));
+			}
+			for (int i = in.readInt(); i > 0; i--) {
+				ObjectClassHandle objectClassHandle = (ObjectClassHandle) handles[in.readInt()];
+				ObjectClassData objectClassData = new ObjectClassData();
+				objectClassData.classLevelDepth = in.readInt();
+				AttributeHandleSet attributeHandleSet = rtiAmbassador.getAttributeHandleSetFactory().create();
+				for (int j = in.readInt(); j > 0; j--) {
+					attributeHandleSet.add((AttributeHandle) handles[in.readInt()]);
+				}
+				objectClassData.attributeHandleSet = attributeHandleSet;
+				tmpObjectClassAttributeHandleMap.put(objectClassHandle, objectClassData);
+			}
+			for (int i = in.readInt(); i > 0; i--) {
+				AttributeHandle attributeHandle = (AttributeHandle) handles[in.readInt()];
+				tmpAttributeHandleDataTypeMap.put(attributeHandle, HlaDataType.readString(in));
+			}
+		} catch (Exception e) {
+			logger.warn("CompiledModelCache.load: cannot use cache file: " + this.cacheFile + " " + e);
+			return false;
+		}
+		hlaDataTypes.dataTypeMap.putAll(tmpDataTypeMap);
+		interactionClassHandleMap.putAll(tmpInteractionClassHandleMap);
+		parameterHandleDataTypeMap.putAll(tmpParameterHandleDataTypeMap);
+		objectClassAttributeHandleMap.putAll(tmpObjectClassAttributeHandleMap);
+		attributeHandleDataTypeMap.putAll(tmpAttributeHandleDataTypeMap);
+		return true;
+	}
+}
@@ -16,6 +16,9 @@ limitations under the License.
 
 package de.fraunhofer.iosb.tc_lib_encodingrulestester;
 
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
 import java.util.Set;
 
@@ -151,4 +154,146 @@ public class DataTreeBuilder {
 		logger.trace("DataTreeBuilder.buildData: leave");
 		return false;
 	}
+
+	/**
+	 * Read a FOM/SOM file with SomStreamReader in a single pass, without the
+	 * DOM of the whole file. The result is that of buildData with the document
+	 * element.
+	 *
+	 * @param inputStream the FOM/SOM file content
+	 * @param systemId the URL of the file, for relative references
+	 * @return true means error
+	 */
+	public boolean buildData(final InputStream inputStream, final String systemId) {
+		logger.trace("DataTreeBuilder.buildData: enter");
+		try {
+			new SomStreamReader(new StreamListener()).read(inputStream, systemId);
+		} catch (Exception e) {
+			logger.error("DataTreeBuilder.buildData: " + e);
+			return true;
+		}
+		logger.trace("DataTreeBuilder.buildData: leave");
+		return false;
+	}
+
+	/**
+	 * Hands the events of SomStreamReader to the decoders. As in buildData, an
+	 * error in a class skips the rest of its section, an exception thrown by a
+	 * top level class ends the reading.
+	 */
+	private final class StreamListener implements SomStreamReader.Listener {
+		private final Deque<HandleObjectClass.ObjectClassLevel> objectClassLevels = new ArrayDeque<HandleObjectClass.ObjectClassLevel>();
+		private final Deque<HandleInteractionClass.InteractionClassLevel> interactionClassLevels = new ArrayDeque<HandleInteractionClass.InteractionClassLevel>();
+		// The depth of the current class in its section, counts the skipped classes too
+		private int classDepth = 0;
+		private boolean sectionFailed = false;
+
+		@Override
+		public void startSection(final String sectionName) {
+			this.objectClassLevels.clear();
+			this.interactionClassLevels.clear();
+			this.classDepth = 0;
+			this.sectionFailed = false;
+			switch (sectionName) {
+			case "dataTypes":
+				logger.trace("Got dataTypes!");
+				handleDataTypes.beginStream(hlaDataTypes);
+				break;
+			case "objects":
+				logger.trace("Got objects!");
+				this.sectionFailed = handleObjectClass.initialize(ivct_rti);
+				break;
+			default:
+				logger.trace("Got interactions!");
+				break;
+			}
+		}
+
+		@Override
+		public void endSection(final String sectionName) throws EncodingRulesException {
+			if (sectionName.equals("dataTypes")) {
+				handleDataTypes.endStream();
+			}
+		}
+
+		@Override
+		public void dataType(final String groupName, final Element dataType) {
+			handleDataTypes.decodeStream(groupName, dataType);
+		}
+
+		@Override
+		public void startClass(final Element classElement) throws Exception {
+			this.classDepth++;
+			if (this.sectionFailed) {
+				return;
+			}
+			try {
+				if (classElement.getNodeName().equals("objectClass")) {
+					HandleObjectClass.ObjectClassLevel parent = this.objectClassLevels.peek();
+					HandleObjectClass.ObjectClassLevel level;
+					if (parent == null) {
+						level = handleObjectClass.beginObjectClass(classElement, ivct_rti, new String(), attributeHandleBaseClassSet, attributeHandleDataTypeMap);
+					} else {
+						level = handleObjectClass.beginObjectClass(classElement, ivct_rti, parent.getClassName(), parent.getAttributeHandleSet(), attributeHandleDataTypeMap);
+					}
+					if (level == null) {
+						this.sectionFailed = true;
+						return;
+					}
+					this.objectClassLevels.push(level);
+				} else {
+					HandleInteractionClass.InteractionClassLevel parent = this.interactionClassLevels.peek();
+					String parentClassName = parent == null ? new String() : parent.getClassName();
+					HandleInteractionClass.InteractionClassLevel level = handleInteractionClass.beginInteractionClass(classElement, ivct_rti, parentClassName, interactionHandleMap, parameterHandleDataTypeMap);
+					if (level == null) {
+						this.sectionFailed = true;
+						return;
+					}
+					this.interactionClassLevels.push(level);
+				}
+			} catch (Exception e) {
+				classFailed(classElement.getNodeName(), this.classDepth == 1, e);
+			}
+		}
+
+		@Override
+		public void endClass(final String className) throws Exception {
+			this.classDepth--;
+			if (this.sectionFailed) {
+				return;
+			}
+			try {
+				if (className.equals("objectClass")) {
+					handleObjectClass.endObjectClass(this.objectClassLevels.pop(), objectClassAttributeHandleMap);
+				} else {
+					this.interactionClassLevels.pop();
+				}
+			} catch (Exception e) {
+				classFailed(className, this.classDepth == 0, e);
+			}
+		}
+
+		private void classFailed(final String className, final boolean topLevel, final Exception e) throws Exception {
+			if (topLevel) {
+				throw e;
+			}
+			// Caught by the decoder of the parent class
+			if (className.equals("objectClass")) {
+				logger.error("HandleObjectClass.decodeObjectClass: " + e);
+			} else {
+				logger.error("HandleInteractionClass.decodeInteractionClass: " + e);
+			}
+			this.sectionFailed = true;
+		}
+	}
+
+	/**
+	 * Assign the dense ids of the attribute and parameter handles, call once
+	 * all SOM files are processed
+	 *
+	 * @return the handle index
+	 */
+	public HandleIndex buildHandleIndex() {
+		return new HandleIndex(attributeHandleDataTypeMap, parameterHandleDataTypeMap, interactionHandleMap, objectClassAttributeHandleMap);
+	}
 }
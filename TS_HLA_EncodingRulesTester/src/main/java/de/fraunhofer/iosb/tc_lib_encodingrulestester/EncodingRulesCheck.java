@@ -0,0 +1,376 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+import de.fraunhofer.iosb.tc_lib.TcInconclusive;
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.ParameterHandle;
+
+/**
+ * Tests the buffers of capture files (see CaptureWriter) against the data
+ * types of SOM files without an RTI connection, e.g. to check a corrected
+ * SOM or a new tester version against the buffers of an earlier test run.
+ *
+ * The buffers are tested while the capture files are read: they are
+ * collected in batches per class and attribute or parameter, full batches
+ * are tested in parallel on a fork-join pool. The number of batches read but
+ * not yet tested is limited, so the memory used does not depend on the size
+ * of the capture files. The result summary is the same as the one of
+ * EncodingRulesTesterBaseModel.printResults.
+ *
+ * Usage: EncodingRulesCheck [-workers n] [-rpr2] -som file [-som file ...] capture-file ...
+ *
+ * The exit code is 0 if all buffers are correct, 1 if a buffer is incorrect
+ * and 2 for errors.
+ */
+public class EncodingRulesCheck {
+	private static Logger logger = LoggerFactory.getLogger(EncodingRulesCheck.class);
+	// Number of buffers tested by one task of the pool
+	static final int BATCH_SIZE = 1024;
+	// Number of batches per worker read but not yet tested
+	private static final int BATCHES_PER_WORKER = 4;
+
+	/**
+	 * The batch of buffers of one attribute or parameter of one class which
+	 * is filled while reading
+	 */
+	private static final class Group {
+		private final HlaDataType dataType;
+		private final int id;
+		private final boolean attribute;
+		// The object instance or interaction class handle per buffer
+		private Object[] handles = new Object[BATCH_SIZE];
+		private byte[][] values = new byte[BATCH_SIZE][];
+		private int size = 0;
+
+		Group(final HlaDataType dataType, final int id, final boolean attribute) {
+			this.dataType = dataType;
+			this.id = id;
+			this.attribute = attribute;
+		}
+	}
+
+	/**
+	 * Tests a batch of buffers of one group
+	 */
+	private final class TestBatch implements Runnable {
+		private final Group group;
+		private final Object[] handles;
+		private final byte[][] values;
+		private final int size;
+
+		TestBatch(final Group group, final Object[] handles, final byte[][] values, final int size) {
+			this.group = group;
+			this.handles = handles;
+			this.values = values;
+			this.size = size;
+		}
+
+		@Override
+		public void run() {
+			try {
+				for (int i = 0; i < this.size; i++) {
+					testBuffer(this.group, this.handles[i], this.values[i]);
+				}
+			} finally {
+				EncodingRulesCheck.this.batchPermits.release();
+			}
+		}
+	}
+
+	private final OfflineRtiAmbassador offlineRti = new OfflineRtiAmbassador();
+	private final HlaDataTypes hlaDataTypes = new HlaDataTypes();
+	private final Map<InteractionClassHandle, Set<ParameterHandle>> interactionClassHandleMap = new HashMap<InteractionClassHandle, Set<ParameterHandle>>();
+	private final Map<ParameterHandle, String> parameterHandleDataTypeMap = new HashMap<ParameterHandle, String>();
+	private final Map<ObjectClassHandle, ObjectClassData> objectClassAttributeHandleMap = new HashMap<ObjectClassHandle, ObjectClassData>();
+	private final Map<AttributeHandle, String> attributeHandleDataTypeMap = new HashMap<AttributeHandle, String>();
+	private final ResultStore resultStore = new ResultStore();
+	private final Map<String, Group> groups = new HashMap<String, Group>();
+	private final ForkJoinPool pool;
+	// One permit per batch which may be read but not yet tested
+	private final Semaphore batchPermits;
+	private final int maxBatches;
+	private HandleIndex handleIndex = HandleIndex.EMPTY;
+	private long readCount = 0;
+	private long skippedCount = 0;
+
+	/**
+	 * @param workers the number of worker threads
+	 */
+	EncodingRulesCheck(final int workers) {
+		this.pool = new ForkJoinPool(workers);
+		this.maxBatches = workers * BATCHES_PER_WORKER;
+		this.batchPermits = new Semaphore(this.maxBatches);
+	}
+
+	/**
+	 * Read the SOM files and compile their data types
+	 *
+	 * @param somFiles the SOM files
+	 * @throws TcInconclusive if a SOM file cannot be processed
+	 */
+	void readSom(final List<File> somFiles) throws TcInconclusive {
+		DataTreeBuilder dataTreeBuilder = new DataTreeBuilder(this.offlineRti.getRtiAmbassador(), this.hlaDataTypes, this.interactionClassHandleMap, this.parameterHandleDataTypeMap, this.objectClassAttributeHandleMap, this.attributeHandleDataTypeMap);
+		try {
+			DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+			for (File somFile : somFiles) {
+				Document document = builder.parse(somFile);
+				if (dataTreeBuilder.buildData(document.getDocumentElement())) {
+					throw new TcInconclusive("EncodingRulesCheck.readSom: error in dataTreeBuilder.buildData: " + somFile);
+				}
+			}
+		} catch (ParserConfigurationException | SAXException | IOException e) {
+			logger.error("EncodingRulesCheck.readSom: exception: " + e);
+			throw new TcInconclusive("EncodingRulesCheck.readSom: exception: " + e);
+		}
+		int notCompiled = this.hlaDataTypes.compile();
+		if (notCompiled != 0) {
+			logger.warn("EncodingRulesCheck.readSom: data types not compiled: " + notCompiled);
+		}
+		this.handleIndex = dataTreeBuilder.buildHandleIndex();
+		this.resultStore.setHandleIndex(this.handleIndex);
+		for (InteractionClassHandle interactionClassHandle : this.interactionClassHandleMap.keySet()) {
+			this.resultStore.addInteractionClass(interactionClassHandle);
+		}
+	}
+
+	private Group group(final String key, final String dataTypeName, final int id, final boolean attribute) {
+		Group group = this.groups.get(key);
+		if (group == null) {
+			HlaDataType hdt = this.hlaDataTypes.dataTypeMap.get(dataTypeName);
+			if (hdt == null) {
+				logger.error("EncodingRulesCheck.group: cannot get data type: " + dataTypeName);
+				return null;
+			}
+			group = new Group(hdt, id, attribute);
+			this.groups.put(key, group);
+		}
+		return group;
+	}
+
+	/**
+	 * Hand the buffers of a group to the pool, wait while the maximum
+	 * number of batches is not yet tested
+	 *
+	 * @param group the group
+	 */
+	private void submit(final Group group) {
+		if (group.size == 0) {
+			return;
+		}
+		this.batchPermits.acquireUninterruptibly();
+		this.pool.execute(new TestBatch(group, group.handles, group.values, group.size));
+		group.handles = new Object[BATCH_SIZE];
+		group.values = new byte[BATCH_SIZE][];
+		group.size = 0;
+	}
+
+	/**
+	 * Read the buffers of a capture file, full batches are tested while
+	 * reading
+	 *
+	 * @param captureFile the capture file
+	 * @throws IOException if the file cannot be read
+	 */
+	void readCapture(final File captureFile) throws IOException {
+		try (CaptureReader captureReader = new CaptureReader(captureFile)) {
+			CaptureRecord record;
+			while ((record = captureReader.next()) != null) {
+				this.readCount++;
+				if (record.getClassName() == null || record.getMemberName() == null || record.getValue().length == 0) {
+					this.skippedCount++;
+					continue;
+				}
+				Group group = null;
+				Object handle = null;
+				if (record.isAttribute()) {
+					ObjectClassHandle objectClass = this.offlineRti.findObjectClass(record.getClassName());
+					AttributeHandle attributeHandle = objectClass == null ? null : this.offlineRti.findAttribute(objectClass, record.getMemberName());
+					int attributeId = this.handleIndex.getAttributeId(attributeHandle);
+					if (attributeId >= 0 && record.getObjectName() != null) {
+						ObjectInstanceHandle theObject = this.offlineRti.objectInstance(record.getObjectName(), objectClass);
+						this.resultStore.addObjectInstance(theObject, objectClass);
+						group = group(record.getClassName() + "\u0000" + record.getMemberName(), this.handleIndex.getAttributeDataTypeName(attributeId), attributeId, true);
+						handle = theObject;
+					}
+				} else {
+					InteractionClassHandle interactionClass = this.offlineRti.findInteractionClass(record.getClassName());
+					ParameterHandle parameterHandle = interactionClass == null ? null : this.offlineRti.findParameter(interactionClass, record.getMemberName());
+					int parameterId = this.handleIndex.getParameterId(parameterHandle);
+					if (parameterId >= 0) {
+						group = group(record.getClassName() + "\u0000" + record.getMemberName(), this.handleIndex.getParameterDataTypeName(parameterId), parameterId, false);
+						handle = interactionClass;
+					}
+				}
+				if (group == null) {
+					logger.debug("EncodingRulesCheck.readCapture: not in the SOM files: " + record.getClassName() + " " + record.getMemberName());
+					this.skippedCount++;
+					continue;
+				}
+				group.handles[group.size] = handle;
+				group.values[group.size] = record.getValue();
+				group.size++;
+				if (group.size == BATCH_SIZE) {
+					submit(group);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test a buffer of a group, as testAttributeValue and testParameterValue
+	 * of EncodingRulesTesterBaseModel do
+	 *
+	 * @param group the group
+	 * @param handle the object instance or interaction class handle
+	 * @param b the buffer
+	 */
+	private void testBuffer(final Group group, final Object handle, final byte[] b) {
+		boolean correct;
+		String text;
+		try {
+			int calculatedLength = this.hlaDataTypes.testBuffer(group.dataType, b);
+			if (calculatedLength != b.length) {
+				correct = false;
+				text = "TEST BUFFER INCORRECT: overall length " + (group.attribute ? "calculation" : "caculation") + ": " + calculatedLength + " Buffer length: " + b.length + "\n";
+			} else {
+				correct = true;
+				text = "TEST BUFFER CORRECT\n";
+			}
+		} catch (EncodingRulesException e) {
+			correct = false;
+			text = "TEST BUFFER INCORRECT: " + e.getMessage() + "\n";
+		} catch (RuntimeException e) {
+			// As a validation worker of EncodingRulesTesterBaseModel does
+			correct = false;
+			text = "TEST BUFFER INCORRECT: validation failed: " + e + "\n";
+		}
+		if (group.attribute) {
+			this.resultStore.addAttributeResult((ObjectInstanceHandle) handle, group.id, correct, text);
+		} else {
+			this.resultStore.addParameterResult((InteractionClassHandle) handle, group.id, correct, text);
+		}
+	}
+
+	/**
+	 * Test the partly filled batches and wait until all buffers read are
+	 * tested, then stop the workers
+	 */
+	void testAll() {
+		try {
+			for (Group group : this.groups.values()) {
+				submit(group);
+			}
+			// All permits are back once every batch is tested
+			this.batchPermits.acquireUninterruptibly(this.maxBatches);
+			this.batchPermits.release(this.maxBatches);
+		} finally {
+			this.pool.shutdown();
+		}
+	}
+
+	/**
+	 * @return the result summary
+	 */
+	String getSummary() {
+		StringBuilder stringBuilder = new StringBuilder();
+		new ResultPrinter(this.resultStore, this.offlineRti.getRtiAmbassador(), logger).printSummary(stringBuilder);
+		stringBuilder.append("Capture files: BUFFERS: " + this.readCount + " SKIPPED: " + this.skippedCount + "\n");
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * @return the number of incorrect buffers
+	 */
+	long getIncorrect() {
+		return this.resultStore.getIncorrect();
+	}
+
+	private static void usage(final String error) {
+		System.err.println("EncodingRulesCheck: " + error);
+		System.err.println("Usage: EncodingRulesCheck [-workers n] [-rpr2] -som file [-som file ...] capture-file ...");
+		System.exit(2);
+	}
+
+	/**
+	 * @param args the command line arguments
+	 */
+	public static void main(final String[] args) {
+		List<File> somFiles = new ArrayList<File>();
+		List<File> captureFiles = new ArrayList<File>();
+		int workers = Runtime.getRuntime().availableProcessors();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-som") && i + 1 < args.length) {
+				somFiles.add(new File(args[++i]));
+			} else if (args[i].equals("-workers") && i + 1 < args.length) {
+				try {
+					workers = Integer.parseInt(args[++i]);
+				} catch (NumberFormatException e) {
+					usage("invalid number of workers: " + args[i]);
+				}
+				if (workers <= 0) {
+					usage("the number of workers has to be positive");
+				}
+			} else if (args[i].equals("-rpr2")) {
+				HlaDataVariableArrayType.setRPRv2_0();
+			} else if (args[i].startsWith("-")) {
+				usage("unknown option: " + args[i]);
+			} else {
+				captureFiles.add(new File(args[i]));
+			}
+		}
+		if (somFiles.isEmpty() || captureFiles.isEmpty()) {
+			usage("SOM files and capture files are required");
+		}
+
+		EncodingRulesCheck encodingRulesCheck = new EncodingRulesCheck(workers);
+		try {
+			encodingRulesCheck.readSom(somFiles);
+			for (File captureFile : captureFiles) {
+				encodingRulesCheck.readCapture(captureFile);
+			}
+		} catch (TcInconclusive | IOException e) {
+			System.err.println("EncodingRulesCheck: " + e.getMessage());
+			System.exit(2);
+		}
+		encodingRulesCheck.testAll();
+		System.out.print(encodingRulesCheck.getSummary());
+		System.exit(encodingRulesCheck.getIncorrect() == 0 ? 0 : 1);
+	}
+}
@@ -16,12 +16,18 @@ limitations under the License.
 
 package de.fraunhofer.iosb.tc_lib_encodingrulestester;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.util.AbstractMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -50,6 +56,7 @@ import hla.rti1516e.ObjectInstanceHandle;
 import hla.rti1516e.OrderType;
 import hla.rti1516e.ParameterHandle;
 import hla.rti1516e.ParameterHandleValueMap;
+import hla.rti1516e.RTIambassador;
 import hla.rti1516e.TransportationTypeHandle;
 import hla.rti1516e.exceptions.AttributeNotDefined;
 import hla.rti1516e.exceptions.FederateHandleNotKnown;
@@ -57,12 +64,10 @@ import hla.rti1516e.exceptions.FederateInternalError;
 import hla.rti1516e.exceptions.FederateNotExecutionMember;
 import hla.rti1516e.exceptions.FederateServiceInvocationsAreBeingReportedViaMOM;
 import hla.rti1516e.exceptions.InteractionClassNotDefined;
-import hla.rti1516e.exceptions.InteractionParameterNotDefined;
 import hla.rti1516e.exceptions.InvalidAttributeHandle;
 import hla.rti1516e.exceptions.InvalidFederateHandle;
 import hla.rti1516e.exceptions.InvalidInteractionClassHandle;
 import hla.rti1516e.exceptions.InvalidObjectClassHandle;
-import hla.rti1516e.exceptions.InvalidParameterHandle;
 import hla.rti1516e.exceptions.NotConnected;
 import hla.rti1516e.exceptions.ObjectClassNotDefined;
 import hla.rti1516e.exceptions.ObjectInstanceNotKnown;
@@ -70,151 +75,79 @@ import hla.rti1516e.exceptions.RTIinternalError;
 import hla.rti1516e.exceptions.RestoreInProgress;
 import hla.rti1516e.exceptions.SaveInProgress;
 
-/**
- * This class holds common result information for interaction
- * parameters and object attributes
- *
- * @author mul (Fraunhofer IOSB)
- */
-class ResultInfo {
-	private int correctCount = 0;
-	private int incorrectCount = 0;
-	private String text = null;
-	ResultInfo() {
-		this.correctCount = 0;
-		this.incorrectCount = 0;
-	}
-
-	/**
-	 * Stores the result data
-	 *
-	 * @param correct true is PASSED, false is FAILED
-	 * @param text the result verdict text
-	 */
-	void addInfo(final boolean correct, final String text) {
-		// Manage the count of correct/incorrect
-		if (correct) {
-			this.correctCount += 1;
-		} else {
-			this.incorrectCount += 1;
-		}
-		// Store first text message, only overwrite if incorrect
-		if (this.text == null) {
-			this.text = text;
-		} else {
-			if (correct == false) {
-				this.text = text;
-			}
-		}
-	}
-
-	/**
-	 * Gets the number of correct encodings parsed
-	 *
-	 * @return the number of correct encodings
-	 */
-	int getCorrectCount() {
-		return this.correctCount;
-	}
-	
-	/**
-	 * Gets the number of incorrect encodings parsed
-	 *
-	 * @return the number of incorrect encodings
-	 */
-	int getIncorrectCount() {
-		return this.incorrectCount;
-	}
-
-	/**
-	 * Get the text associated with the result verdict
-	 *
-	 * @return the text
-	 */
-	String getText() {
-		return this.text;
-	}
-}
-
-/**
- * This class adds attribute specific result information
- *
- * @author mul (Fraunhofer IOSB)
- */
-class ResultInfoAttribute extends ResultInfo{
-	private FederateHandle federateHandle;
-	private String federateName;
-	private boolean gotFederateName = false;
-	void addOwner() {
-	}
-
-	/**
-	 * Store the federate handle
-	 *
-	 * @param federateHandle
-	 */
-	void addFederateHandle(final FederateHandle federateHandle) {
-		this.federateHandle = federateHandle;
-	}
-
-	/**
-	 * Store the federate name
-	 *
-	 * @param federateName
-	 */
-	void addFederateName(final String federateName) {
-		this.federateName = federateName;
-		this.gotFederateName = true;
-	}
-
-	/**
-	 * Get the federate handle
-	 *
-	 * @return the federate handle
-	 */
-	FederateHandle getFederateHandle() {
-		return this.federateHandle;
-	}
-
-	/**
-	 * Get the federate name
-	 *
-	 * @return the federate name
-	 */
-	String getFederateName() {
-		return this.federateName;
-	}
-
-	/**
-	 * Check if the federate name is known
-	 *
-	 * @return whether the federate name is known
-	 */
-	boolean haveFederateName() {
-		return this.gotFederateName;
-	}
-}
-
 /**
  * @author mul (Fraunhofer IOSB)
  */
 public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
-	private boolean                                        errorOccurred = false;
 	private String                                         errorText = new String("Encoding error found");
 
-	private int correct = 0;
-	private int incorrect = 0;
     private IVCT_RTIambassador                             ivct_rti;
     private IVCT_TcParam ivct_TcParam;
     private Logger                                         logger;
     private Map<InteractionClassHandle, Set<ParameterHandle>> interactionClassHandleMap = new HashMap<InteractionClassHandle, Set<ParameterHandle>>();
     private Map<ParameterHandle, String> parameterHandleDataTypeMap = new HashMap<ParameterHandle, String>();
     private Map<ObjectClassHandle, ObjectClassData> objectClassAttributeHandleMap = new HashMap<ObjectClassHandle, ObjectClassData>();
-	private final Map<InteractionClassHandle, Map<ParameterHandle, ResultInfo>> interactionParameterResultsmap = new HashMap<InteractionClassHandle, Map<ParameterHandle, ResultInfo>>();
-	private final Map<ObjectInstanceHandle, Map<AttributeHandle, ResultInfoAttribute>> objectAttributeResultsmap = new HashMap<ObjectInstanceHandle, Map<AttributeHandle, ResultInfoAttribute>>();
+	// The test results, may be updated by several validation workers
+	private final ResultStore resultStore = new ResultStore();
+	private final ResultPrinter resultPrinter;
 	private Map<AttributeHandle, String> attributeHandleDataTypeMap = new HashMap<AttributeHandle, String>();
 	// FOM/SOM data types
 	private HlaDataTypes hlaDataTypes = new HlaDataTypes();
+	// Dense ids of the attribute and parameter handles, built once all SOMs are read
+	private HandleIndex handleIndex = HandleIndex.EMPTY;
+	// The compiled data types indexed by attribute and parameter id, null if not found
+	private HlaDataType[] attributeDataTypes = new HlaDataType[0];
+	private HlaDataType[] parameterDataTypes = new HlaDataType[0];
+	// Null if the buffers are tested within the RTI callback, set and read by different threads
+	private volatile ValidationPipeline validationPipeline = null;
+	private int validationWorkers = 0;
+	private int validationQueueSize = 65536;
+	// Callbacks dropped by the stopped validation pipeline
+	private long validationDropped = 0;
+	// Maximum time to wait for the validation workers to finish
+	private static final long VALIDATION_DRAIN_TIMEOUT = 10000;
+	// Names of the handles for the diagnostic messages
+	private final HandleNameCache handleNameCache;
+	// With aggregation and validation workers, the object instances with validation tasks not yet tested
+	private final ConcurrentMap<ObjectInstanceHandle, PendingObjectTasks> pendingObjectTasks = new ConcurrentHashMap<ObjectInstanceHandle, PendingObjectTasks>();
+	// Ownership queries of failed attributes tested by the validation workers, issued on the RTI thread
+	private final Set<Map.Entry<ObjectInstanceHandle, AttributeHandle>> pendingOwnershipQueries = ConcurrentHashMap.newKeySet();
+	// Display the bytes of every n-th buffer, 0 displays none
+	private int hexDumpInterval = 1;
+	private final AtomicLong hexDumpCounter = new AtomicLong(0);
+	// Verdicts of recently tested attribute buffers, null if disabled
+	private ValidationCache validationCache = null;
+	// Skips buffers of the attributes and parameters proven stable, null if every buffer is tested
+	private ValidationSampler validationSampler = null;
+	// Records the received buffers, null if disabled
+	private volatile CaptureWriter captureWriter = null;
+	private String captureFile = null;
+	private int captureSegmentSize = 64 * 1024 * 1024;
+	// Directory of the compiled SOM data cache files, null if disabled
+	private String modelCacheDir = null;
+	// Read the SOM files with SomStreamReader instead of building the DOM
+	private boolean streamSomReader = false;
+	// Number of results per attribute and parameter to end the test early, 0 if disabled
+	private int completionResultCount = 0;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The number of validation tasks of an object instance not yet tested and,
+     * once the object instance is removed, its class and name. Never changed,
+     * replaced by compare and set in pendingObjectTasks.
+     */
+    private static final class PendingObjectTasks {
+        private final int count;
+        // Null while the object instance is not removed
+        private final ObjectClassHandle removedObjectClass;
+        private final String removedObjectName;
+
+        private PendingObjectTasks(final int count, final ObjectClassHandle removedObjectClass, final String removedObjectName) {
+            this.count = count;
+            this.removedObjectClass = removedObjectClass;
+            this.removedObjectName = removedObjectName;
+        }
+    }
 
     /**
      * @param logger reference to a logger
@@ -226,6 +159,32 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
         this.logger = logger;
         this.ivct_rti = ivct_rti;
         this.ivct_TcParam = ivct_TcParam;
+        this.handleNameCache = new HandleNameCache(ivct_rti);
+        this.resultPrinter = new ResultPrinter(this.resultStore, ivct_rti, logger);
+        if (ivct_TcParam instanceof EncodingRulesTesterTcParam) {
+            this.validationWorkers = ((EncodingRulesTesterTcParam) ivct_TcParam).getValidationWorkers();
+            this.validationQueueSize = ((EncodingRulesTesterTcParam) ivct_TcParam).getValidationQueueSize();
+            this.hexDumpInterval = ((EncodingRulesTesterTcParam) ivct_TcParam).getHexDumpInterval();
+            int validationCacheSize = ((EncodingRulesTesterTcParam) ivct_TcParam).getValidationCacheSize();
+            if (validationCacheSize > 0) {
+                this.validationCache = new ValidationCache(validationCacheSize);
+            }
+            int samplingThreshold = ((EncodingRulesTesterTcParam) ivct_TcParam).getSamplingThreshold();
+            if (samplingThreshold > 0) {
+                this.validationSampler = new ValidationSampler(samplingThreshold, ((EncodingRulesTesterTcParam) ivct_TcParam).getSamplingRate(), ((EncodingRulesTesterTcParam) ivct_TcParam).getSamplingProbability());
+            }
+            this.captureFile = ((EncodingRulesTesterTcParam) ivct_TcParam).getCaptureFile();
+            this.captureSegmentSize = ((EncodingRulesTesterTcParam) ivct_TcParam).getCaptureSegmentSize();
+            this.modelCacheDir = ((EncodingRulesTesterTcParam) ivct_TcParam).getModelCacheDir();
+            this.streamSomReader = ((EncodingRulesTesterTcParam) ivct_TcParam).getStreamSomReader();
+            this.completionResultCount = ((EncodingRulesTesterTcParam) ivct_TcParam).getCompletionResultCount();
+            if (this.completionResultCount > 0) {
+                this.resultStore.setRequiredResults(this.completionResultCount);
+            }
+            if (((EncodingRulesTesterTcParam) ivct_TcParam).getAggregateResults()) {
+                this.resultStore.setAggregation(((EncodingRulesTesterTcParam) ivct_TcParam).getAggregateFailingInstances());
+            }
+        }
         logger.warn("DISPLAY SOME HELPER VERSION NUMBER TO CONFIRM VERSION USED: 2019-01-04T15:00");
     }
 
@@ -240,37 +199,56 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
      * @return returns whether all interactions have been checked
      */
     public boolean getWhetherAllInteractionsChecked() {
-		for (Map.Entry<InteractionClassHandle, Map<ParameterHandle, ResultInfo>> entry : this.interactionParameterResultsmap.entrySet()) {
-			Map<ParameterHandle, ResultInfo> atts = entry.getValue();
-			for(Map.Entry<ParameterHandle, ResultInfo> parRes :  atts.entrySet()) {
-				if (parRes.getValue().getCorrectCount() == 0 && parRes.getValue().getIncorrectCount() == 0) {
-					return false;
-				}
-			}
-		}
-    	return true;
+    	return this.resultStore.allParametersChecked();
     }
 
     /**
      * @return returns whether all attribute have been checked detected
      */
     public boolean getWhetherAllAttibutesChecked() {
-		for (Map.Entry<ObjectInstanceHandle, Map<AttributeHandle, ResultInfoAttribute>> entry : this.objectAttributeResultsmap.entrySet()) {
-			Map<AttributeHandle, ResultInfoAttribute> atts = entry.getValue();
-			for(Map.Entry<AttributeHandle, ResultInfoAttribute> attRes :  atts.entrySet()) {
-				if (attRes.getValue().getCorrectCount() == 0 && attRes.getValue().getIncorrectCount() == 0) {
-					return false;
-				}
-			}
-		}
-    	return true;
+    	return this.resultStore.allAttributesChecked();
+    }
+
+    /**
+     * @return returns the percentage of the parameters of the interaction classes checked at least once
+     */
+    public int getParametersCheckedPercent() {
+    	return this.resultStore.getParameterCoverage().getCheckedPercent();
+    }
+
+    /**
+     * @return returns the percentage of the attributes of the discovered objects checked at least once
+     */
+    public int getAttributesCheckedPercent() {
+    	return this.resultStore.getAttributeCoverage().getCheckedPercent();
+    }
+
+    /**
+     * @return returns whether the test may end early, see waitForCompletion
+     */
+    public boolean getEarlyCompletion() {
+    	return this.completionResultCount > 0;
+    }
+
+    /**
+     * @return returns whether every attribute of the discovered objects and every parameter has completionResultCount results
+     */
+    public boolean getWhetherComplete() {
+    	return this.resultStore.isComplete();
+    }
+
+    /**
+     * @return returns the percentage of the attributes of the discovered objects and the parameters with completionResultCount results
+     */
+    public int getCompletionPercent() {
+    	return this.resultStore.getCompletePercent();
     }
 
     /**
      * @return returns whether an error was detected
      */
     public boolean getErrorOccurred() {
-    	return this.errorOccurred;
+    	return this.resultStore.getErrorOccurred();
     }
 
     /**
@@ -284,14 +262,14 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
      * @return returns the failed count
      */
     public int getCorrect() {
-    	return this.correct;
+    	return (int) this.resultStore.getCorrect();
     }
 
     /**
      * @return returns the inconclusive count
      */
     public int getIncorrect() {
-    	return this.incorrect;
+    	return (int) this.resultStore.getIncorrect();
     }
 
     /**
@@ -309,6 +287,27 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
         return false;
     }
 
+    /**
+     * Sleep until getWhetherComplete holds or the time is over, without
+     * completionResultCount sleep the whole time
+     *
+     * @param maxWaitTime maximum time to wait
+     * @return true means problem, false is ok
+     */
+    public boolean waitForCompletion(final long maxWaitTime) {
+        if (this.completionResultCount == 0) {
+            return sleepFor(maxWaitTime);
+        }
+        try {
+            this.resultStore.awaitCompletion(maxWaitTime);
+        }
+        catch (final InterruptedException ex) {
+            return true;
+        }
+
+        return false;
+    }
+
 
     /**
      * Subscribe interactions and object attributes
@@ -320,27 +319,52 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
     	processSOM();
     	Boolean b = new Boolean(false);
 
+    	// Open the capture file before any callback can arrive
+    	if (this.captureFile != null && this.captureWriter == null) {
+    		try {
+    			this.captureWriter = new CaptureWriter(new File(this.captureFile), this.captureSegmentSize);
+    		} catch (IOException e) {
+    			this.logger.error("EncodingRulesTesterBaseModel.init: cannot create capture file: " + this.captureFile + " " + e);
+    			throw new TcInconclusive("EncodingRulesTesterBaseModel.init: cannot create capture file: " + this.captureFile);
+    		}
+    	}
+
+    	// Start the validation workers before any callback can arrive
+    	if (this.validationWorkers > 0 && this.validationPipeline == null) {
+    		this.validationPipeline = new ValidationPipeline(this.validationWorkers, this.validationQueueSize, new ValidationPipeline.Handler() {
+    			@Override
+    			public void validate(final ValidationTask task, final int index) {
+    				doValidationTask(task, index);
+    			}
+
+    			@Override
+    			public void failed(final ValidationTask task, final int index, final RuntimeException e) {
+    				failValidationTask(task, index, e);
+    			}
+
+    			@Override
+    			public void completed(final ValidationTask task) {
+    				if (task.theObject != null && resultStore.getAggregation()) {
+    					completePendingTask(task.theObject);
+    				}
+    			}
+    		});
+    		this.validationPipeline.start();
+    	}
+
         // Subscribe interactions
     	this.logger.trace("EncodingRulesTesterBaseModel.init: subscribe interactions");
 		try {
 			for (Map.Entry<InteractionClassHandle, Set<ParameterHandle>> entry : this.interactionClassHandleMap.entrySet()) {
-				this.logger.trace("EncodingRulesTesterBaseModel.init: subscribe " + this.ivct_rti.getInteractionClassName(entry.getKey()));
+				String interactionClassName = this.ivct_rti.getInteractionClassName(entry.getKey());
+				this.handleNameCache.putInteractionClass(entry.getKey(), interactionClassName);
+				this.logger.trace("EncodingRulesTesterBaseModel.init: subscribe " + interactionClassName);
+				for (ParameterHandle parameterHandle : entry.getValue()) {
+					this.handleNameCache.getParameterName(entry.getKey(), parameterHandle);
+				}
 				this.ivct_rti.subscribeInteractionClass(entry.getKey());
 
-                Map<ParameterHandle, ResultInfo> parameterResultMap = this.interactionParameterResultsmap.get(entry.getKey());
-                if (parameterResultMap == null) {
-                    // Interaction not managed - create all elements
-                    Set<ParameterHandle> phs = interactionClassHandleMap.get(entry.getKey());
-                    if (phs != null) {
-                        Map<ParameterHandle, ResultInfo> tmpParameterResultMap = new HashMap<ParameterHandle, ResultInfo>();
-                        for (ParameterHandle parameterHandle : phs) {
-                            ResultInfo resultInfo = new ResultInfo();
-                            tmpParameterResultMap.put(parameterHandle, resultInfo);
-                        }
-                        this.interactionParameterResultsmap.put(entry.getKey(), tmpParameterResultMap);
-                        this.logger.trace("EncodingRulesTesterBaseModel.addParameterResult: A size " + this.interactionParameterResultsmap.size());
-                    }
-                }
+                this.resultStore.addInteractionClass(entry.getKey());
 			}
 		}
 		catch (FederateServiceInvocationsAreBeingReportedViaMOM e) {
@@ -391,10 +415,14 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
 					if (entry.getValue().classLevelDepth != ind) {
 						continue;
 					}
-					this.logger.debug("EncodingRulesTesterBaseModel.init: subscribe " + this.ivct_rti.getObjectClassName(entry.getKey()));
+					String objectClassName = this.ivct_rti.getObjectClassName(entry.getKey());
+					this.handleNameCache.putObjectClass(entry.getKey(), objectClassName);
+					this.logger.debug("EncodingRulesTesterBaseModel.init: subscribe " + objectClassName);
 					AttributeHandleSet ahs = entry.getValue().attributeHandleSet;
 					for (AttributeHandle att : ahs) {
-						this.logger.debug("EncodingRulesTesterBaseModel.init: attribute " + this.ivct_rti.getAttributeName(entry.getKey(), att));
+						String attributeName = this.ivct_rti.getAttributeName(entry.getKey(), att);
+						this.handleNameCache.putAttribute(entry.getKey(), att, attributeName);
+						this.logger.debug("EncodingRulesTesterBaseModel.init: attribute " + attributeName);
 					}
 					this.ivct_rti.subscribeObjectClassAttributes(entry.getKey(), entry.getValue().attributeHandleSet);
 				}
@@ -488,22 +516,51 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
 
     /**
      * Read the SOM files and build up an internal data cache to use within this
-     * library.
+     * library. With modelCacheDir, the data is read from the cache file of
+     * the SOM files if there is one, else it is written to it. With
+     * streamSomReader, the SOM files are read in a single pass without the DOM.
      * 
      * @throws TcInconclusive for errors
      */
     private void processSOM() throws TcInconclusive {
         URL[] somUrls = this.ivct_TcParam.getUrls();
 
+        CompiledModelCache compiledModelCache = null;
+        if (this.modelCacheDir != null) {
+            try {
+                compiledModelCache = new CompiledModelCache(new File(this.modelCacheDir), somUrls);
+            } catch (IOException e) {
+                // Reported when reading the SOM files
+                this.logger.warn("EncodingRulesTesterBaseModel.processSOM: cannot hash the SOM files: " + e);
+            }
+        }
+        if (compiledModelCache != null && compiledModelCache.load(this.ivct_rti, this.hlaDataTypes, this.interactionClassHandleMap, this.parameterHandleDataTypeMap, this.objectClassAttributeHandleMap, this.attributeHandleDataTypeMap)) {
+            this.logger.info("EncodingRulesTesterBaseModel.processSOM: SOM data read from: " + compiledModelCache.getCacheFile());
+            this.handleIndex = new HandleIndex(this.attributeHandleDataTypeMap, this.parameterHandleDataTypeMap, this.interactionClassHandleMap, this.objectClassAttributeHandleMap);
+            this.resultStore.setHandleIndex(this.handleIndex);
+            compileDataTypes();
+            return;
+        }
+
 		try {
-			DataTreeBuilder dataTreeBuilder = new DataTreeBuilder(this.ivct_rti, this.hlaDataTypes, this.interactionClassHandleMap, this.parameterHandleDataTypeMap, this.objectClassAttributeHandleMap, this.attributeHandleDataTypeMap);
+			// Records the handle lookups for the cache file
+			RTIambassador rtiAmbassador = compiledModelCache == null ? this.ivct_rti : compiledModelCache.recordingAmbassador(this.ivct_rti);
+			DataTreeBuilder dataTreeBuilder = new DataTreeBuilder(rtiAmbassador, this.hlaDataTypes, this.interactionClassHandleMap, this.parameterHandleDataTypeMap, this.objectClassAttributeHandleMap, this.attributeHandleDataTypeMap);
 			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 			DocumentBuilder builder = factory.newDocumentBuilder();
 			
 			for (int i = 0; i < somUrls.length; i++) {
-				Document document = builder.parse(somUrls[i].toString());
-				Element elem = document.getDocumentElement();
-				if (dataTreeBuilder.buildData(elem)) {
+				boolean error;
+				if (this.streamSomReader) {
+					try (InputStream inputStream = somUrls[i].openStream()) {
+						error = dataTreeBuilder.buildData(inputStream, somUrls[i].toString());
+					}
+				} else {
+					Document document = builder.parse(somUrls[i].toString());
+					Element elem = document.getDocumentElement();
+					error = dataTreeBuilder.buildData(elem);
+				}
+				if (error) {
 		            throw new TcInconclusive("EncodingRulesTesterBaseModel.processSOM: error in dataTreeBuilder.buildData");
 				}
 			}
@@ -512,6 +569,12 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
 				this.logger.debug("processSOM attributeHandle: " + entry.getKey() + " type: " + entry.getValue());
 			}
 			this.logger.debug("processSOM attributeHandle: AFTER");
+			this.handleIndex = dataTreeBuilder.buildHandleIndex();
+			this.resultStore.setHandleIndex(this.handleIndex);
+			compileDataTypes();
+			if (compiledModelCache != null && compiledModelCache.store(this.hlaDataTypes, this.interactionClassHandleMap, this.parameterHandleDataTypeMap, this.objectClassAttributeHandleMap, this.attributeHandleDataTypeMap) == false) {
+				this.logger.info("EncodingRulesTesterBaseModel.processSOM: SOM data written to: " + compiledModelCache.getCacheFile());
+			}
 		}
 		catch (FactoryConfigurationError e) {
 			this.logger.error("EncodingRulesTesterBaseModel.processSOM: exception: " + e);
@@ -531,60 +594,64 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
 		}
     }
 
+    /**
+     * Compile the data types and link each attribute and parameter id
+     * directly to its data type, this avoids name lookups for each buffer
+     */
+    private void compileDataTypes() {
+		int notCompiled = this.hlaDataTypes.compile();
+		if (notCompiled != 0) {
+			this.logger.warn("EncodingRulesTesterBaseModel.compileDataTypes: data types not compiled: " + notCompiled);
+		}
+		HlaDataType[] tmpAttributeDataTypes = new HlaDataType[this.handleIndex.getAttributeCount()];
+		for (int id = 0; id < tmpAttributeDataTypes.length; id++) {
+			tmpAttributeDataTypes[id] = this.hlaDataTypes.dataTypeMap.get(this.handleIndex.getAttributeDataTypeName(id));
+		}
+		HlaDataType[] tmpParameterDataTypes = new HlaDataType[this.handleIndex.getParameterCount()];
+		for (int id = 0; id < tmpParameterDataTypes.length; id++) {
+			tmpParameterDataTypes[id] = this.hlaDataTypes.dataTypeMap.get(this.handleIndex.getParameterDataTypeName(id));
+		}
+		this.attributeDataTypes = tmpAttributeDataTypes;
+		this.parameterDataTypes = tmpParameterDataTypes;
+    }
+
     /**
      * @param in byte value to be displayed as string
      * @return the string value corresponding to the byte value
      */
     private static String bytesToHex(byte[] in) {
-        final StringBuilder builder = new StringBuilder();
-        for(byte b : in) {
-            builder.append(String.format("%02x", b));
+        final char[] chars = new char[in.length * 2];
+        for (int i = 0; i < in.length; i++) {
+            chars[2 * i] = HEX_DIGITS[(in[i] >> 4) & 0x0f];
+            chars[2 * i + 1] = HEX_DIGITS[in[i] & 0x0f];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Decide whether the bytes of a buffer are displayed, the message is only
+     * built if it is logged
+     *
+     * @return true if the buffer is to be displayed
+     */
+    private boolean displayBuffer() {
+        if (this.hexDumpInterval == 0 || this.logger.isInfoEnabled() == false) {
+            return false;
         }
-        return builder.toString();
+        return this.hexDumpInterval == 1 || this.hexDumpCounter.getAndIncrement() % this.hexDumpInterval == 0;
     }
 
     /**
      * A function to deal with all the possibilities of adding to a map within a map.
      * 
      * @param theInteraction the HLA interaction handle
-     * @param theParameter the HLA parameter handle
+     * @param parameterId the parameter id from the handle index
      * @param b whether the test was positive
      * @param text the text message
      */
-    private void addParameterResult(final InteractionClassHandle theInteraction, final ParameterHandle theParameter, final boolean b, final String text) {
+    private void addParameterResult(final InteractionClassHandle theInteraction, final int parameterId, final boolean b, final String text) {
     	this.logger.trace("EncodingRulesTesterBaseModel.addParameterResult: enter");
-    	/*
-    	 * Check if interaction already managed
-    	 */
-    	Map<ParameterHandle, ResultInfo> parameterResultMap = this.interactionParameterResultsmap.get(theInteraction);
-    	if (parameterResultMap == null) {
-        	this.logger.trace("EncodingRulesTesterBaseModel.addParameterResult: A");
-    		// Interaction not managed - create all elements
-        	ResultInfo resultInfo = new ResultInfo();
-        	resultInfo.addInfo(b, text);
-        	Map<ParameterHandle, ResultInfo> tmpParameterResultMap = new HashMap<ParameterHandle, ResultInfo>();
-        	tmpParameterResultMap.put(theParameter, resultInfo);
-        	this.interactionParameterResultsmap.put(theInteraction, tmpParameterResultMap);
-        	this.logger.trace("EncodingRulesTesterBaseModel.addParameterResult: A size " + this.interactionParameterResultsmap.size());
-    	} else {
-        	this.logger.trace("EncodingRulesTesterBaseModel.addParameterResult: B");
-    		// Interaction is already managed
-    		ResultInfo tmpResultInfo = parameterResultMap.get(theParameter);
-    		/*
-    		 * Check if parameter is already managed
-    		 */
-    		if (tmpResultInfo == null) {
-            	this.logger.trace("EncodingRulesTesterBaseModel.addParameterResult: C");
-    			// Parameter not managed - create result info
-            	ResultInfo resultInfo = new ResultInfo();
-            	resultInfo.addInfo(b, text);
-            	parameterResultMap.put(theParameter, resultInfo);
-    		} else {
-            	this.logger.trace("EncodingRulesTesterBaseModel.addParameterResult: D");
-    			// Parameter is already managed - update.
-    			tmpResultInfo.addInfo(b, text);
-    		}
-    	}
+    	this.resultStore.addParameterResult(theInteraction, parameterId, b, text);
     	this.logger.trace("EncodingRulesTesterBaseModel.addParameterResult: leave");
     }
 
@@ -593,57 +660,20 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
      * Print the result data for all interactions parameters
      */
     public void printParameterResults(StringBuilder stringBuilder) {
-        stringBuilder.append("\n\nInteraction Parameter Summary \n");
-        if (this.interactionParameterResultsmap.isEmpty()) {
-            stringBuilder.append("- No Results -\n");
-            return;
-        }
-    	String interactionClassName = null;
-    	for (Map.Entry<InteractionClassHandle, Map<ParameterHandle, ResultInfo>> entryInteraction : this.interactionParameterResultsmap.entrySet()) {
-    		try {
-				interactionClassName = this.ivct_rti.getInteractionClassName(entryInteraction.getKey());
-			} catch (InvalidInteractionClassHandle | FederateNotExecutionMember | NotConnected | RTIinternalError e) {
-                this.logger.error("EncodingRulesTesterBaseModel.printParameterResults: " + e);
-				continue;
-			}
-            Map<ParameterHandle, ResultInfo> val = entryInteraction.getValue();
-            if (val.size() > 0) {
-                stringBuilder.append("INTERACTION: " + interactionClassName + "\n");
-            } else {
-                continue;
-            }
-    		String parameterName = null;
-    		for (Map.Entry<ParameterHandle, ResultInfo> entryParameter : entryInteraction.getValue().entrySet()) {
-    			try {
-					parameterName = this.ivct_rti.getParameterName(entryInteraction.getKey(), entryParameter.getKey());
-				} catch (InteractionParameterNotDefined | InvalidParameterHandle | InvalidInteractionClassHandle
-						| FederateNotExecutionMember | NotConnected | RTIinternalError e) {
-                    this.logger.error("EncodingRulesTesterBaseModel.printParameterResults: " + e);
-				}
-                if (entryParameter.getValue().getIncorrectCount() == 0) {
-                    stringBuilder.append("    PARAMETER: " + parameterName + " CORRECT: " + entryParameter.getValue().getCorrectCount() + " INCORRECT: " + entryParameter.getValue().getIncorrectCount());
-                } else {
-                    stringBuilder.append("    PARAMETER: " + parameterName + " CORRECT: " + entryParameter.getValue().getCorrectCount() + " INCORRECT: " + entryParameter.getValue().getIncorrectCount() + " TEXT: " + entryParameter.getValue().getText());
-                }
-                stringBuilder.append("\n");
-            }
-    	}
+        this.resultPrinter.printParameterResults(stringBuilder);
     }
 
     /**
      * @param interactionClass the interaction class
      * @param parameterHandle the parameter handle
      * @param b byte field containing attribute data
+     * @param rtiThread whether called within the RTI callback, else by a validation worker
      */
-    private void displayReceiveParameterValuesMessage(final InteractionClassHandle interactionClass, final ParameterHandle parameterHandle, final byte b[]) {
-        String interactionName = null;
-        String parameterName = null;
-        try {
-            interactionName = this.ivct_rti.getInteractionClassName(interactionClass);
-            parameterName = this.ivct_rti.getParameterName(interactionClass, parameterHandle);
-        } catch (InvalidInteractionClassHandle | FederateNotExecutionMember | NotConnected | RTIinternalError | InteractionParameterNotDefined | InvalidParameterHandle e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+    private void displayReceiveParameterValuesMessage(final InteractionClassHandle interactionClass, final ParameterHandle parameterHandle, final byte b[], final boolean rtiThread) {
+        String interactionName = this.handleNameCache.getInteractionClassName(interactionClass, rtiThread);
+        String parameterName = this.handleNameCache.getParameterName(interactionClass, parameterHandle, rtiThread);
+        if (interactionName == null || parameterName == null) {
+            this.logger.error("EncodingRulesTesterBaseModel.displayReceiveParameterValuesMessage: cannot get names for: " + interactionClass + " " + parameterHandle);
             return;
         }
         String sNames = new String("Interaction: " + interactionName + " Parameter: " + parameterName);
@@ -664,57 +694,82 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
     private void doReceiveInteraction(final InteractionClassHandle interactionClass, final ParameterHandleValueMap theParameters) {
         this.logger.debug("EncodingRulesTesterBaseModel.doReceiveInteraction: enter");
 
-        for (Map.Entry<ParameterHandle, byte[]> entry : theParameters.entrySet()) {
-            ParameterHandle ph = entry.getKey();
-            this.logger.debug("EncodingRulesTesterBaseModel.doReceiveInteraction:  GOT parameter " + ph);
-            String dataTypeName = this.parameterHandleDataTypeMap.get(ph);
-            if (dataTypeName == null) {
-                this.logger.error("EncodingRulesTesterBaseModel.doReceiveInteraction cannot get data type for: " + ph);
-                continue;
-            }
-            this.logger.debug("EncodingRulesTesterBaseModel.doReceiveInteraction: GOT receiveInteraction " + dataTypeName);
-            HlaDataType hdt = this.hlaDataTypes.dataTypeMap.get(dataTypeName);
-            if (hdt == null) {
-                this.logger.error("EncodingRulesTesterBaseModel.doReceiveInteraction cannot get data type: " + dataTypeName);
-                continue;
+        if (this.pendingOwnershipQueries.isEmpty() == false) {
+            issueOwnershipQueries();
+        }
+
+        if (this.captureWriter != null) {
+            capture(null, interactionClass, theParameters, null);
+        }
+
+        ValidationPipeline tmpValidationPipeline = this.validationPipeline;
+        if (tmpValidationPipeline != null) {
+            // The buffers are tested by the validation workers
+            if (tmpValidationPipeline.submit(ValidationTask.parameters(interactionClass, theParameters)) == false) {
+                logDropped(tmpValidationPipeline, "EncodingRulesTesterBaseModel.doReceiveInteraction: validation queue full, interaction dropped");
             }
-            byte b[] = theParameters.get(ph);
-            if (b == null) {
-                // Empty buffer allowed for interactions.
-                continue;
+            return;
+        }
+        for (Map.Entry<ParameterHandle, byte[]> entry : theParameters.entrySet()) {
+            testParameterValue(interactionClass, entry.getKey(), entry.getValue(), true);
+        }
+        this.logger.debug("EncodingRulesTesterBaseModel.doReceiveInteraction: leave");
+    }
+
+    /**
+     * @param interactionClass specify the interaction class
+     * @param ph the parameter handle
+     * @param b the parameter value
+     * @param rtiThread whether called within the RTI callback, else by a validation worker
+     */
+    private void testParameterValue(final InteractionClassHandle interactionClass, final ParameterHandle ph, final byte b[], final boolean rtiThread) {
+        this.logger.debug("EncodingRulesTesterBaseModel.doReceiveInteraction:  GOT parameter " + ph);
+        final int parameterId = this.handleIndex.getParameterId(ph);
+        if (parameterId < 0) {
+            this.logger.error("EncodingRulesTesterBaseModel.doReceiveInteraction cannot get data type for: " + ph);
+            return;
+        }
+        HlaDataType hdt = this.parameterDataTypes[parameterId];
+        if (hdt == null) {
+            this.logger.error("EncodingRulesTesterBaseModel.doReceiveInteraction cannot get data type: " + this.handleIndex.getParameterDataTypeName(parameterId));
+            return;
+        }
+        this.logger.debug("EncodingRulesTesterBaseModel.doReceiveInteraction: GOT receiveInteraction " + hdt.dataTypeName);
+        if (b == null) {
+            // Empty buffer allowed for interactions.
+            return;
+        }
+        this.logger.debug("EncodingRulesTesterBaseModel.doReceiveInteraction: length " + b.length);
+        if (this.validationSampler != null && b.length != 0) {
+            ResultInfo resultInfo = this.resultStore.getParameterResult(interactionClass, parameterId);
+            if (this.validationSampler.isSampledOut(resultInfo)) {
+                this.resultStore.addSkipped(resultInfo);
+                return;
             }
-            this.logger.debug("EncodingRulesTesterBaseModel.doReceiveInteraction: length " + b.length);
-//            for (int i = 0; i < b.length; i++) {
-//                this.logger.trace("EncodingRulesTesterBaseModel.doReceiveInteraction: byte " + b[i]);
-//            }
-            try {
-                if (b.length != 0) {
-                    displayReceiveParameterValuesMessage(interactionClass, ph, b);
-                    int calculatedLength = hdt.testBuffer(entry.getValue(), 0, this.hlaDataTypes);
-                    if (calculatedLength != entry.getValue().length) {
-                        String error = "TEST BUFFER INCORRECT: overall length caculation: " + calculatedLength + " Buffer length: " + entry.getValue().length + "\n";
-                        this.logger.error(error);
-                        this.errorOccurred = true;
-                        addParameterResult(interactionClass, ph, false, error);
-                        this.incorrect += 1;
-                    } else {
-                        String ok = "TEST BUFFER CORRECT\n";
-                        this.logger.info(ok);
-                        addParameterResult(interactionClass, ph, true, ok);
-                        this.correct += 1;
-                    }
+        }
+        try {
+            if (b.length != 0) {
+                if (displayBuffer()) {
+                    displayReceiveParameterValuesMessage(interactionClass, ph, b, rtiThread);
+                }
+                int calculatedLength = this.hlaDataTypes.testBuffer(hdt, b);
+                if (calculatedLength != b.length) {
+                    String error = "TEST BUFFER INCORRECT: overall length caculation: " + calculatedLength + " Buffer length: " + b.length + "\n";
+                    this.logger.error(error);
+                    addParameterResult(interactionClass, parameterId, false, error);
                 } else {
-                    this.logger.warn("EncodingRulesTesterBaseModel.doReceiveInteraction: buffer length zero");
+                    String ok = "TEST BUFFER CORRECT\n";
+                    this.logger.info(ok);
+                    addParameterResult(interactionClass, parameterId, true, ok);
                 }
-			} catch (EncodingRulesException e) {
-				String error = "TEST BUFFER INCORRECT: " + e.getMessage() + "\n";
-				this.logger.error(error);
-	            this.errorOccurred = true;
-				addParameterResult(interactionClass, ph, false, error);
-				this.incorrect += 1;
-			}
+            } else {
+                this.logger.warn("EncodingRulesTesterBaseModel.doReceiveInteraction: buffer length zero");
+            }
+        } catch (EncodingRulesException e) {
+            String error = "TEST BUFFER INCORRECT: " + e.getMessage() + "\n";
+            this.logger.error(error);
+            addParameterResult(interactionClass, parameterId, false, error);
         }
-        this.logger.debug("EncodingRulesTesterBaseModel.doReceiveInteraction: leave");
     }
 
     /**
@@ -750,51 +805,95 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
     @Override
     public void discoverObjectInstance(final ObjectInstanceHandle theObject, final ObjectClassHandle theObjectClass, final String objectName) throws FederateInternalError {
         this.logger.debug("EncodingRulesTesterBaseModel.discoverObjectInstance: objectName: " + objectName);
+        this.handleNameCache.putObjectInstance(theObject, theObjectClass, objectName);
 
-        /*
-         * Check if object already managed
-         */
-        Map<AttributeHandle, ResultInfoAttribute> attributeResultMap = this.objectAttributeResultsmap.get(theObject);
-        if (attributeResultMap == null) {
-            // Object not managed yet - create all elements
-            Map<AttributeHandle, ResultInfoAttribute> tmpAttributeResultMap = new HashMap<AttributeHandle, ResultInfoAttribute>();
-
-            ObjectClassData tmpObjectClassData = this.objectClassAttributeHandleMap.get(theObjectClass);
-            if (tmpObjectClassData != null) {
-                AttributeHandleSet ahs = tmpObjectClassData.attributeHandleSet;
-                for (AttributeHandle att : ahs) {
-                    ResultInfoAttribute tmpResultInfo = new ResultInfoAttribute();
-                    tmpAttributeResultMap.put(att, tmpResultInfo);
-                }
-                this.objectAttributeResultsmap.put(theObject, tmpAttributeResultMap);
-                } else {
-                // Object rediscovered after localDeleteObjectInstance - add only not-yet-managed attributes
-                ObjectClassData objectClassData = this.objectClassAttributeHandleMap.get(theObjectClass);
-                if (objectClassData == null) {
-                    this.logger.trace("EncodingRulesTesterBaseModel.discoverObjectInstance: cannot get object class data: " + theObjectClass);
+        ObjectClassData objectClassData = this.objectClassAttributeHandleMap.get(theObjectClass);
+        if (objectClassData == null) {
+            this.logger.trace("EncodingRulesTesterBaseModel.discoverObjectInstance: cannot get object class data: " + theObjectClass);
+            return;
+        }
+        // Create all elements if the object is not managed yet
+        this.resultStore.addObjectInstance(theObject, theObjectClass);
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeObjectInstance(final ObjectInstanceHandle theObject, final byte[] userSuppliedTag, final OrderType sentOrdering, final FederateAmbassador.SupplementalRemoveInfo removeInfo) {
+        // Without aggregation, do not remove any data collected.
+        if (this.resultStore.getAggregation()) {
+            ObjectClassHandle objectClass = this.handleNameCache.getKnownObjectClassHandle(theObject);
+            String objectName = this.handleNameCache.getObjectInstanceName(theObject);
+            // With validation tasks of the object instance not yet tested, the last one removes it
+            while (true) {
+                PendingObjectTasks pending = this.pendingObjectTasks.get(theObject);
+                if (pending == null) {
+                    removeObjectResults(theObject, objectClass, objectName);
                     return;
                 }
-                AttributeHandleSet ahs = objectClassData.attributeHandleSet;
-                if (ahs != null) {
-                    for (AttributeHandle att : ahs) {
-                    ResultInfoAttribute resultInfoAttribute = attributeResultMap.get(att);
-                        if (resultInfoAttribute == null) {
-                            ResultInfoAttribute tmpResultInfo = new ResultInfoAttribute();
-                            attributeResultMap.put(att, tmpResultInfo);
-                        }
-                    }
+                if (this.pendingObjectTasks.replace(theObject, pending, new PendingObjectTasks(pending.count, objectClass, objectName))) {
+                    return;
                 }
             }
         }
     }
 
+    /**
+     * Add the results of a removed object instance to those of its class
+     *
+     * @param theObject the object instance handle
+     * @param objectClass the known object class handle
+     * @param objectName the object instance name, null if not known
+     */
+    private void removeObjectResults(final ObjectInstanceHandle theObject, final ObjectClassHandle objectClass, final String objectName) {
+        this.resultStore.removeObjectInstance(theObject, objectClass, objectName);
+        this.handleNameCache.removeObjectInstance(theObject);
+    }
 
     /**
-     * {@inheritDoc}
+     * Count a validation task of an object instance submitted to the
+     * validation workers
+     *
+     * @param theObject the object instance handle
      */
-    @Override
-    public void removeObjectInstance(final ObjectInstanceHandle theObject, final byte[] userSuppliedTag, final OrderType sentOrdering, final FederateAmbassador.SupplementalRemoveInfo removeInfo) {
-        // Do not remove any data collected.
+    private void addPendingTask(final ObjectInstanceHandle theObject) {
+        while (true) {
+            PendingObjectTasks pending = this.pendingObjectTasks.get(theObject);
+            if (pending == null) {
+                if (this.pendingObjectTasks.putIfAbsent(theObject, new PendingObjectTasks(1, null, null)) == null) {
+                    return;
+                }
+            } else if (this.pendingObjectTasks.replace(theObject, pending, new PendingObjectTasks(pending.count + 1, pending.removedObjectClass, pending.removedObjectName))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Count a validation task of an object instance as tested or dropped,
+     * remove the object instance after the last one if it was removed meanwhile
+     *
+     * @param theObject the object instance handle
+     */
+    private void completePendingTask(final ObjectInstanceHandle theObject) {
+        while (true) {
+            PendingObjectTasks pending = this.pendingObjectTasks.get(theObject);
+            if (pending == null) {
+                return;
+            }
+            if (pending.count > 1) {
+                if (this.pendingObjectTasks.replace(theObject, pending, new PendingObjectTasks(pending.count - 1, pending.removedObjectClass, pending.removedObjectName))) {
+                    return;
+                }
+            } else if (this.pendingObjectTasks.remove(theObject, pending)) {
+                if (pending.removedObjectClass != null) {
+                    removeObjectResults(theObject, pending.removedObjectClass, pending.removedObjectName);
+                }
+                return;
+            }
+        }
     }
 
     /**
@@ -802,137 +901,210 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
      * 
      * @param theObject the HLA object handle
      * @param theAttribute the HLA attribute handle
+     * @param attributeId the attribute id from the handle index
      * @param b whether the test was positive
      * @param text the text message
+     * @param rtiThread whether called within the RTI callback, else by a validation worker
      */
-    private void addAttributeResult(final ObjectInstanceHandle theObject, final AttributeHandle theAttribute, final boolean b, final String text) {
+    private void addAttributeResult(final ObjectInstanceHandle theObject, final AttributeHandle theAttribute, final int attributeId, final boolean b, final String text, final boolean rtiThread) {
     	this.logger.trace("EncodingRulesTesterBaseModel.addAttributeResult: enter");
-        ResultInfoAttribute tmpResultInfo;
-
-    	/*
-    	 * Check if object already managed
-    	 */
-        Map<AttributeHandle, ResultInfoAttribute> attributeResultMap = this.objectAttributeResultsmap.get(theObject);
-    	if (attributeResultMap == null) {
-        	this.logger.trace("EncodingRulesTesterBaseModel.addAttributeResult: A");
-    		// Object not managed - create all elements
-            tmpResultInfo = new ResultInfoAttribute();
-            tmpResultInfo.addInfo(b, text);
-            Map<AttributeHandle, ResultInfoAttribute> tmpAttributeResultMap = new HashMap<AttributeHandle, ResultInfoAttribute>();
-            tmpAttributeResultMap.put(theAttribute, tmpResultInfo);
-            this.objectAttributeResultsmap.put(theObject, tmpAttributeResultMap);
-        	this.logger.trace("EncodingRulesTesterBaseModel.addAttributeResult: A size " + this.objectAttributeResultsmap.size());
-    	} else {
-        	this.logger.trace("EncodingRulesTesterBaseModel.addAttributeResult: B");
-    		// Object is already managed
-            tmpResultInfo = attributeResultMap.get(theAttribute);
-    		/*
-    		 * Check if attribute is already managed
-    		 */
-    		if (tmpResultInfo == null) {
-            	this.logger.trace("EncodingRulesTesterBaseModel.addAttributeResult: C");
-    			// Attribute not managed - create result info
-                tmpResultInfo = new ResultInfoAttribute();
-                tmpResultInfo.addInfo(b, text);
-                attributeResultMap.put(theAttribute, tmpResultInfo);
-    		} else {
-            	this.logger.trace("EncodingRulesTesterBaseModel.addAttributeResult: D");
-    			// Attribute is already managed - update.
-    			tmpResultInfo.addInfo(b, text);
-    		}
-    	}
-        if (b == false) {
-            try {
-                this.logger.trace("EncodingRulesTesterBaseModel.addAttributeResult: AA");
-                if (tmpResultInfo.haveFederateName() == false) {
-                    this.logger.trace("EncodingRulesTesterBaseModel.addAttributeResult: AAA");
-                    this.ivct_rti.queryAttributeOwnership(theObject, theAttribute);
-                    this.logger.trace("EncodingRulesTesterBaseModel.addAttributeResult: BBB");
-                }
-				this.logger.trace("EncodingRulesTesterBaseModel.addAttributeResult: BB");
-            } catch (AttributeNotDefined | ObjectInstanceNotKnown | SaveInProgress | RestoreInProgress
-                    | FederateNotExecutionMember | NotConnected | RTIinternalError e) {
-                this.logger.error("EncodingRulesTesterBaseModel.addAttributeResult: " + e);
+        ResultInfoAttribute tmpResultInfo = this.resultStore.addAttributeResult(theObject, attributeId, b, text);
+        if (b == false && tmpResultInfo != null && tmpResultInfo.haveFederateName() == false) {
+            if (rtiThread) {
+                queryAttributeOwnership(theObject, theAttribute);
+            } else {
+                // The owner stays unknown until the next callback issues the query on the RTI thread
+                this.pendingOwnershipQueries.add(new AbstractMap.SimpleImmutableEntry<ObjectInstanceHandle, AttributeHandle>(theObject, theAttribute));
             }
         }
     	this.logger.trace("EncodingRulesTesterBaseModel.addAttributeResult: leave");
     }
 
-    public void printResults() throws TcInconclusive {
-    	final StringBuilder stringBuilder = new StringBuilder();
+    /**
+     * Ask the RTI for the owner of a failed attribute, the answer arrives in
+     * informAttributeOwnership. Only to be called on the RTI thread.
+     *
+     * @param theObject the HLA object handle
+     * @param theAttribute the HLA attribute handle
+     */
+    private void queryAttributeOwnership(final ObjectInstanceHandle theObject, final AttributeHandle theAttribute) {
+        try {
+            this.logger.trace("EncodingRulesTesterBaseModel.queryAttributeOwnership: BEFORE");
+            this.ivct_rti.queryAttributeOwnership(theObject, theAttribute);
+            this.logger.trace("EncodingRulesTesterBaseModel.queryAttributeOwnership: AFTER");
+        } catch (AttributeNotDefined | ObjectInstanceNotKnown | SaveInProgress | RestoreInProgress
+                | FederateNotExecutionMember | NotConnected | RTIinternalError e) {
+            this.logger.error("EncodingRulesTesterBaseModel.queryAttributeOwnership: " + e);
+        }
+    }
 
-        this.printAttributeResults(stringBuilder);
-        if (getWhetherAllAttibutesChecked() == false) {
-            stringBuilder.append("\nHave not seen all required attributes\n");
+    /**
+     * Issue the ownership queries of the failed attributes tested by the
+     * validation workers, on the RTI thread
+     */
+    private void issueOwnershipQueries() {
+        for (Map.Entry<ObjectInstanceHandle, AttributeHandle> query : this.pendingOwnershipQueries) {
+            this.pendingOwnershipQueries.remove(query);
+            ResultInfoAttribute tmpResultInfo = this.resultStore.getAttributeResult(query.getKey(), query.getValue());
+            if (tmpResultInfo != null && tmpResultInfo.haveFederateName() == false) {
+                queryAttributeOwnership(query.getKey(), query.getValue());
+            }
         }
+    }
 
-        this.printParameterResults(stringBuilder);
-        if (getWhetherAllInteractionsChecked() == false) {
-            stringBuilder.append("\nHave not seen all required parameters\n");
+    /**
+     * Wait until the validation workers have tested all buffers received so far
+     */
+    public void drainValidation() {
+        if (this.validationPipeline != null) {
+            this.validationPipeline.drain(VALIDATION_DRAIN_TIMEOUT);
         }
+    }
 
-        int correct = getCorrect();
-        int incorrect = getIncorrect();
-        stringBuilder.append("\n\nVerdict Summary:\nCORRECT: " + correct + " INCORRECT: " + incorrect + "\n");
+    /**
+     * Test the remaining buffers and stop the validation workers, buffers
+     * received afterwards are tested within the RTI callback
+     */
+    public void stopValidation() {
+        if (this.validationPipeline != null) {
+            ValidationPipeline tmpValidationPipeline = this.validationPipeline;
+            this.validationPipeline = null;
+            tmpValidationPipeline.stop(VALIDATION_DRAIN_TIMEOUT);
+            this.validationDropped = tmpValidationPipeline.getDroppedCount();
+            // Tasks not tested before the timeout do not keep removed object instances out of the aggregation
+            for (Map.Entry<ObjectInstanceHandle, PendingObjectTasks> entry : this.pendingObjectTasks.entrySet()) {
+                if (this.pendingObjectTasks.remove(entry.getKey(), entry.getValue()) && entry.getValue().removedObjectClass != null) {
+                    removeObjectResults(entry.getKey(), entry.getValue().removedObjectClass, entry.getValue().removedObjectName);
+                }
+            }
+        }
+    }
 
-        this.logger.info(stringBuilder.toString());
+    /**
+     * Close the capture file, buffers received afterwards are not recorded
+     */
+    public void closeCapture() {
+        CaptureWriter tmpCaptureWriter = this.captureWriter;
+        if (tmpCaptureWriter != null) {
+            this.captureWriter = null;
+            try {
+                tmpCaptureWriter.close();
+                this.logger.info("EncodingRulesTesterBaseModel.closeCapture: buffers recorded: " + tmpCaptureWriter.getRecordCount());
+            } catch (IOException e) {
+                this.logger.error("EncodingRulesTesterBaseModel.closeCapture: " + e);
+            }
+        }
     }
 
-    private void printAttributeResults(StringBuilder stringBuilder) {
-        stringBuilder.append("\n\nObject Attribute Summary \n");
-        if (this.objectAttributeResultsmap.isEmpty()) {
-            stringBuilder.append("- No Results -\n");
-            this.logger.trace(stringBuilder.toString());
+    /**
+     * Record the buffers of a callback in the capture file, stop recording
+     * if the file cannot be written
+     *
+     * @param theObject the object instance handle, null for an interaction
+     * @param interactionClass the interaction class handle, null for an object instance
+     * @param theParameters the parameter values, null for an object instance
+     * @param theAttributes the attribute values, null for an interaction
+     */
+    private void capture(final ObjectInstanceHandle theObject, final InteractionClassHandle interactionClass, final ParameterHandleValueMap theParameters, final AttributeHandleValueMap theAttributes) {
+        CaptureWriter tmpCaptureWriter = this.captureWriter;
+        if (tmpCaptureWriter == null) {
             return;
         }
-    	String objectName = null;
-    	ObjectClassHandle objectClassHandle;
-        for (Map.Entry<ObjectInstanceHandle, Map<AttributeHandle, ResultInfoAttribute>> entryObject : this.objectAttributeResultsmap.entrySet()) {
-    		try {
-    			objectName = this.ivct_rti.getObjectInstanceName(entryObject.getKey());
-        		objectClassHandle = this.ivct_rti.getKnownObjectClassHandle(entryObject.getKey());
-			} catch (FederateNotExecutionMember | NotConnected | RTIinternalError | ObjectInstanceNotKnown e) {
-                this.logger.error("EncodingRulesTesterBaseModel.printAttributeResults: " + e);
-				continue;
-			}
-    		String attributeName = null;
-            for (Map.Entry<AttributeHandle, ResultInfoAttribute> entryAttribute : entryObject.getValue().entrySet()) {
-    			try {
-					attributeName = this.ivct_rti.getAttributeName(objectClassHandle, entryAttribute.getKey());
-				} catch (AttributeNotDefined | InvalidAttributeHandle | InvalidObjectClassHandle
-						| FederateNotExecutionMember | NotConnected | RTIinternalError e) {
-                    this.logger.error("EncodingRulesTesterBaseModel.printAttributeResults: " + e);
-				}
-                if (entryAttribute.getValue().getCorrectCount() + entryAttribute.getValue().getIncorrectCount() > 0) {
-                    stringBuilder.append("OBJECT: " + objectName + " ATTRIBUTE: " + attributeName + " CORRECT: " + entryAttribute.getValue().getCorrectCount() + " INCORRECT: " + entryAttribute.getValue().getIncorrectCount());
-                } else {
-                    stringBuilder.append("OBJECT: " + objectName + " ATTRIBUTE: " + attributeName + " NOT UPDATED");
+        try {
+            if (theObject != null) {
+                String objectName = this.handleNameCache.getObjectInstanceName(theObject);
+                ObjectClassHandle knownObjectClassHandle = this.handleNameCache.getKnownObjectClassHandle(theObject);
+                String knownObjectClass = knownObjectClassHandle == null ? null : this.handleNameCache.getObjectClassName(knownObjectClassHandle);
+                for (Map.Entry<AttributeHandle, byte[]> entry : theAttributes.entrySet()) {
+                    String attributeName = knownObjectClassHandle == null ? null : this.handleNameCache.getAttributeName(knownObjectClassHandle, entry.getKey());
+                    tmpCaptureWriter.writeAttribute(knownObjectClass, objectName, attributeName, entry.getValue() == null ? new byte[0] : entry.getValue());
                 }
-                if (entryAttribute.getValue().getIncorrectCount() > 0) {
-					stringBuilder.append(" TEXT: " + entryAttribute.getValue().getText() + " Federate: " + entryAttribute.getValue().getFederateName());
+            } else {
+                String interactionName = this.handleNameCache.getInteractionClassName(interactionClass);
+                for (Map.Entry<ParameterHandle, byte[]> entry : theParameters.entrySet()) {
+                    String parameterName = this.handleNameCache.getParameterName(interactionClass, entry.getKey());
+                    tmpCaptureWriter.writeParameter(interactionName, parameterName, entry.getValue() == null ? new byte[0] : entry.getValue());
                 }
-                stringBuilder.append("\n");
-    		}
-    	}
+            }
+        } catch (IOException e) {
+            this.logger.error("EncodingRulesTesterBaseModel.capture: recording stopped: " + e);
+            closeCapture();
+        }
+    }
+
+    /**
+     * @return the validation pipeline, null if the buffers are tested within the RTI callback
+     */
+    public ValidationPipeline getValidationPipeline() {
+        return this.validationPipeline;
+    }
+
+    /**
+     * @return returns the number of callbacks not tested since the validation queue was full
+     */
+    public long getValidationDropped() {
+        ValidationPipeline tmpValidationPipeline = this.validationPipeline;
+        if (tmpValidationPipeline == null) {
+            return this.validationDropped;
+        }
+        return tmpValidationPipeline.getDroppedCount();
+    }
+
+    /**
+     * Log a callback dropped since the validation queue is full, the first
+     * one as a warning
+     *
+     * @param pipeline the validation pipeline which dropped the callback
+     * @param text the text message
+     */
+    private void logDropped(final ValidationPipeline pipeline, final String text) {
+        if (pipeline.getDroppedCount() == 1) {
+            this.logger.warn(text);
+        } else {
+            this.logger.debug(text);
+        }
+    }
+
+    public void printResults() throws TcInconclusive {
+    	final StringBuilder stringBuilder = new StringBuilder();
+
+    	drainValidation();
+        this.resultPrinter.printSummary(stringBuilder);
+        ValidationPipeline tmpValidationPipeline = this.validationPipeline;
+        if (tmpValidationPipeline != null) {
+            stringBuilder.append("Validation queue: SUBMITTED: " + tmpValidationPipeline.getSubmittedCount() + " DROPPED: " + tmpValidationPipeline.getDroppedCount() + " FAILED: " + tmpValidationPipeline.getFailedCount() + " MAXIMUM DEPTH: " + tmpValidationPipeline.getMaxQueueDepth() + "\n");
+            if (tmpValidationPipeline.getDroppedCount() != 0) {
+                stringBuilder.append("Validation queue overflow, not all received buffers were tested\n");
+                this.logger.warn("EncodingRulesTesterBaseModel.printResults: validation queue overflow, not all received buffers were tested");
+            }
+        }
+        if (this.validationCache != null) {
+            stringBuilder.append("Validation cache: HITS: " + this.validationCache.getHitCount() + " MISSES: " + this.validationCache.getMissCount() + "\n");
+        }
+        if (this.validationSampler != null) {
+            stringBuilder.append("Validation sampling: SKIPPED: " + this.resultStore.getSkipped() + "\n");
+        }
+
+        this.logger.info(stringBuilder.toString());
     }
 
     /**
      * @param theObjecttheObject the object instance handle
      * @param attributeHandletheObject the attribute handle
      * @param b byte field containing attribute data
+     * @param rtiThread whether called within the RTI callback, else by a validation worker
      */
-    private void displayReflectAttributeValuesMessage(final ObjectInstanceHandle theObject, final AttributeHandle attributeHandle, final byte b[]) {
-        String attributeName = null;
-        String knownObjectClass = null;
-        String objectName = null;
-        try {
-            objectName = this.ivct_rti.getObjectInstanceName(theObject);
-            ObjectClassHandle knownObjectClassHandle = this.ivct_rti.getKnownObjectClassHandle(theObject);
-            knownObjectClass = this.ivct_rti.getObjectClassName(knownObjectClassHandle);
-            attributeName = this.ivct_rti.getAttributeName(knownObjectClassHandle, attributeHandle);
-        } catch (ObjectInstanceNotKnown | FederateNotExecutionMember | NotConnected | RTIinternalError | AttributeNotDefined | InvalidAttributeHandle | InvalidObjectClassHandle e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+    private void displayReflectAttributeValuesMessage(final ObjectInstanceHandle theObject, final AttributeHandle attributeHandle, final byte b[], final boolean rtiThread) {
+        String objectName = this.handleNameCache.getObjectInstanceName(theObject, rtiThread);
+        ObjectClassHandle knownObjectClassHandle = this.handleNameCache.getKnownObjectClassHandle(theObject, rtiThread);
+        if (objectName == null || knownObjectClassHandle == null) {
+            this.logger.error("EncodingRulesTesterBaseModel.displayReflectAttributeValuesMessage: cannot get names for: " + theObject);
+            return;
+        }
+        String knownObjectClass = this.handleNameCache.getObjectClassName(knownObjectClassHandle, rtiThread);
+        String attributeName = this.handleNameCache.getAttributeName(knownObjectClassHandle, attributeHandle, rtiThread);
+        if (knownObjectClass == null || attributeName == null) {
+            this.logger.error("EncodingRulesTesterBaseModel.displayReflectAttributeValuesMessage: cannot get names for: " + knownObjectClassHandle + " " + attributeHandle);
             return;
         }
         String sNames = new String("Object name: " + objectName + " Known object class: " + knownObjectClass + " Attribute name: " + attributeName);
@@ -953,55 +1125,126 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
     private void doReflectAttributeValues(final ObjectInstanceHandle theObject, final AttributeHandleValueMap theAttributes) {
         this.logger.debug("EncodingRulesTesterBaseModel.doReflectAttributeValues: enter");
 
+        if (this.pendingOwnershipQueries.isEmpty() == false) {
+            issueOwnershipQueries();
+        }
+
+        if (this.captureWriter != null) {
+            capture(theObject, null, null, theAttributes);
+        }
+
+        ValidationPipeline tmpValidationPipeline = this.validationPipeline;
+        if (tmpValidationPipeline != null) {
+            // The buffers are tested by the validation workers
+            // With aggregation, a removal of the object instance waits until the task is tested
+            boolean aggregation = this.resultStore.getAggregation();
+            if (aggregation) {
+                addPendingTask(theObject);
+            }
+            if (tmpValidationPipeline.submit(ValidationTask.attributes(theObject, theAttributes)) == false) {
+                logDropped(tmpValidationPipeline, "EncodingRulesTesterBaseModel.doReflectAttributeValues: validation queue full, attribute values dropped");
+                if (aggregation) {
+                    completePendingTask(theObject);
+                }
+            }
+            return;
+        }
         for (Map.Entry<AttributeHandle, byte[]> entry : theAttributes.entrySet()) {
-            AttributeHandle ah = entry.getKey();
-            this.logger.debug("EncodingRulesTesterBaseModel.doReflectAttributeValues: GOT attribute " + ah);
-            String dataTypeName = this.attributeHandleDataTypeMap.get(ah);
-            if (dataTypeName == null) {
-                this.logger.error("EncodingRulesTesterBaseModel.doReflectAttributeValues cannot get data type for name: " + ah);
-                continue;
+            testAttributeValue(theObject, entry.getKey(), entry.getValue(), true);
+        }
+        this.logger.debug("EncodingRulesTesterBaseModel.doReflectAttributeValues: leave");
+    }
+
+    /**
+     * @param theObject the object instance handle
+     * @param ah the attribute handle
+     * @param b the attribute value
+     * @param rtiThread whether called within the RTI callback, else by a validation worker
+     */
+    private void testAttributeValue(final ObjectInstanceHandle theObject, final AttributeHandle ah, final byte b[], final boolean rtiThread) {
+        this.logger.debug("EncodingRulesTesterBaseModel.doReflectAttributeValues: GOT attribute " + ah);
+        final int attributeId = this.handleIndex.getAttributeId(ah);
+        if (attributeId < 0) {
+            this.logger.error("EncodingRulesTesterBaseModel.doReflectAttributeValues cannot get data type for name: " + ah);
+            return;
+        }
+        HlaDataType hdt = this.attributeDataTypes[attributeId];
+        if (hdt == null) {
+            this.logger.error("EncodingRulesTesterBaseModel.doReflectAttributeValues cannot get data type: " + this.handleIndex.getAttributeDataTypeName(attributeId));
+            return;
+        }
+        this.logger.debug("EncodingRulesTesterBaseModel.doReflectAttributeValues: GOT reflectAttributeValues " + hdt.dataTypeName);
+
+        if (b == null) {
+            this.logger.error("EncodingRulesTesterBaseModel.doReflectAttributeValues: no data reflected");
+            return;
+        }
+        this.logger.debug("EncodingRulesTesterBaseModel.doReflectAttributeValues: length " + b.length);
+        if (this.validationSampler != null && b.length != 0) {
+            ResultInfo resultInfo = this.resultStore.getAttributeResult(theObject, attributeId);
+            if (this.validationSampler.isSampledOut(resultInfo)) {
+                this.resultStore.addSkipped(resultInfo);
+                return;
             }
-            this.logger.debug("EncodingRulesTesterBaseModel.doReflectAttributeValues: GOT reflectAttributeValues " + dataTypeName);
+        }
+        if (b.length == 0) {
+            this.logger.error("EncodingRulesTesterBaseModel.doReflectAttributeValues: buffer length ZERO");
+            return;
+        }
+        if (displayBuffer()) {
+            displayReflectAttributeValuesMessage(theObject, ah, b, rtiThread);
+        }
+        ValidationCache.Verdict verdict;
+        if (this.validationCache != null) {
+            // Identical buffers get the verdict of the previous test
+            verdict = this.validationCache.test(this.hlaDataTypes, hdt, b);
+        } else {
+            verdict = ValidationCache.testBuffer(this.hlaDataTypes, hdt, b);
+        }
+        if (verdict.correct) {
+            this.logger.info(verdict.text);
+        } else {
+            this.logger.error(verdict.text);
+        }
+        addAttributeResult(theObject, ah, attributeId, verdict.correct, verdict.text, rtiThread);
+    }
+
+    /**
+     * Test a buffer of a callback handed over by the validation pipeline
+     *
+     * @param task the copied callback data
+     * @param index the index of the buffer
+     */
+    private void doValidationTask(final ValidationTask task, final int index) {
+        if (task.theObject != null) {
+            testAttributeValue(task.theObject, task.attributeHandles[index], task.values[index], false);
+        } else {
+            testParameterValue(task.interactionClass, task.parameterHandles[index], task.values[index], false);
+        }
+    }
 
-            HlaDataType hdt = this.hlaDataTypes.dataTypeMap.get(dataTypeName);
-            if (hdt == null) {
-                this.logger.error("EncodingRulesTesterBaseModel.doReflectAttributeValues cannot get data type: " + dataTypeName);
-                continue;
+    /**
+     * Store a failed result for a buffer whose test threw an exception, the
+     * exception is the result text
+     *
+     * @param task the copied callback data
+     * @param index the index of the buffer
+     * @param e the exception thrown by the test
+     */
+    private void failValidationTask(final ValidationTask task, final int index, final RuntimeException e) {
+        String error = "TEST BUFFER INCORRECT: validation failed: " + e + "\n";
+        this.logger.error(error);
+        if (task.theObject != null) {
+            int attributeId = this.handleIndex.getAttributeId(task.attributeHandles[index]);
+            if (attributeId >= 0) {
+                addAttributeResult(task.theObject, task.attributeHandles[index], attributeId, false, error, false);
             }
-            byte b[] = theAttributes.get(ah);
-            if (b == null) {
-                this.logger.error("EncodingRulesTesterBaseModel.doReflectAttributeValues: no data reflected");
-                continue;
+        } else {
+            int parameterId = this.handleIndex.getParameterId(task.parameterHandles[index]);
+            if (parameterId >= 0) {
+                addParameterResult(task.interactionClass, parameterId, false, error);
             }
-            this.logger.debug("EncodingRulesTesterBaseModel.doReflectAttributeValues: length " + b.length);
-            try {
-                if (b.length != 0) {
-	            displayReflectAttributeValuesMessage(theObject, ah, b);
-            	int calculatedLength = hdt.testBuffer(entry.getValue(), 0, this.hlaDataTypes);
-				if (calculatedLength != entry.getValue().length) {
-					String error = "TEST BUFFER INCORRECT: overall length calculation: " + calculatedLength + " Buffer length: " + entry.getValue().length + "\n";
-					this.logger.error(error);
-		            this.errorOccurred = true;
-		            addAttributeResult(theObject, ah, false, error);
-		            this.incorrect += 1;
-				} else {
-					String ok = "TEST BUFFER CORRECT\n";
-					this.logger.info(ok);
-		            addAttributeResult(theObject, ah, true, ok);
-		            this.correct += 1;
-				}
-                }  else {
-                    this.logger.error("EncodingRulesTesterBaseModel.doReflectAttributeValues: buffer length ZERO");
-                }
-			} catch (EncodingRulesException e) {
-				String error = "TEST BUFFER INCORRECT: " + e.getMessage() + "\n";
-				this.logger.error(error);
-	            this.errorOccurred = true;
-	            addAttributeResult(theObject, ah, false, error);
-	            this.incorrect += 1;
-			}
         }
-        this.logger.debug("EncodingRulesTesterBaseModel.doReflectAttributeValues: leave");
     }
 
 
@@ -1044,20 +1287,17 @@ public class EncodingRulesTesterBaseModel extends IVCT_BaseModel {
             FederateHandle       theOwner)
                     throws FederateInternalError {
         this.logger.trace("EncodingRulesTesterBaseModel.informAttributeOwnership: ENTER");
-        Map<AttributeHandle, ResultInfoAttribute> attributeResultInfoAttribute = this.objectAttributeResultsmap.get(theObject);
-        if (attributeResultInfoAttribute != null) {
-            ResultInfoAttribute resultInfoAttribute = attributeResultInfoAttribute.get(theAttribute);
-            if (resultInfoAttribute != null) {
-                resultInfoAttribute.addFederateHandle(theOwner);
-                try {
-                    this.logger.trace("EncodingRulesTesterBaseModel.informAttributeOwnership: BEFORE");
-                    resultInfoAttribute.addFederateName(this.ivct_rti.getFederateName(theOwner));
-                    this.logger.trace("EncodingRulesTesterBaseModel.informAttributeOwnership: AFTER");
-				} catch (InvalidFederateHandle | FederateHandleNotKnown | FederateNotExecutionMember | NotConnected
-						| RTIinternalError e) {
-                    this.logger.error("EncodingRulesTesterBaseModel.informAttributeOwnership: " + e);
-				}
-            }
+        ResultInfoAttribute resultInfoAttribute = this.resultStore.getAttributeResult(theObject, theAttribute);
+        if (resultInfoAttribute != null) {
+            resultInfoAttribute.addFederateHandle(theOwner);
+            try {
+                this.logger.trace("EncodingRulesTesterBaseModel.informAttributeOwnership: BEFORE");
+                resultInfoAttribute.addFederateName(this.ivct_rti.getFederateName(theOwner));
+                this.logger.trace("EncodingRulesTesterBaseModel.informAttributeOwnership: AFTER");
+			} catch (InvalidFederateHandle | FederateHandleNotKnown | FederateNotExecutionMember | NotConnected
+					| RTIinternalError e) {
+                this.logger.error("EncodingRulesTesterBaseModel.informAttributeOwnership: " + e);
+			}
         }
         this.logger.trace("EncodingRulesTesterBaseModel.informAttributeOwnership: LEAVE");
     }
@@ -52,6 +52,29 @@ public class EncodingRulesTesterTcParam implements IVCT_TcParam {
     private long         sleepTimeCycle     = 1000;
     private long         sleepTimeWait      = 3000;
     private long         sleepTestTimeWait = 30000;
+    // End the test once every attribute and parameter has this number of results, 0 always waits sleepTestTimeWait
+    private int          completionResultCount = 0;
+    // Number of validation worker threads, 0 validates in the RTI callback
+    private int          validationWorkers = 0;
+    private int          validationQueueSize = 65536;
+    // Display the bytes of every n-th received buffer, 0 displays none
+    private int          hexDumpInterval = 1;
+    // Number of attribute buffer verdicts to remember, 0 disables the cache
+    private int          validationCacheSize = 0;
+    // Record the received buffers to this file, null records none
+    private String       captureFile = null;
+    private int          captureSegmentSize = 64 * 1024 * 1024;
+    // Directory of the compiled SOM data cache files, null reads the SOM files each time
+    private String       modelCacheDir = null;
+    // Read the SOM files in a single pass with StAX instead of building the DOM
+    private boolean      streamSomReader = false;
+    // Aggregate the results of removed object instances per class, keeping this number of failing instances per attribute
+    private boolean      aggregateResults = false;
+    private int          aggregateFailingInstances = 10;
+    // Sample the buffers of an attribute or parameter after this number of consecutive correct results, 0 tests all
+    private int          samplingThreshold = 0;
+    private int          samplingRate = 10;
+    private double       samplingProbability = 0;
     private String sutFederate;
 
 
@@ -91,6 +114,100 @@ public class EncodingRulesTesterTcParam implements IVCT_TcParam {
 				sleepTestTimeWait = 30000;
 			}
 
+			tempString = (String) jsonObject.get("completionResultCount");
+			if (tempString != null) {
+				completionResultCount = Integer.parseInt(tempString);
+				if (completionResultCount < 0) {
+	                throw new TcInconclusive("EncodingRulesTesterTcParam: completionResultCount may not be negative");
+				}
+			}
+
+			// get the validation pipeline settings from the JSON object
+			tempString = (String) jsonObject.get("validationWorkers");
+			if (tempString != null) {
+				validationWorkers = Integer.parseInt(tempString);
+				if (validationWorkers < 0) {
+	                throw new TcInconclusive("EncodingRulesTesterTcParam: validationWorkers may not be negative");
+				}
+			}
+			tempString = (String) jsonObject.get("validationQueueSize");
+			if (tempString != null) {
+				validationQueueSize = Integer.parseInt(tempString);
+				if (validationQueueSize <= 0) {
+	                throw new TcInconclusive("EncodingRulesTesterTcParam: validationQueueSize has to be positive");
+				}
+			}
+
+			tempString = (String) jsonObject.get("validationCacheSize");
+			if (tempString != null) {
+				validationCacheSize = Integer.parseInt(tempString);
+				if (validationCacheSize < 0) {
+	                throw new TcInconclusive("EncodingRulesTesterTcParam: validationCacheSize may not be negative");
+				}
+			}
+
+			// get the capture file settings from the JSON object
+			captureFile = (String) jsonObject.get("captureFile");
+			tempString = (String) jsonObject.get("captureSegmentSize");
+			if (tempString != null) {
+				captureSegmentSize = Integer.parseInt(tempString);
+				if (captureSegmentSize <= 0) {
+	                throw new TcInconclusive("EncodingRulesTesterTcParam: captureSegmentSize has to be positive");
+				}
+			}
+
+			// get the compiled SOM data cache directory from the JSON object
+			modelCacheDir = (String) jsonObject.get("modelCacheDir");
+			tempString = (String) jsonObject.get("streamSomReader");
+			if (tempString != null) {
+				streamSomReader = Boolean.parseBoolean(tempString);
+			}
+
+			// get the aggregation settings from the JSON object
+			tempString = (String) jsonObject.get("aggregateResults");
+			if (tempString != null) {
+				aggregateResults = Boolean.parseBoolean(tempString);
+			}
+			tempString = (String) jsonObject.get("aggregateFailingInstances");
+			if (tempString != null) {
+				aggregateFailingInstances = Integer.parseInt(tempString);
+				if (aggregateFailingInstances < 0) {
+	                throw new TcInconclusive("EncodingRulesTesterTcParam: aggregateFailingInstances may not be negative");
+				}
+			}
+
+			// get the sampling settings from the JSON object
+			tempString = (String) jsonObject.get("samplingThreshold");
+			if (tempString != null) {
+				samplingThreshold = Integer.parseInt(tempString);
+				if (samplingThreshold < 0) {
+	                throw new TcInconclusive("EncodingRulesTesterTcParam: samplingThreshold may not be negative");
+				}
+			}
+			tempString = (String) jsonObject.get("samplingRate");
+			if (tempString != null) {
+				samplingRate = Integer.parseInt(tempString);
+				if (samplingRate <= 0) {
+	                throw new TcInconclusive("EncodingRulesTesterTcParam: samplingRate has to be positive");
+				}
+			}
+			tempString = (String) jsonObject.get("samplingProbability");
+			if (tempString != null) {
+				samplingProbability = Double.parseDouble(tempString);
+				if (samplingProbability < 0 || samplingProbability > 1) {
+	                throw new TcInconclusive("EncodingRulesTesterTcParam: samplingProbability has to be within 0 and 1");
+				}
+			}
+
+			// get the interval of the buffer displays from the JSON object
+			tempString = (String) jsonObject.get("hexDumpInterval");
+			if (tempString != null) {
+				hexDumpInterval = Integer.parseInt(tempString);
+				if (hexDumpInterval < 0) {
+	                throw new TcInconclusive("EncodingRulesTesterTcParam: hexDumpInterval may not be negative");
+				}
+			}
+
 			// get FOM files list from the JSON object
 			JSONArray fomArray = (JSONArray) jsonObject.get("fomFiles");
 			if (fomArray == null) {
@@ -189,6 +306,117 @@ public class EncodingRulesTesterTcParam implements IVCT_TcParam {
     }
 
 
+    /**
+     * @return the number of results of every attribute and parameter to end the test early, 0 if disabled
+     */
+    public int getCompletionResultCount() {
+        return this.completionResultCount;
+    }
+
+
+    /**
+     * @return number of validation worker threads, 0 means validate within the RTI callback
+     */
+    public int getValidationWorkers() {
+        return this.validationWorkers;
+    }
+
+    /**
+     * @return the number of callbacks which may wait for validation
+     */
+    public int getValidationQueueSize() {
+        return this.validationQueueSize;
+    }
+
+
+    /**
+     * @return the interval of the received buffers to display, 0 displays none
+     */
+    public int getHexDumpInterval() {
+        return this.hexDumpInterval;
+    }
+
+
+    /**
+     * @return the number of attribute buffer verdicts to remember, 0 if disabled
+     */
+    public int getValidationCacheSize() {
+        return this.validationCacheSize;
+    }
+
+
+    /**
+     * @return the file to record the received buffers to, null if none
+     */
+    public String getCaptureFile() {
+        return this.captureFile;
+    }
+
+
+    /**
+     * @return the size of the memory mapped segments of the capture file
+     */
+    public int getCaptureSegmentSize() {
+        return this.captureSegmentSize;
+    }
+
+
+    /**
+     * @return the directory of the compiled SOM data cache files, null if disabled
+     */
+    public String getModelCacheDir() {
+        return this.modelCacheDir;
+    }
+
+
+    /**
+     * @return whether the SOM files are read in a single pass without building the DOM
+     */
+    public boolean getStreamSomReader() {
+        return this.streamSomReader;
+    }
+
+
+    /**
+     * @return whether the results of removed object instances are aggregated per object class
+     */
+    public boolean getAggregateResults() {
+        return this.aggregateResults;
+    }
+
+
+    /**
+     * @return the number of failing removed object instances to keep per attribute
+     */
+    public int getAggregateFailingInstances() {
+        return this.aggregateFailingInstances;
+    }
+
+
+    /**
+     * @return the number of consecutive correct results to start sampling, 0 if disabled
+     */
+    public int getSamplingThreshold() {
+        return this.samplingThreshold;
+    }
+
+
+    /**
+     * @return test every n-th buffer of a sampled attribute or parameter
+     */
+    public int getSamplingRate() {
+        return this.samplingRate;
+    }
+
+
+    /**
+     * @return the probability to test a buffer of a sampled attribute or parameter, 0 to use the rate
+     */
+    public double getSamplingProbability() {
+        return this.samplingProbability;
+    }
+
+
     /**
      * @return name of sut federate
      */
@@ -0,0 +1,173 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The legal values of an enumeration, built by HlaDataEnumType.compile.
+ *
+ * Each value is given a slot number from 0 to size - 1, which other data
+ * types may use as an array index. The lookup does not allocate, the
+ * structure is chosen from the values:
+ * <ul>
+ * <li>contiguous values: a range check, the slot is the offset from the minimum</li>
+ * <li>values within a small range: a table of slots indexed by the offset</li>
+ * <li>other values: an open addressing hash table of primitive longs</li>
+ * </ul>
+ */
+final class EnumValueSet {
+	static final int RANGE = 0;
+	static final int TABLE = 1;
+	static final int HASH = 2;
+	// A table may be this many times larger than the number of values
+	private static final long MAX_TABLE_FACTOR = 8;
+	private static final long MIN_TABLE_SIZE = 256;
+
+	private final int kind;
+	private final int size;
+	private final long minimum;
+	private final long maximum;
+	// TABLE: slot per offset from the minimum, -1 for illegal values
+	// HASH: slot per hash table entry, -1 for empty entries
+	private final int[] slots;
+	// HASH: the value per hash table entry
+	private final long[] keys;
+	private final int mask;
+	// The enumerator name per slot
+	private final String[] names;
+
+	private EnumValueSet(final int kind, final int size, final long minimum, final long maximum, final int[] slots, final long[] keys, final String[] names) {
+		this.kind = kind;
+		this.size = size;
+		this.minimum = minimum;
+		this.maximum = maximum;
+		this.slots = slots;
+		this.keys = keys;
+		this.mask = keys == null ? 0 : keys.length - 1;
+		this.names = names;
+	}
+
+	/**
+	 * @param enumValueMap the enumerator names per value
+	 * @return the value set
+	 */
+	static EnumValueSet create(final Map<Long, String> enumValueMap) {
+		int size = enumValueMap.size();
+		if (size == 0) {
+			return new EnumValueSet(RANGE, 0, 1, 0, null, null, new String[0]);
+		}
+		long min = Long.MAX_VALUE;
+		long max = Long.MIN_VALUE;
+		for (Long value : enumValueMap.keySet()) {
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+		// A negative span is an overflow
+		long span = max - min;
+
+		if (span == size - 1) {
+			String[] names = new String[size];
+			for (Map.Entry<Long, String> entry : enumValueMap.entrySet()) {
+				names[(int) (entry.getKey() - min)] = entry.getValue();
+			}
+			return new EnumValueSet(RANGE, size, min, max, null, null, names);
+		}
+
+		String[] names = new String[size];
+		if (span >= 0 && span < Math.max(MIN_TABLE_SIZE, MAX_TABLE_FACTOR * size)) {
+			int[] slots = new int[(int) span + 1];
+			Arrays.fill(slots, -1);
+			int slot = 0;
+			for (Map.Entry<Long, String> entry : enumValueMap.entrySet()) {
+				slots[(int) (entry.getKey() - min)] = slot;
+				names[slot++] = entry.getValue();
+			}
+			return new EnumValueSet(TABLE, size, min, max, slots, null, names);
+		}
+
+		int capacity = Integer.highestOneBit(size) * 4;
+		long[] keys = new long[capacity];
+		int[] slots = new int[capacity];
+		Arrays.fill(slots, -1);
+		int slot = 0;
+		for (Map.Entry<Long, String> entry : enumValueMap.entrySet()) {
+			long value = entry.getKey();
+			int index = hashIndex(value, capacity - 1);
+			while (slots[index] != -1) {
+				index = (index + 1) & (capacity - 1);
+			}
+			keys[index] = value;
+			slots[index] = slot;
+			names[slot++] = entry.getValue();
+		}
+		return new EnumValueSet(HASH, size, min, max, slots, keys, names);
+	}
+
+	private static int hashIndex(final long value, final int mask) {
+		long h = value * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	/**
+	 * @param value the value decoded from the buffer
+	 * @return the slot of the value, -1 if the value is not legal
+	 */
+	int slot(final long value) {
+		if (value < minimum || value > maximum) {
+			return -1;
+		}
+		switch (kind) {
+		case RANGE:
+			return (int) (value - minimum);
+		case TABLE:
+			return slots[(int) (value - minimum)];
+		default:
+			int index = hashIndex(value, mask);
+			while (slots[index] != -1) {
+				if (keys[index] == value) {
+					return slots[index];
+				}
+				index = (index + 1) & mask;
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * @param slot the slot of a value
+	 * @return the enumerator name
+	 */
+	String name(final int slot) {
+		return names[slot];
+	}
+
+	/**
+	 * @return the lookup structure chosen: RANGE, TABLE or HASH
+	 */
+	int kind() {
+		return kind;
+	}
+
+	/**
+	 * @return the number of legal values
+	 */
+	int size() {
+		return size;
+	}
+}
@@ -44,6 +44,10 @@ public class HandleDataTypes {
     private Map <String, HlaDataType> incompleteTypes = new HashMap<String, HlaDataType>();
     private Map <String, String> helperTypes = new HashMap<String, String>();
 	HlaDataTypes hlaDataTypes;
+	// The data types of a dataTypes element read by SomStreamReader left for the second and third pass
+	private List<Node> streamSecondPass = new LinkedList<Node>();
+	private List<Node> streamThirdPass = new LinkedList<Node>();
+	private boolean streamFailed = false;
 
 	/**
 	 * 
@@ -1034,6 +1038,144 @@ public class HandleDataTypes {
 			return true;
 		}
 
+		addMissingTypes();
+		return false;
+	}
+
+	/**
+	 * @param groupName the name of the group element, e.g. simpleDataTypes
+	 * @param dataTypeName the name of the data type element, e.g. simpleData
+	 * @return the pass of decode in which the data type is decoded, 0 if it is not decoded
+	 */
+	private static int getPass(final String groupName, final String dataTypeName) {
+		switch (groupName) {
+		case "basicDataRepresentations":
+			return dataTypeName.equals("basicData") ? 1 : 0;
+		case "simpleDataTypes":
+			return dataTypeName.equals("simpleData") ? 2 : 0;
+		case "enumeratedDataTypes":
+			return dataTypeName.equals("enumeratedData") ? 2 : 0;
+		case "arrayDataTypes":
+			return dataTypeName.equals("arrayData") ? 3 : 0;
+		case "fixedRecordDataTypes":
+			return dataTypeName.equals("fixedRecordData") ? 3 : 0;
+		case "variantRecordDataTypes":
+			return dataTypeName.equals("variantRecordData") ? 3 : 0;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * 
+	 * @param theSelectedNode a data type element of the second or third pass
+	 * @throws EncodingRulesException
+	 */
+	private void decodeStreamedData(final Node theSelectedNode) throws EncodingRulesException {
+		switch (theSelectedNode.getNodeName()) {
+		case "simpleData":
+			decodeSimpleData(theSelectedNode);
+			break;
+		case "enumeratedData":
+			decodeEnumeratedData(theSelectedNode);
+			break;
+		case "arrayData":
+			decodeArrayData(theSelectedNode);
+			break;
+		case "fixedRecordData":
+			decodeFixedRecordData(theSelectedNode);
+			break;
+		case "variantRecordData":
+			decodeVariantRecordData(theSelectedNode);
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Start a dataTypes element read by SomStreamReader
+	 *
+	 * @param hlaDataTypes the data types to add to
+	 */
+	void beginStream(final HlaDataTypes hlaDataTypes) {
+		this.hlaDataTypes = hlaDataTypes;
+		this.streamSecondPass.clear();
+		this.streamThirdPass.clear();
+		this.streamFailed = false;
+	}
+
+	/**
+	 * Decode a data type of a dataTypes element read by SomStreamReader. The
+	 * basic data types are decoded at once, the others are kept until
+	 * endStream, so that the result is that of decode.
+	 *
+	 * @param groupName the name of the group element, e.g. simpleDataTypes
+	 * @param theSelectedNode the data type element, e.g. simpleData
+	 */
+	void decodeStream(final String groupName, final Node theSelectedNode) {
+		if (this.streamFailed) {
+			return;
+		}
+		switch (getPass(groupName, theSelectedNode.getNodeName())) {
+		case 1:
+			try {
+				decodeBasicData(theSelectedNode);
+			} catch (EncodingRulesException e) {
+				logger.error("HandleDataTypes.decode: error: " + e);
+				this.streamFailed = true;
+			}
+			break;
+		case 2:
+			this.streamSecondPass.add(theSelectedNode);
+			break;
+		case 3:
+			this.streamThirdPass.add(theSelectedNode);
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * End a dataTypes element read by SomStreamReader, decodes the kept data
+	 * types and adds the missing ones
+	 *
+	 * @return true means error
+	 * @throws EncodingRulesException
+	 */
+	boolean endStream() throws EncodingRulesException {
+		try {
+			if (this.streamFailed) {
+				return true;
+			}
+			try {
+				for (Node node : this.streamSecondPass) {
+					decodeStreamedData(node);
+				}
+				for (Node node : this.streamThirdPass) {
+					decodeStreamedData(node);
+				}
+			} catch (EncodingRulesException e) {
+				logger.error("HandleDataTypes.decode: error: " + e);
+				return true;
+			}
+		} finally {
+			this.streamSecondPass.clear();
+			this.streamThirdPass.clear();
+		}
+
+		addMissingTypes();
+		return false;
+	}
+
+	/**
+	 * Add the types not found in the FOM/SOM and complete the array types
+	 * whose element type was not known yet
+	 *
+	 * @throws EncodingRulesException when an error is detected
+	 */
+	private void addMissingTypes() throws EncodingRulesException {
 		// Add any missing basic types
 		addBasicType("HLAinteger16BE");
 		addBasicType("HLAinteger32BE");
@@ -1095,8 +1237,6 @@ public class HandleDataTypes {
 			this.incompleteTypes = tmpTypes;
 			tmpTypes = new HashMap<String, HlaDataType>();
 //		}
-
-		return false;
 	}
 
 	/**
@@ -0,0 +1,300 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ParameterHandle;
+
+/**
+ * Assigns a dense int id, starting at 0, to each attribute handle,
+ * parameter handle and interaction class handle read from the SOM files.
+ *
+ * The data types of attributes and parameters are kept in arrays indexed by
+ * these ids, so a received buffer needs one handle lookup only. The ids are
+ * per handle, an attribute inherited by several object classes has one id.
+ *
+ * The members of each object and interaction class are numbered once more,
+ * from 0 within the class, by MemberIds. The results of an object instance
+ * or interaction class are kept in an array indexed by these local ids, so
+ * its size depends on the class and not on all attributes of the SOM files.
+ *
+ * Built by DataTreeBuilder once all SOM files are read and not changed
+ * afterwards, so it may be read by several threads.
+ */
+public final class HandleIndex {
+	/**
+	 * The ids of the attributes of an object class or of the parameters of
+	 * an interaction class. The position of an id in the sorted ids is its
+	 * local id within the class.
+	 */
+	public static final class MemberIds {
+		private final int[] ids;
+
+		/**
+		 * @param ids the ids of the members, each once, sorted in place
+		 */
+		MemberIds(final int[] ids) {
+			this.ids = ids;
+			Arrays.sort(this.ids);
+		}
+
+		/**
+		 * @return the number of members
+		 */
+		public int size() {
+			return this.ids.length;
+		}
+
+		/**
+		 * @param localId the local id within the class
+		 * @return the id of the member in the handle index
+		 */
+		public int getId(final int localId) {
+			return this.ids[localId];
+		}
+
+		/**
+		 * @param id the id in the handle index
+		 * @return the local id within the class, -1 if not a member of the class
+		 */
+		public int getLocalId(final int id) {
+			if (id < 0) {
+				return -1;
+			}
+			int localId = Arrays.binarySearch(this.ids, id);
+			return localId < 0 ? -1 : localId;
+		}
+	}
+
+	/**
+	 * An index without handles
+	 */
+	static final HandleIndex EMPTY = new HandleIndex(new HashMap<AttributeHandle, String>(), new HashMap<ParameterHandle, String>(), new HashMap<InteractionClassHandle, Set<ParameterHandle>>(), new HashMap<ObjectClassHandle, ObjectClassData>());
+
+	private final Map<AttributeHandle, Integer> attributeIds = new HashMap<AttributeHandle, Integer>();
+	private final AttributeHandle[] attributeHandles;
+	private final String[] attributeDataTypeNames;
+
+	private final Map<ParameterHandle, Integer> parameterIds = new HashMap<ParameterHandle, Integer>();
+	private final ParameterHandle[] parameterHandles;
+	private final String[] parameterDataTypeNames;
+
+	private final Map<InteractionClassHandle, Integer> interactionClassIds = new HashMap<InteractionClassHandle, Integer>();
+	private final InteractionClassHandle[] interactionClassHandles;
+
+	private final Map<ObjectClassHandle, MemberIds> objectClassAttributeIds = new HashMap<ObjectClassHandle, MemberIds>();
+	private final Map<InteractionClassHandle, MemberIds> interactionClassParameterIds = new HashMap<InteractionClassHandle, MemberIds>();
+	private final MemberIds allAttributeIds;
+	private final MemberIds allParameterIds;
+
+	/**
+	 * @param attributeHandleDataTypeMap the data type name per attribute handle
+	 * @param parameterHandleDataTypeMap the data type name per parameter handle
+	 * @param interactionClassHandleMap the parameter handles per interaction class
+	 * @param objectClassAttributeHandleMap the attribute handles per object class
+	 */
+	HandleIndex(final Map<AttributeHandle, String> attributeHandleDataTypeMap, final Map<ParameterHandle, String> parameterHandleDataTypeMap, final Map<InteractionClassHandle, Set<ParameterHandle>> interactionClassHandleMap, final Map<ObjectClassHandle, ObjectClassData> objectClassAttributeHandleMap) {
+		this.attributeHandles = new AttributeHandle[attributeHandleDataTypeMap.size()];
+		this.attributeDataTypeNames = new String[attributeHandleDataTypeMap.size()];
+		int id = 0;
+		for (Map.Entry<AttributeHandle, String> entry : attributeHandleDataTypeMap.entrySet()) {
+			this.attributeIds.put(entry.getKey(), id);
+			this.attributeHandles[id] = entry.getKey();
+			this.attributeDataTypeNames[id] = entry.getValue();
+			id++;
+		}
+
+		this.parameterHandles = new ParameterHandle[parameterHandleDataTypeMap.size()];
+		this.parameterDataTypeNames = new String[parameterHandleDataTypeMap.size()];
+		id = 0;
+		for (Map.Entry<ParameterHandle, String> entry : parameterHandleDataTypeMap.entrySet()) {
+			this.parameterIds.put(entry.getKey(), id);
+			this.parameterHandles[id] = entry.getKey();
+			this.parameterDataTypeNames[id] = entry.getValue();
+			id++;
+		}
+
+		this.interactionClassHandles = new InteractionClassHandle[interactionClassHandleMap.size()];
+		id = 0;
+		for (InteractionClassHandle interactionClassHandle : interactionClassHandleMap.keySet()) {
+			this.interactionClassIds.put(interactionClassHandle, id);
+			this.interactionClassHandles[id] = interactionClassHandle;
+			id++;
+		}
+
+		for (Map.Entry<InteractionClassHandle, Set<ParameterHandle>> entry : interactionClassHandleMap.entrySet()) {
+			int[] ids = new int[entry.getValue().size()];
+			int count = 0;
+			for (ParameterHandle parameterHandle : entry.getValue()) {
+				int parameterId = getParameterId(parameterHandle);
+				if (parameterId >= 0) {
+					ids[count++] = parameterId;
+				}
+			}
+			this.interactionClassParameterIds.put(entry.getKey(), new MemberIds(Arrays.copyOf(ids, count)));
+		}
+		for (Map.Entry<ObjectClassHandle, ObjectClassData> entry : objectClassAttributeHandleMap.entrySet()) {
+			if (entry.getValue().attributeHandleSet == null) {
+				continue;
+			}
+			int[] ids = new int[entry.getValue().attributeHandleSet.size()];
+			int count = 0;
+			for (AttributeHandle attributeHandle : entry.getValue().attributeHandleSet) {
+				int attributeId = getAttributeId(attributeHandle);
+				if (attributeId >= 0) {
+					ids[count++] = attributeId;
+				}
+			}
+			this.objectClassAttributeIds.put(entry.getKey(), new MemberIds(Arrays.copyOf(ids, count)));
+		}
+		this.allAttributeIds = allIds(this.attributeHandles.length);
+		this.allParameterIds = allIds(this.parameterHandles.length);
+	}
+
+	private static MemberIds allIds(final int count) {
+		int[] ids = new int[count];
+		for (int id = 0; id < count; id++) {
+			ids[id] = id;
+		}
+		return new MemberIds(ids);
+	}
+
+	/**
+	 * @param attributeHandle the attribute handle
+	 * @return the id, -1 if the attribute is not in the SOM files
+	 */
+	public int getAttributeId(final AttributeHandle attributeHandle) {
+		Integer id = this.attributeIds.get(attributeHandle);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @return the number of attribute ids
+	 */
+	public int getAttributeCount() {
+		return this.attributeHandles.length;
+	}
+
+	/**
+	 * @param id the attribute id
+	 * @return the attribute handle
+	 */
+	public AttributeHandle getAttributeHandle(final int id) {
+		return this.attributeHandles[id];
+	}
+
+	/**
+	 * @param id the attribute id
+	 * @return the name of the data type of the attribute
+	 */
+	public String getAttributeDataTypeName(final int id) {
+		return this.attributeDataTypeNames[id];
+	}
+
+	/**
+	 * @param parameterHandle the parameter handle
+	 * @return the id, -1 if the parameter is not in the SOM files
+	 */
+	public int getParameterId(final ParameterHandle parameterHandle) {
+		Integer id = this.parameterIds.get(parameterHandle);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @return the number of parameter ids
+	 */
+	public int getParameterCount() {
+		return this.parameterHandles.length;
+	}
+
+	/**
+	 * @param id the parameter id
+	 * @return the parameter handle
+	 */
+	public ParameterHandle getParameterHandle(final int id) {
+		return this.parameterHandles[id];
+	}
+
+	/**
+	 * @param id the parameter id
+	 * @return the name of the data type of the parameter
+	 */
+	public String getParameterDataTypeName(final int id) {
+		return this.parameterDataTypeNames[id];
+	}
+
+	/**
+	 * @param interactionClassHandle the interaction class handle
+	 * @return the id, -1 if the interaction class is not in the SOM files
+	 */
+	public int getInteractionClassId(final InteractionClassHandle interactionClassHandle) {
+		Integer id = this.interactionClassIds.get(interactionClassHandle);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @return the number of interaction class ids
+	 */
+	public int getInteractionClassCount() {
+		return this.interactionClassHandles.length;
+	}
+
+	/**
+	 * @param id the interaction class id
+	 * @return the interaction class handle
+	 */
+	public InteractionClassHandle getInteractionClassHandle(final int id) {
+		return this.interactionClassHandles[id];
+	}
+
+	/**
+	 * @param objectClassHandle the object class handle
+	 * @return the ids of the attributes of the class, null if the class is not in the SOM files
+	 */
+	public MemberIds getObjectClassAttributeIds(final ObjectClassHandle objectClassHandle) {
+		return this.objectClassAttributeIds.get(objectClassHandle);
+	}
+
+	/**
+	 * @param interactionClassHandle the interaction class handle
+	 * @return the ids of the parameters of the class, null if the class is not in the SOM files
+	 */
+	public MemberIds getInteractionClassParameterIds(final InteractionClassHandle interactionClassHandle) {
+		return this.interactionClassParameterIds.get(interactionClassHandle);
+	}
+
+	/**
+	 * @return the ids of all attributes, for the results of an object instance of unknown class
+	 */
+	public MemberIds getAllAttributeIds() {
+		return this.allAttributeIds;
+	}
+
+	/**
+	 * @return the ids of all parameters, for the results of an interaction class not in the SOM files
+	 */
+	public MemberIds getAllParameterIds() {
+		return this.allParameterIds;
+	}
+}
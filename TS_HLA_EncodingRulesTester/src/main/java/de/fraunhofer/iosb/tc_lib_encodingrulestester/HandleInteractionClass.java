@@ -37,12 +37,66 @@ import hla.rti1516e.exceptions.RTIinternalError;
 
 public class HandleInteractionClass {
 	private static Logger logger = LoggerFactory.getLogger(HandleInteractionClass.class);
+
+	/**
+	 * An interaction class whose own level is decoded, the parent of its subclasses
+	 */
+	static final class InteractionClassLevel {
+		private final String myClassName;
+
+		InteractionClassLevel(final String myClassName) {
+			this.myClassName = myClassName;
+		}
+
+		/**
+		 * @return the full class name, the parent class name of the subclasses
+		 */
+		String getClassName() {
+			return this.myClassName;
+		}
+	}
+
 	/**
 	 * 
 	 * @param theSelectedNode the Xerces node at this level
 	 * @return true means error
 	 */
 	private boolean decodeInteractionClass(Node theSelectedNode, final RTIambassador ivct_rti, String parentClassName, Map<InteractionClassHandle, Set<ParameterHandle>> interactionHandleMap, Map<ParameterHandle, String> parameterHandleDataTypeMap) {
+		InteractionClassLevel interactionClassLevel = beginInteractionClass(theSelectedNode, ivct_rti, parentClassName, interactionHandleMap, parameterHandleDataTypeMap);
+		if (interactionClassLevel == null) {
+			return true;
+		}
+		// Do the child level
+		for (Node child = theSelectedNode.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() != Node.ELEMENT_NODE) {
+				continue;
+			}
+			// ---------------------------------------------------------------------------
+			try {
+				if (child.getNodeName().equals("interactionClass")) {
+					logger.trace("Got interactionClass: " + child.getNodeName());
+					if (decodeInteractionClass(child, ivct_rti, interactionClassLevel.myClassName, interactionHandleMap, parameterHandleDataTypeMap)) {
+						return true;
+					}
+					continue;
+				}
+			} catch (Exception e) {
+				logger.error("HandleInteractionClass.decodeInteractionClass: " + e);
+				return true;
+			}
+		}
+		logger.trace("HandleInteractionClass.decodeInteractionClass: leave");
+		return false;
+	}
+
+	/**
+	 * Decode the name and the parameters of an interaction class and add it
+	 * to the interaction handle map, the subclasses are not decoded
+	 *
+	 * @param theSelectedNode the Xerces node of the interaction class
+	 * @return the interaction class for the subclasses, null means error
+	 */
+	InteractionClassLevel beginInteractionClass(Node theSelectedNode, final RTIambassador ivct_rti, String parentClassName, Map<InteractionClassHandle, Set<ParameterHandle>> interactionHandleMap, Map<ParameterHandle, String> parameterHandleDataTypeMap) {
 		logger.trace("HandleInteractionClass.decodeInteractionClass: enter");
 		InteractionClassHandle ich = null;
 		String myClassName = null;
@@ -111,7 +165,7 @@ public class HandleInteractionClass {
 					logger.trace("HandleInteractionClass.decodeInteractionClass: parameter enter");
 					logger.trace("Got parameter: " + child.getNodeName());
 					if (decodeParameter(child, ivct_rti, ich, parameterHandleDataTypeMap, parameterHandleSet)) {
-						return true;
+						return null;
 					}
 					logger.trace("HandleInteractionClass.decodeInteractionClass: parameter leave");
 					continue;
@@ -121,27 +175,7 @@ public class HandleInteractionClass {
 			}
 		}
 		interactionHandleMap.put(ich, parameterHandleSet);
-		// Do the child level
-		for (Node child = theSelectedNode.getFirstChild(); child != null; child = child.getNextSibling()) {
-			if (child.getNodeType() != Node.ELEMENT_NODE) {
-				continue;
-			}
-			// ---------------------------------------------------------------------------
-			try {
-				if (child.getNodeName().equals("interactionClass")) {
-					logger.trace("Got interactionClass: " + child.getNodeName());
-					if (decodeInteractionClass(child, ivct_rti, myClassName, interactionHandleMap, parameterHandleDataTypeMap)) {
-						return true;
-					}
-					continue;
-				}
-			} catch (Exception e) {
-				logger.error("HandleInteractionClass.decodeInteractionClass: " + e);
-				return true;
-			}
-		}
-		logger.trace("HandleInteractionClass.decodeInteractionClass: leave");
-		return false;
+		return new InteractionClassLevel(myClassName);
 	}
 
 	/**
@@ -0,0 +1,289 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.ParameterHandle;
+import hla.rti1516e.RTIambassador;
+import hla.rti1516e.exceptions.RTIexception;
+
+/**
+ * Caches the names of the handles used in the diagnostic messages, so that
+ * the RTI ambassador is not asked for every received buffer.
+ *
+ * The cache is filled at subscription time and by discoverObjectInstance,
+ * names not cached are fetched from the RTI once. May be used by several
+ * validation workers at the same time, they pass askRti false: the RTI
+ * ambassador is not known to be thread-safe and is only called on the RTI
+ * callback thread, a worker gets null for a name not cached.
+ */
+class HandleNameCache {
+	private final RTIambassador ivct_rti;
+	private final ConcurrentMap<InteractionClassHandle, String> interactionClassNames = new ConcurrentHashMap<InteractionClassHandle, String>();
+	private final ConcurrentMap<InteractionClassHandle, ConcurrentMap<ParameterHandle, String>> parameterNames = new ConcurrentHashMap<InteractionClassHandle, ConcurrentMap<ParameterHandle, String>>();
+	private final ConcurrentMap<ObjectClassHandle, String> objectClassNames = new ConcurrentHashMap<ObjectClassHandle, String>();
+	private final ConcurrentMap<ObjectClassHandle, ConcurrentMap<AttributeHandle, String>> attributeNames = new ConcurrentHashMap<ObjectClassHandle, ConcurrentMap<AttributeHandle, String>>();
+	private final ConcurrentMap<ObjectInstanceHandle, String> objectInstanceNames = new ConcurrentHashMap<ObjectInstanceHandle, String>();
+	private final ConcurrentMap<ObjectInstanceHandle, ObjectClassHandle> knownObjectClassHandles = new ConcurrentHashMap<ObjectInstanceHandle, ObjectClassHandle>();
+
+	/**
+	 * @param ivct_rti the RTI ambassador to ask for names not cached
+	 */
+	HandleNameCache(final RTIambassador ivct_rti) {
+		this.ivct_rti = ivct_rti;
+	}
+
+	/**
+	 * @param interactionClass the interaction class handle
+	 * @param interactionClassName the interaction class name
+	 */
+	void putInteractionClass(final InteractionClassHandle interactionClass, final String interactionClassName) {
+		this.interactionClassNames.put(interactionClass, interactionClassName);
+	}
+
+	/**
+	 * @param interactionClass the interaction class handle
+	 * @param parameterHandle the parameter handle
+	 * @param parameterName the parameter name
+	 */
+	void putParameter(final InteractionClassHandle interactionClass, final ParameterHandle parameterHandle, final String parameterName) {
+		this.parameterNames.computeIfAbsent(interactionClass, k -> new ConcurrentHashMap<ParameterHandle, String>()).put(parameterHandle, parameterName);
+	}
+
+	/**
+	 * @param objectClass the object class handle
+	 * @param objectClassName the object class name
+	 */
+	void putObjectClass(final ObjectClassHandle objectClass, final String objectClassName) {
+		this.objectClassNames.put(objectClass, objectClassName);
+	}
+
+	/**
+	 * @param objectClass the object class handle
+	 * @param attributeHandle the attribute handle
+	 * @param attributeName the attribute name
+	 */
+	void putAttribute(final ObjectClassHandle objectClass, final AttributeHandle attributeHandle, final String attributeName) {
+		this.attributeNames.computeIfAbsent(objectClass, k -> new ConcurrentHashMap<AttributeHandle, String>()).put(attributeHandle, attributeName);
+	}
+
+	/**
+	 * @param theObject the object instance handle
+	 * @param objectClass the known object class handle
+	 * @param objectName the object instance name
+	 */
+	void putObjectInstance(final ObjectInstanceHandle theObject, final ObjectClassHandle objectClass, final String objectName) {
+		this.knownObjectClassHandles.put(theObject, objectClass);
+		this.objectInstanceNames.put(theObject, objectName);
+	}
+
+	/**
+	 * Forget a removed object instance
+	 *
+	 * @param theObject the object instance handle
+	 */
+	void removeObjectInstance(final ObjectInstanceHandle theObject) {
+		this.knownObjectClassHandles.remove(theObject);
+		this.objectInstanceNames.remove(theObject);
+	}
+
+	/**
+	 * @param interactionClass the interaction class handle
+	 * @return the interaction class name, null if the RTI does not know it
+	 */
+	String getInteractionClassName(final InteractionClassHandle interactionClass) {
+		return getInteractionClassName(interactionClass, true);
+	}
+
+	/**
+	 * @param interactionClass the interaction class handle
+	 * @param askRti whether to ask the RTI for a name not cached
+	 * @return the interaction class name, null if the RTI does not know it or it is not cached without askRti
+	 */
+	String getInteractionClassName(final InteractionClassHandle interactionClass, final boolean askRti) {
+		String name = this.interactionClassNames.get(interactionClass);
+		if (name == null) {
+			if (askRti == false) {
+				return null;
+			}
+			try {
+				name = this.ivct_rti.getInteractionClassName(interactionClass);
+			} catch (RTIexception e) {
+				return null;
+			}
+			putInteractionClass(interactionClass, name);
+		}
+		return name;
+	}
+
+	/**
+	 * @param interactionClass the interaction class handle
+	 * @param parameterHandle the parameter handle
+	 * @return the parameter name, null if the RTI does not know it
+	 */
+	String getParameterName(final InteractionClassHandle interactionClass, final ParameterHandle parameterHandle) {
+		return getParameterName(interactionClass, parameterHandle, true);
+	}
+
+	/**
+	 * @param interactionClass the interaction class handle
+	 * @param parameterHandle the parameter handle
+	 * @param askRti whether to ask the RTI for a name not cached
+	 * @return the parameter name, null if the RTI does not know it or it is not cached without askRti
+	 */
+	String getParameterName(final InteractionClassHandle interactionClass, final ParameterHandle parameterHandle, final boolean askRti) {
+		ConcurrentMap<ParameterHandle, String> names = this.parameterNames.get(interactionClass);
+		String name = names == null ? null : names.get(parameterHandle);
+		if (name == null) {
+			if (askRti == false) {
+				return null;
+			}
+			try {
+				name = this.ivct_rti.getParameterName(interactionClass, parameterHandle);
+			} catch (RTIexception e) {
+				return null;
+			}
+			putParameter(interactionClass, parameterHandle, name);
+		}
+		return name;
+	}
+
+	/**
+	 * @param objectClass the object class handle
+	 * @return the object class name, null if the RTI does not know it
+	 */
+	String getObjectClassName(final ObjectClassHandle objectClass) {
+		return getObjectClassName(objectClass, true);
+	}
+
+	/**
+	 * @param objectClass the object class handle
+	 * @param askRti whether to ask the RTI for a name not cached
+	 * @return the object class name, null if the RTI does not know it or it is not cached without askRti
+	 */
+	String getObjectClassName(final ObjectClassHandle objectClass, final boolean askRti) {
+		String name = this.objectClassNames.get(objectClass);
+		if (name == null) {
+			if (askRti == false) {
+				return null;
+			}
+			try {
+				name = this.ivct_rti.getObjectClassName(objectClass);
+			} catch (RTIexception e) {
+				return null;
+			}
+			putObjectClass(objectClass, name);
+		}
+		return name;
+	}
+
+	/**
+	 * @param objectClass the object class handle
+	 * @param attributeHandle the attribute handle
+	 * @return the attribute name, null if the RTI does not know it
+	 */
+	String getAttributeName(final ObjectClassHandle objectClass, final AttributeHandle attributeHandle) {
+		return getAttributeName(objectClass, attributeHandle, true);
+	}
+
+	/**
+	 * @param objectClass the object class handle
+	 * @param attributeHandle the attribute handle
+	 * @param askRti whether to ask the RTI for a name not cached
+	 * @return the attribute name, null if the RTI does not know it or it is not cached without askRti
+	 */
+	String getAttributeName(final ObjectClassHandle objectClass, final AttributeHandle attributeHandle, final boolean askRti) {
+		ConcurrentMap<AttributeHandle, String> names = this.attributeNames.get(objectClass);
+		String name = names == null ? null : names.get(attributeHandle);
+		if (name == null) {
+			if (askRti == false) {
+				return null;
+			}
+			try {
+				name = this.ivct_rti.getAttributeName(objectClass, attributeHandle);
+			} catch (RTIexception e) {
+				return null;
+			}
+			putAttribute(objectClass, attributeHandle, name);
+		}
+		return name;
+	}
+
+	/**
+	 * @param theObject the object instance handle
+	 * @return the object instance name, null if the RTI does not know it
+	 */
+	String getObjectInstanceName(final ObjectInstanceHandle theObject) {
+		return getObjectInstanceName(theObject, true);
+	}
+
+	/**
+	 * @param theObject the object instance handle
+	 * @param askRti whether to ask the RTI for a name not cached
+	 * @return the object instance name, null if the RTI does not know it or it is not cached without askRti
+	 */
+	String getObjectInstanceName(final ObjectInstanceHandle theObject, final boolean askRti) {
+		String name = this.objectInstanceNames.get(theObject);
+		if (name == null) {
+			if (askRti == false) {
+				return null;
+			}
+			try {
+				name = this.ivct_rti.getObjectInstanceName(theObject);
+			} catch (RTIexception e) {
+				return null;
+			}
+			this.objectInstanceNames.put(theObject, name);
+		}
+		return name;
+	}
+
+	/**
+	 * @param theObject the object instance handle
+	 * @return the known object class handle, null if the RTI does not know it
+	 */
+	ObjectClassHandle getKnownObjectClassHandle(final ObjectInstanceHandle theObject) {
+		return getKnownObjectClassHandle(theObject, true);
+	}
+
+	/**
+	 * @param theObject the object instance handle
+	 * @param askRti whether to ask the RTI for a name not cached
+	 * @return the known object class handle, null if the RTI does not know it or it is not cached without askRti
+	 */
+	ObjectClassHandle getKnownObjectClassHandle(final ObjectInstanceHandle theObject, final boolean askRti) {
+		ObjectClassHandle objectClass = this.knownObjectClassHandles.get(theObject);
+		if (objectClass == null) {
+			if (askRti == false) {
+				return null;
+			}
+			try {
+				objectClass = this.ivct_rti.getKnownObjectClassHandle(theObject);
+			} catch (RTIexception e) {
+				return null;
+			}
+			this.knownObjectClassHandles.put(theObject, objectClass);
+		}
+		return objectClass;
+	}
+}
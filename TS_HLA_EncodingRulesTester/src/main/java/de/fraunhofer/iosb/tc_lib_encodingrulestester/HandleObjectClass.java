@@ -35,17 +35,82 @@ import hla.rti1516e.exceptions.NotConnected;
 public class HandleObjectClass {
 	private static Logger logger = LoggerFactory.getLogger(HandleObjectClass.class);
 	AttributeHandleSetFactory attributeHandleSetFactory = null;
+
+	/**
+	 * An object class between its own level and its end, the base class set of its subclasses
+	 */
+	static final class ObjectClassLevel {
+		private final ObjectClassHandle och;
+		private final String myClassName;
+		private final AttributeHandleSet attributeHandleWorkingSet;
+
+		ObjectClassLevel(final ObjectClassHandle och, final String myClassName, final AttributeHandleSet attributeHandleWorkingSet) {
+			this.och = och;
+			this.myClassName = myClassName;
+			this.attributeHandleWorkingSet = attributeHandleWorkingSet;
+		}
+
+		/**
+		 * @return the full class name, the parent class name of the subclasses
+		 */
+		String getClassName() {
+			return this.myClassName;
+		}
+
+		/**
+		 * @return the published attributes of the class and its base classes
+		 */
+		AttributeHandleSet getAttributeHandleSet() {
+			return this.attributeHandleWorkingSet;
+		}
+	}
+
 	/**
 	 * 
 	 * @param theSelectedNode the Xerces node at this level
 	 * @return true means error
 	 */
 	private boolean decodeObjectClass(Node theSelectedNode, final RTIambassador ivct_rti, String parentClassName, AttributeHandleSet attributeHandleBaseClassSet, Map<ObjectClassHandle, ObjectClassData> objectClassAttributeHandleMap, Map<AttributeHandle, String> attributeHandleDataTypeMap) {
+		ObjectClassLevel objectClassLevel = beginObjectClass(theSelectedNode, ivct_rti, parentClassName, attributeHandleBaseClassSet, attributeHandleDataTypeMap);
+		if (objectClassLevel == null) {
+			return true;
+		}
+
+		// Do the child level
+		for (Node child = theSelectedNode.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() != Node.ELEMENT_NODE) {
+				continue;
+			}
+			// ---------------------------------------------------------------------------
+			try {
+				if (child.getNodeName().equals("objectClass")) {
+					if (decodeObjectClass(child, ivct_rti, objectClassLevel.myClassName, objectClassLevel.attributeHandleWorkingSet, objectClassAttributeHandleMap, attributeHandleDataTypeMap)) {
+						return true;
+					}
+					continue;
+				}
+			} catch (Exception e) {
+				logger.error("HandleObjectClass.decodeObjectClass: " + e);
+				return true;
+			}
+		}
+
+		endObjectClass(objectClassLevel, objectClassAttributeHandleMap);
+		return false;
+	}
+
+	/**
+	 * Decode the name and the attributes of an object class, the subclasses
+	 * are not decoded
+	 *
+	 * @param theSelectedNode the Xerces node of the object class
+	 * @return the object class for the subclasses and endObjectClass, null means error
+	 */
+	ObjectClassLevel beginObjectClass(Node theSelectedNode, final RTIambassador ivct_rti, String parentClassName, AttributeHandleSet attributeHandleBaseClassSet, Map<AttributeHandle, String> attributeHandleDataTypeMap) {
 		ObjectClassHandle och = null;
 		String myClassName = null;
 		String textPointer = null;
 		AttributeHandleSet attributeHandleWorkingSet = attributeHandleSetFactory.create();
-		ObjectClassData objectClassData = new ObjectClassData();
 
 		logger.trace("HandleObjectClass.decodeObjectClass: enter");
 		/*
@@ -82,34 +147,29 @@ public class HandleObjectClass {
 				}
 				if (child.getNodeName().equals("attribute")) {
 					if (decodeAttribute(child, ivct_rti, och, attributeHandleWorkingSet, attributeHandleDataTypeMap)) {
-						return true;
+						return null;
 					}
 					continue;
 				}
 			} catch (Exception e) {
 				logger.error("HandleObjectClass.decodeObjectClass: " + e);
-				return true;
+				return null;
 			}
 		}
+		return new ObjectClassLevel(och, myClassName, attributeHandleWorkingSet);
+	}
 
-		// Do the child level
-		for (Node child = theSelectedNode.getFirstChild(); child != null; child = child.getNextSibling()) {
-			if (child.getNodeType() != Node.ELEMENT_NODE) {
-				continue;
-			}
-			// ---------------------------------------------------------------------------
-			try {
-				if (child.getNodeName().equals("objectClass")) {
-					if (decodeObjectClass(child, ivct_rti, myClassName, attributeHandleWorkingSet, objectClassAttributeHandleMap, attributeHandleDataTypeMap)) {
-						return true;
-					}
-					continue;
-				}
-			} catch (Exception e) {
-				logger.error("HandleObjectClass.decodeObjectClass: " + e);
-				return true;
-			}
-		}
+	/**
+	 * Add the object class to the classes to subscribe to if it has
+	 * attributes, once its subclasses are decoded
+	 *
+	 * @param objectClassLevel the object class from beginObjectClass
+	 * @param objectClassAttributeHandleMap the map of attributes to subscribe to
+	 */
+	void endObjectClass(final ObjectClassLevel objectClassLevel, Map<ObjectClassHandle, ObjectClassData> objectClassAttributeHandleMap) {
+		ObjectClassData objectClassData = new ObjectClassData();
+		String myClassName = objectClassLevel.myClassName;
+		AttributeHandleSet attributeHandleWorkingSet = objectClassLevel.attributeHandleWorkingSet;
 
 		// Calculate class level depth based on the number of '.' occurances.
 		int count = 0;
@@ -124,11 +184,10 @@ public class HandleObjectClass {
 		if (attributeHandleWorkingSet.isEmpty() == false) {
 			objectClassData.classLevelDepth = count;
 			objectClassData.attributeHandleSet = attributeHandleWorkingSet;
-			objectClassAttributeHandleMap.put(och, objectClassData);
+			objectClassAttributeHandleMap.put(objectClassLevel.och, objectClassData);
 		}
 
 		logger.trace("HandleObjectClass.decodeObjectClass: leave");
-		return false;
 	}
 
 	/**
@@ -222,11 +281,7 @@ public class HandleObjectClass {
 		logger.trace("HandleObjectClass.decode: enter");
 		String textPointer = null;
 
-		try {
-			attributeHandleSetFactory = ivct_rti.getAttributeHandleSetFactory();
-		} catch (FederateNotExecutionMember | NotConnected e) {
-			e.printStackTrace();
-			logger.error("HandleObjectClass.decode: error " + e);
+		if (initialize(ivct_rti)) {
 			return true;
 		}
 
@@ -247,4 +302,21 @@ public class HandleObjectClass {
 		logger.trace("HandleObjectClass.decode: leave");
 		return false;
 	}
+
+	/**
+	 * Get the attribute handle set factory, before the object classes of an objects element are decoded
+	 *
+	 * @param ivct_rti the RTI ambassador
+	 * @return true means error
+	 */
+	boolean initialize(final RTIambassador ivct_rti) {
+		try {
+			attributeHandleSetFactory = ivct_rti.getAttributeHandleSetFactory();
+		} catch (FederateNotExecutionMember | NotConnected e) {
+			e.printStackTrace();
+			logger.error("HandleObjectClass.decode: error " + e);
+			return true;
+		}
+		return false;
+	}
 }
@@ -0,0 +1,413 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates random buffers for the compiled data types of the FOM/SOM files,
+ * e.g. for benchmarks and soak tests with realistic payloads.
+ *
+ * A generated buffer is encoded as testBuffer expects it: padding and
+ * alignment, array lengths, enumerator values and variant discriminants
+ * are set from the data types, everything else is random. Padding octets
+ * are 0. With a defect, the buffer gets one error that testBuffer detects.
+ *
+ * The same seed gives the same buffers. Not thread safe.
+ */
+public class HlaBufferGenerator {
+	private static Logger logger = LoggerFactory.getLogger(HlaBufferGenerator.class);
+
+	/**
+	 * The errors that can be put into a generated buffer
+	 */
+	public enum Defect {
+		/** The last octet is missing */
+		TRUNCATED,
+		/** Octets after the end of the data */
+		TRAILING_BYTES,
+		/** A tested enumeration holds a value which is not an enumerator */
+		UNKNOWN_ENUMERATOR,
+		/** A variant record discriminant selects no alternative */
+		UNKNOWN_DISCRIMINANT,
+		/** A variable array length exceeds the buffer */
+		ARRAY_LENGTH_OVERRUN
+	}
+
+	// The length written by ARRAY_LENGTH_OVERRUN, each octet below 0x80 as the length is decoded octet by octet
+	private static final int OVERRUN_LENGTH = 0x007F7F7F;
+	private static final int MAX_ARRAY_LENGTH = 127;
+	private static final int UNKNOWN_VALUE_TRIES = 64;
+
+	private final HlaDataTypes hlaDataTypes;
+	private final Random random;
+	private int maxArrayLength = 4;
+
+	// The buffer being generated
+	private byte[] buffer = new byte[256];
+	private int position;
+	// Positions of the values a defect can be put into, the enum data type per position
+	private final List<Integer> enumeratorPositions = new ArrayList<Integer>();
+	private final List<HlaDataEnumType> enumeratorTypes = new ArrayList<HlaDataEnumType>();
+	private final List<Integer> discriminantPositions = new ArrayList<Integer>();
+	private final List<HlaDataVariantRecordType> discriminantTypes = new ArrayList<HlaDataVariantRecordType>();
+	private final List<Integer> arrayLengthPositions = new ArrayList<Integer>();
+	// Greater than 0 while generating elements whose content testBuffer does not test
+	private int untested;
+	// The position after the last terminating 0 of an RPRnullTerminatedArray
+	private int nullTerminatorEnd;
+
+	/**
+	 * @param hlaDataTypes the compiled data types
+	 * @param random the source of the random values
+	 */
+	public HlaBufferGenerator(final HlaDataTypes hlaDataTypes, final Random random) {
+		this.hlaDataTypes = hlaDataTypes;
+		this.random = random;
+	}
+
+	/**
+	 * @param maxArrayLength the maximum number of elements of a variable array, at most 127
+	 */
+	public void setMaxArrayLength(final int maxArrayLength) {
+		if (maxArrayLength < 0 || maxArrayLength > MAX_ARRAY_LENGTH) {
+			throw new IllegalArgumentException("HlaBufferGenerator.setMaxArrayLength: not within 0 and " + MAX_ARRAY_LENGTH + ": " + maxArrayLength);
+		}
+		this.maxArrayLength = maxArrayLength;
+	}
+
+	/**
+	 * @param dataTypeName the data type name
+	 * @return a correctly encoded buffer
+	 * @throws EncodingRulesException if the data type is unknown or no buffer can be generated for it
+	 */
+	public byte[] generate(final String dataTypeName) throws EncodingRulesException {
+		HlaDataType hlaDataType = hlaDataTypes.dataTypeMap.get(dataTypeName);
+		if (hlaDataType == null) {
+			String errorMessageString = "HlaBufferGenerator.generate: cannot find data type: " + dataTypeName;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		return generate(hlaDataType);
+	}
+
+	/**
+	 * @param hlaDataType the data type
+	 * @return a correctly encoded buffer
+	 * @throws EncodingRulesException if the data type is not compiled or no buffer can be generated for it
+	 */
+	public byte[] generate(final HlaDataType hlaDataType) throws EncodingRulesException {
+		generateBuffer(hlaDataType);
+		return Arrays.copyOf(buffer, position);
+	}
+
+	/**
+	 * @param hlaDataType the data type
+	 * @param defect the error to put into the buffer
+	 * @return an incorrectly encoded buffer, null if the generated value has no place for the defect
+	 * @throws EncodingRulesException if the data type is not compiled or no buffer can be generated for it
+	 */
+	public byte[] generate(final HlaDataType hlaDataType, final Defect defect) throws EncodingRulesException {
+		generateBuffer(hlaDataType);
+		switch (defect) {
+		case TRUNCATED:
+			// Without the terminating 0, testBuffer would search beyond the end of the buffer
+			if (position == 0 || position == nullTerminatorEnd) {
+				return null;
+			}
+			return Arrays.copyOf(buffer, position - 1);
+		case TRAILING_BYTES:
+			for (int i = 1 + random.nextInt(8); i > 0; i--) {
+				append((byte) random.nextInt());
+			}
+			return Arrays.copyOf(buffer, position);
+		case UNKNOWN_ENUMERATOR:
+			if (putUnknownEnumerator() == false) {
+				return null;
+			}
+			return Arrays.copyOf(buffer, position);
+		case UNKNOWN_DISCRIMINANT:
+			if (putUnknownDiscriminant() == false) {
+				return null;
+			}
+			return Arrays.copyOf(buffer, position);
+		case ARRAY_LENGTH_OVERRUN:
+			if (arrayLengthPositions.isEmpty()) {
+				return null;
+			}
+			writeLength(arrayLengthPositions.get(random.nextInt(arrayLengthPositions.size())), OVERRUN_LENGTH);
+			return Arrays.copyOf(buffer, position);
+		default:
+			return null;
+		}
+	}
+
+	private void generateBuffer(final HlaDataType hlaDataType) throws EncodingRulesException {
+		position = 0;
+		untested = 0;
+		nullTerminatorEnd = -1;
+		enumeratorPositions.clear();
+		enumeratorTypes.clear();
+		discriminantPositions.clear();
+		discriminantTypes.clear();
+		arrayLengthPositions.clear();
+		generateValue(hlaDataType);
+	}
+
+	private void generateValue(final HlaDataType hlaDataType) throws EncodingRulesException {
+		if (hlaDataType.isCompiled() == false) {
+			String errorMessageString = "HlaBufferGenerator.generateValue: data type not compiled: " + hlaDataType.dataTypeName;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		if (hlaDataType instanceof HlaDataEnumType) {
+			generateEnum((HlaDataEnumType) hlaDataType);
+		} else if (hlaDataType instanceof HlaDataFixedArrayType) {
+			generateFixedArray((HlaDataFixedArrayType) hlaDataType);
+		} else if (hlaDataType instanceof HlaDataVariableArrayType) {
+			generateVariableArray((HlaDataVariableArrayType) hlaDataType);
+		} else if (hlaDataType instanceof HlaDataFixedRecordType) {
+			generateFixedRecord((HlaDataFixedRecordType) hlaDataType);
+		} else if (hlaDataType instanceof HlaDataVariantRecordType) {
+			generateVariantRecord((HlaDataVariantRecordType) hlaDataType);
+		} else {
+			// Basic and simple data types
+			for (int i = hlaDataType.getDataSize(); i > 0; i--) {
+				append((byte) random.nextInt());
+			}
+		}
+	}
+
+	private void generateEnum(final HlaDataEnumType hlaDataEnumType) throws EncodingRulesException {
+		long[] values = hlaDataEnumType.getEnumValues();
+		int start = position;
+		pad(start + hlaDataEnumType.dataSize);
+		// Not every value of the FOM/SOM may be representable, try them from a random one on
+		int first = values.length == 0 ? 0 : random.nextInt(values.length);
+		for (int i = 0; i < values.length; i++) {
+			hlaDataEnumType.getCodec().encodeBits(buffer, start, values[(first + i) % values.length]);
+			if (hlaDataEnumType.getEnumSlot(hlaDataEnumType.getCodec().decodeEnumerator(buffer, start)) >= 0) {
+				if (untested == 0) {
+					enumeratorPositions.add(start);
+					enumeratorTypes.add(hlaDataEnumType);
+				}
+				return;
+			}
+		}
+		String errorMessageString = "HlaBufferGenerator.generateEnum: no representable enum value: " + hlaDataEnumType.dataTypeName;
+		logger.error(errorMessageString);
+		throw new EncodingRulesException(errorMessageString);
+	}
+
+	private void generateFixedArray(final HlaDataFixedArrayType hlaDataFixedArrayType) throws EncodingRulesException {
+		// testBuffer only checks the size of cardinality times the element data size
+		HlaDataType elementDataType = hlaDataFixedArrayType.getElementDataType();
+		int elementSize = hlaDataFixedArrayType.getElementDataSize();
+		HlaDataTypeLayout elementLayout = elementDataType.getLayout();
+		boolean generateElements = elementSize > 0 && elementLayout.isFixedSize() && elementLayout.getEncodedSize() == elementSize;
+		untested++;
+		for (int i = 0; i < hlaDataFixedArrayType.getCardinality(); i++) {
+			int end = position + elementSize;
+			if (generateElements) {
+				generateValue(elementDataType);
+			}
+			truncateOrPad(end);
+		}
+		untested--;
+	}
+
+	private void generateVariableArray(final HlaDataVariableArrayType hlaDataVariableArrayType) throws EncodingRulesException {
+		HlaDataType elementDataType = hlaDataVariableArrayType.getElementDataType();
+		if (hlaDataVariableArrayType.isNullTerminated()) {
+			// Any octet up to the first 0
+			for (int i = random.nextInt(maxArrayLength + 1); i > 0; i--) {
+				append((byte) (1 + random.nextInt(255)));
+			}
+			append((byte) 0);
+			nullTerminatorEnd = position;
+			return;
+		}
+		int count = random.nextInt(maxArrayLength + 1);
+		// The elements of fixed size are separated by the difference of their alignment and size
+		int gap = hlaDataVariableArrayType.alignment - hlaDataVariableArrayType.dataSize;
+		boolean fixedSize = elementDataType.getDataSizeFixed();
+		if (fixedSize && count == 0 && gap > 0) {
+			count = 1;
+		}
+		if (untested == 0) {
+			arrayLengthPositions.add(position);
+		}
+		int lengthPosition = position;
+		pad(position + 4);
+		writeLength(lengthPosition, count);
+		if (fixedSize) {
+			pad(position + HlaDataType.calcPaddingBytes(position, elementDataType.alignment));
+			untested++;
+			for (int i = 0; i < count; i++) {
+				if (i > 0) {
+					pad(position + gap);
+				}
+				int end = position + elementDataType.getDataSize();
+				generateValue(elementDataType);
+				truncateOrPad(end);
+			}
+			untested--;
+		} else {
+			for (int i = 0; i < count; i++) {
+				pad(position + HlaDataType.calcPaddingBytes(position, elementDataType.alignment));
+				generateValue(elementDataType);
+			}
+		}
+	}
+
+	private void generateFixedRecord(final HlaDataFixedRecordType hlaDataFixedRecordType) throws EncodingRulesException {
+		for (int i = 0; i < hlaDataFixedRecordType.getFieldCount(); i++) {
+			pad(position + HlaDataType.calcPaddingBytes(position, hlaDataFixedRecordType.getFieldAlignment(i)));
+			generateValue(hlaDataFixedRecordType.getFieldDataType(i));
+		}
+	}
+
+	private void generateVariantRecord(final HlaDataVariantRecordType hlaDataVariantRecordType) throws EncodingRulesException {
+		HlaDataEnumType discriminantDataType = hlaDataVariantRecordType.getDiscriminantDataType();
+		long[] values = discriminantDataType.getEnumValues();
+		int start = position;
+		pad(start + discriminantDataType.dataSize);
+		int first = values.length == 0 ? 0 : random.nextInt(values.length);
+		for (int i = 0; i < values.length; i++) {
+			discriminantDataType.getCodec().encodeBits(buffer, start, values[(first + i) % values.length]);
+			HlaDataType alternativeDataType = getAlternative(hlaDataVariantRecordType, start);
+			if (alternativeDataType != null) {
+				if (untested == 0 && hlaDataVariantRecordType.getDiscriminantCodec() != null) {
+					discriminantPositions.add(start);
+					discriminantTypes.add(hlaDataVariantRecordType);
+				}
+				pad(position + HlaDataType.calcPaddingBytes(position, hlaDataVariantRecordType.getAlternativeAlignment(hlaDataTypes)));
+				generateValue(alternativeDataType);
+				return;
+			}
+		}
+		String errorMessageString = "HlaBufferGenerator.generateVariantRecord: no discriminant value selects an alternative: " + hlaDataVariantRecordType.dataTypeName;
+		logger.error(errorMessageString);
+		throw new EncodingRulesException(errorMessageString);
+	}
+
+	/**
+	 * @return the alternative the discriminant at the position selects for testBuffer, null if none
+	 */
+	private HlaDataType getAlternative(final HlaDataVariantRecordType hlaDataVariantRecordType, final int discriminantPosition) {
+		long discriminantValue = 0;
+		if (hlaDataVariantRecordType.getDiscriminantCodec() != null) {
+			discriminantValue = hlaDataVariantRecordType.getDiscriminantCodec().decodeEnumerator(buffer, discriminantPosition);
+		}
+		int slot = hlaDataVariantRecordType.getDiscriminantDataType().getEnumSlot(discriminantValue);
+		if (slot < 0) {
+			return null;
+		}
+		return hlaDataVariantRecordType.getAlternativeDataType(slot);
+	}
+
+	private boolean putUnknownEnumerator() {
+		int first = enumeratorPositions.isEmpty() ? 0 : random.nextInt(enumeratorPositions.size());
+		for (int i = 0; i < enumeratorPositions.size(); i++) {
+			int index = (first + i) % enumeratorPositions.size();
+			HlaDataEnumType hlaDataEnumType = enumeratorTypes.get(index);
+			int enumPosition = enumeratorPositions.get(index);
+			if (putUnknownValue(hlaDataEnumType.getCodec(), enumPosition, hlaDataEnumType, null)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean putUnknownDiscriminant() {
+		int first = discriminantPositions.isEmpty() ? 0 : random.nextInt(discriminantPositions.size());
+		for (int i = 0; i < discriminantPositions.size(); i++) {
+			int index = (first + i) % discriminantPositions.size();
+			HlaDataVariantRecordType hlaDataVariantRecordType = discriminantTypes.get(index);
+			int discriminantPosition = discriminantPositions.get(index);
+			if (putUnknownValue(hlaDataVariantRecordType.getDiscriminantDataType().getCodec(), discriminantPosition, null, hlaDataVariantRecordType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Overwrite an enum value or a discriminant with a value testBuffer rejects,
+	 * random values first, then the values from 0 on
+	 */
+	private boolean putUnknownValue(final HlaFundamentalCodec codec, final int valuePosition, final HlaDataEnumType hlaDataEnumType, final HlaDataVariantRecordType hlaDataVariantRecordType) {
+		byte[] original = Arrays.copyOfRange(buffer, valuePosition, valuePosition + codec.getSize());
+		for (int i = 0; i < UNKNOWN_VALUE_TRIES * 2; i++) {
+			long value = i < UNKNOWN_VALUE_TRIES ? random.nextLong() : i - UNKNOWN_VALUE_TRIES;
+			codec.encodeBits(buffer, valuePosition, value);
+			boolean unknown;
+			if (hlaDataEnumType != null) {
+				unknown = hlaDataEnumType.getEnumSlot(codec.decodeEnumerator(buffer, valuePosition)) < 0;
+			} else {
+				unknown = getAlternative(hlaDataVariantRecordType, valuePosition) == null;
+			}
+			if (unknown) {
+				return true;
+			}
+		}
+		System.arraycopy(original, 0, buffer, valuePosition, original.length);
+		return false;
+	}
+
+	private void writeLength(final int lengthPosition, final int length) {
+		buffer[lengthPosition] = (byte) (length >>> 24);
+		buffer[lengthPosition + 1] = (byte) (length >>> 16);
+		buffer[lengthPosition + 2] = (byte) (length >>> 8);
+		buffer[lengthPosition + 3] = (byte) length;
+	}
+
+	private void append(final byte b) {
+		if (position == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+		}
+		buffer[position++] = b;
+	}
+
+	/**
+	 * Append octets of 0 up to the end position
+	 */
+	private void pad(final int end) {
+		if (end > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(end, buffer.length * 2));
+		}
+		Arrays.fill(buffer, position, end, (byte) 0);
+		position = end;
+	}
+
+	/**
+	 * Set the end of the generated data, padding with octets of 0 if needed
+	 */
+	private void truncateOrPad(final int end) {
+		if (position > end) {
+			position = end;
+		} else {
+			pad(end);
+		}
+	}
+}
@@ -16,6 +16,10 @@ limitations under the License.
 
 package de.fraunhofer.iosb.tc_lib_encodingrulestester;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +34,11 @@ public class HlaDataBasicType extends HlaDataType {
 	 * 
 	 */
 	boolean bigEndian;
+
+	/**
+	 * Decodes the values, null if the size is not an integer size
+	 */
+	private final HlaFundamentalCodec codec;
 	
 	/**
 	 * Set some values based on dataTypeName defined in OMT standard
@@ -44,6 +53,38 @@ public class HlaDataBasicType extends HlaDataType {
 		this.dataSize = dataSizeBits / 8;
 		this.bigEndian = bigEndian;
 		this.alignment = calcAlignment(this.dataSize);
+		HlaFundamentalCodec myCodec = HlaFundamentalCodec.forName(dataTypeName);
+		if (myCodec == null) {
+			// Not defined in the OMT standard, decode as integer of the given size
+			myCodec = HlaFundamentalCodec.forSize(this.dataSize, bigEndian);
+		}
+		this.codec = myCodec;
+	}
+
+	/**
+	 * Read a data type written by writeTo
+	 *
+	 * @param in the input
+	 * @throws IOException upon read error
+	 */
+	HlaDataBasicType(final DataInput in) throws IOException {
+		readFrom(in);
+		this.dataSize = in.readInt();
+		this.bigEndian = in.readBoolean();
+		HlaFundamentalCodec myCodec = HlaFundamentalCodec.forName(dataTypeName);
+		if (myCodec == null) {
+			myCodec = HlaFundamentalCodec.forSize(this.dataSize, bigEndian);
+		}
+		this.codec = myCodec;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	void writeTo(final DataOutput out) throws IOException {
+		super.writeTo(out);
+		out.writeInt(dataSize);
+		out.writeBoolean(bigEndian);
 	}
 
 	public boolean equalTo(HlaDataBasicType other) {
@@ -73,6 +114,13 @@ public class HlaDataBasicType extends HlaDataType {
 		return this.dataSize;
 	}
 
+	/**
+	 * @return the codec of the values, null if the size is not an integer size
+	 */
+	HlaFundamentalCodec getCodec() {
+		return this.codec;
+	}
+
 	/**
 	 * @return always return null since this is already the basic datatype level
 	 */
@@ -80,6 +128,14 @@ public class HlaDataBasicType extends HlaDataType {
 		return null;
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	boolean link(final HlaDataTypes dataTypes) {
+		this.layout = new HlaDataTypeLayout(alignment, true, dataSize, false);
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -91,4 +147,12 @@ public class HlaDataBasicType extends HlaDataType {
 		}
 		return currentPosition + this.dataSize;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int testBuffer(final byte[] buffer, final int currentPosition) throws EncodingRulesException {
+		// No other data types are used, the test is the same
+		return testBuffer(buffer, currentPosition, null);
+	}
 }
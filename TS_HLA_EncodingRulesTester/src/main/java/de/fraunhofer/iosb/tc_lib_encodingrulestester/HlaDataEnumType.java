@@ -16,6 +16,9 @@ limitations under the License.
 
 package de.fraunhofer.iosb.tc_lib_encodingrulestester;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -40,6 +43,16 @@ public class HlaDataEnumType extends HlaDataType {
 	 *  If the key exists, the value is considered valid.
 	 */
 	private Map<Long, String> enumValueMap;
+
+	/**
+	 * Set by compile: the fundamental integer codec used to decode the enum values
+	 */
+	private HlaFundamentalCodec codec;
+
+	/**
+	 * Set by compile: the legal values without boxing
+	 */
+	private EnumValueSet enumValueSet;
 	
 	/**
 	 * 
@@ -49,19 +62,87 @@ public class HlaDataEnumType extends HlaDataType {
 	String getEnumString(final long enumKey) {
 		return enumValueMap.get(enumKey);
 	}
+
+	/**
+	 * Only valid once compiled
+	 *
+	 * @param enumKey the key is the value extracted from the buffer.
+	 * @return the slot of the enum value from 0 to getEnumCount() - 1, -1 if the value is unknown
+	 */
+	int getEnumSlot(final long enumKey) {
+		return enumValueSet.slot(enumKey);
+	}
+
+	/**
+	 * Only valid once compiled
+	 *
+	 * @param slot the slot of an enum value
+	 * @return the enum value from FOM/SOM
+	 */
+	String getEnumSlotString(final int slot) {
+		return enumValueSet.name(slot);
+	}
+
+	/**
+	 * Only valid once compiled
+	 *
+	 * @return the number of enum values
+	 */
+	int getEnumCount() {
+		return enumValueSet.size();
+	}
 	
+	/**
+	 * @return the enum values from FOM/SOM in definition order
+	 */
+	long[] getEnumValues() {
+		long[] values = new long[enumValueMap.size()];
+		int i = 0;
+		for (Long value : enumValueMap.keySet()) {
+			values[i++] = value;
+		}
+		return values;
+	}
+
+	/**
+	 * Only valid once compiled
+	 *
+	 * @return the codec of the enum values
+	 */
+	HlaFundamentalCodec getCodec() {
+		return codec;
+	}
+
 	/**
 	 * @param buffer the HLA reflectAttributeValue or receiveInteraction parameter value
 	 * @param currentPosition the starting position for the current evaluation
 	 */
 	private void testEnumValue(final byte[] buffer, final int currentPosition, final String fundamentalType) throws EncodingRulesException {
 		long testVal = decodeInteger(buffer, currentPosition, fundamentalType);
-		String s = enumValueMap.get(testVal);
-		if (s == null) {
+		boolean known;
+		if (compiled) {
+			known = enumValueSet.slot(testVal) >= 0;
+		} else {
+			known = enumValueMap.containsKey(testVal);
+		}
+		if (known == false) {
 			throw new EncodingRulesException("Enum value unknown: " + currentPosition + " " + fundamentalType + " " + testVal);
 		}
 	}
 
+	/**
+	 * Only valid once compiled
+	 *
+	 * @param buffer the HLA reflectAttributeValue or receiveInteraction parameter value
+	 * @param currentPosition the starting position for the current evaluation
+	 */
+	private void testEnumValue(final byte[] buffer, final int currentPosition) throws EncodingRulesException {
+		long testVal = codec.decodeEnumerator(buffer, currentPosition);
+		if (enumValueSet.slot(testVal) < 0) {
+			throw new EncodingRulesException("Enum value unknown: " + currentPosition + " " + codec.getName() + " " + testVal);
+		}
+	}
+
 	/**
 	 * 
 	 * @param dataTypeName the enumeration name from FOM/SOM
@@ -89,6 +170,37 @@ public class HlaDataEnumType extends HlaDataType {
 		this.enumValueMap = enumValueMap;
 	}
 	
+	/**
+	 * Read a data type written by writeTo
+	 *
+	 * @param in the input
+	 * @throws IOException upon read error
+	 */
+	HlaDataEnumType(final DataInput in) throws IOException {
+		readFrom(in);
+		this.dataSize = in.readInt();
+		this.elementType = readString(in);
+		enumValueMap = new LinkedHashMap<Long, String>();
+		for (int i = in.readInt(); i > 0; i--) {
+			long key = in.readLong();
+			enumValueMap.put(key, readString(in));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	void writeTo(final DataOutput out) throws IOException {
+		super.writeTo(out);
+		out.writeInt(dataSize);
+		writeString(out, elementType);
+		out.writeInt(enumValueMap.size());
+		for (Map.Entry<Long, String> entry : enumValueMap.entrySet()) {
+			out.writeLong(entry.getKey());
+			writeString(out, entry.getValue());
+		}
+	}
+
 	public boolean equalTo(HlaDataEnumType other) {
 		boolean result;
 		result = (this.dataTypeName.equals(other.dataTypeName) && this.elementType.equals(other.elementType));
@@ -132,6 +244,24 @@ public class HlaDataEnumType extends HlaDataType {
 		return elementType;
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	boolean link(final HlaDataTypes dataTypes) {
+		HlaDataType hlaDataType = dataTypes.dataTypeMap.get(elementType);
+		if (hlaDataType instanceof HlaDataBasicType == false) {
+			return false;
+		}
+		HlaDataBasicType hlaDataBasicType = (HlaDataBasicType) hlaDataType;
+		this.codec = HlaFundamentalCodec.forSize(hlaDataBasicType.getDataSize(), hlaDataBasicType.bigEndian);
+		if (this.codec == null) {
+			return false;
+		}
+		this.enumValueSet = EnumValueSet.create(enumValueMap);
+		this.layout = new HlaDataTypeLayout(alignment, true, dataSize, true);
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -155,4 +285,17 @@ public class HlaDataEnumType extends HlaDataType {
 		myCurrentPosition += dataSize;
 		return myCurrentPosition;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int testBuffer(final byte[] buffer, final int currentPosition) throws EncodingRulesException {
+		if (currentPosition + this.dataSize > buffer.length) {
+			String errorMessageString = "HlaDataEnumType: testBuffer: current position " + currentPosition + " plus field value length : " + this.dataSize + " exceeds buffer length: " + buffer.length;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		testEnumValue(buffer, currentPosition);
+		return currentPosition + dataSize;
+	}
 }
@@ -16,6 +16,10 @@ limitations under the License.
 
 package de.fraunhofer.iosb.tc_lib_encodingrulestester;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +40,11 @@ public class HlaDataFixedArrayType extends HlaDataType {
 	 */
 	String elementType;
 
+	/**
+	 * Set by compile: the element data type
+	 */
+	private HlaDataType elementDataType;
+
 	/**
 	 * @param dataTypeName data type name
 	 * @param hlaDataTypeElement the element type
@@ -53,6 +62,29 @@ public class HlaDataFixedArrayType extends HlaDataType {
 		this.cardinality = cardinality;
 	}
 
+	/**
+	 * Read a data type written by writeTo
+	 *
+	 * @param in the input
+	 * @throws IOException upon read error
+	 */
+	HlaDataFixedArrayType(final DataInput in) throws IOException {
+		readFrom(in);
+		this.dataSize = in.readInt();
+		this.cardinality = in.readInt();
+		this.elementType = readString(in);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	void writeTo(final DataOutput out) throws IOException {
+		super.writeTo(out);
+		out.writeInt(dataSize);
+		out.writeInt(cardinality);
+		writeString(out, elementType);
+	}
+
 	public boolean equalTo(HlaDataFixedArrayType other) {
 		if ((this.dataTypeName.equals(other.dataTypeName) && this.elementType.equals(other.elementType)) == false) {
 			return false;
@@ -71,6 +103,9 @@ public class HlaDataFixedArrayType extends HlaDataType {
 	 * @throws EncodingRulesException upon error
 	 */
 	public int getAlignment(final HlaDataTypes dataTypes) throws EncodingRulesException {
+		if (compiled) {
+			return layout.getAlignment();
+		}
 		HlaDataType hlaDataType = dataTypes.dataTypeMap.get(elementType);
 		if (hlaDataType == null) {
 			String errorMessageString = "HlaDataFixedArrayType: getAlignment: cannot find data element type: " + elementType;
@@ -101,6 +136,29 @@ public class HlaDataFixedArrayType extends HlaDataType {
 		return elementType;
 	}
 	
+	/**
+	 * @return the number of elements
+	 */
+	int getCardinality() {
+		return cardinality;
+	}
+
+	/**
+	 * @return the data size of an element as used by testBuffer
+	 */
+	int getElementDataSize() {
+		return dataSize;
+	}
+
+	/**
+	 * Only valid once compiled
+	 *
+	 * @return the element data type
+	 */
+	HlaDataType getElementDataType() {
+		return elementDataType;
+	}
+
 	/**
 	 *
 	 * @param hlaDataTypeElement the data type
@@ -110,6 +168,20 @@ public class HlaDataFixedArrayType extends HlaDataType {
 		this.dataSize = hlaDataTypeElement.getDataSize();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	boolean link(final HlaDataTypes dataTypes) {
+		HlaDataType hlaDataType = dataTypes.dataTypeMap.get(elementType);
+		if (hlaDataType == null || hlaDataType.compile(dataTypes) == false) {
+			return false;
+		}
+		this.elementDataType = hlaDataType;
+		// With a fixed data size, the elements themselves are not tested
+		this.layout = new HlaDataTypeLayout(hlaDataType.layout.getAlignment(), dataSizeFixed, cardinality * dataSize, dataSizeFixed == false && hlaDataType.layout.containsEnums());
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -133,4 +205,22 @@ public class HlaDataFixedArrayType extends HlaDataType {
 		}
 		return myCurrentPosition;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int testBuffer(final byte[] buffer, final int currentPosition) throws EncodingRulesException {
+		int myCurrentPosition = currentPosition;
+		if (dataSizeFixed) {
+			myCurrentPosition += cardinality * dataSize;
+		} else {
+			myCurrentPosition = elementDataType.testBuffer(buffer, myCurrentPosition);
+		}
+		if (myCurrentPosition > buffer.length) {
+			String errorMessageString = "HlaDataFixedArrayType: testBuffer: currentPosition: " + myCurrentPosition + " exceeds buffer length: " + buffer.length;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		return myCurrentPosition;
+	}
 }
@@ -16,6 +16,10 @@ limitations under the License.
 
 package de.fraunhofer.iosb.tc_lib_encodingrulestester;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.LinkedHashMap;
@@ -38,6 +42,12 @@ public class HlaDataFixedRecordType extends HlaDataType {
 	private Map<String, String> fields;
 	private List<String> fieldNamesOrdered;
 
+	/**
+	 * Set by compile: the field data types and their alignment in field order
+	 */
+	private HlaDataType[] fieldDataTypes;
+	private int[] fieldAlignments;
+
 	//
 	public HlaDataFixedRecordType(final String dataTypeName, final boolean dataSizeFixed) {
 		this.dataTypeName = dataTypeName;
@@ -57,6 +67,54 @@ public class HlaDataFixedRecordType extends HlaDataType {
 		this.fields = fields;
 	}
 
+	/**
+	 * Read a data type written by writeTo
+	 *
+	 * @param in the input
+	 * @throws IOException upon read error
+	 */
+	HlaDataFixedRecordType(final DataInput in) throws IOException {
+		readFrom(in);
+		int count = in.readInt();
+		if (count >= 0) {
+			fieldNamesOrdered = new LinkedList<String>();
+			for (int i = 0; i < count; i++) {
+				fieldNamesOrdered.add(readString(in));
+			}
+		}
+		// The decoded records hold the fields in a HashMap, added ones in a LinkedHashMap
+		if (in.readBoolean()) {
+			fields = new LinkedHashMap<String, String>();
+		} else {
+			fields = new HashMap<String, String>();
+		}
+		for (int i = in.readInt(); i > 0; i--) {
+			String fieldName = readString(in);
+			fields.put(fieldName, readString(in));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	void writeTo(final DataOutput out) throws IOException {
+		super.writeTo(out);
+		if (fieldNamesOrdered == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(fieldNamesOrdered.size());
+			for (String fieldName : fieldNamesOrdered) {
+				writeString(out, fieldName);
+			}
+		}
+		out.writeBoolean(fields instanceof LinkedHashMap);
+		out.writeInt(fields.size());
+		for (Map.Entry<String, String> entry : fields.entrySet()) {
+			writeString(out, entry.getKey());
+			writeString(out, entry.getValue());
+		}
+	}
+
 	public boolean equalTo(HlaDataFixedRecordType other) {
 		if (fields.size() != other.fields.size()) {
 			return false;
@@ -87,6 +145,9 @@ public class HlaDataFixedRecordType extends HlaDataType {
 	 * {@inheritDoc}
 	 */
 	public int getAlignment(final HlaDataTypes dataTypes) throws EncodingRulesException {
+		if (compiled) {
+			return layout.getAlignment();
+		}
 		int ret = 0;
 		int testVal = 0;
 		HlaDataType myHlaDataType = null;
@@ -120,6 +181,35 @@ public class HlaDataFixedRecordType extends HlaDataType {
 	}
 
 
+	/**
+	 * Only valid once compiled
+	 *
+	 * @return the number of fields
+	 */
+	int getFieldCount() {
+		return fieldDataTypes.length;
+	}
+
+	/**
+	 * Only valid once compiled
+	 *
+	 * @param index the index of the field in field order
+	 * @return the data type of the field
+	 */
+	HlaDataType getFieldDataType(final int index) {
+		return fieldDataTypes[index];
+	}
+
+	/**
+	 * Only valid once compiled
+	 *
+	 * @param index the index of the field in field order
+	 * @return the alignment of the field
+	 */
+	int getFieldAlignment(final int index) {
+		return fieldAlignments[index];
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -127,6 +217,57 @@ public class HlaDataFixedRecordType extends HlaDataType {
 		return null;
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	boolean link(final HlaDataTypes dataTypes) {
+		if (fieldNamesOrdered == null) {
+			return false;
+		}
+		HlaDataType[] myFieldDataTypes = new HlaDataType[fieldNamesOrdered.size()];
+		int[] myFieldAlignments = new int[fieldNamesOrdered.size()];
+		int i = 0;
+		for (String fieldName : fieldNamesOrdered) {
+			String fieldType = fields.get(fieldName);
+			if (fieldType == null) {
+				return false;
+			}
+			HlaDataType hlaDataType = dataTypes.dataTypeMap.get(fieldType);
+			if (hlaDataType == null || hlaDataType.compile(dataTypes) == false) {
+				return false;
+			}
+			myFieldDataTypes[i] = hlaDataType;
+			myFieldAlignments[i] = hlaDataType.layout.getAlignment();
+			i++;
+		}
+		// getAlignment uses all fields of the map
+		int myAlignment = 0;
+		for (String fieldType : fields.values()) {
+			HlaDataType hlaDataType = dataTypes.dataTypeMap.get(fieldType);
+			if (hlaDataType == null || hlaDataType.compile(dataTypes) == false) {
+				return false;
+			}
+			if (hlaDataType.layout.getAlignment() > myAlignment) {
+				myAlignment = hlaDataType.layout.getAlignment();
+			}
+		}
+		// The encoded size is the same for each start position aligned to myAlignment
+		boolean fixedSize = true;
+		boolean containsEnums = false;
+		int encodedSize = 0;
+		for (i = 0; i < myFieldDataTypes.length; i++) {
+			HlaDataTypeLayout fieldLayout = myFieldDataTypes[i].layout;
+			fixedSize &= fieldLayout.isFixedSize();
+			containsEnums |= fieldLayout.containsEnums();
+			encodedSize += HlaDataType.calcPaddingBytes(encodedSize, myFieldAlignments[i]);
+			encodedSize += fieldLayout.getEncodedSize();
+		}
+		this.fieldDataTypes = myFieldDataTypes;
+		this.fieldAlignments = myFieldAlignments;
+		this.layout = new HlaDataTypeLayout(myAlignment, fixedSize, encodedSize, containsEnums);
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -156,4 +297,25 @@ public class HlaDataFixedRecordType extends HlaDataType {
 		}
 		return myCurrentPosition;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int testBuffer(final byte[] buffer, final int currentPosition) throws EncodingRulesException {
+		int endPosition = layout.staticEndPosition(currentPosition, buffer.length);
+		if (endPosition >= 0) {
+			return endPosition;
+		}
+		int myCurrentPosition = currentPosition;
+		for (int i = 0; i < fieldDataTypes.length; i++) {
+			myCurrentPosition += HlaDataType.calcPaddingBytes(myCurrentPosition, fieldAlignments[i]);
+			myCurrentPosition = fieldDataTypes[i].testBuffer(buffer, myCurrentPosition);
+		}
+		if (myCurrentPosition > buffer.length) {
+			String errorMessageString = "HlaDataFixedRecordType: testBuffer: current position: " + myCurrentPosition + " exceeds buffer length: " + buffer.length;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		return myCurrentPosition;
+	}
 }
@@ -16,6 +16,10 @@ limitations under the License.
 
 package de.fraunhofer.iosb.tc_lib_encodingrulestester;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +47,27 @@ public class HlaDataSimpleType extends HlaDataType {
 		this.alignment = calcAlignment(dataSize);
 	}
 
+	/**
+	 * Read a data type written by writeTo
+	 *
+	 * @param in the input
+	 * @throws IOException upon read error
+	 */
+	HlaDataSimpleType(final DataInput in) throws IOException {
+		readFrom(in);
+		this.dataSize = in.readInt();
+		this.elementType = readString(in);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	void writeTo(final DataOutput out) throws IOException {
+		super.writeTo(out);
+		out.writeInt(dataSize);
+		writeString(out, elementType);
+	}
+
 	public boolean equalTo(HlaDataSimpleType other) {
 		boolean result;
 		result = (this.dataTypeName.equals(other.dataTypeName) && this.elementType.equals(other.elementType));
@@ -77,6 +102,14 @@ public class HlaDataSimpleType extends HlaDataType {
 		return elementType;
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	boolean link(final HlaDataTypes dataTypes) {
+		this.layout = new HlaDataTypeLayout(alignment, true, dataSize, false);
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -88,4 +121,12 @@ public class HlaDataSimpleType extends HlaDataType {
 		}
 		return currentPosition + dataSize;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int testBuffer(final byte[] buffer, final int currentPosition) throws EncodingRulesException {
+		// No other data types are used, the test is the same
+		return testBuffer(buffer, currentPosition, null);
+	}
 }
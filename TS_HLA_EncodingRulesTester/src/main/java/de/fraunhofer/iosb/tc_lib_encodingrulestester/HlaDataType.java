@@ -16,6 +16,10 @@ limitations under the License.
 
 package de.fraunhofer.iosb.tc_lib_encodingrulestester;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +40,21 @@ public abstract class HlaDataType {
 	 */
 	protected boolean dataSizeFixed;
 
+	/**
+	 *  Set by compile: all data types used by this data type are linked as direct references
+	 */
+	protected boolean compiled;
+
+	/**
+	 *  Alignment, size and content information, calculated once by compile
+	 */
+	protected HlaDataTypeLayout layout;
+
+	private static final int COMPILE_NOT_STARTED = 0;
+	private static final int COMPILE_IN_PROGRESS = 1;
+	private static final int COMPILE_DONE = 2;
+	private int compileState = COMPILE_NOT_STARTED;
+
 	/**
 	 * Calculate the number of padding bytes required
 	 * 
@@ -94,266 +113,157 @@ public abstract class HlaDataType {
 	}
 
 	protected String getFundamentalType(final int elementSize, final boolean bigEndianBool) {
-		String result = null;
-
-		if (bigEndianBool) {
-			switch (elementSize) {
-			case 1:
-				result = "HLAoctet";
-				break;
-			case 2:
-				result = "HLAinteger16BE";
-				break;
-			case 4:
-				result = "HLAinteger32BE";
-				break;
-			case 8:
-				result = "HLAinteger64BE";
-				break;
-			}
-		}
-		else {
-			switch (elementSize) {
-			case 1:
-				result = "HLAoctet";
-				break;
-			case 2:
-				result = "HLAinteger16LE";
-				break;
-			case 4:
-				result = "HLAinteger32LE";
-				break;
-			case 8:
-				result = "HLAinteger64LE";
-				break;
-			}
+		HlaFundamentalCodec codec = HlaFundamentalCodec.forSize(elementSize, bigEndianBool);
+		if (codec == null) {
+			return null;
 		}
-
-		return result;
+		return codec.getName();
 	}
 
 	/**
-	 *
 	 * @param buffer the byte array containing the integer
 	 * @param currentPosition the position of the integer value
-	 * @param size number of bytes to use
-	 * @return
+	 * @param elementType describes the coded integer width
+	 * @return the integer value
 	 */
-	private long extractLongFromBuffBE(final byte[] buffer, final int currentPosition, final int size) {
-		long testVal = 0;
+	protected long decodeInteger(final byte[] buffer, final int currentPosition, final String elementType) {
+		HlaFundamentalCodec codec = HlaFundamentalCodec.forName(elementType);
+		if (codec == null) {
+			return 0;
+		}
+		return codec.decodeEnumerator(buffer, currentPosition);
+	}
 
-		for (int i = 0; i < size; i++) {
-			long l16BE = buffer[currentPosition + i] & 0xFF;
-			l16BE <<= (size - 1 - i) * 8;
-			testVal += l16BE;
+	/**
+	 * 
+	 * @param dataTypeName hla name of the data type
+	 * @return the size of the data type
+	 */
+	public static int getBasicDataSizeBits(String dataTypeName) {
+		HlaFundamentalCodec codec = HlaFundamentalCodec.forName(dataTypeName);
+		if (codec == null) {
+			return 0;
 		}
+		return codec.getSize() * 8;
+	}
 
-		return testVal;
+	/**
+	 * 
+	 * @param dataTypeName hla name of the data type
+	 * @return whether big endian
+	 */
+	public static boolean getBigEndian(String dataTypeName) {
+		HlaFundamentalCodec codec = HlaFundamentalCodec.forName(dataTypeName);
+		if (codec == null) {
+			return false;
+		}
+		return codec.isBigEndian();
 	}
 
 	/**
-	 *
-	 * @param buffer the byte array containing the integer
-	 * @param currentPosition the position of the integer value
-	 * @param size number of bytes to use
-	 * @return
+	 * Forget the result of a previous compile, the map of data types may have changed
 	 */
-	private long extractLongFromBuffLE(final byte[] buffer, final int currentPosition, final int size) {
-		long testVal = 0;
+	void resetCompile() {
+		this.compiled = false;
+		this.layout = null;
+		this.compileState = COMPILE_NOT_STARTED;
+	}
 
-		for (int i = 0; i < size; i++) {
-			long l16BE = buffer[currentPosition + size - 1 - i] & 0xFF;
-			l16BE <<= (size - 1 - i) * 8;
-			testVal += l16BE;
+	/**
+	 * Link the data types used by this data type as direct references and
+	 * calculate the layout, so that testing a buffer needs no lookups in
+	 * the map of data types and no walks through the used data types to
+	 * get their alignment. A data type which cannot be completely linked
+	 * (missing or recursive types) stays uncompiled and is tested as before.
+	 *
+	 * @param dataTypes the map of datatype information from FOM/SOM
+	 * @return whether the data type is compiled
+	 */
+	boolean compile(final HlaDataTypes dataTypes) {
+		switch (compileState) {
+		case COMPILE_DONE:
+			return compiled;
+		case COMPILE_IN_PROGRESS:
+			// Recursive data type definition
+			return false;
 		}
+		compileState = COMPILE_IN_PROGRESS;
+		compiled = link(dataTypes);
+		compileState = COMPILE_DONE;
+		return compiled;
+	}
 
-		return testVal;
+	/**
+	 * @return whether the data type was compiled
+	 */
+	public boolean isCompiled() {
+		return compiled;
 	}
 
 	/**
-	 * @param buffer the byte array containing the integer
-	 * @param currentPosition the position of the integer value
-	 * @param elementType describes the coded integer width
-	 * @return the integer value
+	 * @return the layout calculated by compile, null if not compiled
 	 */
-	protected long decodeInteger(final byte[] buffer, final int currentPosition, final String elementType) {
-		long testVal = 0;
-
-		switch(elementType) {
-		case "HLAinteger16BE":
-			testVal = extractLongFromBuffBE(buffer, currentPosition, 2);
-			break;
-		case "HLAinteger32BE":
-			testVal = extractLongFromBuffBE(buffer, currentPosition, 4);
-			break;
-		case "HLAinteger64BE":
-			testVal = extractLongFromBuffBE(buffer, currentPosition, 8);
-			break;
-		case "HLAinteger16LE":
-			testVal = extractLongFromBuffLE(buffer, currentPosition, 2);
-			break;
-		case "HLAinteger32LE":
-			testVal = extractLongFromBuffLE(buffer, currentPosition, 4);
-			break;
-		case "HLAinteger64LE":
-			testVal = extractLongFromBuffLE(buffer, currentPosition, 8);
-			break;
-		case "HLAoctet":
-			testVal =+ buffer[currentPosition + 0];
-			break;
-		case "UnsignedShort":
-			testVal = extractLongFromBuffBE(buffer, currentPosition, 2);
-			break;
-		case "RPRunsignedInteger8BE":
-			testVal = extractLongFromBuffBE(buffer, currentPosition, 1);
-			break;
-		case "RPRunsignedInteger16BE":
-			testVal = extractLongFromBuffBE(buffer, currentPosition, 2);
-			break;
-		case "RPRunsignedInteger32BE":
-			testVal = extractLongFromBuffBE(buffer, currentPosition, 4);
-			break;
-		case "RPRunsignedInteger64BE":
-			testVal = extractLongFromBuffBE(buffer, currentPosition, 8);
-			break;
-		}
-		return testVal;
+	public HlaDataTypeLayout getLayout() {
+		return layout;
 	}
 
 	/**
-	 * 
-	 * @param dataTypeName hla name of the data type
-	 * @return the size of the data type
+	 * Write the data type as decoded from the FOM/SOM files, without the
+	 * state set by compile, see CompiledModelCache
+	 *
+	 * @param out the output
+	 * @throws IOException upon write error
 	 */
-	public static int getBasicDataSizeBits(String dataTypeName) {
-		int basicDataSize = 0;
-		switch(dataTypeName) {
-		case "HLAinteger16BE":
-			basicDataSize = 16;
-			break;
-		case "HLAinteger32BE":
-			basicDataSize = 32;
-			break;
-		case "HLAinteger64BE":
-			basicDataSize = 64;
-			break;
-		case "HLAfloat32BE":
-			basicDataSize = 32;
-			break;
-		case "HLAfloat64BE":
-			basicDataSize = 64;
-			break;
-		case "HLAoctetPairBE":
-			basicDataSize = 16;
-			break;
-		case "HLAinteger16LE":
-			basicDataSize = 16;
-			break;
-		case "HLAinteger32LE":
-			basicDataSize = 32;
-			break;
-		case "HLAinteger64LE":
-			basicDataSize = 64;
-			break;
-		case "HLAfloat32LE":
-			basicDataSize = 32;
-			break;
-		case "HLAfloat64LE":
-			basicDataSize = 64;
-			break;
-		case "HLAoctetPairLE":
-			basicDataSize = 16;
-			break;
-		case "HLAoctet":
-			basicDataSize = 8;
-			break;
-		case "UnsignedShort":
-			basicDataSize = 16;
-			break;
-		// RPR extensions
-		case "RPRunsignedInteger16BE":
-			basicDataSize = 16;
-			break;
-		case "RPRunsignedInteger32BE":
-			basicDataSize = 32;
-			break;
-		case "RPRunsignedInteger64BE":
-			basicDataSize = 64;
-			break;
-		case "RPRunsignedInteger8BE":
-			basicDataSize = 8;
-			break;
+	void writeTo(final DataOutput out) throws IOException {
+		writeString(out, dataTypeName);
+		out.writeInt(alignment);
+		out.writeBoolean(dataSizeFixed);
+	}
+
+	/**
+	 * Read the fields written by writeTo of this class
+	 *
+	 * @param in the input
+	 * @throws IOException upon read error
+	 */
+	protected void readFrom(final DataInput in) throws IOException {
+		dataTypeName = readString(in);
+		alignment = in.readInt();
+		dataSizeFixed = in.readBoolean();
+	}
+
+	/**
+	 * @param out the output
+	 * @param s the string to write, may be null
+	 * @throws IOException upon write error
+	 */
+	static void writeString(final DataOutput out, final String s) throws IOException {
+		out.writeBoolean(s != null);
+		if (s != null) {
+			out.writeUTF(s);
 		}
-		return basicDataSize;
 	}
 
 	/**
-	 * 
-	 * @param dataTypeName hla name of the data type
-	 * @return whether big endian
+	 * @param in the input
+	 * @return the string written by writeString, may be null
+	 * @throws IOException upon read error
 	 */
-	public static boolean getBigEndian(String dataTypeName) {
-		boolean bigEndian = false;
-		switch(dataTypeName) {
-		case "HLAinteger16BE":
-			bigEndian = true;
-			break;
-		case "HLAinteger32BE":
-			bigEndian = true;
-			break;
-		case "HLAinteger64BE":
-			bigEndian = true;
-			break;
-		case "HLAfloat32BE":
-			bigEndian = true;
-			break;
-		case "HLAfloat64BE":
-			bigEndian = true;
-			break;
-		case "HLAoctetPairBE":
-			bigEndian = true;
-			break;
-		case "HLAinteger16LE":
-			bigEndian = false;
-			break;
-		case "HLAinteger32LE":
-			bigEndian = false;
-			break;
-		case "HLAinteger64LE":
-			bigEndian = false;
-			break;
-		case "HLAfloat32LE":
-			bigEndian = false;
-			break;
-		case "HLAfloat64LE":
-			bigEndian = false;
-			break;
-		case "HLAoctetPairLE":
-			bigEndian = false;
-			break;
-		case "HLAoctet":
-			bigEndian = true;
-			break;
-		case "UnsignedShort":
-			bigEndian = true;
-			break;
-		// RPR extensions
-		case "RPRunsignedInteger16BE":
-			bigEndian = true;
-			break;
-		case "RPRunsignedInteger32BE":
-			bigEndian = true;
-			break;
-		case "RPRunsignedInteger64BE":
-			bigEndian = true;
-			break;
-		case "RPRunsignedInteger8BE":
-			bigEndian = true;
-			break;
+	static String readString(final DataInput in) throws IOException {
+		if (in.readBoolean() == false) {
+			return null;
 		}
-		return bigEndian;
+		return in.readUTF();
 	}
 
+	/**
+	 * Resolve the data types used by this data type and set the layout, see compile
+	 *
+	 * @param dataTypes the map of datatype information from FOM/SOM
+	 * @return true if all used data types are found and compiled
+	 */
+	abstract boolean link(final HlaDataTypes dataTypes);
+
 	/**
 	 * @param dataTypes map of data types
 	 * @return the alignment of the dataype
@@ -387,4 +297,15 @@ public abstract class HlaDataType {
 	 * @throws EncodingRulesException if an encoding rules error is detected
 	 */
 	public abstract int testBuffer(final byte[] buffer, final int currentPosition, final HlaDataTypes dataTypes) throws EncodingRulesException;
+
+	/**
+	 * Test the buffer using the direct references set by compile, may only be
+	 * used if isCompiled is true
+	 *
+	 * @param buffer the buffer from HLA reflectAttributeValue of receiveInteraction parameter
+	 * @param currentPosition position of data to process
+	 * @return the current position of next unprocessed data
+	 * @throws EncodingRulesException if an encoding rules error is detected
+	 */
+	public abstract int testBuffer(final byte[] buffer, final int currentPosition) throws EncodingRulesException;
 }
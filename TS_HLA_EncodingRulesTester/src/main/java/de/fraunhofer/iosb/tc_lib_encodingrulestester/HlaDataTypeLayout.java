@@ -0,0 +1,131 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+/**
+ * The layout values of a data type, calculated once by HlaDataTypes.compile
+ * when the FOM/SOM files are loaded.
+ */
+public final class HlaDataTypeLayout {
+	/**
+	 * The value getAlignment delivers
+	 */
+	private final int alignment;
+
+	/**
+	 * Whether testBuffer always processes the same number of octets, when
+	 * started at a position aligned to alignment
+	 */
+	private final boolean fixedSize;
+
+	/**
+	 * The number of octets processed by testBuffer if fixedSize, else 0
+	 */
+	private final int encodedSize;
+
+	/**
+	 * Whether testBuffer has to check enum values
+	 */
+	private final boolean containsEnums;
+
+	/**
+	 * @param alignment the alignment of the data type
+	 * @param fixedSize whether the encoded size is fixed
+	 * @param encodedSize the encoded size if fixed
+	 * @param containsEnums whether enum values have to be checked
+	 */
+	HlaDataTypeLayout(final int alignment, final boolean fixedSize, final int encodedSize, final boolean containsEnums) {
+		this.alignment = alignment;
+		this.fixedSize = fixedSize;
+		this.encodedSize = fixedSize ? encodedSize : 0;
+		this.containsEnums = containsEnums;
+	}
+
+	/**
+	 * @return the alignment of the data type
+	 */
+	public int getAlignment() {
+		return alignment;
+	}
+
+	/**
+	 * @return whether the encoded size is fixed
+	 */
+	public boolean isFixedSize() {
+		return fixedSize;
+	}
+
+	/**
+	 * @return the encoded size, only valid if fixed size
+	 */
+	public int getEncodedSize() {
+		return encodedSize;
+	}
+
+	/**
+	 * @return whether enum values have to be checked
+	 */
+	public boolean containsEnums() {
+		return containsEnums;
+	}
+
+	/**
+	 * A data type of fixed size without enums can be tested by checking the
+	 * buffer length only, if it starts at an aligned position.
+	 *
+	 * @param currentPosition the position of the data in the buffer
+	 * @param bufferLength the length of the buffer
+	 * @return the position after the data, or -1 if the buffer has to be tested field by field
+	 */
+	int staticEndPosition(final int currentPosition, final int bufferLength) {
+		if (fixedSize == false || containsEnums) {
+			return -1;
+		}
+		if (alignment != 0 && currentPosition % alignment != 0) {
+			return -1;
+		}
+		if (currentPosition + encodedSize > bufferLength) {
+			// Let the field by field test report the error
+			return -1;
+		}
+		return currentPosition + encodedSize;
+	}
+
+	/**
+	 * As staticEndPosition for a number of consecutive elements without padding
+	 * between them.
+	 *
+	 * @param currentPosition the position of the first element in the buffer
+	 * @param count the number of elements
+	 * @param bufferLength the length of the buffer
+	 * @return the position after the last element, or -1 if the elements have to be tested one by one
+	 */
+	int staticEndPosition(final int currentPosition, final int count, final int bufferLength) {
+		if (fixedSize == false || containsEnums || count <= 0) {
+			return -1;
+		}
+		// Each element has to start at an aligned position
+		if (alignment != 0 && (currentPosition % alignment != 0 || encodedSize % alignment != 0)) {
+			return -1;
+		}
+		long endPosition = (long) currentPosition + (long) count * encodedSize;
+		if (endPosition > bufferLength) {
+			return -1;
+		}
+		return (int) endPosition;
+	}
+}
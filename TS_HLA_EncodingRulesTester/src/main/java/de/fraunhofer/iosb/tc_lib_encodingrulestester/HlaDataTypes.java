@@ -24,4 +24,38 @@ public class HlaDataTypes {
 	 * 
 	 */
 	public Map<String, HlaDataType> dataTypeMap =  new HashMap <String, HlaDataType>();
+
+	/**
+	 * Link all data types to the data types they use, see HlaDataType.compile.
+	 * To be called once all FOM/SOM files are decoded.
+	 *
+	 * @return the number of data types which could not be compiled
+	 */
+	public int compile() {
+		int notCompiled = 0;
+		for (HlaDataType hlaDataType : dataTypeMap.values()) {
+			hlaDataType.resetCompile();
+		}
+		for (HlaDataType hlaDataType : dataTypeMap.values()) {
+			if (hlaDataType.compile(this) == false) {
+				notCompiled++;
+			}
+		}
+		return notCompiled;
+	}
+
+	/**
+	 * Test a complete buffer, using the compiled data type if available
+	 *
+	 * @param hlaDataType the data type of the buffer
+	 * @param buffer the buffer from HLA reflectAttributeValue of receiveInteraction parameter
+	 * @return the position of next unprocessed data
+	 * @throws EncodingRulesException if an encoding rules error is detected
+	 */
+	public int testBuffer(final HlaDataType hlaDataType, final byte[] buffer) throws EncodingRulesException {
+		if (hlaDataType.compiled) {
+			return hlaDataType.testBuffer(buffer, 0);
+		}
+		return hlaDataType.testBuffer(buffer, 0, this);
+	}
 }
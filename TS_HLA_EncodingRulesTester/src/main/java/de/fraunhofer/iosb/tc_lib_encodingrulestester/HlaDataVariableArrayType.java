@@ -16,6 +16,10 @@ limitations under the License.
 
 package de.fraunhofer.iosb.tc_lib_encodingrulestester;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +42,12 @@ public class HlaDataVariableArrayType extends HlaDataType {
 	 */
 	String elementType;
 
+	/**
+	 * Set by compile: the element data type and the encoding flags
+	 */
+	private HlaDataType elementDataType;
+	private boolean nullTerminated;
+
 	/**
 	 * 
 	 * @param dataTypeName the data type name
@@ -59,6 +69,29 @@ public class HlaDataVariableArrayType extends HlaDataType {
 		useRPRv2_0 = true;
 	}
 
+	/**
+	 * Read a data type written by writeTo
+	 *
+	 * @param in the input
+	 * @throws IOException upon read error
+	 */
+	HlaDataVariableArrayType(final DataInput in) throws IOException {
+		readFrom(in);
+		this.dataSize = in.readInt();
+		this.encoding = readString(in);
+		this.elementType = readString(in);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	void writeTo(final DataOutput out) throws IOException {
+		super.writeTo(out);
+		out.writeInt(dataSize);
+		writeString(out, encoding);
+		writeString(out, elementType);
+	}
+
 	public boolean equalTo(HlaDataVariableArrayType other) {
 		if ((this.dataTypeName.equals(other.dataTypeName) && this.elementType.equals(other.elementType)) == false) {
 			return false;
@@ -70,6 +103,9 @@ public class HlaDataVariableArrayType extends HlaDataType {
 	 * {@inheritDoc}
 	 */
 	public int getAlignment(final HlaDataTypes dataTypes) throws EncodingRulesException {
+		if (compiled) {
+			return layout.getAlignment();
+		}
 		HlaDataType hlaDataType = dataTypes.dataTypeMap.get(elementType);
 		if (hlaDataType == null) {
 			String errorMessageString = "HlaDataVariableArrayType: getAlignment: cannot find data element type: " + elementType;
@@ -100,6 +136,24 @@ public class HlaDataVariableArrayType extends HlaDataType {
 		return elementType;
 	}
 
+	/**
+	 * Only valid once compiled
+	 *
+	 * @return the element data type
+	 */
+	HlaDataType getElementDataType() {
+		return elementDataType;
+	}
+
+	/**
+	 * Only valid once compiled
+	 *
+	 * @return whether the encoding is RPRnullTerminatedArray
+	 */
+	boolean isNullTerminated() {
+		return nullTerminated;
+	}
+
 	/**
 	 *
 	 * @param hlaDataTypeElement the data type
@@ -109,6 +163,20 @@ public class HlaDataVariableArrayType extends HlaDataType {
 		this.dataSize = hlaDataTypeElement.getDataSize();
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	boolean link(final HlaDataTypes dataTypes) {
+		HlaDataType hlaDataType = dataTypes.dataTypeMap.get(elementType);
+		if (hlaDataType == null || hlaDataType.compile(dataTypes) == false) {
+			return false;
+		}
+		this.elementDataType = hlaDataType;
+		this.nullTerminated = encoding.equals("RPRnullTerminatedArray");
+		this.layout = new HlaDataTypeLayout(hlaDataType.layout.getAlignment(), false, 0, hlaDataType.layout.containsEnums());
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -171,4 +239,64 @@ public class HlaDataVariableArrayType extends HlaDataType {
 		}
 		return myCurrentPosition;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int testBuffer(final byte[] buffer, final int currentPosition) throws EncodingRulesException {
+		int myCurrentPosition = currentPosition;
+		int len = buffer.length;
+		if (nullTerminated) {
+			if (useRPRv2_0 == false) {
+				String warnMessageString = "HlaDataVariableArrayType: testBuffer: user defined encoding is an extension to HLA basic encoding: " + encoding;
+				logger.warn(warnMessageString);
+			}
+			for (int i = 0; i < len; i++) {
+				if (buffer[myCurrentPosition + i] == 0) {
+					return myCurrentPosition + i + 1;
+				}
+			}
+		}
+		if (myCurrentPosition + 4 > len) {
+			String errorMessageString = "HlaDataVariableArrayType: testBuffer: current position: " + myCurrentPosition + " insufficient buffer for length field: " + elementType;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		int lengthValue = 0;
+		lengthValue += buffer[myCurrentPosition];
+		lengthValue <<= 8;
+		lengthValue += buffer[myCurrentPosition + 1];
+		lengthValue <<= 8;
+		lengthValue += buffer[myCurrentPosition + 2];
+		lengthValue <<= 8;
+		lengthValue += buffer[myCurrentPosition + 3];
+		myCurrentPosition += 4;
+		if (myCurrentPosition + lengthValue > buffer.length) {
+			String errorMessageString = "HlaDataVariableArrayType: testBuffer: current position: " + myCurrentPosition + " field value length: " + myCurrentPosition + lengthValue + " exceeds buffer length: " + buffer.length;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		if (elementDataType.getDataSizeFixed()) {
+			myCurrentPosition += calcPaddingBytes(myCurrentPosition, elementDataType.alignment);
+			myCurrentPosition += lengthValue * elementDataType.getDataSize() + (lengthValue - 1) * (this.alignment - dataSize);
+		} else {
+			if (elementDataType.alignment == 0) {
+				// Elements without padding: a fixed size without enums needs no element tests
+				int endPosition = elementDataType.layout.staticEndPosition(myCurrentPosition, lengthValue, buffer.length);
+				if (endPosition >= 0) {
+					return endPosition;
+				}
+			}
+			for (int i = 0; i < lengthValue; i++) {
+				myCurrentPosition += calcPaddingBytes(myCurrentPosition, elementDataType.alignment);
+				myCurrentPosition = elementDataType.testBuffer(buffer, myCurrentPosition);
+			}
+		}
+		if (myCurrentPosition > buffer.length) {
+			String errorMessageString = "HlaDataVariableArrayType: testBuffer: current position: " + myCurrentPosition + " exceeds buffer length: " + buffer.length;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		return myCurrentPosition;
+	}
 }
@@ -16,6 +16,10 @@ limitations under the License.
 
 package de.fraunhofer.iosb.tc_lib_encodingrulestester;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -42,6 +46,18 @@ public class HlaDataVariantRecordType extends HlaDataType {
 	 */
 	Map<String, AlternativeStringPair> alternativeMap;
 
+	/**
+	 * Set by compile: the discriminant, per enum slot of the discriminant
+	 * whether an alternative exists and its data type (null for an
+	 * alternative without data type), and the maximum alternative alignment
+	 */
+	private HlaDataEnumType discriminantDataType;
+	// Null if the discriminant representation is not defined in the OMT standard, decoded as 0 as before
+	private HlaFundamentalCodec discriminantCodec;
+	private boolean[] alternativeDefined;
+	private HlaDataType[] alternativeDataTypes;
+	private int alternativeAlignment;
+
 
 	/**
 	 * 
@@ -59,6 +75,46 @@ public class HlaDataVariantRecordType extends HlaDataType {
 		this.alternativeMap = alternativeMap;
 	}
 	
+	/**
+	 * Read a data type written by writeTo
+	 *
+	 * @param in the input
+	 * @throws IOException upon read error
+	 */
+	HlaDataVariantRecordType(final DataInput in) throws IOException {
+		readFrom(in);
+		this.discriminantName = readString(in);
+		this.discriminantType = readString(in);
+		int count = in.readInt();
+		if (count >= 0) {
+			this.alternativeMap = new HashMap<String, AlternativeStringPair>();
+			for (int i = 0; i < count; i++) {
+				String enumerator = readString(in);
+				String nameString = readString(in);
+				this.alternativeMap.put(enumerator, new AlternativeStringPair(nameString, readString(in)));
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	void writeTo(final DataOutput out) throws IOException {
+		super.writeTo(out);
+		writeString(out, discriminantName);
+		writeString(out, discriminantType);
+		if (alternativeMap == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(alternativeMap.size());
+		for (Map.Entry<String, AlternativeStringPair> entry : alternativeMap.entrySet()) {
+			writeString(out, entry.getKey());
+			writeString(out, entry.getValue().nameString);
+			writeString(out, entry.getValue().classType);
+		}
+	}
+
 	/**
 	 * 
 	 * @param other the other variant record data type
@@ -103,6 +159,9 @@ public class HlaDataVariantRecordType extends HlaDataType {
 	 * {@inheritDoc}
 	 */
 	public int getAlignment(final HlaDataTypes dataTypes) throws EncodingRulesException {
+		if (compiled) {
+			return layout.getAlignment();
+		}
 		int ret = 0;
 		HlaDataType myHlaDataType = dataTypes.dataTypeMap.get(discriminantType);
 		if (myHlaDataType != null) {
@@ -118,6 +177,9 @@ public class HlaDataVariantRecordType extends HlaDataType {
 	 * @throws EncodingRulesException exception with text
 	 */
 	public int getAlternativeAlignment(final HlaDataTypes dataTypes) throws EncodingRulesException {
+		if (compiled) {
+			return alternativeAlignment;
+		}
 		int ret = 0;
 		int testVal = 0;
 		HlaDataType myHlaDataType = null;
@@ -154,6 +216,34 @@ public class HlaDataVariantRecordType extends HlaDataType {
 		return dataSize;
 	}
 
+	/**
+	 * Only valid once compiled
+	 *
+	 * @return the discriminant data type
+	 */
+	HlaDataEnumType getDiscriminantDataType() {
+		return discriminantDataType;
+	}
+
+	/**
+	 * Only valid once compiled
+	 *
+	 * @return the codec the discriminant is decoded with, null if the discriminant is decoded as 0
+	 */
+	HlaFundamentalCodec getDiscriminantCodec() {
+		return discriminantCodec;
+	}
+
+	/**
+	 * Only valid once compiled
+	 *
+	 * @param slot the enum slot of the discriminant value
+	 * @return the data type of the alternative, null if there is no alternative with a data type
+	 */
+	HlaDataType getAlternativeDataType(final int slot) {
+		return alternativeDataTypes[slot];
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -161,6 +251,49 @@ public class HlaDataVariantRecordType extends HlaDataType {
 		return null;
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	boolean link(final HlaDataTypes dataTypes) {
+		HlaDataType hlaDataType = dataTypes.dataTypeMap.get(discriminantType);
+		if (hlaDataType instanceof HlaDataEnumType == false || hlaDataType.compile(dataTypes) == false) {
+			return false;
+		}
+		Map<String, HlaDataType> myAlternativeDataTypeMap = new HashMap<String, HlaDataType>();
+		int myAlternativeAlignment = 0;
+		for (Map.Entry<String, AlternativeStringPair> entry : alternativeMap.entrySet()) {
+			AlternativeStringPair asp = entry.getValue();
+			HlaDataType alternativeDataType = dataTypes.dataTypeMap.get(asp.classType);
+			if (asp.classType.contentEquals("NA") == false) {
+				if (alternativeDataType == null || alternativeDataType.compile(dataTypes) == false) {
+					return false;
+				}
+				if (alternativeDataType.layout.getAlignment() > myAlternativeAlignment) {
+					myAlternativeAlignment = alternativeDataType.layout.getAlignment();
+				}
+			} else if (alternativeDataType != null && alternativeDataType.compile(dataTypes) == false) {
+				return false;
+			}
+			myAlternativeDataTypeMap.put(entry.getKey(), alternativeDataType);
+		}
+		HlaDataEnumType myDiscriminantDataType = (HlaDataEnumType) hlaDataType;
+		int enumCount = myDiscriminantDataType.getEnumCount();
+		boolean[] myAlternativeDefined = new boolean[enumCount];
+		HlaDataType[] myAlternativeDataTypes = new HlaDataType[enumCount];
+		for (int slot = 0; slot < enumCount; slot++) {
+			String enumString = myDiscriminantDataType.getEnumSlotString(slot);
+			myAlternativeDefined[slot] = myAlternativeDataTypeMap.containsKey(enumString);
+			myAlternativeDataTypes[slot] = myAlternativeDataTypeMap.get(enumString);
+		}
+		this.discriminantDataType = myDiscriminantDataType;
+		this.discriminantCodec = HlaFundamentalCodec.forName(myDiscriminantDataType.getElementTypeName());
+		this.alternativeDefined = myAlternativeDefined;
+		this.alternativeDataTypes = myAlternativeDataTypes;
+		this.alternativeAlignment = myAlternativeAlignment;
+		this.layout = new HlaDataTypeLayout(hlaDataType.layout.getAlignment(), false, 0, true);
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -231,4 +364,59 @@ public class HlaDataVariantRecordType extends HlaDataType {
 		}
 		return myCurrentPosition;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int testBuffer(final byte[] buffer, final int currentPosition) throws EncodingRulesException {
+		/*
+		 * Get the enum discriminant
+		 */
+		int myCurrentPosition = currentPosition;
+		long discriminantValue = 0;
+		if (discriminantCodec != null) {
+			discriminantValue = discriminantCodec.decodeEnumerator(buffer, myCurrentPosition);
+		}
+		myCurrentPosition += discriminantDataType.dataSize;
+		if (myCurrentPosition > buffer.length) {
+			String errorMessageString = "HlaDataVariantRecordType: testBuffer: current position: " + myCurrentPosition + " exceeds buffer length: " + buffer.length;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+
+		/*
+		 * Get the value based on the enum defined type
+		 */
+		int slot = discriminantDataType.getEnumSlot(discriminantValue);
+		if (slot < 0) {
+			String errorMessageString = "HlaDataVariantRecordType: testBuffer: current position: " + myCurrentPosition + " unknown discriminantValue: " + discriminantValue;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		if (alternativeDefined[slot] == false) {
+			String errorMessageString = "HlaDataVariantRecordType: testBuffer: current position: " + myCurrentPosition + " discriminantValue leads to null pointer in alternativeMap";
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		HlaDataType hlaDataTypeTmp = alternativeDataTypes[slot];
+		if (hlaDataTypeTmp == null) {
+			String errorMessageString = "HlaDataVariantRecordType: testBuffer: current position: " + myCurrentPosition + " cannot get alternative class type " + alternativeMap.get(discriminantDataType.getEnumSlotString(slot)).classType;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+
+		myCurrentPosition += calcPaddingBytes(myCurrentPosition, alternativeAlignment);
+		if (myCurrentPosition > buffer.length) {
+			String errorMessageString = "HlaDataVariantRecordType: testBuffer: current position: " + myCurrentPosition + " exceeds buffer length: " + buffer.length;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		myCurrentPosition = hlaDataTypeTmp.testBuffer(buffer, myCurrentPosition);
+		if (myCurrentPosition > buffer.length) {
+			String errorMessageString = "HlaDataVariantRecordType: testBuffer: current position: " + myCurrentPosition + " exceeds buffer length: " + buffer.length;
+			logger.error(errorMessageString);
+			throw new EncodingRulesException(errorMessageString);
+		}
+		return myCurrentPosition;
+	}
 }
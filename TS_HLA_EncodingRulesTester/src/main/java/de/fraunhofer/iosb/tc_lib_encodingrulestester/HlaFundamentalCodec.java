@@ -0,0 +1,321 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decodes the value of a basic data representation defined in the OMT
+ * standard (and the RPR extensions) from a buffer.
+ *
+ * There is one codec instance per representation, created once. Data types
+ * keep a reference to their codec, so the representation name is only
+ * looked up when the FOM/SOM files are loaded.
+ */
+abstract class HlaFundamentalCodec {
+	/**
+	 * The kind of value the representation holds
+	 */
+	enum Kind {
+		INTEGER, FLOAT, OCTETS
+	}
+
+	private static final Map<String, HlaFundamentalCodec> codecMap = new HashMap<String, HlaFundamentalCodec>();
+
+	static {
+		add("HLAinteger16BE", 2, true, true, Kind.INTEGER);
+		add("HLAinteger32BE", 4, true, true, Kind.INTEGER);
+		add("HLAinteger64BE", 8, true, true, Kind.INTEGER);
+		add("HLAfloat32BE", 4, true, true, Kind.FLOAT);
+		add("HLAfloat64BE", 8, true, true, Kind.FLOAT);
+		add("HLAoctetPairBE", 2, true, false, Kind.OCTETS);
+		add("HLAinteger16LE", 2, false, true, Kind.INTEGER);
+		add("HLAinteger32LE", 4, false, true, Kind.INTEGER);
+		add("HLAinteger64LE", 8, false, true, Kind.INTEGER);
+		add("HLAfloat32LE", 4, false, true, Kind.FLOAT);
+		add("HLAfloat64LE", 8, false, true, Kind.FLOAT);
+		add("HLAoctetPairLE", 2, false, false, Kind.OCTETS);
+		add("HLAoctet", 1, true, true, Kind.INTEGER);
+		add("UnsignedShort", 2, true, false, Kind.INTEGER);
+		// RPR extensions
+		add("RPRunsignedInteger16BE", 2, true, false, Kind.INTEGER);
+		add("RPRunsignedInteger32BE", 4, true, false, Kind.INTEGER);
+		add("RPRunsignedInteger64BE", 8, true, false, Kind.INTEGER);
+		add("RPRunsignedInteger8BE", 1, true, false, Kind.INTEGER);
+	}
+
+	private static void add(final String name, final int size, final boolean bigEndian, final boolean signed, final Kind kind) {
+		HlaFundamentalCodec codec;
+		switch (size) {
+		case 1:
+			codec = new Octet(name, signed, kind);
+			break;
+		case 2:
+			codec = bigEndian ? new Integer16BE(name, signed, kind) : new Integer16LE(name, signed, kind);
+			break;
+		case 4:
+			codec = bigEndian ? new Integer32BE(name, signed, kind) : new Integer32LE(name, signed, kind);
+			break;
+		default:
+			codec = bigEndian ? new Integer64BE(name, signed, kind) : new Integer64LE(name, signed, kind);
+			break;
+		}
+		codecMap.put(name, codec);
+	}
+
+	/**
+	 * @param name the name of a representation from the OMT standard
+	 * @return the codec, null if the representation is not known
+	 */
+	static HlaFundamentalCodec forName(final String name) {
+		return codecMap.get(name);
+	}
+
+	/**
+	 * The fundamental integer representation of the given size, as used for
+	 * enumerations.
+	 *
+	 * @param size the number of octets
+	 * @param bigEndian whether big endian
+	 * @return the codec, null if there is no fundamental integer of this size
+	 */
+	static HlaFundamentalCodec forSize(final int size, final boolean bigEndian) {
+		switch (size) {
+		case 1:
+			return codecMap.get("HLAoctet");
+		case 2:
+			return codecMap.get(bigEndian ? "HLAinteger16BE" : "HLAinteger16LE");
+		case 4:
+			return codecMap.get(bigEndian ? "HLAinteger32BE" : "HLAinteger32LE");
+		case 8:
+			return codecMap.get(bigEndian ? "HLAinteger64BE" : "HLAinteger64LE");
+		default:
+			return null;
+		}
+	}
+
+	private final String name;
+	private final int size;
+	private final boolean bigEndian;
+	private final boolean signed;
+	private final Kind kind;
+
+	private HlaFundamentalCodec(final String name, final int size, final boolean bigEndian, final boolean signed, final Kind kind) {
+		this.name = name;
+		this.size = size;
+		this.bigEndian = bigEndian;
+		this.signed = signed;
+		this.kind = kind;
+	}
+
+	/**
+	 * @return the name of the representation
+	 */
+	String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the number of octets
+	 */
+	int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return whether big endian
+	 */
+	boolean isBigEndian() {
+		return bigEndian;
+	}
+
+	/**
+	 * @return whether the integer value is signed
+	 */
+	boolean isSigned() {
+		return signed;
+	}
+
+	/**
+	 * @return the kind of value
+	 */
+	Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * The caller has to check that the value lies within the buffer.
+	 *
+	 * @param buffer the buffer
+	 * @param currentPosition the position of the value
+	 * @return the octets of the value, zero extended
+	 */
+	abstract long decodeBits(final byte[] buffer, final int currentPosition);
+
+	/**
+	 * @param buffer the buffer
+	 * @param currentPosition the position of the value
+	 * @return the integer value, sign extended if signed
+	 */
+	long decodeLong(final byte[] buffer, final int currentPosition) {
+		long bits = decodeBits(buffer, currentPosition);
+		if (signed && size < 8) {
+			int shift = 64 - size * 8;
+			return (bits << shift) >> shift;
+		}
+		return bits;
+	}
+
+	/**
+	 * @param buffer the buffer
+	 * @param currentPosition the position of the value
+	 * @return the floating point value, for FLOAT representations
+	 */
+	double decodeDouble(final byte[] buffer, final int currentPosition) {
+		long bits = decodeBits(buffer, currentPosition);
+		if (size == 4) {
+			return Float.intBitsToFloat((int) bits);
+		}
+		return Double.longBitsToDouble(bits);
+	}
+
+	/**
+	 * The value compared with the enumerator values. As the tester always
+	 * did, a one octet value is extended according to its signedness, wider
+	 * values are zero extended and non-integer representations give 0.
+	 *
+	 * @param buffer the buffer
+	 * @param currentPosition the position of the value
+	 * @return the enumerator value
+	 */
+	long decodeEnumerator(final byte[] buffer, final int currentPosition) {
+		if (kind != Kind.INTEGER) {
+			return 0;
+		}
+		if (size == 1) {
+			return decodeLong(buffer, currentPosition);
+		}
+		return decodeBits(buffer, currentPosition);
+	}
+
+	/**
+	 * The caller has to check that the value fits into the buffer.
+	 *
+	 * @param buffer the buffer
+	 * @param currentPosition the position of the value
+	 * @param bits the value, only the octets of the representation are written
+	 */
+	void encodeBits(final byte[] buffer, final int currentPosition, final long bits) {
+		for (int i = 0; i < size; i++) {
+			int shift = bigEndian ? (size - 1 - i) * 8 : i * 8;
+			buffer[currentPosition + i] = (byte) (bits >>> shift);
+		}
+	}
+
+	private static final class Octet extends HlaFundamentalCodec {
+		Octet(final String name, final boolean signed, final Kind kind) {
+			super(name, 1, true, signed, kind);
+		}
+
+		long decodeBits(final byte[] buffer, final int currentPosition) {
+			return buffer[currentPosition] & 0xFFL;
+		}
+	}
+
+	private static final class Integer16BE extends HlaFundamentalCodec {
+		Integer16BE(final String name, final boolean signed, final Kind kind) {
+			super(name, 2, true, signed, kind);
+		}
+
+		long decodeBits(final byte[] buffer, final int currentPosition) {
+			return (buffer[currentPosition] & 0xFFL) << 8
+					| (buffer[currentPosition + 1] & 0xFFL);
+		}
+	}
+
+	private static final class Integer16LE extends HlaFundamentalCodec {
+		Integer16LE(final String name, final boolean signed, final Kind kind) {
+			super(name, 2, false, signed, kind);
+		}
+
+		long decodeBits(final byte[] buffer, final int currentPosition) {
+			return (buffer[currentPosition] & 0xFFL)
+					| (buffer[currentPosition + 1] & 0xFFL) << 8;
+		}
+	}
+
+	private static final class Integer32BE extends HlaFundamentalCodec {
+		Integer32BE(final String name, final boolean signed, final Kind kind) {
+			super(name, 4, true, signed, kind);
+		}
+
+		long decodeBits(final byte[] buffer, final int currentPosition) {
+			return (buffer[currentPosition] & 0xFFL) << 24
+					| (buffer[currentPosition + 1] & 0xFFL) << 16
+					| (buffer[currentPosition + 2] & 0xFFL) << 8
+					| (buffer[currentPosition + 3] & 0xFFL);
+		}
+	}
+
+	private static final class Integer32LE extends HlaFundamentalCodec {
+		Integer32LE(final String name, final boolean signed, final Kind kind) {
+			super(name, 4, false, signed, kind);
+		}
+
+		long decodeBits(final byte[] buffer, final int currentPosition) {
+			return (buffer[currentPosition] & 0xFFL)
+					| (buffer[currentPosition + 1] & 0xFFL) << 8
+					| (buffer[currentPosition + 2] & 0xFFL) << 16
+					| (buffer[currentPosition + 3] & 0xFFL) << 24;
+		}
+	}
+
+	private static final class Integer64BE extends HlaFundamentalCodec {
+		Integer64BE(final String name, final boolean signed, final Kind kind) {
+			super(name, 8, true, signed, kind);
+		}
+
+		long decodeBits(final byte[] buffer, final int currentPosition) {
+			return (buffer[currentPosition] & 0xFFL) << 56
+					| (buffer[currentPosition + 1] & 0xFFL) << 48
+					| (buffer[currentPosition + 2] & 0xFFL) << 40
+					| (buffer[currentPosition + 3] & 0xFFL) << 32
+					| (buffer[currentPosition + 4] & 0xFFL) << 24
+					| (buffer[currentPosition + 5] & 0xFFL) << 16
+					| (buffer[currentPosition + 6] & 0xFFL) << 8
+					| (buffer[currentPosition + 7] & 0xFFL);
+		}
+	}
+
+	private static final class Integer64LE extends HlaFundamentalCodec {
+		Integer64LE(final String name, final boolean signed, final Kind kind) {
+			super(name, 8, false, signed, kind);
+		}
+
+		long decodeBits(final byte[] buffer, final int currentPosition) {
+			return (buffer[currentPosition] & 0xFFL)
+					| (buffer[currentPosition + 1] & 0xFFL) << 8
+					| (buffer[currentPosition + 2] & 0xFFL) << 16
+					| (buffer[currentPosition + 3] & 0xFFL) << 24
+					| (buffer[currentPosition + 4] & 0xFFL) << 32
+					| (buffer[currentPosition + 5] & 0xFFL) << 40
+					| (buffer[currentPosition + 6] & 0xFFL) << 48
+					| (buffer[currentPosition + 7] & 0xFFL) << 56;
+		}
+	}
+}
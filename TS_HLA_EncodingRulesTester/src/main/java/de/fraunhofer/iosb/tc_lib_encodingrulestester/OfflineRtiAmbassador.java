@@ -0,0 +1,241 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleSet;
+import hla.rti1516e.AttributeHandleSetFactory;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.ParameterHandle;
+import hla.rti1516e.RTIambassador;
+
+/**
+ * Hands out handles for the class, attribute and parameter names of the SOM
+ * files without an RTI, so that DataTreeBuilder and ResultPrinter can be
+ * used offline by EncodingRulesCheck.
+ *
+ * Only the name and handle services are supported, any other RTI service
+ * throws an UnsupportedOperationException. Not thread safe.
+ */
+final class OfflineRtiAmbassador implements InvocationHandler {
+	private static final String OBJECT_ROOT = "HLAobjectRoot";
+	private static final String INTERACTION_ROOT = "HLAinteractionRoot";
+
+	/**
+	 * A handle identified by its name, serves for all kinds of handles
+	 */
+	static final class NamedHandle implements ObjectClassHandle, AttributeHandle, InteractionClassHandle, ParameterHandle, ObjectInstanceHandle {
+		private static final long serialVersionUID = 1L;
+		private final int id;
+		private final String name;
+		// The class of an attribute, parameter or object instance
+		private final NamedHandle classHandle;
+
+		NamedHandle(final int id, final String name, final NamedHandle classHandle) {
+			this.id = id;
+			this.name = name;
+			this.classHandle = classHandle;
+		}
+
+		@Override
+		public int encodedLength() {
+			return 4;
+		}
+
+		@Override
+		public void encode(final byte[] buffer, final int offset) {
+			buffer[offset] = (byte) (this.id >>> 24);
+			buffer[offset + 1] = (byte) (this.id >>> 16);
+			buffer[offset + 2] = (byte) (this.id >>> 8);
+			buffer[offset + 3] = (byte) this.id;
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+
+	/**
+	 * An attribute handle set backed by a HashSet
+	 */
+	static final class OfflineAttributeHandleSet extends HashSet<AttributeHandle> implements AttributeHandleSet {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public OfflineAttributeHandleSet clone() {
+			return (OfflineAttributeHandleSet) super.clone();
+		}
+	}
+
+	private final Map<String, NamedHandle> objectClasses = new HashMap<String, NamedHandle>();
+	private final Map<String, NamedHandle> interactionClasses = new HashMap<String, NamedHandle>();
+	// Keyed by the class name and the member name
+	private final Map<String, NamedHandle> members = new HashMap<String, NamedHandle>();
+	private final Map<String, NamedHandle> objectInstances = new HashMap<String, NamedHandle>();
+	private final RTIambassador rtiAmbassador;
+	private int nextId = 1;
+
+	OfflineRtiAmbassador() {
+		this.rtiAmbassador = (RTIambassador) Proxy.newProxyInstance(RTIambassador.class.getClassLoader(), new Class<?>[] { RTIambassador.class }, this);
+	}
+
+	/**
+	 * @return the RTI ambassador to pass to DataTreeBuilder and ResultPrinter
+	 */
+	RTIambassador getRtiAmbassador() {
+		return this.rtiAmbassador;
+	}
+
+	private NamedHandle classHandle(final Map<String, NamedHandle> classes, final String name) {
+		NamedHandle handle = classes.get(name);
+		if (handle == null) {
+			handle = new NamedHandle(this.nextId++, name, null);
+			classes.put(name, handle);
+		}
+		return handle;
+	}
+
+	private NamedHandle memberHandle(final NamedHandle classHandle, final String name) {
+		String key = classHandle.name + "\u0000" + name;
+		NamedHandle handle = this.members.get(key);
+		if (handle == null) {
+			handle = new NamedHandle(this.nextId++, name, classHandle);
+			this.members.put(key, handle);
+		}
+		return handle;
+	}
+
+	private static NamedHandle findClass(final Map<String, NamedHandle> classes, final String root, final String name) {
+		NamedHandle handle = classes.get(name);
+		if (handle == null && name.startsWith(root) == false) {
+			// The RTI may give the class names without the root class
+			handle = classes.get(root + "." + name);
+		}
+		return handle;
+	}
+
+	/**
+	 * Find a member declared in the class or one of its base classes
+	 */
+	private NamedHandle findMember(final NamedHandle classHandle, final String name) {
+		String className = classHandle.name;
+		while (true) {
+			NamedHandle handle = this.members.get(className + "\u0000" + name);
+			if (handle != null) {
+				return handle;
+			}
+			int pos = className.lastIndexOf('.');
+			if (pos < 0) {
+				return null;
+			}
+			className = className.substring(0, pos);
+		}
+	}
+
+	/**
+	 * @param name the object class name, with or without the root class
+	 * @return the object class handle, null if not in the SOM files
+	 */
+	ObjectClassHandle findObjectClass(final String name) {
+		return findClass(this.objectClasses, OBJECT_ROOT, name);
+	}
+
+	/**
+	 * @param objectClass the object class handle
+	 * @param name the attribute name
+	 * @return the attribute handle, null if the class has no such attribute
+	 */
+	AttributeHandle findAttribute(final ObjectClassHandle objectClass, final String name) {
+		return findMember((NamedHandle) objectClass, name);
+	}
+
+	/**
+	 * @param name the interaction class name, with or without the root class
+	 * @return the interaction class handle, null if not in the SOM files
+	 */
+	InteractionClassHandle findInteractionClass(final String name) {
+		return findClass(this.interactionClasses, INTERACTION_ROOT, name);
+	}
+
+	/**
+	 * @param interactionClass the interaction class handle
+	 * @param name the parameter name
+	 * @return the parameter handle, null if the class has no such parameter
+	 */
+	ParameterHandle findParameter(final InteractionClassHandle interactionClass, final String name) {
+		return findMember((NamedHandle) interactionClass, name);
+	}
+
+	/**
+	 * @param name the object instance name
+	 * @param objectClass the known object class handle
+	 * @return the object instance handle, created on first use
+	 */
+	ObjectInstanceHandle objectInstance(final String name, final ObjectClassHandle objectClass) {
+		NamedHandle handle = this.objectInstances.get(name);
+		if (handle == null) {
+			handle = new NamedHandle(this.nextId++, name, (NamedHandle) objectClass);
+			this.objectInstances.put(name, handle);
+		}
+		return handle;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Object invoke(final Object proxy, final Method method, final Object[] args) {
+		switch (method.getName()) {
+		case "getAttributeHandleSetFactory":
+			return (AttributeHandleSetFactory) () -> new OfflineAttributeHandleSet();
+		case "getObjectClassHandle":
+			return classHandle(this.objectClasses, (String) args[0]);
+		case "getInteractionClassHandle":
+			return classHandle(this.interactionClasses, (String) args[0]);
+		case "getAttributeHandle":
+		case "getParameterHandle":
+			return memberHandle((NamedHandle) args[0], (String) args[1]);
+		case "getObjectClassName":
+		case "getInteractionClassName":
+		case "getObjectInstanceName":
+			return ((NamedHandle) args[0]).name;
+		case "getAttributeName":
+		case "getParameterName":
+			return ((NamedHandle) args[1]).name;
+		case "getKnownObjectClassHandle":
+			return ((NamedHandle) args[0]).classHandle;
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "equals":
+			return proxy == args[0];
+		case "toString":
+			return "OfflineRtiAmbassador";
+		default:
+			throw new UnsupportedOperationException("OfflineRtiAmbassador: " + method.getName());
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class holds common result information for interaction
+ * parameters and object attributes
+ *
+ * @author mul (Fraunhofer IOSB)
+ */
+class ResultInfo {
+	private final LongAdder correctCount = new LongAdder();
+	private final LongAdder incorrectCount = new LongAdder();
+	private final AtomicReference<String> text = new AtomicReference<String>();
+	private final AtomicLong resultCount = new AtomicLong();
+	// Number of correct results since the last incorrect one
+	private final AtomicLong correctStreak = new AtomicLong();
+	// Number of buffers received but not tested due to sampling
+	private final LongAdder skippedCount = new LongAdder();
+	ResultInfo() {
+	}
+
+	/**
+	 * Stores the result data
+	 *
+	 * @param correct true is PASSED, false is FAILED
+	 * @param text the result verdict text
+	 * @return the number of results stored including this one
+	 */
+	long addInfo(final boolean correct, final String text) {
+		// Manage the count of correct/incorrect
+		if (correct) {
+			this.correctCount.increment();
+			this.correctStreak.incrementAndGet();
+		} else {
+			this.incorrectCount.increment();
+			this.correctStreak.set(0);
+		}
+		// Store first text message, only overwrite if incorrect
+		if (correct == false) {
+			this.text.set(text);
+		} else {
+			this.text.compareAndSet(null, text);
+		}
+		return this.resultCount.incrementAndGet();
+	}
+
+	/**
+	 * Gets the number of correct encodings parsed
+	 *
+	 * @return the number of correct encodings
+	 */
+	long getCorrectCount() {
+		return this.correctCount.sum();
+	}
+	
+	/**
+	 * Gets the number of incorrect encodings parsed
+	 *
+	 * @return the number of incorrect encodings
+	 */
+	long getIncorrectCount() {
+		return this.incorrectCount.sum();
+	}
+
+	/**
+	 * Gets the number of results stored
+	 *
+	 * @return the number of results
+	 */
+	long getResultCount() {
+		return this.resultCount.get();
+	}
+
+	/**
+	 * Gets the number of correct results since the last incorrect one
+	 *
+	 * @return the number of consecutive correct results
+	 */
+	long getCorrectStreak() {
+		return this.correctStreak.get();
+	}
+
+	/**
+	 * Count a buffer which was received but not tested
+	 */
+	void addSkipped() {
+		this.skippedCount.increment();
+	}
+
+	/**
+	 * Gets the number of buffers received but not tested
+	 *
+	 * @return the number of skipped buffers
+	 */
+	long getSkippedCount() {
+		return this.skippedCount.sum();
+	}
+
+	/**
+	 * Get the text associated with the result verdict
+	 *
+	 * @return the text
+	 */
+	String getText() {
+		return this.text.get();
+	}
+}
@@ -0,0 +1,78 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import hla.rti1516e.FederateHandle;
+
+/**
+ * This class adds attribute specific result information
+ *
+ * @author mul (Fraunhofer IOSB)
+ */
+class ResultInfoAttribute extends ResultInfo{
+	private volatile FederateHandle federateHandle;
+	private volatile String federateName;
+	private volatile boolean gotFederateName = false;
+	void addOwner() {
+	}
+
+	/**
+	 * Store the federate handle
+	 *
+	 * @param federateHandle
+	 */
+	void addFederateHandle(final FederateHandle federateHandle) {
+		this.federateHandle = federateHandle;
+	}
+
+	/**
+	 * Store the federate name
+	 *
+	 * @param federateName
+	 */
+	void addFederateName(final String federateName) {
+		this.federateName = federateName;
+		this.gotFederateName = true;
+	}
+
+	/**
+	 * Get the federate handle
+	 *
+	 * @return the federate handle
+	 */
+	FederateHandle getFederateHandle() {
+		return this.federateHandle;
+	}
+
+	/**
+	 * Get the federate name
+	 *
+	 * @return the federate name
+	 */
+	String getFederateName() {
+		return this.federateName;
+	}
+
+	/**
+	 * Check if the federate name is known
+	 *
+	 * @return whether the federate name is known
+	 */
+	boolean haveFederateName() {
+		return this.gotFederateName;
+	}
+}
@@ -0,0 +1,227 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.RTIambassador;
+import hla.rti1516e.exceptions.AttributeNotDefined;
+import hla.rti1516e.exceptions.FederateNotExecutionMember;
+import hla.rti1516e.exceptions.InteractionParameterNotDefined;
+import hla.rti1516e.exceptions.InvalidAttributeHandle;
+import hla.rti1516e.exceptions.InvalidInteractionClassHandle;
+import hla.rti1516e.exceptions.InvalidObjectClassHandle;
+import hla.rti1516e.exceptions.InvalidParameterHandle;
+import hla.rti1516e.exceptions.NotConnected;
+import hla.rti1516e.exceptions.ObjectInstanceNotKnown;
+import hla.rti1516e.exceptions.RTIinternalError;
+
+/**
+ * Formats the contents of a ResultStore as the result summary of the
+ * encoding rules test. The names of the handles are asked from the given
+ * RTI ambassador, which may be the offline one of EncodingRulesCheck.
+ */
+class ResultPrinter {
+	private final ResultStore resultStore;
+	private final RTIambassador rtiAmbassador;
+	private final Logger logger;
+
+	/**
+	 * @param resultStore the test results
+	 * @param rtiAmbassador the RTI ambassador to get the names of the handles
+	 * @param logger reference to a logger
+	 */
+	ResultPrinter(final ResultStore resultStore, final RTIambassador rtiAmbassador, final Logger logger) {
+		this.resultStore = resultStore;
+		this.rtiAmbassador = rtiAmbassador;
+		this.logger = logger;
+	}
+
+	/**
+	 * Print the attribute and parameter results and the verdict summary
+	 *
+	 * @param stringBuilder provided by caller to be logged by one log call
+	 */
+	void printSummary(final StringBuilder stringBuilder) {
+		printAttributeResults(stringBuilder);
+		if (this.resultStore.allAttributesChecked() == false) {
+			stringBuilder.append("\nHave not seen all required attributes\n");
+		}
+
+		printParameterResults(stringBuilder);
+		if (this.resultStore.allParametersChecked() == false) {
+			stringBuilder.append("\nHave not seen all required parameters\n");
+		}
+
+		stringBuilder.append("\n\nVerdict Summary:\nCORRECT: " + this.resultStore.getCorrect() + " INCORRECT: " + this.resultStore.getIncorrect() + "\n");
+	}
+
+	/**
+	 * Print the result data for all object attributes
+	 *
+	 * @param stringBuilder provided by caller to be logged by one log call
+	 */
+	void printAttributeResults(final StringBuilder stringBuilder) {
+		stringBuilder.append("\n\nObject Attribute Summary \n");
+		if (this.resultStore.getObjectAttributeResults().isEmpty() && this.resultStore.getRemovedObjectResults().isEmpty()) {
+			stringBuilder.append("- No Results -\n");
+			this.logger.trace(stringBuilder.toString());
+			return;
+		}
+		final HandleIndex tmpHandleIndex = this.resultStore.getHandleIndex();
+		String objectName = null;
+		ObjectClassHandle objectClassHandle;
+		for (Map.Entry<ObjectInstanceHandle, ResultStore.MemberResults<ResultInfoAttribute>> entryObject : this.resultStore.getObjectAttributeResults().entrySet()) {
+			try {
+				objectName = this.rtiAmbassador.getObjectInstanceName(entryObject.getKey());
+				objectClassHandle = this.rtiAmbassador.getKnownObjectClassHandle(entryObject.getKey());
+			} catch (FederateNotExecutionMember | NotConnected | RTIinternalError | ObjectInstanceNotKnown e) {
+				this.logger.error("ResultPrinter.printAttributeResults: " + e);
+				continue;
+			}
+			String attributeName = null;
+			ResultStore.MemberResults<ResultInfoAttribute> val = entryObject.getValue();
+			for (int localId = 0; localId < val.length(); localId++) {
+				ResultInfoAttribute resultInfo = val.get(localId);
+				if (resultInfo == null) {
+					continue;
+				}
+				try {
+					attributeName = this.rtiAmbassador.getAttributeName(objectClassHandle, tmpHandleIndex.getAttributeHandle(val.getMemberIds().getId(localId)));
+				} catch (AttributeNotDefined | InvalidAttributeHandle | InvalidObjectClassHandle
+						| FederateNotExecutionMember | NotConnected | RTIinternalError e) {
+					this.logger.error("ResultPrinter.printAttributeResults: " + e);
+				}
+				if (resultInfo.getCorrectCount() + resultInfo.getIncorrectCount() > 0) {
+					stringBuilder.append("OBJECT: " + objectName + " ATTRIBUTE: " + attributeName + " CORRECT: " + resultInfo.getCorrectCount() + " INCORRECT: " + resultInfo.getIncorrectCount());
+					if (resultInfo.getSkippedCount() > 0) {
+						stringBuilder.append(" SKIPPED: " + resultInfo.getSkippedCount());
+					}
+				} else {
+					stringBuilder.append("OBJECT: " + objectName + " ATTRIBUTE: " + attributeName + " NOT UPDATED");
+				}
+				if (resultInfo.getIncorrectCount() > 0) {
+					stringBuilder.append(" TEXT: " + resultInfo.getText() + " Federate: " + resultInfo.getFederateName());
+				}
+				stringBuilder.append("\n");
+			}
+		}
+		printRemovedObjectResults(stringBuilder);
+	}
+
+	/**
+	 * Print the aggregated result data of the removed object instances
+	 *
+	 * @param stringBuilder provided by caller to be logged by one log call
+	 */
+	private void printRemovedObjectResults(final StringBuilder stringBuilder) {
+		final HandleIndex tmpHandleIndex = this.resultStore.getHandleIndex();
+		for (Map.Entry<ObjectClassHandle, AggregatedResults> entryClass : this.resultStore.getRemovedObjectResults().entrySet()) {
+			String objectClassName;
+			try {
+				objectClassName = this.rtiAmbassador.getObjectClassName(entryClass.getKey());
+			} catch (InvalidObjectClassHandle | FederateNotExecutionMember | NotConnected | RTIinternalError e) {
+				this.logger.error("ResultPrinter.printRemovedObjectResults: " + e);
+				continue;
+			}
+			AggregatedResults aggregatedResults = entryClass.getValue();
+			stringBuilder.append("OBJECT CLASS: " + objectClassName + " REMOVED OBJECTS: " + aggregatedResults.getInstanceCount() + "\n");
+			String attributeName = null;
+			for (int attributeId = 0; attributeId < aggregatedResults.getAttributeIds().size(); attributeId++) {
+				if (aggregatedResults.getManagedCount(attributeId) == 0) {
+					continue;
+				}
+				try {
+					attributeName = this.rtiAmbassador.getAttributeName(entryClass.getKey(), tmpHandleIndex.getAttributeHandle(aggregatedResults.getAttributeIds().getId(attributeId)));
+				} catch (AttributeNotDefined | InvalidAttributeHandle | InvalidObjectClassHandle
+						| FederateNotExecutionMember | NotConnected | RTIinternalError e) {
+					this.logger.error("ResultPrinter.printRemovedObjectResults: " + e);
+				}
+				stringBuilder.append("    ATTRIBUTE: " + attributeName + " CORRECT: " + aggregatedResults.getCorrectCount(attributeId) + " INCORRECT: " + aggregatedResults.getIncorrectCount(attributeId));
+				if (aggregatedResults.getSkippedCount(attributeId) > 0) {
+					stringBuilder.append(" SKIPPED: " + aggregatedResults.getSkippedCount(attributeId));
+				}
+				if (aggregatedResults.getNotUpdatedCount(attributeId) > 0) {
+					stringBuilder.append(" NOT UPDATED: " + aggregatedResults.getNotUpdatedCount(attributeId));
+				}
+				stringBuilder.append("\n");
+				for (AggregatedResults.FailingInstance failingInstance : aggregatedResults.getFailingInstances(attributeId)) {
+					stringBuilder.append("        OBJECT: " + failingInstance.getObjectName() + " INCORRECT: " + failingInstance.getIncorrectCount() + " TEXT: " + failingInstance.getText() + " Federate: " + failingInstance.getFederateName() + "\n");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Print the result data for all interactions parameters
+	 *
+	 * @param stringBuilder provided by caller to be logged by one log call
+	 */
+	void printParameterResults(final StringBuilder stringBuilder) {
+		stringBuilder.append("\n\nInteraction Parameter Summary \n");
+		if (this.resultStore.getInteractionParameterResults().isEmpty()) {
+			stringBuilder.append("- No Results -\n");
+			return;
+		}
+		final HandleIndex tmpHandleIndex = this.resultStore.getHandleIndex();
+		String interactionClassName = null;
+		for (Map.Entry<InteractionClassHandle, ResultStore.MemberResults<ResultInfo>> entryInteraction : this.resultStore.getInteractionParameterResults().entrySet()) {
+			try {
+				interactionClassName = this.rtiAmbassador.getInteractionClassName(entryInteraction.getKey());
+			} catch (InvalidInteractionClassHandle | FederateNotExecutionMember | NotConnected | RTIinternalError e) {
+				this.logger.error("ResultPrinter.printParameterResults: " + e);
+				continue;
+			}
+			ResultStore.MemberResults<ResultInfo> val = entryInteraction.getValue();
+			boolean haveParameters = false;
+			for (int i = 0; i < val.length() && haveParameters == false; i++) {
+				haveParameters = val.get(i) != null;
+			}
+			if (haveParameters) {
+				stringBuilder.append("INTERACTION: " + interactionClassName + "\n");
+			} else {
+				continue;
+			}
+			String parameterName = null;
+			for (int localId = 0; localId < val.length(); localId++) {
+				ResultInfo resultInfo = val.get(localId);
+				if (resultInfo == null) {
+					continue;
+				}
+				try {
+					parameterName = this.rtiAmbassador.getParameterName(entryInteraction.getKey(), tmpHandleIndex.getParameterHandle(val.getMemberIds().getId(localId)));
+				} catch (InteractionParameterNotDefined | InvalidParameterHandle | InvalidInteractionClassHandle
+						| FederateNotExecutionMember | NotConnected | RTIinternalError e) {
+					this.logger.error("ResultPrinter.printParameterResults: " + e);
+				}
+				stringBuilder.append("    PARAMETER: " + parameterName + " CORRECT: " + resultInfo.getCorrectCount() + " INCORRECT: " + resultInfo.getIncorrectCount());
+				if (resultInfo.getSkippedCount() > 0) {
+					stringBuilder.append(" SKIPPED: " + resultInfo.getSkippedCount());
+				}
+				if (resultInfo.getIncorrectCount() != 0) {
+					stringBuilder.append(" TEXT: " + resultInfo.getText());
+				}
+				stringBuilder.append("\n");
+			}
+		}
+	}
+}
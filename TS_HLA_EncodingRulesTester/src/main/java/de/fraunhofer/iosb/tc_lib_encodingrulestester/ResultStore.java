@@ -0,0 +1,617 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+
+/**
+ * Collects the results of the buffer tests, may be updated by several
+ * validation workers at the same time.
+ *
+ * The results are held per interaction class and per object instance in
+ * MemberResults, arrays indexed by the local ids of the parameters and
+ * attributes within the class, so that their size depends on the class and
+ * not on all attributes of the SOM files. Storing a result costs one map
+ * lookup for the class or object, a binary search of the local id among the
+ * few ids of the class and an array access. The overall counters are
+ * LongAdders, which spread the updates over several cells.
+ *
+ * The managed attributes and parameters and those without a result yet are
+ * counted when an entry is created and when it gets its first result, so
+ * the completeness checks need no walk through the results. In the same way
+ * the entries with fewer than the required number of results are counted,
+ * awaitCompletion returns as soon as there is none left.
+ *
+ * With aggregation, the results of a removed object instance are added to
+ * the AggregatedResults of its class and dropped, so that the memory
+ * depends on the object instances present and not on all ever discovered.
+ * The entries of a removed instance are taken back from the completeness
+ * counts, so that an instance removed before all its attributes were
+ * checked does not keep the test from completing.
+ *
+ * Buffers not tested due to sampling are counted in their entries and in
+ * the overall skipped counter, they are no results.
+ */
+class ResultStore {
+	/**
+	 * The results of the attributes of an object instance or of the
+	 * parameters of an interaction class, indexed by the local ids of its
+	 * class, null for those without an entry yet
+	 */
+	static final class MemberResults<R extends ResultInfo> {
+		private final HandleIndex.MemberIds memberIds;
+		private final AtomicReferenceArray<R> results;
+
+		/**
+		 * @param memberIds the ids of the attributes or parameters of the class
+		 */
+		MemberResults(final HandleIndex.MemberIds memberIds) {
+			this.memberIds = memberIds;
+			this.results = new AtomicReferenceArray<R>(memberIds.size());
+		}
+
+		/**
+		 * @return the ids of the attributes or parameters of the class
+		 */
+		HandleIndex.MemberIds getMemberIds() {
+			return this.memberIds;
+		}
+
+		/**
+		 * @return the number of local ids
+		 */
+		int length() {
+			return this.results.length();
+		}
+
+		/**
+		 * @param localId the local id within the class
+		 * @return the result info, null if none yet
+		 */
+		R get(final int localId) {
+			return this.results.get(localId);
+		}
+
+		/**
+		 * @param id the attribute or parameter id from the handle index
+		 * @return the result info, null if not a member of the class or none yet
+		 */
+		R getById(final int id) {
+			int localId = this.memberIds.getLocalId(id);
+			return localId < 0 ? null : this.results.get(localId);
+		}
+
+		/**
+		 * @param localId the local id within the class
+		 * @param expect the expected result info
+		 * @param update the new result info
+		 * @return whether set
+		 */
+		boolean compareAndSet(final int localId, final R expect, final R update) {
+			return this.results.compareAndSet(localId, expect, update);
+		}
+	}
+
+	/**
+	 * Counts the managed entries of the attributes or parameters, those not
+	 * yet tested and those with fewer than the required number of results
+	 */
+	static final class Coverage {
+		private final AtomicLong managed = new AtomicLong();
+		private final AtomicLong unchecked = new AtomicLong();
+		private final AtomicLong incomplete = new AtomicLong();
+		private volatile long requiredResults = 1;
+
+		/**
+		 * @param count the number of entries added, negative to take back entries added before
+		 * @return the number of incomplete entries
+		 */
+		private long added(final long count) {
+			this.managed.addAndGet(count);
+			this.unchecked.addAndGet(count);
+			return this.incomplete.addAndGet(count);
+		}
+
+		/**
+		 * @param count the number of entries removed
+		 * @param uncheckedCount the number of them without a result
+		 * @param incompleteCount the number of them with fewer than the required results
+		 */
+		private void removed(final long count, final long uncheckedCount, final long incompleteCount) {
+			this.managed.addAndGet(-count);
+			this.unchecked.addAndGet(-uncheckedCount);
+			this.incomplete.addAndGet(-incompleteCount);
+		}
+
+		/**
+		 * @param resultCount the number of results of an entry including a new one
+		 * @return true if the last incomplete entry got complete
+		 */
+		private boolean counted(final long resultCount) {
+			if (resultCount == 1) {
+				this.unchecked.decrementAndGet();
+			}
+			if (resultCount == this.requiredResults) {
+				return this.incomplete.decrementAndGet() == 0;
+			}
+			return false;
+		}
+
+		/**
+		 * @return the number of managed entries
+		 */
+		long getManaged() {
+			return this.managed.get();
+		}
+
+		/**
+		 * @return the number of managed entries without a result
+		 */
+		long getUnchecked() {
+			return this.unchecked.get();
+		}
+
+		/**
+		 * @return the percentage of the managed entries with a result, 100 if none are managed
+		 */
+		int getCheckedPercent() {
+			// Read unchecked first, so that entries added in between keep the percentage within 0 and 100
+			long myUnchecked = this.unchecked.get();
+			long myManaged = this.managed.get();
+			if (myManaged == 0) {
+				return 100;
+			}
+			return (int) ((myManaged - myUnchecked) * 100 / myManaged);
+		}
+
+		/**
+		 * @return the number of managed entries with fewer than the required results
+		 */
+		long getIncomplete() {
+			return this.incomplete.get();
+		}
+	}
+
+	private volatile HandleIndex handleIndex = HandleIndex.EMPTY;
+	private final ConcurrentMap<InteractionClassHandle, MemberResults<ResultInfo>> interactionParameterResults = new ConcurrentHashMap<InteractionClassHandle, MemberResults<ResultInfo>>();
+	private final ConcurrentMap<ObjectInstanceHandle, MemberResults<ResultInfoAttribute>> objectAttributeResults = new ConcurrentHashMap<ObjectInstanceHandle, MemberResults<ResultInfoAttribute>>();
+	private final LongAdder correct = new LongAdder();
+	private final LongAdder incorrect = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+	private volatile boolean errorOccurred = false;
+	private final Coverage attributeCoverage = new Coverage();
+	private final Coverage parameterCoverage = new Coverage();
+	// Notified when the last incomplete entry got complete
+	private final Object completionLock = new Object();
+	// The number of failing instances kept per attribute, -1 if removed instances are kept
+	private volatile int maxFailingInstances = -1;
+	private final ConcurrentMap<ObjectClassHandle, AggregatedResults> removedObjectResults = new ConcurrentHashMap<ObjectClassHandle, AggregatedResults>();
+
+	/**
+	 * Set the ids of the handles, before any class or object is added
+	 *
+	 * @param handleIndex the handle index
+	 */
+	void setHandleIndex(final HandleIndex handleIndex) {
+		this.handleIndex = handleIndex;
+	}
+
+	/**
+	 * Set the number of results each attribute and parameter needs for
+	 * completion, before any class or object is added
+	 *
+	 * @param requiredResults the number of results, at least 1
+	 */
+	void setRequiredResults(final long requiredResults) {
+		this.attributeCoverage.requiredResults = requiredResults;
+		this.parameterCoverage.requiredResults = requiredResults;
+	}
+
+	/**
+	 * Aggregate the results of removed object instances per object class,
+	 * before any object is added
+	 *
+	 * @param maxFailingInstances the number of failing instances to keep per attribute
+	 */
+	void setAggregation(final int maxFailingInstances) {
+		this.maxFailingInstances = maxFailingInstances;
+	}
+
+	/**
+	 * @return whether the results of removed object instances are aggregated
+	 */
+	boolean getAggregation() {
+		return this.maxFailingInstances >= 0;
+	}
+
+	/**
+	 * @return the handle index
+	 */
+	HandleIndex getHandleIndex() {
+		return this.handleIndex;
+	}
+
+	/**
+	 * Create the result entries of the parameters of an interaction class,
+	 * if not yet managed
+	 *
+	 * @param interactionClass the interaction class handle
+	 */
+	void addInteractionClass(final InteractionClassHandle interactionClass) {
+		HandleIndex.MemberIds parameterIds = this.handleIndex.getInteractionClassParameterIds(interactionClass);
+		if (parameterIds == null || this.interactionParameterResults.containsKey(interactionClass)) {
+			return;
+		}
+		MemberResults<ResultInfo> parameterResults = new MemberResults<ResultInfo>(parameterIds);
+		int count = parameterResults.length();
+		for (int localId = 0; localId < count; localId++) {
+			parameterResults.compareAndSet(localId, null, new ResultInfo());
+		}
+		// Count before the entries are visible, so that their first results cannot be counted first
+		this.parameterCoverage.added(count);
+		if (this.interactionParameterResults.putIfAbsent(interactionClass, parameterResults) != null && this.parameterCoverage.added(-count) == 0) {
+			signalCompletion();
+		}
+	}
+
+	/**
+	 * Create the result entries of the attributes of an object instance, if
+	 * not yet managed
+	 *
+	 * @param theObject the object instance handle
+	 * @param objectClass the object class handle of the instance
+	 */
+	void addObjectInstance(final ObjectInstanceHandle theObject, final ObjectClassHandle objectClass) {
+		HandleIndex.MemberIds attributeIds = this.handleIndex.getObjectClassAttributeIds(objectClass);
+		if (attributeIds == null || this.objectAttributeResults.containsKey(theObject)) {
+			return;
+		}
+		MemberResults<ResultInfoAttribute> attributeResults = new MemberResults<ResultInfoAttribute>(attributeIds);
+		int count = attributeResults.length();
+		for (int localId = 0; localId < count; localId++) {
+			attributeResults.compareAndSet(localId, null, new ResultInfoAttribute());
+		}
+		// Count before the entries are visible, so that their first results cannot be counted first
+		this.attributeCoverage.added(count);
+		if (this.objectAttributeResults.putIfAbsent(theObject, attributeResults) != null && this.attributeCoverage.added(-count) == 0) {
+			signalCompletion();
+		}
+	}
+
+	/**
+	 * Count a test result
+	 *
+	 * @param b whether the test was positive
+	 */
+	private void count(final boolean b) {
+		if (b) {
+			this.correct.increment();
+		} else {
+			this.errorOccurred = true;
+			this.incorrect.increment();
+		}
+	}
+
+	/**
+	 * Store a parameter test result, create the entries if not yet managed.
+	 * A parameter which is not one of the interaction class is only counted.
+	 *
+	 * @param theInteraction the interaction class handle
+	 * @param parameterId the parameter id from the handle index
+	 * @param b whether the test was positive
+	 * @param text the text message
+	 */
+	void addParameterResult(final InteractionClassHandle theInteraction, final int parameterId, final boolean b, final String text) {
+		count(b);
+		MemberResults<ResultInfo> parameterResults = this.interactionParameterResults.get(theInteraction);
+		if (parameterResults == null) {
+			parameterResults = this.interactionParameterResults.computeIfAbsent(theInteraction, k -> new MemberResults<ResultInfo>(memberIds(this.handleIndex.getInteractionClassParameterIds(k), this.handleIndex.getAllParameterIds())));
+		}
+		int localId = parameterResults.getMemberIds().getLocalId(parameterId);
+		if (localId < 0) {
+			return;
+		}
+		ResultInfo resultInfo = parameterResults.get(localId);
+		if (resultInfo == null) {
+			this.parameterCoverage.added(1);
+			if (parameterResults.compareAndSet(localId, null, new ResultInfo()) == false && this.parameterCoverage.added(-1) == 0) {
+				signalCompletion();
+			}
+			resultInfo = parameterResults.get(localId);
+		}
+		if (this.parameterCoverage.counted(resultInfo.addInfo(b, text))) {
+			signalCompletion();
+		}
+	}
+
+	/**
+	 * Store an attribute test result, create the entries if not yet managed.
+	 * The entries of an object instance not added before get the ids of all
+	 * attributes, since its class is not known. An attribute which is not one
+	 * of the object class is only counted.
+	 *
+	 * @param theObject the object instance handle
+	 * @param attributeId the attribute id from the handle index
+	 * @param b whether the test was positive
+	 * @param text the text message
+	 * @return the result info of the attribute, null if the object is not managed with aggregation or the attribute is not one of its class
+	 */
+	ResultInfoAttribute addAttributeResult(final ObjectInstanceHandle theObject, final int attributeId, final boolean b, final String text) {
+		count(b);
+		MemberResults<ResultInfoAttribute> attributeResults = this.objectAttributeResults.get(theObject);
+		if (attributeResults == null) {
+			if (getAggregation()) {
+				// Probably tested after the object instance was removed, only counted
+				return null;
+			}
+			attributeResults = this.objectAttributeResults.computeIfAbsent(theObject, k -> new MemberResults<ResultInfoAttribute>(this.handleIndex.getAllAttributeIds()));
+		}
+		int localId = attributeResults.getMemberIds().getLocalId(attributeId);
+		if (localId < 0) {
+			return null;
+		}
+		ResultInfoAttribute resultInfo = attributeResults.get(localId);
+		if (resultInfo == null) {
+			this.attributeCoverage.added(1);
+			if (attributeResults.compareAndSet(localId, null, new ResultInfoAttribute()) == false && this.attributeCoverage.added(-1) == 0) {
+				signalCompletion();
+			}
+			resultInfo = attributeResults.get(localId);
+		}
+		if (this.attributeCoverage.counted(resultInfo.addInfo(b, text))) {
+			signalCompletion();
+		}
+		return resultInfo;
+	}
+
+	/**
+	 * With aggregation, add the results of an object instance to those of its
+	 * class and drop them, else keep them. The dropped entries are no longer
+	 * managed, they are taken back from the attribute coverage. Called once
+	 * the validation tasks of the object instance are done, so that no result
+	 * is added to its entries meanwhile.
+	 *
+	 * @param theObject the object instance handle
+	 * @param objectClass the known object class handle
+	 * @param objectName the object instance name, null if not known
+	 */
+	void removeObjectInstance(final ObjectInstanceHandle theObject, final ObjectClassHandle objectClass, final String objectName) {
+		if (getAggregation() == false || objectClass == null) {
+			return;
+		}
+		MemberResults<ResultInfoAttribute> attributeResults = this.objectAttributeResults.remove(theObject);
+		if (attributeResults == null) {
+			return;
+		}
+		long count = 0;
+		long uncheckedCount = 0;
+		long incompleteCount = 0;
+		long requiredResults = this.attributeCoverage.requiredResults;
+		int length = attributeResults.length();
+		for (int localId = 0; localId < length; localId++) {
+			ResultInfoAttribute resultInfo = attributeResults.get(localId);
+			if (resultInfo == null) {
+				continue;
+			}
+			long resultCount = resultInfo.getResultCount();
+			count++;
+			if (resultCount == 0) {
+				uncheckedCount++;
+			}
+			if (resultCount < requiredResults) {
+				incompleteCount++;
+			}
+		}
+		this.attributeCoverage.removed(count, uncheckedCount, incompleteCount);
+		signalCompletion();
+		AggregatedResults aggregatedResults = this.removedObjectResults.computeIfAbsent(objectClass, k -> new AggregatedResults(memberIds(this.handleIndex.getObjectClassAttributeIds(k), attributeResults.getMemberIds()), this.maxFailingInstances));
+		aggregatedResults.add(objectName, attributeResults);
+	}
+
+	/**
+	 * @param memberIds the member ids of a class, null if the class is not in the SOM files
+	 * @param otherIds the member ids to use instead
+	 * @return the member ids
+	 */
+	private static HandleIndex.MemberIds memberIds(final HandleIndex.MemberIds memberIds, final HandleIndex.MemberIds otherIds) {
+		return memberIds != null ? memberIds : otherIds;
+	}
+
+	/**
+	 * @return the results of the removed object instances per object class, empty without aggregation
+	 */
+	Map<ObjectClassHandle, AggregatedResults> getRemovedObjectResults() {
+		return this.removedObjectResults;
+	}
+
+	/**
+	 * Count a buffer not tested due to sampling
+	 *
+	 * @param resultInfo the results of the attribute or parameter
+	 */
+	void addSkipped(final ResultInfo resultInfo) {
+		this.skipped.increment();
+		resultInfo.addSkipped();
+	}
+
+	/**
+	 * @param theInteraction the interaction class handle
+	 * @param parameterId the parameter id from the handle index
+	 * @return the result info of the parameter, null if not managed
+	 */
+	ResultInfo getParameterResult(final InteractionClassHandle theInteraction, final int parameterId) {
+		MemberResults<ResultInfo> parameterResults = this.interactionParameterResults.get(theInteraction);
+		if (parameterResults == null) {
+			return null;
+		}
+		return parameterResults.getById(parameterId);
+	}
+
+	/**
+	 * @param theObject the object instance handle
+	 * @param attributeId the attribute id from the handle index
+	 * @return the result info of the attribute, null if not managed
+	 */
+	ResultInfoAttribute getAttributeResult(final ObjectInstanceHandle theObject, final int attributeId) {
+		MemberResults<ResultInfoAttribute> attributeResults = this.objectAttributeResults.get(theObject);
+		if (attributeResults == null) {
+			return null;
+		}
+		return attributeResults.getById(attributeId);
+	}
+
+	/**
+	 * @param theObject the object instance handle
+	 * @param theAttribute the attribute handle
+	 * @return the result info of the attribute, null if not managed
+	 */
+	ResultInfoAttribute getAttributeResult(final ObjectInstanceHandle theObject, final AttributeHandle theAttribute) {
+		MemberResults<ResultInfoAttribute> attributeResults = this.objectAttributeResults.get(theObject);
+		if (attributeResults == null) {
+			return null;
+		}
+		return attributeResults.getById(this.handleIndex.getAttributeId(theAttribute));
+	}
+
+	/**
+	 * @return the parameter results per interaction class
+	 */
+	Map<InteractionClassHandle, MemberResults<ResultInfo>> getInteractionParameterResults() {
+		return this.interactionParameterResults;
+	}
+
+	/**
+	 * @return the attribute results per object instance
+	 */
+	Map<ObjectInstanceHandle, MemberResults<ResultInfoAttribute>> getObjectAttributeResults() {
+		return this.objectAttributeResults;
+	}
+
+	/**
+	 * @return whether every managed parameter has been tested at least once
+	 */
+	boolean allParametersChecked() {
+		return this.parameterCoverage.getUnchecked() <= 0;
+	}
+
+	/**
+	 * @return whether every managed attribute has been tested at least once
+	 */
+	boolean allAttributesChecked() {
+		return this.attributeCoverage.getUnchecked() <= 0;
+	}
+
+	/**
+	 * @return the counts of the managed parameters of all interaction classes
+	 */
+	Coverage getParameterCoverage() {
+		return this.parameterCoverage;
+	}
+
+	/**
+	 * @return the counts of the managed attributes of all object instances
+	 */
+	Coverage getAttributeCoverage() {
+		return this.attributeCoverage;
+	}
+
+	/**
+	 * @return whether entries are managed and every one has the required number of results
+	 */
+	boolean isComplete() {
+		return this.attributeCoverage.getIncomplete() <= 0 && this.parameterCoverage.getIncomplete() <= 0
+				&& this.attributeCoverage.getManaged() + this.parameterCoverage.getManaged() > 0;
+	}
+
+	/**
+	 * @return the percentage of the managed attributes and parameters with the required number of results
+	 */
+	int getCompletePercent() {
+		// Read incomplete first, so that entries added in between keep the percentage within 0 and 100
+		long myIncomplete = this.attributeCoverage.getIncomplete() + this.parameterCoverage.getIncomplete();
+		long myManaged = this.attributeCoverage.getManaged() + this.parameterCoverage.getManaged();
+		if (myManaged == 0) {
+			return 0;
+		}
+		return (int) ((myManaged - myIncomplete) * 100 / myManaged);
+	}
+
+	private void signalCompletion() {
+		synchronized (this.completionLock) {
+			this.completionLock.notifyAll();
+		}
+	}
+
+	/**
+	 * Wait until isComplete holds, entries added later may make it false again
+	 *
+	 * @param timeout the maximum time to wait in milliseconds
+	 * @return whether complete
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	boolean awaitCompletion(final long timeout) throws InterruptedException {
+		long deadline = System.nanoTime() + timeout * 1000000L;
+		synchronized (this.completionLock) {
+			while (isComplete() == false) {
+				long remaining = (deadline - System.nanoTime()) / 1000000L;
+				if (remaining <= 0) {
+					return false;
+				}
+				this.completionLock.wait(remaining);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of correct buffers
+	 */
+	long getCorrect() {
+		return this.correct.sum();
+	}
+
+	/**
+	 * @return the number of incorrect buffers
+	 */
+	long getIncorrect() {
+		return this.incorrect.sum();
+	}
+
+	/**
+	 * @return the number of buffers not tested due to sampling
+	 */
+	long getSkipped() {
+		return this.skipped.sum();
+	}
+
+	/**
+	 * @return whether an incorrect buffer was found
+	 */
+	boolean getErrorOccurred() {
+		return this.errorOccurred;
+	}
+}
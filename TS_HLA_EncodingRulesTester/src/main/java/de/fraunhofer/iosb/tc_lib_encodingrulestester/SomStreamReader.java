@@ -0,0 +1,294 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.io.InputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+/**
+ * Reads a FOM/SOM file in a single pass with StAX and hands the data types,
+ * object classes and interaction classes to a listener as they are read,
+ * without building the DOM of the whole file.
+ *
+ * Each event carries a small DOM fragment of the element, so that the
+ * existing decoders can be used. A class fragment holds the elements of the
+ * class up to its first subclass, the subclasses follow as events of their
+ * own. As in the OMT schema, the name and the attributes or parameters of a
+ * class have to come before its subclasses.
+ */
+final class SomStreamReader {
+	private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+	/**
+	 * The receiver of the events, any exception stops the reading
+	 */
+	interface Listener {
+		/**
+		 * A dataTypes, objects or interactions element with content starts
+		 *
+		 * @param sectionName the element name
+		 */
+		void startSection(String sectionName) throws Exception;
+
+		/**
+		 * A section given to startSection ends
+		 *
+		 * @param sectionName the element name
+		 */
+		void endSection(String sectionName) throws Exception;
+
+		/**
+		 * @param groupName the name of the group element, e.g. simpleDataTypes
+		 * @param dataType the data type element, e.g. simpleData
+		 */
+		void dataType(String groupName, Element dataType) throws Exception;
+
+		/**
+		 * @param classElement the objectClass or interactionClass element up to its first subclass
+		 */
+		void startClass(Element classElement) throws Exception;
+
+		/**
+		 * The class and all its subclasses are read
+		 *
+		 * @param className the element name, objectClass or interactionClass
+		 */
+		void endClass(String className) throws Exception;
+	}
+
+	private final Listener listener;
+	// The owner of the fragments, they are not added to it
+	private final Document document;
+	private final XMLInputFactory xmlInputFactory;
+
+	/**
+	 * @param listener the receiver of the events
+	 * @throws ParserConfigurationException when no DOM implementation is available
+	 */
+	SomStreamReader(final Listener listener) throws ParserConfigurationException {
+		this.listener = listener;
+		this.document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		this.xmlInputFactory = XMLInputFactory.newInstance();
+		// Keep CDATA sections apart from the text as the DOM parser does
+		if (this.xmlInputFactory.isPropertySupported(REPORT_CDATA)) {
+			this.xmlInputFactory.setProperty(REPORT_CDATA, Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * Read a FOM/SOM file, the children of the document element are handled
+	 * as DataTreeBuilder.buildData does
+	 *
+	 * @param inputStream the file content
+	 * @param systemId the URL of the file, for relative references
+	 * @throws Exception from the listener or the XML parser
+	 */
+	void read(final InputStream inputStream, final String systemId) throws Exception {
+		XMLStreamReader reader = this.xmlInputFactory.createXMLStreamReader(systemId, inputStream);
+		try {
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+					readRoot(reader);
+					break;
+				}
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	private void readRoot(final XMLStreamReader reader) throws Exception {
+		while (true) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				return;
+			}
+			if (event != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+			String name = getName(reader);
+			switch (name) {
+			case "dataTypes":
+			case "objects":
+			case "interactions":
+				readSection(reader, name);
+				break;
+			default:
+				skipElement(reader);
+				break;
+			}
+		}
+	}
+
+	private void readSection(final XMLStreamReader reader, final String sectionName) throws Exception {
+		// Like buildData, an empty element is not handled at all
+		boolean started = false;
+		while (true) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				break;
+			}
+			if (started == false) {
+				this.listener.startSection(sectionName);
+				started = true;
+			}
+			if (event != XMLStreamConstants.START_ELEMENT) {
+				continue;
+			}
+			String name = getName(reader);
+			if (sectionName.equals("dataTypes")) {
+				readDataTypeGroup(reader, name);
+			} else if ((name.equals("objectClass") && sectionName.equals("objects")) || (name.equals("interactionClass") && sectionName.equals("interactions"))) {
+				readClass(reader, name);
+			} else {
+				skipElement(reader);
+			}
+		}
+		if (started) {
+			this.listener.endSection(sectionName);
+		}
+	}
+
+	private void readDataTypeGroup(final XMLStreamReader reader, final String groupName) throws Exception {
+		while (true) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				return;
+			}
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				this.listener.dataType(groupName, readElement(reader));
+			}
+		}
+	}
+
+	private void readClass(final XMLStreamReader reader, final String className) throws Exception {
+		Element classElement = this.document.createElement(className);
+		String memberName = className.equals("objectClass") ? "attribute" : "parameter";
+		boolean started = false;
+		while (true) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				break;
+			}
+			if (event != XMLStreamConstants.START_ELEMENT) {
+				if (started == false) {
+					appendNode(classElement, reader, event);
+				}
+				continue;
+			}
+			String name = getName(reader);
+			if (name.equals(className)) {
+				if (started == false) {
+					this.listener.startClass(classElement);
+					started = true;
+				}
+				readClass(reader, className);
+			} else if (started == false) {
+				classElement.appendChild(readElement(reader));
+			} else if (name.equals("name") || name.equals(memberName)) {
+				throw new XMLStreamException("SomStreamReader.readClass: " + name + " after a subclass", reader.getLocation());
+			} else {
+				skipElement(reader);
+			}
+		}
+		if (started == false) {
+			this.listener.startClass(classElement);
+		}
+		this.listener.endClass(className);
+	}
+
+	/**
+	 * @return the fragment of the current element, the reader is at its end
+	 */
+	private Element readElement(final XMLStreamReader reader) throws XMLStreamException {
+		Element element = this.document.createElement(getName(reader));
+		while (true) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				return element;
+			}
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				element.appendChild(readElement(reader));
+			} else {
+				appendNode(element, reader, event);
+			}
+		}
+	}
+
+	/**
+	 * Add the text, CDATA, comment or processing instruction of the event,
+	 * adjacent text is joined into one node as in the DOM
+	 */
+	private void appendNode(final Element element, final XMLStreamReader reader, final int event) {
+		switch (event) {
+		case XMLStreamConstants.CHARACTERS:
+		case XMLStreamConstants.SPACE:
+			Node last = element.getLastChild();
+			if (last != null && last.getNodeType() == Node.TEXT_NODE) {
+				((Text) last).appendData(reader.getText());
+			} else {
+				element.appendChild(this.document.createTextNode(reader.getText()));
+			}
+			break;
+		case XMLStreamConstants.CDATA:
+			element.appendChild(this.document.createCDATASection(reader.getText()));
+			break;
+		case XMLStreamConstants.COMMENT:
+			element.appendChild(this.document.createComment(reader.getText()));
+			break;
+		case XMLStreamConstants.PROCESSING_INSTRUCTION:
+			element.appendChild(this.document.createProcessingInstruction(reader.getPITarget(), reader.getPIData()));
+			break;
+		default:
+			break;
+		}
+	}
+
+	private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * @return the element name as given by a DOM parser that is not namespace aware
+	 */
+	private static String getName(final XMLStreamReader reader) {
+		String prefix = reader.getPrefix();
+		if (prefix == null || prefix.isEmpty()) {
+			return reader.getLocalName();
+		}
+		return prefix + ":" + reader.getLocalName();
+	}
+}
@@ -0,0 +1,264 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the verdicts of recently tested buffers, many federates send
+ * identical attribute values with every update.
+ *
+ * The cache is keyed on the data type, the buffer length and a 64 bit hash
+ * of the buffer, a hit is confirmed by comparing the stored copy of the
+ * buffer. It is split into segments, each evicting its least recently used
+ * entry when full, so that several validation workers rarely wait for
+ * each other. The capacities of the segments add up to the maximum number
+ * of entries.
+ */
+class ValidationCache {
+	private static final int SEGMENT_COUNT = 16;
+
+	/**
+	 * The result of testing a buffer
+	 */
+	static final class Verdict {
+		final boolean correct;
+		final String text;
+
+		/**
+		 * @param correct whether the buffer is correct
+		 * @param text the result text
+		 */
+		Verdict(final boolean correct, final String text) {
+			this.correct = correct;
+			this.text = text;
+		}
+	}
+
+	/**
+	 * The key of a cached buffer, holds the buffer for the equality check
+	 */
+	private static final class Key {
+		private final HlaDataType dataType;
+		private final long hash;
+		private final byte[] buffer;
+
+		Key(final HlaDataType dataType, final long hash, final byte[] buffer) {
+			this.dataType = dataType;
+			this.hash = hash;
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) (this.hash ^ (this.hash >>> 32));
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj instanceof Key == false) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return this.dataType == other.dataType && this.hash == other.hash && this.buffer.length == other.buffer.length && Arrays.equals(this.buffer, other.buffer);
+		}
+	}
+
+	/**
+	 * A least recently used map, guarded by its own lock
+	 */
+	private static final class Segment extends LinkedHashMap<Key, Verdict> {
+		private static final long serialVersionUID = 1L;
+		private final int maxEntries;
+
+		Segment(final int maxEntries) {
+			super(16, 0.75f, true);
+			this.maxEntries = maxEntries;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Key, Verdict> eldest) {
+			return size() > this.maxEntries;
+		}
+	}
+
+	private final Segment[] segments;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * @param maxEntries the maximum number of buffers cached
+	 */
+	ValidationCache(final int maxEntries) {
+		int entries = Math.max(1, maxEntries);
+		// Fewer segments for small caches, so that each segment holds at least one entry
+		int segmentCount = Math.min(SEGMENT_COUNT, Integer.highestOneBit(entries));
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			this.segments[i] = new Segment(entries / segmentCount + (i < entries % segmentCount ? 1 : 0));
+		}
+	}
+
+	/**
+	 * A 64 bit hash of the buffer, processing eight octets per step
+	 *
+	 * @param buffer the buffer
+	 * @return the hash value
+	 */
+	static long hash(final byte[] buffer) {
+		long h = 0x9E3779B97F4A7C15L ^ buffer.length;
+		int i = 0;
+		for (; i + 8 <= buffer.length; i += 8) {
+			long k = (buffer[i] & 0xffL)
+					| (buffer[i + 1] & 0xffL) << 8
+					| (buffer[i + 2] & 0xffL) << 16
+					| (buffer[i + 3] & 0xffL) << 24
+					| (buffer[i + 4] & 0xffL) << 32
+					| (buffer[i + 5] & 0xffL) << 40
+					| (buffer[i + 6] & 0xffL) << 48
+					| (buffer[i + 7] & 0xffL) << 56;
+			k *= 0x87C37B91114253D5L;
+			k = Long.rotateLeft(k, 31);
+			k *= 0x4CF5AD432745937FL;
+			h ^= k;
+			h = Long.rotateLeft(h, 27) * 5 + 0x52DCE729;
+		}
+		long k = 0;
+		for (int shift = 0; i < buffer.length; i++, shift += 8) {
+			k |= (buffer[i] & 0xffL) << shift;
+		}
+		h ^= k * 0x87C37B91114253D5L;
+		// Final mix so that all bits of the buffer affect all bits of the hash
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	private Segment segmentFor(final long hash) {
+		return this.segments[(int) (hash >>> 60) & (this.segments.length - 1)];
+	}
+
+	/**
+	 * @param dataType the data type of the buffer
+	 * @param hash the hash of the buffer
+	 * @param buffer the buffer
+	 * @return the cached verdict, null if the buffer was not tested recently
+	 */
+	Verdict get(final HlaDataType dataType, final long hash, final byte[] buffer) {
+		Key key = new Key(dataType, hash, buffer);
+		Segment segment = segmentFor(hash);
+		Verdict verdict;
+		synchronized (segment) {
+			verdict = segment.get(key);
+		}
+		if (verdict == null) {
+			this.misses.increment();
+		} else {
+			this.hits.increment();
+		}
+		return verdict;
+	}
+
+	/**
+	 * @param dataType the data type of the buffer
+	 * @param hash the hash of the buffer
+	 * @param buffer the buffer, a copy is stored
+	 * @param verdict the verdict of the test
+	 */
+	void put(final HlaDataType dataType, final long hash, final byte[] buffer, final Verdict verdict) {
+		Key key = new Key(dataType, hash, buffer.clone());
+		Segment segment = segmentFor(hash);
+		synchronized (segment) {
+			segment.put(key, verdict);
+		}
+	}
+
+	/**
+	 * Test a buffer
+	 *
+	 * @param hlaDataTypes the data types
+	 * @param dataType the data type of the buffer
+	 * @param buffer the buffer
+	 * @return the verdict of the test
+	 */
+	static Verdict testBuffer(final HlaDataTypes hlaDataTypes, final HlaDataType dataType, final byte[] buffer) {
+		try {
+			int calculatedLength = hlaDataTypes.testBuffer(dataType, buffer);
+			if (calculatedLength != buffer.length) {
+				return new Verdict(false, "TEST BUFFER INCORRECT: overall length calculation: " + calculatedLength + " Buffer length: " + buffer.length + "\n");
+			}
+			return new Verdict(true, "TEST BUFFER CORRECT\n");
+		} catch (EncodingRulesException e) {
+			return new Verdict(false, "TEST BUFFER INCORRECT: " + e.getMessage() + "\n");
+		}
+	}
+
+	/**
+	 * Test a buffer, or take the verdict of an identical buffer tested
+	 * recently
+	 *
+	 * @param hlaDataTypes the data types
+	 * @param dataType the data type of the buffer
+	 * @param buffer the buffer
+	 * @return the verdict of the test
+	 */
+	Verdict test(final HlaDataTypes hlaDataTypes, final HlaDataType dataType, final byte[] buffer) {
+		long hash = hash(buffer);
+		Verdict verdict = get(dataType, hash, buffer);
+		if (verdict == null) {
+			verdict = testBuffer(hlaDataTypes, dataType, buffer);
+			put(dataType, hash, buffer, verdict);
+		}
+		return verdict;
+	}
+
+	/**
+	 * @return the number of buffers cached
+	 */
+	int size() {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return the number of buffers found in the cache
+	 */
+	long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * @return the number of buffers not found in the cache
+	 */
+	long getMissCount() {
+		return this.misses.sum();
+	}
+}
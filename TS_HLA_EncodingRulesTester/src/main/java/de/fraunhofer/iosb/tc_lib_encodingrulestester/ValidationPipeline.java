@@ -0,0 +1,240 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands the buffers received in RTI callbacks over to a pool of validation
+ * workers, so that the callback only has to copy the data into a ring buffer.
+ * If the ring buffer is full the data is dropped and counted, the callback
+ * never waits for the workers.
+ *
+ * A buffer whose validation throws a RuntimeException is counted and handed
+ * to Handler.failed, so that it gets a failed result instead of none.
+ */
+public class ValidationPipeline {
+	/**
+	 * Validates the buffers of the tasks, called by the worker threads
+	 */
+	interface Handler {
+		/**
+		 * @param task the copied callback data
+		 * @param index the index of the buffer to validate
+		 */
+		void validate(ValidationTask task, int index);
+
+		/**
+		 * Record the failed result of a buffer whose validation threw
+		 *
+		 * @param task the copied callback data
+		 * @param index the index of the buffer
+		 * @param e the exception thrown by validate
+		 */
+		void failed(ValidationTask task, int index, RuntimeException e);
+
+		/**
+		 * Called once all buffers of a task are validated
+		 *
+		 * @param task the copied callback data
+		 */
+		void completed(ValidationTask task);
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(ValidationPipeline.class);
+	// Time a worker sleeps when the ring buffer is empty
+	private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private final ValidationRingBuffer<ValidationTask> ringBuffer;
+	private final Handler handler;
+	private final Thread[] workers;
+	private volatile boolean running = true;
+
+	// Workers which may hold a task taken from the ring buffer
+	private final AtomicInteger busyWorkers = new AtomicInteger(0);
+	private final AtomicLong submitted = new AtomicLong(0);
+	private final AtomicLong dropped = new AtomicLong(0);
+	private final AtomicLong failed = new AtomicLong(0);
+	private final AtomicLong maxQueueDepth = new AtomicLong(0);
+
+	/**
+	 * @param workerCount the number of validation worker threads
+	 * @param queueSize the capacity of the ring buffer
+	 * @param handler validates the buffers of a task, called by the worker threads
+	 */
+	ValidationPipeline(final int workerCount, final int queueSize, final Handler handler) {
+		this.ringBuffer = new ValidationRingBuffer<ValidationTask>(queueSize);
+		this.handler = handler;
+		this.workers = new Thread[workerCount];
+		for (int i = 0; i < workerCount; i++) {
+			this.workers[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					work();
+				}
+			}, "EncodingRulesValidator-" + i);
+			this.workers[i].setDaemon(true);
+		}
+	}
+
+	/**
+	 * Start the worker threads
+	 */
+	void start() {
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		logger.info("ValidationPipeline: started workers: " + workers.length + " queue size: " + ringBuffer.capacity());
+	}
+
+	/**
+	 * @param task the copied callback data
+	 * @return false if the ring buffer was full and the task is dropped
+	 */
+	boolean submit(final ValidationTask task) {
+		submitted.incrementAndGet();
+		if (ringBuffer.offer(task) == false) {
+			dropped.incrementAndGet();
+			return false;
+		}
+		long depth = ringBuffer.size();
+		long max = maxQueueDepth.get();
+		while (depth > max && maxQueueDepth.compareAndSet(max, depth) == false) {
+			max = maxQueueDepth.get();
+		}
+		return true;
+	}
+
+	private void work() {
+		while (true) {
+			// Count as busy before taking a task, see drain
+			busyWorkers.incrementAndGet();
+			ValidationTask task = ringBuffer.poll();
+			if (task == null) {
+				busyWorkers.decrementAndGet();
+				if (running == false) {
+					return;
+				}
+				LockSupport.parkNanos(IDLE_PARK_NANOS);
+				continue;
+			}
+			try {
+				validate(task);
+			} finally {
+				busyWorkers.decrementAndGet();
+			}
+		}
+	}
+
+	private void validate(final ValidationTask task) {
+		for (int i = 0; i < task.values.length; i++) {
+			try {
+				handler.validate(task, i);
+			} catch (RuntimeException e) {
+				failed.incrementAndGet();
+				logger.error("ValidationPipeline: validation failed: " + e);
+				try {
+					handler.failed(task, i, e);
+				} catch (RuntimeException e2) {
+					logger.error("ValidationPipeline: cannot record failed validation: " + e2);
+				}
+			}
+		}
+		try {
+			handler.completed(task);
+		} catch (RuntimeException e) {
+			logger.error("ValidationPipeline: cannot complete validation: " + e);
+		}
+	}
+
+	/**
+	 * Wait until all submitted tasks are validated
+	 *
+	 * @param timeoutMillis the maximum time to wait
+	 * @return true if all tasks are validated
+	 */
+	boolean drain(final long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		// Check the ring buffer before the busy workers: a worker counts itself busy before taking a task
+		while (ringBuffer.size() != 0 || busyWorkers.get() != 0) {
+			if (System.currentTimeMillis() > deadline) {
+				logger.warn("ValidationPipeline: drain timeout, queue depth: " + ringBuffer.size());
+				return false;
+			}
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		return true;
+	}
+
+	/**
+	 * Validate the remaining tasks and stop the worker threads
+	 *
+	 * @param timeoutMillis the maximum time to wait for each worker
+	 */
+	void stop(final long timeoutMillis) {
+		running = false;
+		for (Thread worker : workers) {
+			try {
+				worker.join(timeoutMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the current number of tasks waiting for validation
+	 */
+	public int getQueueDepth() {
+		return ringBuffer.size();
+	}
+
+	/**
+	 * @return the highest number of tasks waiting for validation
+	 */
+	public long getMaxQueueDepth() {
+		return maxQueueDepth.get();
+	}
+
+	/**
+	 * @return the number of tasks submitted
+	 */
+	public long getSubmittedCount() {
+		return submitted.get();
+	}
+
+	/**
+	 * @return the number of tasks dropped since the ring buffer was full
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * @return the number of buffers whose validation threw an exception
+	 */
+	public long getFailedCount() {
+		return failed.get();
+	}
+}
@@ -0,0 +1,136 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for several producers and consumers.
+ *
+ * Each slot carries a sequence number: a producer may fill a slot when the
+ * sequence equals its position, a consumer may empty it when the sequence
+ * equals its position plus one. Neither side blocks, offer fails when the
+ * buffer is full and poll returns null when it is empty.
+ *
+ * @param <E> the element type
+ */
+class ValidationRingBuffer<E> {
+	private final int capacity;
+	private final int mask;
+	private final AtomicReferenceArray<E> elements;
+	private final AtomicLongArray sequences;
+	// Next position to fill
+	private final AtomicLong tail = new AtomicLong(0);
+	// Next position to empty
+	private final AtomicLong head = new AtomicLong(0);
+
+	/**
+	 * @param requestedCapacity the minimum number of elements, rounded up to a power of two
+	 */
+	ValidationRingBuffer(final int requestedCapacity) {
+		int myCapacity = 1;
+		while (myCapacity < requestedCapacity) {
+			myCapacity <<= 1;
+		}
+		this.capacity = myCapacity;
+		this.mask = myCapacity - 1;
+		this.elements = new AtomicReferenceArray<E>(myCapacity);
+		this.sequences = new AtomicLongArray(myCapacity);
+		for (int i = 0; i < myCapacity; i++) {
+			this.sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * @param element the element to add
+	 * @return false if the buffer is full
+	 */
+	boolean offer(final E element) {
+		long position = tail.get();
+		int index;
+		for (;;) {
+			index = (int) position & mask;
+			long difference = sequences.get(index) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					break;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				// The slot still holds an element of the previous round
+				return false;
+			} else {
+				// Another producer took this position
+				position = tail.get();
+			}
+		}
+		elements.set(index, element);
+		sequences.set(index, position + 1);
+		return true;
+	}
+
+	/**
+	 * @return the oldest element, or null if the buffer is empty
+	 */
+	E poll() {
+		long position = head.get();
+		int index;
+		for (;;) {
+			index = (int) position & mask;
+			long difference = sequences.get(index) - (position + 1);
+			if (difference == 0) {
+				if (head.compareAndSet(position, position + 1)) {
+					break;
+				}
+				position = head.get();
+			} else if (difference < 0) {
+				// The slot is not filled yet
+				return null;
+			} else {
+				// Another consumer took this position
+				position = head.get();
+			}
+		}
+		E element = elements.get(index);
+		elements.set(index, null);
+		sequences.set(index, position + capacity);
+		return element;
+	}
+
+	/**
+	 * @return the number of elements, exact only if there are no concurrent calls
+	 */
+	int size() {
+		long size = tail.get() - head.get();
+		if (size < 0) {
+			return 0;
+		}
+		if (size > capacity) {
+			return capacity;
+		}
+		return (int) size;
+	}
+
+	/**
+	 * @return the capacity of the buffer
+	 */
+	int capacity() {
+		return capacity;
+	}
+}
@@ -0,0 +1,61 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which buffers of an attribute or parameter are tested once it has
+ * proven stable, i.e. its last results were all correct.
+ *
+ * Until an entry has the stable number of consecutive correct results every
+ * buffer is tested, then every n-th buffer or each buffer with a fixed
+ * probability. An incorrect result resets the consecutive count, so the
+ * entry is fully tested again until it is stable again. The buffers not
+ * tested are counted by the caller.
+ */
+class ValidationSampler {
+	private final long stableCount;
+	private final int sampleRate;
+	private final double sampleProbability;
+
+	/**
+	 * @param stableCount the number of consecutive correct results to start sampling
+	 * @param sampleRate test every n-th buffer of a stable entry
+	 * @param sampleProbability the probability to test a buffer of a stable entry, 0 to use the rate
+	 */
+	ValidationSampler(final long stableCount, final int sampleRate, final double sampleProbability) {
+		this.stableCount = stableCount;
+		this.sampleRate = sampleRate;
+		this.sampleProbability = sampleProbability;
+	}
+
+	/**
+	 * @param resultInfo the results of the attribute or parameter, null if none yet
+	 * @return true if the buffer is not to be tested
+	 */
+	boolean isSampledOut(final ResultInfo resultInfo) {
+		if (resultInfo == null || resultInfo.getCorrectStreak() < this.stableCount) {
+			return false;
+		}
+		if (this.sampleProbability > 0) {
+			return ThreadLocalRandom.current().nextDouble() >= this.sampleProbability;
+		}
+		// Counts every received buffer, tested or not
+		return (resultInfo.getResultCount() + resultInfo.getSkippedCount()) % this.sampleRate != 0;
+	}
+}
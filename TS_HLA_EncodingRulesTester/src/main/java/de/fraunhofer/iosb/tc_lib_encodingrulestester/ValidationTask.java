@@ -0,0 +1,99 @@
+/*
+Copyright 2017, Johannes Mulder (Fraunhofer IOSB)
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import java.util.Map;
+
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.AttributeHandleValueMap;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.ParameterHandle;
+import hla.rti1516e.ParameterHandleValueMap;
+
+/**
+ * A copy of the handles and buffers of one reflectAttributeValues or
+ * receiveInteraction callback, the RTI may reuse its maps and buffers once
+ * the callback returns.
+ */
+final class ValidationTask {
+	/**
+	 * Set for attribute values, else null
+	 */
+	final ObjectInstanceHandle theObject;
+	final AttributeHandle[] attributeHandles;
+
+	/**
+	 * Set for interaction parameters, else null
+	 */
+	final InteractionClassHandle interactionClass;
+	final ParameterHandle[] parameterHandles;
+
+	/**
+	 * The buffers in the order of the handles
+	 */
+	final byte[][] values;
+
+	ValidationTask(final ObjectInstanceHandle theObject, final AttributeHandle[] attributeHandles, final InteractionClassHandle interactionClass, final ParameterHandle[] parameterHandles, final byte[][] values) {
+		this.theObject = theObject;
+		this.attributeHandles = attributeHandles;
+		this.interactionClass = interactionClass;
+		this.parameterHandles = parameterHandles;
+		this.values = values;
+	}
+
+	/**
+	 * @param theObject the object instance handle
+	 * @param theAttributes the map of attribute handle / value
+	 * @return the copied task
+	 */
+	static ValidationTask attributes(final ObjectInstanceHandle theObject, final AttributeHandleValueMap theAttributes) {
+		AttributeHandle[] attributeHandles = new AttributeHandle[theAttributes.size()];
+		byte[][] values = new byte[attributeHandles.length][];
+		int i = 0;
+		for (Map.Entry<AttributeHandle, byte[]> entry : theAttributes.entrySet()) {
+			attributeHandles[i] = entry.getKey();
+			values[i] = copy(entry.getValue());
+			i++;
+		}
+		return new ValidationTask(theObject, attributeHandles, null, null, values);
+	}
+
+	/**
+	 * @param interactionClass the interaction class handle
+	 * @param theParameters the map of parameter handle / value
+	 * @return the copied task
+	 */
+	static ValidationTask parameters(final InteractionClassHandle interactionClass, final ParameterHandleValueMap theParameters) {
+		ParameterHandle[] parameterHandles = new ParameterHandle[theParameters.size()];
+		byte[][] values = new byte[parameterHandles.length][];
+		int i = 0;
+		for (Map.Entry<ParameterHandle, byte[]> entry : theParameters.entrySet()) {
+			parameterHandles[i] = entry.getKey();
+			values[i] = copy(entry.getValue());
+			i++;
+		}
+		return new ValidationTask(null, null, interactionClass, parameterHandles, values);
+	}
+
+	private static byte[] copy(final byte[] value) {
+		if (value == null) {
+			return null;
+		}
+		return value.clone();
+	}
+}
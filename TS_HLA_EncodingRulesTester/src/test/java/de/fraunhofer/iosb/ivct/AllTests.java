@@ -1,14 +1,19 @@
 package de.fraunhofer.iosb.ivct;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -24,7 +29,9 @@ import org.xml.sax.SAXException;
 import de.fraunhofer.iosb.tc_lib.TcInconclusive;
 import de.fraunhofer.iosb.tc_lib_encodingrulestester.DataTreeBuilder;
 import de.fraunhofer.iosb.tc_lib_encodingrulestester.EncodingRulesException;
+import de.fraunhofer.iosb.tc_lib_encodingrulestester.HlaBufferGenerator;
 import de.fraunhofer.iosb.tc_lib_encodingrulestester.HlaDataType;
+import de.fraunhofer.iosb.tc_lib_encodingrulestester.HlaDataTypeLayout;
 import de.fraunhofer.iosb.tc_lib_encodingrulestester.HlaDataTypes;
 import de.fraunhofer.iosb.tc_lib_encodingrulestester.HlaDataVariableArrayType;
 import de.fraunhofer.iosb.tc_lib_encodingrulestester.ObjectClassData;
@@ -584,4 +591,220 @@ public class AllTests {
 			e1.printStackTrace();
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * @return the calculated length of the map based test or the exception class
+	 */
+	private static String mapResult(final HlaDataType hlaDataType, final byte[] buffer) {
+		try {
+			return Integer.toString(hlaDataType.testBuffer(buffer, 0, hlaDataTypes));
+		} catch (EncodingRulesException e) {
+			return "EncodingRulesException";
+		} catch (RuntimeException e) {
+			return e.getClass().getSimpleName();
+		}
+	}
+
+	/**
+	 * @return the calculated length or the exception class
+	 */
+	private static String testResult(final HlaDataTypes hlaDataTypes, final HlaDataType hlaDataType, final byte[] buffer) {
+		try {
+			return Integer.toString(hlaDataTypes.testBuffer(hlaDataType, buffer));
+		} catch (EncodingRulesException e) {
+			return "EncodingRulesException";
+		} catch (RuntimeException e) {
+			return e.getClass().getSimpleName();
+		}
+	}
+
+	/**
+	 * The attribute buffers of the RPR tests above: object class, attribute
+	 * and the encoded buffer in hex
+	 */
+	private static final String[][] RPR_BUFFERS = {
+		{ "HLAobjectRoot.EmbeddedSystem.EmitterSystem", "EmitterType", "0799" },
+		{ "HLAobjectRoot.EmbeddedSystem.EmitterSystem", "EventIdentifier", "000000" },
+		{ "HLAobjectRoot.EmbeddedSystem.EmitterSystem", "HostObjectIdentifier", "565246466564657261746548616e646c653c323e3a313100" },
+		{ "HLAobjectRoot.BaseEntity.PhysicalEntity.Platform.SurfaceVessel", "EntityType", "0103000d06010100" },
+		{ "HLAobjectRoot.BaseEntity.PhysicalEntity.Platform.SurfaceVessel", "EntityIdentifier", "000100020001" },
+		{ "HLAobjectRoot.BaseEntity.PhysicalEntity.Platform.SurfaceVessel", "Marking", "015368697000000000000000" },
+		{ "HLAobjectRoot.EmbeddedSystem.EmitterSystem", "EmitterType", "15c2" },
+		{ "HLAobjectRoot.BaseEntity.PhysicalEntity.Platform.SurfaceVessel", "Spatial", "02000000000000004147da516c52598c415237f0d19471f84145a30bb6566d9d00000000bf14623824fc8df1400236a24105ddf4c0af4455a6ecc512" }
+	};
+
+	@Test
+	public void testCompiledRprBuffers() throws Exception {
+		assertTrue("all RPR data types compile", hlaDataTypes.compile() == 0);
+		// The compiled data type has to deliver the same result as the map based test for the buffer,
+		// each shorter buffer, the buffer with an extra octet and the buffer with each octet changed
+		for (String[] rprBuffer : RPR_BUFFERS) {
+			ObjectClassHandle och = dummyRtiImpl.getObjectClassHandle(rprBuffer[0]);
+			AttributeHandle ah = dummyRtiImpl.getAttributeHandle(och, rprBuffer[1]);
+			HlaDataType hlaDataType = hlaDataTypes.dataTypeMap.get(attributeHandleDataTypeMap.get(ah));
+			assertNotNull(rprBuffer[1], hlaDataType);
+			byte[] buffer = new byte[rprBuffer[2].length() / 2];
+			for (int i = 0; i < buffer.length; i++) {
+				buffer[i] = hexToByte(rprBuffer[2].substring(2 * i, 2 * i + 2));
+			}
+			assertEquals(rprBuffer[1], Integer.toString(buffer.length), mapResult(hlaDataType, buffer));
+			assertEquals(rprBuffer[1], mapResult(hlaDataType, buffer), testResult(hlaDataTypes, hlaDataType, buffer));
+			for (int len = 0; len < buffer.length; len++) {
+				byte[] shorter = Arrays.copyOf(buffer, len);
+				assertEquals(rprBuffer[1] + " length " + len, mapResult(hlaDataType, shorter), testResult(hlaDataTypes, hlaDataType, shorter));
+			}
+			byte[] longer = Arrays.copyOf(buffer, buffer.length + 1);
+			assertEquals(rprBuffer[1] + " extra octet", mapResult(hlaDataType, longer), testResult(hlaDataTypes, hlaDataType, longer));
+			for (int i = 0; i < buffer.length; i++) {
+				byte[] changed = buffer.clone();
+				changed[i] = (byte) ~changed[i];
+				assertEquals(rprBuffer[1] + " octet " + i, mapResult(hlaDataType, changed), testResult(hlaDataTypes, hlaDataType, changed));
+			}
+		}
+	}
+
+	@Test
+	public void testCompiledDataTypes() {
+		assertTrue("all RPR data types compile", hlaDataTypes.compile() == 0);
+		// The compiled data types have to deliver the same results as the map based test
+		Random random = new Random(1516);
+		for (HlaDataType hlaDataType : hlaDataTypes.dataTypeMap.values()) {
+			assertTrue(hlaDataType.isCompiled());
+			assertNotNull(hlaDataType.getLayout());
+			for (int len = 0; len <= 32; len++) {
+				byte[] buffer = new byte[len];
+				assertEquals(hlaDataType.getClass().getSimpleName() + " " + len, mapResult(hlaDataType, buffer), testResult(hlaDataTypes, hlaDataType, buffer));
+			}
+			// Random octets, mostly small array lengths and valid enumerators in the small values
+			for (int i = 0; i < 50; i++) {
+				byte[] buffer = new byte[random.nextInt(65)];
+				random.nextBytes(buffer);
+				if (random.nextBoolean()) {
+					for (int j = 0; j < buffer.length; j++) {
+						buffer[j] = (byte) (buffer[j] & 0x03);
+					}
+				}
+				assertEquals(hlaDataType.getClass().getSimpleName() + " random " + i, mapResult(hlaDataType, buffer), testResult(hlaDataTypes, hlaDataType, buffer));
+			}
+		}
+	}
+
+	@Test
+	public void testGeneratedBuffers() throws EncodingRulesException {
+		assertTrue("all RPR data types compile", hlaDataTypes.compile() == 0);
+		HlaBufferGenerator hlaBufferGenerator = new HlaBufferGenerator(hlaDataTypes, new Random(1516));
+		for (HlaDataType hlaDataType : hlaDataTypes.dataTypeMap.values()) {
+			for (int i = 0; i < 20; i++) {
+				// Correct buffers pass both the map based and the compiled test
+				byte[] buffer = hlaBufferGenerator.generate(hlaDataType);
+				assertTrue(hlaDataType.getClass().getSimpleName() + " " + i, hlaDataType.testBuffer(buffer, 0, hlaDataTypes) == buffer.length);
+				assertTrue(hlaDataType.getClass().getSimpleName() + " " + i, hlaDataTypes.testBuffer(hlaDataType, buffer) == buffer.length);
+				// Each defect is detected
+				for (HlaBufferGenerator.Defect defect : HlaBufferGenerator.Defect.values()) {
+					buffer = hlaBufferGenerator.generate(hlaDataType, defect);
+					if (buffer == null) {
+						continue;
+					}
+					boolean detected;
+					try {
+						detected = hlaDataTypes.testBuffer(hlaDataType, buffer) != buffer.length;
+					} catch (EncodingRulesException e) {
+						detected = true;
+					}
+					assertTrue(hlaDataType.getClass().getSimpleName() + " " + defect + " " + i, detected);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compare two builds of the same SOM: the same data type names, each
+	 * with the same properties, layout and results on generated buffers
+	 */
+	public static void assertSameDataTypes(final HlaDataTypes expected, final HlaDataTypes actual) throws EncodingRulesException {
+		assertTrue(expected.dataTypeMap.isEmpty() == false);
+		assertEquals(expected.dataTypeMap.keySet(), actual.dataTypeMap.keySet());
+		assertTrue(expected.compile() == 0);
+		assertTrue(actual.compile() == 0);
+		HlaBufferGenerator hlaBufferGenerator = new HlaBufferGenerator(expected, new Random(1516));
+		for (Map.Entry<String, HlaDataType> entry : expected.dataTypeMap.entrySet()) {
+			String name = entry.getKey();
+			HlaDataType expectedType = entry.getValue();
+			HlaDataType actualType = actual.dataTypeMap.get(name);
+			assertEquals(name, expectedType.getClass(), actualType.getClass());
+			assertEquals(name, expectedType.getElementTypeName(), actualType.getElementTypeName());
+			assertEquals(name, expectedType.getDataSizeFixed(), actualType.getDataSizeFixed());
+			assertEquals(name, expectedType.getDataSize(), actualType.getDataSize());
+			assertEquals(name, expectedType.getAlignment(expected), actualType.getAlignment(actual));
+			HlaDataTypeLayout expectedLayout = expectedType.getLayout();
+			HlaDataTypeLayout actualLayout = actualType.getLayout();
+			assertEquals(name, expectedLayout.getAlignment(), actualLayout.getAlignment());
+			assertEquals(name, expectedLayout.isFixedSize(), actualLayout.isFixedSize());
+			assertEquals(name, expectedLayout.getEncodedSize(), actualLayout.getEncodedSize());
+			assertEquals(name, expectedLayout.containsEnums(), actualLayout.containsEnums());
+			// Field types, enumerators and array bounds show in the results on correct and defective buffers
+			for (int i = 0; i < 5; i++) {
+				byte[] buffer = hlaBufferGenerator.generate(expectedType);
+				assertEquals(name, buffer.length, actual.testBuffer(actualType, buffer));
+				for (HlaBufferGenerator.Defect defect : HlaBufferGenerator.Defect.values()) {
+					buffer = hlaBufferGenerator.generate(expectedType, defect);
+					if (buffer != null) {
+						assertEquals(name + " " + defect, testResult(expected, expectedType, buffer), testResult(actual, actualType, buffer));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compare the handle maps of two builds of the same SOM with the same RTI
+	 */
+	public static void assertSameHandleMaps(final Map<InteractionClassHandle, Set<ParameterHandle>> expectedInteractionClassHandleMap, final Map<ParameterHandle, String> expectedParameterHandleDataTypeMap, final Map<ObjectClassHandle, ObjectClassData> expectedObjectClassAttributeHandleMap, final Map<AttributeHandle, String> expectedAttributeHandleDataTypeMap,
+			final Map<InteractionClassHandle, Set<ParameterHandle>> interactionClassHandleMap, final Map<ParameterHandle, String> parameterHandleDataTypeMap, final Map<ObjectClassHandle, ObjectClassData> objectClassAttributeHandleMap, final Map<AttributeHandle, String> attributeHandleDataTypeMap) {
+		assertTrue(expectedAttributeHandleDataTypeMap.isEmpty() == false);
+		assertTrue(expectedParameterHandleDataTypeMap.isEmpty() == false);
+		assertEquals(expectedInteractionClassHandleMap, interactionClassHandleMap);
+		assertEquals(expectedParameterHandleDataTypeMap, parameterHandleDataTypeMap);
+		assertEquals(expectedAttributeHandleDataTypeMap, attributeHandleDataTypeMap);
+		assertEquals(expectedObjectClassAttributeHandleMap.keySet(), objectClassAttributeHandleMap.keySet());
+		for (Map.Entry<ObjectClassHandle, ObjectClassData> entry : expectedObjectClassAttributeHandleMap.entrySet()) {
+			ObjectClassData expectedData = entry.getValue();
+			ObjectClassData data = objectClassAttributeHandleMap.get(entry.getKey());
+			assertEquals(expectedData.classLevelDepth, data.classLevelDepth);
+			assertEquals(expectedData.attributeHandleSet.size(), data.attributeHandleSet.size());
+			assertTrue(expectedData.attributeHandleSet.containsAll(data.attributeHandleSet));
+		}
+	}
+
+
+	@Test
+	public void testStreamedSom() throws Exception {
+		// Both builds get the same handles from one RTI, the first creates them
+		RtiJunitImpl rtiImpl = new RtiJunitImpl();
+		File f = new File("src/test/resources/RPR_FOM_v2.0_1516-2010.xml");
+
+		HlaDataTypes domDataTypes = new HlaDataTypes();
+		Map<InteractionClassHandle, Set<ParameterHandle>> domInteractionClassHandleMap = new HashMap<InteractionClassHandle, Set<ParameterHandle>>();
+		Map<ParameterHandle, String> domParameterHandleDataTypeMap = new HashMap<ParameterHandle, String>();
+		Map<ObjectClassHandle, ObjectClassData> domObjectClassAttributeHandleMap = new HashMap<ObjectClassHandle, ObjectClassData>();
+		Map<AttributeHandle, String> domAttributeHandleDataTypeMap = new HashMap<AttributeHandle, String>();
+		DataTreeBuilder domBuilder = new DataTreeBuilder(rtiImpl, domDataTypes, domInteractionClassHandleMap, domParameterHandleDataTypeMap, domObjectClassAttributeHandleMap, domAttributeHandleDataTypeMap);
+		Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(f);
+		assertTrue("DOM build", domBuilder.buildData(document.getDocumentElement()) == false);
+		rtiImpl.setGenerateNewHandles(false);
+
+		HlaDataTypes streamDataTypes = new HlaDataTypes();
+		Map<InteractionClassHandle, Set<ParameterHandle>> streamInteractionClassHandleMap = new HashMap<InteractionClassHandle, Set<ParameterHandle>>();
+		Map<ParameterHandle, String> streamParameterHandleDataTypeMap = new HashMap<ParameterHandle, String>();
+		Map<ObjectClassHandle, ObjectClassData> streamObjectClassAttributeHandleMap = new HashMap<ObjectClassHandle, ObjectClassData>();
+		Map<AttributeHandle, String> streamAttributeHandleDataTypeMap = new HashMap<AttributeHandle, String>();
+		DataTreeBuilder streamBuilder = new DataTreeBuilder(rtiImpl, streamDataTypes, streamInteractionClassHandleMap, streamParameterHandleDataTypeMap, streamObjectClassAttributeHandleMap, streamAttributeHandleDataTypeMap);
+		try (InputStream inputStream = new FileInputStream(f)) {
+			assertTrue("StAX build", streamBuilder.buildData(inputStream, f.toURI().toString()) == false);
+		}
+
+		assertSameDataTypes(domDataTypes, streamDataTypes);
+		assertSameHandleMaps(domInteractionClassHandleMap, domParameterHandleDataTypeMap, domObjectClassAttributeHandleMap, domAttributeHandleDataTypeMap,
+				streamInteractionClassHandleMap, streamParameterHandleDataTypeMap, streamObjectClassAttributeHandleMap, streamAttributeHandleDataTypeMap);
+	}
+}
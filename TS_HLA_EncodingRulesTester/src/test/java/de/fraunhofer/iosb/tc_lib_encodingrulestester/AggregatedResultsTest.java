@@ -0,0 +1,161 @@
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/*
+ * Tests of the aggregation of the attribute results of removed object instances
+ */
+public class AggregatedResultsTest {
+
+	/**
+	 * @param correct the number of correct buffers
+	 * @param incorrect the number of incorrect buffers
+	 * @param skipped the number of skipped buffers
+	 * @return the results of one attribute
+	 */
+	private static ResultInfoAttribute result(final int correct, final int incorrect, final int skipped) {
+		ResultInfoAttribute resultInfo = new ResultInfoAttribute();
+		for (int i = 0; i < correct; i++) {
+			resultInfo.addInfo(true, "correct");
+		}
+		for (int i = 0; i < incorrect; i++) {
+			resultInfo.addInfo(false, "incorrect " + i);
+		}
+		for (int i = 0; i < skipped; i++) {
+			resultInfo.addSkipped();
+		}
+		return resultInfo;
+	}
+
+	/**
+	 * @param count the number of attributes
+	 * @return the attribute ids 0 to count - 1
+	 */
+	private static HandleIndex.MemberIds ids(final int count) {
+		int[] ids = new int[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = i;
+		}
+		return new HandleIndex.MemberIds(ids);
+	}
+
+	/**
+	 * @param attributeIds the attribute ids of the instance
+	 * @param results the results indexed by local attribute id, null if not managed
+	 * @return the results of one object instance
+	 */
+	private static ResultStore.MemberResults<ResultInfoAttribute> instance(final HandleIndex.MemberIds attributeIds, final ResultInfoAttribute... results) {
+		ResultStore.MemberResults<ResultInfoAttribute> attributeResults = new ResultStore.MemberResults<ResultInfoAttribute>(attributeIds);
+		for (int i = 0; i < results.length; i++) {
+			attributeResults.compareAndSet(i, null, results[i]);
+		}
+		return attributeResults;
+	}
+
+	/**
+	 * @param results the results indexed by attribute id, null if not managed
+	 * @return the results of one object instance with the attribute ids 0 to the number of results - 1
+	 */
+	private static ResultStore.MemberResults<ResultInfoAttribute> instance(final ResultInfoAttribute... results) {
+		return instance(ids(results.length), results);
+	}
+
+	@Test
+	public void testFailingInstancesOrder() {
+		AggregatedResults aggregatedResults = new AggregatedResults(ids(1), 3);
+		int[] incorrect = {2, 5, 1, 5, 7, 3};
+		for (int i = 0; i < incorrect.length; i++) {
+			aggregatedResults.add("obj" + i, instance(result(1, incorrect[i], 0)));
+		}
+		// The three most failing instances, on equal counts the first removed one first
+		List<AggregatedResults.FailingInstance> failingInstances = aggregatedResults.getFailingInstances(0);
+		assertEquals(3, failingInstances.size());
+		assertEquals("obj4", failingInstances.get(0).getObjectName());
+		assertEquals(7, failingInstances.get(0).getIncorrectCount());
+		assertEquals("obj1", failingInstances.get(1).getObjectName());
+		assertEquals(5, failingInstances.get(1).getIncorrectCount());
+		assertEquals("obj3", failingInstances.get(2).getObjectName());
+		assertEquals(5, failingInstances.get(2).getIncorrectCount());
+		assertEquals("incorrect 6", failingInstances.get(0).getText());
+		assertEquals(6, aggregatedResults.getInstanceCount());
+		assertEquals(23, aggregatedResults.getIncorrectCount(0));
+	}
+
+	@Test
+	public void testFailingInstancesBounds() {
+		AggregatedResults aggregatedResults = new AggregatedResults(ids(2), 2);
+		// Attribute 0 never fails, attribute 1 fails in more instances than kept
+		for (int i = 0; i < 10; i++) {
+			aggregatedResults.add("obj" + i, instance(result(3, 0, 0), result(0, i + 1, 0)));
+		}
+		assertTrue(aggregatedResults.getFailingInstances(0).isEmpty());
+		List<AggregatedResults.FailingInstance> failingInstances = aggregatedResults.getFailingInstances(1);
+		assertEquals(2, failingInstances.size());
+		assertEquals("obj9", failingInstances.get(0).getObjectName());
+		assertEquals("obj8", failingInstances.get(1).getObjectName());
+
+		// None kept
+		AggregatedResults noneKept = new AggregatedResults(ids(1), 0);
+		noneKept.add("obj", instance(result(0, 4, 0)));
+		assertTrue(noneKept.getFailingInstances(0).isEmpty());
+		assertEquals(4, noneKept.getIncorrectCount(0));
+
+		// Results of attributes not of the class are ignored
+		AggregatedResults shorter = new AggregatedResults(ids(1), 1);
+		shorter.add("obj", instance(result(1, 0, 0), result(0, 1, 0)));
+		assertEquals(1, shorter.getCorrectCount(0));
+		assertEquals(0, shorter.getIncorrectCount(0));
+	}
+
+	@Test
+	public void testCounts() {
+		AggregatedResults aggregatedResults = new AggregatedResults(ids(3), 5);
+		aggregatedResults.add("obj0", instance(result(2, 1, 1), result(0, 0, 0), null));
+		aggregatedResults.add(null, instance(result(4, 0, 2), result(0, 0, 3), null));
+		assertEquals(2, aggregatedResults.getInstanceCount());
+		assertEquals(2, aggregatedResults.getManagedCount(0));
+		assertEquals(6, aggregatedResults.getCorrectCount(0));
+		assertEquals(1, aggregatedResults.getIncorrectCount(0));
+		assertEquals(3, aggregatedResults.getSkippedCount(0));
+		assertEquals(0, aggregatedResults.getNotUpdatedCount(0));
+		// Managed without a tested buffer, skipped ones do not count as updated
+		assertEquals(2, aggregatedResults.getManagedCount(1));
+		assertEquals(2, aggregatedResults.getNotUpdatedCount(1));
+		assertEquals(3, aggregatedResults.getSkippedCount(1));
+		// Not managed
+		assertEquals(0, aggregatedResults.getManagedCount(2));
+		assertEquals(0, aggregatedResults.getNotUpdatedCount(2));
+	}
+
+	@Test
+	public void testLocalIds() {
+		// The class has the attribute ids 2, 5 and 7, local ids 0, 1 and 2
+		HandleIndex.MemberIds classIds = new HandleIndex.MemberIds(new int[] {7, 2, 5});
+		assertEquals(3, classIds.size());
+		assertEquals(5, classIds.getId(1));
+		assertEquals(2, classIds.getLocalId(7));
+		assertEquals(-1, classIds.getLocalId(3));
+		assertEquals(-1, classIds.getLocalId(-1));
+		AggregatedResults aggregatedResults = new AggregatedResults(classIds, 1);
+		aggregatedResults.add("obj0", instance(classIds, result(1, 0, 0), result(2, 1, 0), null));
+		// Managed without its class, with the ids of all attributes
+		ResultInfoAttribute[] results = new ResultInfoAttribute[8];
+		results[3] = result(10, 10, 0);
+		results[5] = result(3, 2, 0);
+		results[7] = result(0, 0, 1);
+		aggregatedResults.add("obj1", instance(ids(8), results));
+		assertEquals(2, aggregatedResults.getInstanceCount());
+		assertEquals(1, aggregatedResults.getManagedCount(0));
+		assertEquals(2, aggregatedResults.getManagedCount(1));
+		assertEquals(5, aggregatedResults.getCorrectCount(1));
+		assertEquals(3, aggregatedResults.getIncorrectCount(1));
+		assertEquals("obj1", aggregatedResults.getFailingInstances(1).get(0).getObjectName());
+		assertEquals(1, aggregatedResults.getManagedCount(2));
+		assertEquals(1, aggregatedResults.getSkippedCount(2));
+	}
+}
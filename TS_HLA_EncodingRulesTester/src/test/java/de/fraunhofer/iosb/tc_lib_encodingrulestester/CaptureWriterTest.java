@@ -0,0 +1,76 @@
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/*
+ * Round trip of the buffers through CaptureWriter and CaptureReader
+ */
+public class CaptureWriterTest {
+	private static final int SEGMENT_SIZE = 64;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static byte[] value(final int length, final int seed) {
+		byte[] value = new byte[length];
+		for (int i = 0; i < length; i++) {
+			value[i] = (byte) (seed + i);
+		}
+		return value;
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		File captureFile = folder.newFile("test.cap");
+		char[] longName = new char[40000];
+		// Three octets per character in UTF-8, longer than a short length
+		Arrays.fill(longName, '\u20ac');
+		String[] objectNames = {"entity0", "\u00e9ntit\u00e9 \u20ac", null, new String(longName), ""};
+		int count = 50;
+		CaptureWriter captureWriter = new CaptureWriter(captureFile, SEGMENT_SIZE);
+		for (int i = 0; i < count; i++) {
+			// Records of different sizes fall at the segment ends, some are larger than a segment
+			if (i % 2 == 0) {
+				captureWriter.writeAttribute("HLAobjectRoot.BaseEntity", objectNames[i % objectNames.length], "EntityType", value(i * 7 % 100, i));
+			} else {
+				captureWriter.writeParameter(i % 3 == 0 ? null : "HLAinteractionRoot.Comment", "OriginatingEntity", value(i * 5 % 30, i));
+			}
+		}
+		assertEquals(count, captureWriter.getRecordCount());
+		captureWriter.close();
+		assertTrue("several segments", captureFile.length() > 3 * SEGMENT_SIZE);
+
+		try (CaptureReader captureReader = new CaptureReader(captureFile)) {
+			long lastTime = -1;
+			for (int i = 0; i < count; i++) {
+				CaptureRecord record = captureReader.next();
+				if (i % 2 == 0) {
+					assertTrue(record.isAttribute());
+					assertEquals("HLAobjectRoot.BaseEntity", record.getClassName());
+					assertEquals(objectNames[i % objectNames.length], record.getObjectName());
+					assertEquals("EntityType", record.getMemberName());
+					assertArrayEquals("record " + i, value(i * 7 % 100, i), record.getValue());
+				} else {
+					assertTrue(record.isAttribute() == false);
+					assertEquals(i % 3 == 0 ? null : "HLAinteractionRoot.Comment", record.getClassName());
+					assertNull(record.getObjectName());
+					assertEquals("OriginatingEntity", record.getMemberName());
+					assertArrayEquals("record " + i, value(i * 5 % 30, i), record.getValue());
+				}
+				assertTrue(record.getTime() >= lastTime);
+				lastTime = record.getTime();
+			}
+			assertNull(captureReader.next());
+		}
+	}
+}
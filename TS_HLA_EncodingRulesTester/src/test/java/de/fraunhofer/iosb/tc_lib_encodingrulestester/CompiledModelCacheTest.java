@@ -0,0 +1,66 @@
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+
+import de.fraunhofer.iosb.ivct.AllTests;
+import de.fraunhofer.iosb.ivct.RtiJunitImpl;
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ParameterHandle;
+
+/*
+ * Round trip of the RPR FOM model through the cache file
+ */
+public class CompiledModelCacheTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testStoreLoad() throws Exception {
+		File f = new File("src/test/resources/RPR_FOM_v2.0_1516-2010.xml");
+		URL[] somUrls = { f.toURI().toURL() };
+		File directory = folder.newFolder("cache");
+		// The load gets the handles created by the build from the same RTI
+		RtiJunitImpl rtiImpl = new RtiJunitImpl();
+
+		CompiledModelCache storeCache = new CompiledModelCache(directory, somUrls);
+		HlaDataTypes hlaDataTypes = new HlaDataTypes();
+		Map<InteractionClassHandle, Set<ParameterHandle>> interactionClassHandleMap = new HashMap<InteractionClassHandle, Set<ParameterHandle>>();
+		Map<ParameterHandle, String> parameterHandleDataTypeMap = new HashMap<ParameterHandle, String>();
+		Map<ObjectClassHandle, ObjectClassData> objectClassAttributeHandleMap = new HashMap<ObjectClassHandle, ObjectClassData>();
+		Map<AttributeHandle, String> attributeHandleDataTypeMap = new HashMap<AttributeHandle, String>();
+		DataTreeBuilder dataTreeBuilder = new DataTreeBuilder(storeCache.recordingAmbassador(rtiImpl), hlaDataTypes, interactionClassHandleMap, parameterHandleDataTypeMap, objectClassAttributeHandleMap, attributeHandleDataTypeMap);
+		Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(f);
+		assertFalse(dataTreeBuilder.buildData(document.getDocumentElement()));
+		assertFalse("stored", storeCache.store(hlaDataTypes, interactionClassHandleMap, parameterHandleDataTypeMap, objectClassAttributeHandleMap, attributeHandleDataTypeMap));
+		assertTrue(storeCache.getCacheFile().isFile());
+		rtiImpl.setGenerateNewHandles(false);
+
+		CompiledModelCache loadCache = new CompiledModelCache(directory, somUrls);
+		HlaDataTypes loadedDataTypes = new HlaDataTypes();
+		Map<InteractionClassHandle, Set<ParameterHandle>> loadedInteractionClassHandleMap = new HashMap<InteractionClassHandle, Set<ParameterHandle>>();
+		Map<ParameterHandle, String> loadedParameterHandleDataTypeMap = new HashMap<ParameterHandle, String>();
+		Map<ObjectClassHandle, ObjectClassData> loadedObjectClassAttributeHandleMap = new HashMap<ObjectClassHandle, ObjectClassData>();
+		Map<AttributeHandle, String> loadedAttributeHandleDataTypeMap = new HashMap<AttributeHandle, String>();
+		assertTrue("loaded", loadCache.load(rtiImpl, loadedDataTypes, loadedInteractionClassHandleMap, loadedParameterHandleDataTypeMap, loadedObjectClassAttributeHandleMap, loadedAttributeHandleDataTypeMap));
+
+		AllTests.assertSameDataTypes(hlaDataTypes, loadedDataTypes);
+		AllTests.assertSameHandleMaps(interactionClassHandleMap, parameterHandleDataTypeMap, objectClassAttributeHandleMap, attributeHandleDataTypeMap,
+				loadedInteractionClassHandleMap, loadedParameterHandleDataTypeMap, loadedObjectClassAttributeHandleMap, loadedAttributeHandleDataTypeMap);
+	}
+}
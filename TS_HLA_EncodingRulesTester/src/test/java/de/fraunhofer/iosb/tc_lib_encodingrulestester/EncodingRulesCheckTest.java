@@ -0,0 +1,52 @@
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/*
+ * Test of the offline check of a capture file against the RPR FOM
+ */
+public class EncodingRulesCheckTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testCheckCapture() throws Exception {
+		File captureFile = folder.newFile("test.cap");
+		// More buffers than fit in a batch, so that full and partly filled batches are tested
+		int correctAttributes = 2 * EncodingRulesCheck.BATCH_SIZE + 10;
+		CaptureWriter captureWriter = new CaptureWriter(captureFile, 4096);
+		// EntityTypeStruct has 8 octets
+		for (int i = 0; i < correctAttributes; i++) {
+			captureWriter.writeAttribute("HLAobjectRoot.BaseEntity", "entity" + (i % 3), "EntityType", new byte[] {1, 2, 0, (byte) i, 4, 5, 6, 7});
+		}
+		for (int i = 0; i < 3; i++) {
+			captureWriter.writeAttribute("HLAobjectRoot.BaseEntity", "broken", "EntityType", new byte[] {1, 2, 0, 3, 4, 5, 6});
+		}
+		// EntityIdentifierStruct has 6 octets
+		for (int i = 0; i < 5; i++) {
+			captureWriter.writeParameter("HLAinteractionRoot.Comment", "OriginatingEntity", new byte[] {0, 1, 0, 2, 0, (byte) i});
+		}
+		// Not in the SOM and empty, both skipped
+		captureWriter.writeAttribute("HLAobjectRoot.Unknown", "entity0", "EntityType", new byte[] {1});
+		captureWriter.writeParameter("HLAinteractionRoot.Comment", "OriginatingEntity", new byte[0]);
+		captureWriter.close();
+
+		EncodingRulesCheck encodingRulesCheck = new EncodingRulesCheck(2);
+		encodingRulesCheck.readSom(Arrays.asList(new File("src/test/resources/RPR_FOM_v2.0_1516-2010.xml")));
+		encodingRulesCheck.readCapture(captureFile);
+		encodingRulesCheck.testAll();
+
+		assertEquals(3, encodingRulesCheck.getIncorrect());
+		String summary = encodingRulesCheck.getSummary();
+		assertTrue(summary, summary.contains("CORRECT: " + (correctAttributes + 5) + " INCORRECT: 3\n"));
+		assertTrue(summary, summary.contains("Capture files: BUFFERS: " + (correctAttributes + 3 + 5 + 2) + " SKIPPED: 2\n"));
+	}
+}
@@ -0,0 +1,154 @@
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/*
+ * Tests of the lookup of the enumerator values by range, table and hash
+ */
+public class EnumValueSetTest {
+
+	/**
+	 * @param values the enumerator values
+	 * @return the enumerator names per value, the name of a value is "E" and the value
+	 */
+	private static Map<Long, String> enumValueMap(final long... values) {
+		Map<Long, String> enumValueMap = new LinkedHashMap<Long, String>();
+		for (long value : values) {
+			enumValueMap.put(value, "E" + value);
+		}
+		return enumValueMap;
+	}
+
+	/**
+	 * Check that every enumerator has its own slot and its name, and that
+	 * the given other values are not found
+	 *
+	 * @param enumValueSet the value set
+	 * @param enumValueMap the enumerator names per value
+	 * @param others values which are not enumerators
+	 */
+	private static void checkSlots(final EnumValueSet enumValueSet, final Map<Long, String> enumValueMap, final long... others) {
+		assertEquals(enumValueMap.size(), enumValueSet.size());
+		Set<Integer> slots = new HashSet<Integer>();
+		for (Map.Entry<Long, String> entry : enumValueMap.entrySet()) {
+			int slot = enumValueSet.slot(entry.getKey());
+			assertTrue("slot of " + entry.getKey(), slot >= 0 && slot < enumValueSet.size());
+			assertTrue("one slot per value " + entry.getKey(), slots.add(slot));
+			assertEquals(entry.getValue(), enumValueSet.name(slot));
+		}
+		for (long other : others) {
+			assertEquals("not an enumerator " + other, -1, enumValueSet.slot(other));
+		}
+	}
+
+	@Test
+	public void testRange() {
+		Map<Long, String> enumValueMap = enumValueMap(3, -2, -1, 0, 2, 1);
+		EnumValueSet enumValueSet = EnumValueSet.create(enumValueMap);
+		assertEquals(EnumValueSet.RANGE, enumValueSet.kind());
+		checkSlots(enumValueSet, enumValueMap, -3, 4, Long.MIN_VALUE, Long.MAX_VALUE);
+		// The slot is the offset from the minimum
+		assertEquals(0, enumValueSet.slot(-2));
+		assertEquals(5, enumValueSet.slot(3));
+
+		// At the ends of the 64-bit values
+		enumValueMap = enumValueMap(Long.MAX_VALUE, Long.MAX_VALUE - 1);
+		enumValueSet = EnumValueSet.create(enumValueMap);
+		assertEquals(EnumValueSet.RANGE, enumValueSet.kind());
+		checkSlots(enumValueSet, enumValueMap, Long.MAX_VALUE - 2, Long.MIN_VALUE, 0);
+		enumValueMap = enumValueMap(Long.MIN_VALUE);
+		enumValueSet = EnumValueSet.create(enumValueMap);
+		assertEquals(EnumValueSet.RANGE, enumValueSet.kind());
+		checkSlots(enumValueSet, enumValueMap, Long.MIN_VALUE + 1, Long.MAX_VALUE, -1, 0);
+
+		// No enumerators
+		enumValueSet = EnumValueSet.create(enumValueMap());
+		assertEquals(0, enumValueSet.size());
+		checkSlots(enumValueSet, enumValueMap(), 0, 1, -1, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	@Test
+	public void testTable() {
+		Map<Long, String> enumValueMap = enumValueMap(0, 1, 5, 7, 100);
+		EnumValueSet enumValueSet = EnumValueSet.create(enumValueMap);
+		assertEquals(EnumValueSet.TABLE, enumValueSet.kind());
+		checkSlots(enumValueSet, enumValueMap, -1, 2, 3, 4, 6, 8, 99, 101, Long.MIN_VALUE, Long.MAX_VALUE);
+
+		// Negative values with gaps
+		enumValueMap = enumValueMap(-100, -1, 3, -50);
+		enumValueSet = EnumValueSet.create(enumValueMap);
+		assertEquals(EnumValueSet.TABLE, enumValueSet.kind());
+		checkSlots(enumValueSet, enumValueMap, -101, -99, -51, -49, -2, 0, 1, 2, 4);
+
+		// Gaps at the ends of the 64-bit values
+		enumValueMap = enumValueMap(Long.MIN_VALUE, Long.MIN_VALUE + 10);
+		enumValueSet = EnumValueSet.create(enumValueMap);
+		assertEquals(EnumValueSet.TABLE, enumValueSet.kind());
+		checkSlots(enumValueSet, enumValueMap, Long.MIN_VALUE + 1, Long.MIN_VALUE + 9, Long.MIN_VALUE + 11, Long.MAX_VALUE, 0);
+	}
+
+	@Test
+	public void testHash() {
+		// The span of the values does not fit in a long
+		Map<Long, String> enumValueMap = enumValueMap(Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE, 1L << 40, -(1L << 40), 0xffffffffL);
+		EnumValueSet enumValueSet = EnumValueSet.create(enumValueMap);
+		assertEquals(EnumValueSet.HASH, enumValueSet.kind());
+		checkSlots(enumValueSet, enumValueMap, Long.MIN_VALUE + 1, Long.MAX_VALUE - 1, -2, 2, (1L << 40) + 1, 0x100000000L, 0x7fffffffL);
+
+		// A sparse set within a small range
+		enumValueMap = enumValueMap(0, 1000000);
+		enumValueSet = EnumValueSet.create(enumValueMap);
+		assertEquals(EnumValueSet.HASH, enumValueSet.kind());
+		checkSlots(enumValueSet, enumValueMap, 1, 999999, 500000, 1000001, -1);
+
+		// Many random values, those with the same hash index are probed
+		Random random = new Random(1516);
+		long[] values = new long[1000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextLong();
+		}
+		enumValueMap = enumValueMap(values);
+		enumValueSet = EnumValueSet.create(enumValueMap);
+		assertEquals(EnumValueSet.HASH, enumValueSet.kind());
+		long[] others = new long[2000];
+		for (int i = 0; i < others.length; i++) {
+			do {
+				others[i] = i % 2 == 0 ? random.nextLong() : values[i / 2] + 1;
+			} while (enumValueMap.containsKey(others[i]));
+		}
+		checkSlots(enumValueSet, enumValueMap, others);
+	}
+
+	@Test
+	public void testEnumType() {
+		HlaDataTypes hlaDataTypes = new HlaDataTypes();
+		HlaDataBasicType hlaDataBasicType = new HlaDataBasicType("HLAinteger64BE", 64, true);
+		hlaDataTypes.dataTypeMap.put("HLAinteger64BE", hlaDataBasicType);
+		HlaDataEnumType hlaDataEnumType = new HlaDataEnumType("TestEnum", hlaDataBasicType);
+		hlaDataEnumType.addEnumValue(-5L, "Minus");
+		hlaDataEnumType.addEnumValue(Long.MAX_VALUE, "Max");
+		hlaDataEnumType.addEnumValue(7L, "Seven");
+		// An enumerator with the value of another one replaces its name
+		hlaDataEnumType.addEnumValue(-5L, "Other");
+		hlaDataTypes.dataTypeMap.put("TestEnum", hlaDataEnumType);
+		assertEquals(0, hlaDataTypes.compile());
+
+		assertEquals(3, hlaDataEnumType.getEnumCount());
+		assertEquals("Other", hlaDataEnumType.getEnumSlotString(hlaDataEnumType.getEnumSlot(-5)));
+		assertEquals("Max", hlaDataEnumType.getEnumSlotString(hlaDataEnumType.getEnumSlot(Long.MAX_VALUE)));
+		assertEquals("Seven", hlaDataEnumType.getEnumSlotString(hlaDataEnumType.getEnumSlot(7)));
+		assertEquals(-1, hlaDataEnumType.getEnumSlot(0));
+		assertEquals(-1, hlaDataEnumType.getEnumSlot(-6));
+		assertEquals(-1, hlaDataEnumType.getEnumSlot(Long.MIN_VALUE));
+		assertEquals(-1, hlaDataEnumType.getEnumSlot(Long.MAX_VALUE - 1));
+	}
+}
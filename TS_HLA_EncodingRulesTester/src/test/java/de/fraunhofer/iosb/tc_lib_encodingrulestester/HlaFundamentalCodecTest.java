@@ -0,0 +1,174 @@
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/*
+ * Tests of the decoding and encoding of the basic data representations,
+ * against the byte order handling of ByteBuffer
+ */
+public class HlaFundamentalCodecTest {
+	private static final String[] INTEGER_NAMES = {
+		"HLAinteger16BE", "HLAinteger32BE", "HLAinteger64BE", "HLAoctetPairBE",
+		"HLAinteger16LE", "HLAinteger32LE", "HLAinteger64LE", "HLAoctetPairLE",
+		"HLAoctet", "UnsignedShort",
+		"RPRunsignedInteger16BE", "RPRunsignedInteger32BE", "RPRunsignedInteger64BE", "RPRunsignedInteger8BE"
+	};
+	// Sign bits set in all sizes, the other octets all different and non-zero
+	private static final long[] VALUES = { 0x8192a3b4c5d6e7f8L, 0xfedcba9876543210L, -2L, 0x80000001L, 0x7f8e9dac, 0x0123456789abcdefL, 0x8001L, 0x80L };
+	// The value is put behind this many filler octets
+	private static final int POSITION = 3;
+	private static final byte FILLER = 0x5a;
+
+	/**
+	 * @param codec the codec
+	 * @param bits the value, only the octets of the representation are used
+	 * @return a buffer with the value at POSITION written by ByteBuffer, surrounded by filler octets
+	 */
+	private static byte[] buffer(final HlaFundamentalCodec codec, final long bits) {
+		byte[] buffer = new byte[POSITION + codec.getSize() + 2];
+		Arrays.fill(buffer, FILLER);
+		ByteBuffer byteBuffer = ByteBuffer.wrap(buffer).order(codec.isBigEndian() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+		switch (codec.getSize()) {
+		case 1:
+			byteBuffer.put(POSITION, (byte) bits);
+			break;
+		case 2:
+			byteBuffer.putShort(POSITION, (short) bits);
+			break;
+		case 4:
+			byteBuffer.putInt(POSITION, (int) bits);
+			break;
+		default:
+			byteBuffer.putLong(POSITION, bits);
+			break;
+		}
+		return buffer;
+	}
+
+	/**
+	 * @param size the number of octets
+	 * @param bits the value
+	 * @return the octets of the value, zero extended
+	 */
+	private static long zeroExtended(final int size, final long bits) {
+		return size == 8 ? bits : bits & ((1L << (size * 8)) - 1);
+	}
+
+	/**
+	 * @param size the number of octets
+	 * @param bits the value
+	 * @return the octets of the value, sign extended
+	 */
+	private static long signExtended(final int size, final long bits) {
+		int shift = 64 - size * 8;
+		return (bits << shift) >> shift;
+	}
+
+	@Test
+	public void testIntegers() {
+		for (String name : INTEGER_NAMES) {
+			HlaFundamentalCodec codec = HlaFundamentalCodec.forName(name);
+			assertEquals(name, name, codec.getName());
+			for (long value : VALUES) {
+				byte[] buffer = buffer(codec, value);
+				String message = name + " " + Long.toHexString(value);
+				assertEquals(message, zeroExtended(codec.getSize(), value), codec.decodeBits(buffer, POSITION));
+				long expected = codec.isSigned() ? signExtended(codec.getSize(), value) : zeroExtended(codec.getSize(), value);
+				assertEquals(message, expected, codec.decodeLong(buffer, POSITION));
+			}
+		}
+	}
+
+	@Test
+	public void testSignedness() {
+		byte[] buffer = { (byte) 0xff, (byte) 0xfe, (byte) 0xfd, (byte) 0xfc, (byte) 0xfb, (byte) 0xfa, (byte) 0xf9, (byte) 0xf8 };
+		assertEquals(-1, HlaFundamentalCodec.forName("HLAoctet").decodeLong(buffer, 0));
+		assertEquals(0xff, HlaFundamentalCodec.forName("RPRunsignedInteger8BE").decodeLong(buffer, 0));
+		assertEquals(-2, HlaFundamentalCodec.forName("HLAinteger16BE").decodeLong(buffer, 0));
+		assertEquals(-257, HlaFundamentalCodec.forName("HLAinteger16LE").decodeLong(buffer, 0));
+		assertEquals(0xfffe, HlaFundamentalCodec.forName("RPRunsignedInteger16BE").decodeLong(buffer, 0));
+		assertEquals(0xfffefdfcL, HlaFundamentalCodec.forName("RPRunsignedInteger32BE").decodeLong(buffer, 0));
+		assertEquals(0xfcfdfeffL - 0x100000000L, HlaFundamentalCodec.forName("HLAinteger32LE").decodeLong(buffer, 0));
+		assertEquals(0xfffefdfcfbfaf9f8L, HlaFundamentalCodec.forName("HLAinteger64BE").decodeLong(buffer, 0));
+		assertEquals(0xf8f9fafbfcfdfeffL, HlaFundamentalCodec.forName("HLAinteger64LE").decodeLong(buffer, 0));
+	}
+
+	@Test
+	public void testFloats() {
+		float[] floats = { -1.5e-3f, -Float.MIN_VALUE, -Float.MAX_VALUE, Float.NEGATIVE_INFINITY, -0.0f, 3.25f };
+		for (String name : new String[] { "HLAfloat32BE", "HLAfloat32LE" }) {
+			HlaFundamentalCodec codec = HlaFundamentalCodec.forName(name);
+			assertEquals(HlaFundamentalCodec.Kind.FLOAT, codec.getKind());
+			for (float value : floats) {
+				byte[] buffer = buffer(codec, Float.floatToRawIntBits(value));
+				assertEquals(name + " " + value, Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(codec.decodeDouble(buffer, POSITION)));
+			}
+			byte[] buffer = buffer(codec, Float.floatToRawIntBits(Float.NaN));
+			assertEquals(name, Double.NaN, codec.decodeDouble(buffer, POSITION), 0);
+		}
+		double[] doubles = { -123.456, -Double.MIN_VALUE, -Double.MAX_VALUE, Double.NEGATIVE_INFINITY, -0.0, 1.0e300 };
+		for (String name : new String[] { "HLAfloat64BE", "HLAfloat64LE" }) {
+			HlaFundamentalCodec codec = HlaFundamentalCodec.forName(name);
+			assertEquals(HlaFundamentalCodec.Kind.FLOAT, codec.getKind());
+			for (double value : doubles) {
+				byte[] buffer = buffer(codec, Double.doubleToRawLongBits(value));
+				assertEquals(name + " " + value, Double.doubleToRawLongBits(value), Double.doubleToRawLongBits(codec.decodeDouble(buffer, POSITION)));
+			}
+		}
+	}
+
+	@Test
+	public void testEncodeBits() {
+		String[] names = Arrays.copyOf(INTEGER_NAMES, INTEGER_NAMES.length + 4);
+		names[INTEGER_NAMES.length] = "HLAfloat32BE";
+		names[INTEGER_NAMES.length + 1] = "HLAfloat32LE";
+		names[INTEGER_NAMES.length + 2] = "HLAfloat64BE";
+		names[INTEGER_NAMES.length + 3] = "HLAfloat64LE";
+		for (String name : names) {
+			HlaFundamentalCodec codec = HlaFundamentalCodec.forName(name);
+			for (long value : VALUES) {
+				String message = name + " " + Long.toHexString(value);
+				byte[] buffer = new byte[POSITION + codec.getSize() + 2];
+				Arrays.fill(buffer, FILLER);
+				codec.encodeBits(buffer, POSITION, value);
+				// The same octets as ByteBuffer writes, the octets around are not touched
+				assertEquals(message, Arrays.toString(buffer(codec, value)), Arrays.toString(buffer));
+				assertEquals(message, zeroExtended(codec.getSize(), value), codec.decodeBits(buffer, POSITION));
+			}
+		}
+	}
+
+	@Test
+	public void testEnumerator() {
+		byte[] buffer = { (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff };
+		// One octet according to its signedness, wider values zero extended
+		assertEquals(-1, HlaFundamentalCodec.forName("HLAoctet").decodeEnumerator(buffer, 0));
+		assertEquals(0xff, HlaFundamentalCodec.forName("RPRunsignedInteger8BE").decodeEnumerator(buffer, 0));
+		assertEquals(0xffff, HlaFundamentalCodec.forName("HLAinteger16BE").decodeEnumerator(buffer, 0));
+		assertEquals(0xffffffffL, HlaFundamentalCodec.forName("HLAinteger32LE").decodeEnumerator(buffer, 0));
+		assertEquals(-1, HlaFundamentalCodec.forName("HLAinteger64BE").decodeEnumerator(buffer, 0));
+		assertEquals(0, HlaFundamentalCodec.forName("HLAfloat64BE").decodeEnumerator(buffer, 0));
+		assertEquals(0, HlaFundamentalCodec.forName("HLAoctetPairBE").decodeEnumerator(buffer, 0));
+	}
+
+	@Test
+	public void testForSize() {
+		assertSame(HlaFundamentalCodec.forName("HLAoctet"), HlaFundamentalCodec.forSize(1, false));
+		assertSame(HlaFundamentalCodec.forName("HLAinteger16BE"), HlaFundamentalCodec.forSize(2, true));
+		assertSame(HlaFundamentalCodec.forName("HLAinteger16LE"), HlaFundamentalCodec.forSize(2, false));
+		assertSame(HlaFundamentalCodec.forName("HLAinteger32BE"), HlaFundamentalCodec.forSize(4, true));
+		assertSame(HlaFundamentalCodec.forName("HLAinteger32LE"), HlaFundamentalCodec.forSize(4, false));
+		assertSame(HlaFundamentalCodec.forName("HLAinteger64BE"), HlaFundamentalCodec.forSize(8, true));
+		assertSame(HlaFundamentalCodec.forName("HLAinteger64LE"), HlaFundamentalCodec.forSize(8, false));
+		assertNull(HlaFundamentalCodec.forSize(3, true));
+		assertNull(HlaFundamentalCodec.forName("HLAunknown"));
+	}
+}
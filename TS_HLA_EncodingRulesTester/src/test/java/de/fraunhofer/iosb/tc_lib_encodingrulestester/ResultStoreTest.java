@@ -0,0 +1,318 @@
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.fraunhofer.iosb.ivct.AttributeHandleImpl;
+import de.fraunhofer.iosb.ivct.AttributeHandleSetImpl;
+import de.fraunhofer.iosb.ivct.InteractionClassHandleImpl;
+import de.fraunhofer.iosb.ivct.ObjectClassHandleImpl;
+import de.fraunhofer.iosb.ivct.ParameterHandleImpl;
+import hla.rti1516e.AttributeHandle;
+import hla.rti1516e.InteractionClassHandle;
+import hla.rti1516e.ObjectClassHandle;
+import hla.rti1516e.ObjectInstanceHandle;
+import hla.rti1516e.ParameterHandle;
+
+/*
+ * Updates a ResultStore from several threads and compares it with the same
+ * updates made by one thread
+ */
+public class ResultStoreTest {
+	private static final int THREADS = 4;
+	private static final int OPERATIONS = 40000;
+	private static final int OBJECTS = 20;
+	// The objects below are added before the results, the others get their entries with the first result
+	private static final int ADDED_OBJECTS = 10;
+	private static final int ATTRIBUTES = 4;
+	private static final int PARAMETERS = 3;
+
+	private final ObjectInstanceHandle[] objects = new ObjectInstanceHandle[OBJECTS];
+	private final int[] attributeIds = new int[ATTRIBUTES];
+	private final int[] parameterIds = new int[PARAMETERS];
+	private final ObjectClassHandle objectClass = new ObjectClassHandleImpl();
+	private final InteractionClassHandle interactionClass = new InteractionClassHandleImpl();
+	private final HandleIndex handleIndex;
+
+	public ResultStoreTest() {
+		Map<AttributeHandle, String> attributeHandleDataTypeMap = new HashMap<AttributeHandle, String>();
+		ObjectClassData objectClassData = new ObjectClassData();
+		objectClassData.attributeHandleSet = new AttributeHandleSetImpl();
+		AttributeHandle[] attributes = new AttributeHandle[ATTRIBUTES];
+		for (int i = 0; i < ATTRIBUTES; i++) {
+			attributes[i] = new AttributeHandleImpl();
+			objectClassData.attributeHandleSet.add(attributes[i]);
+			attributeHandleDataTypeMap.put(attributes[i], "HLAoctet");
+		}
+		// An attribute of another class, not in the results of the objects
+		attributeHandleDataTypeMap.put(new AttributeHandleImpl(), "HLAoctet");
+		Map<ObjectClassHandle, ObjectClassData> objectClassAttributeHandleMap = new HashMap<ObjectClassHandle, ObjectClassData>();
+		objectClassAttributeHandleMap.put(this.objectClass, objectClassData);
+		Set<ParameterHandle> parameterHandles = new HashSet<ParameterHandle>();
+		Map<ParameterHandle, String> parameterHandleDataTypeMap = new HashMap<ParameterHandle, String>();
+		ParameterHandle[] parameters = new ParameterHandle[PARAMETERS];
+		for (int i = 0; i < PARAMETERS; i++) {
+			parameters[i] = new ParameterHandleImpl();
+			parameterHandles.add(parameters[i]);
+			parameterHandleDataTypeMap.put(parameters[i], "HLAoctet");
+		}
+		Map<InteractionClassHandle, Set<ParameterHandle>> interactionClassHandleMap = new HashMap<InteractionClassHandle, Set<ParameterHandle>>();
+		interactionClassHandleMap.put(this.interactionClass, parameterHandles);
+		this.handleIndex = new HandleIndex(attributeHandleDataTypeMap, parameterHandleDataTypeMap, interactionClassHandleMap, objectClassAttributeHandleMap);
+		for (int i = 0; i < ATTRIBUTES; i++) {
+			this.attributeIds[i] = this.handleIndex.getAttributeId(attributes[i]);
+		}
+		for (int i = 0; i < PARAMETERS; i++) {
+			this.parameterIds[i] = this.handleIndex.getParameterId(parameters[i]);
+		}
+		for (int i = 0; i < OBJECTS; i++) {
+			this.objects[i] = new ObjectInstanceHandle() {
+				@Override
+				public int encodedLength() {
+					return 0;
+				}
+
+				@Override
+				public void encode(final byte[] buffer, final int offset) {
+				}
+			};
+		}
+	}
+
+	/**
+	 * @return a store with the interaction class and the first objects added
+	 */
+	private ResultStore newStore() {
+		ResultStore resultStore = new ResultStore();
+		resultStore.setHandleIndex(this.handleIndex);
+		resultStore.setRequiredResults(3);
+		resultStore.addInteractionClass(this.interactionClass);
+		for (int i = 0; i < ADDED_OBJECTS; i++) {
+			resultStore.addObjectInstance(this.objects[i], this.objectClass);
+		}
+		return resultStore;
+	}
+
+	/**
+	 * Make one update of the store, the same for the same operation number
+	 *
+	 * @param resultStore the store to update
+	 * @param operation the operation number
+	 */
+	private void update(final ResultStore resultStore, final int operation) {
+		boolean correct = operation % 7 != 0;
+		if (operation % 5 == 0) {
+			int parameterId = this.parameterIds[(operation / 5) % PARAMETERS];
+			resultStore.addParameterResult(this.interactionClass, parameterId, correct, (correct ? "correct " : "incorrect ") + parameterId);
+			return;
+		}
+		// Numbered without the parameter operations
+		int attributeOperation = operation - operation / 5 - 1;
+		int objectIndex = attributeOperation % OBJECTS;
+		int attributeIndex = (attributeOperation / OBJECTS) % ATTRIBUTES;
+		int attributeId = this.attributeIds[attributeIndex];
+		// Objects beyond the added ones get only some of their attributes
+		if (objectIndex >= ADDED_OBJECTS && attributeIndex == objectIndex % ATTRIBUTES) {
+			return;
+		}
+		resultStore.addAttributeResult(this.objects[objectIndex], attributeId, correct, (correct ? "correct " : "incorrect ") + attributeId);
+	}
+
+	@Test
+	public void testConcurrentUpdates() throws InterruptedException {
+		ResultStore expected = newStore();
+		for (int operation = 0; operation < OPERATIONS; operation++) {
+			update(expected, operation);
+		}
+
+		final ResultStore resultStore = newStore();
+		Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			final int first = t;
+			// Each thread makes every THREADS-th operation, so that all threads update the same entries
+			threads[t] = new Thread(() -> {
+				for (int operation = first; operation < OPERATIONS; operation += THREADS) {
+					update(resultStore, operation);
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(expected.getCorrect(), resultStore.getCorrect());
+		assertEquals(expected.getIncorrect(), resultStore.getIncorrect());
+		assertEquals(OPERATIONS, resultStore.getCorrect() + resultStore.getIncorrect() + skipped());
+		assertTrue(resultStore.getErrorOccurred());
+		assertEquals(OBJECTS, resultStore.getObjectAttributeResults().size());
+		for (ObjectInstanceHandle theObject : this.objects) {
+			for (int attributeId : this.attributeIds) {
+				ResultInfoAttribute expectedInfo = expected.getAttributeResult(theObject, attributeId);
+				ResultInfoAttribute resultInfo = resultStore.getAttributeResult(theObject, attributeId);
+				if (expectedInfo == null) {
+					assertNull(resultInfo);
+					continue;
+				}
+				assertEquals(expectedInfo.getCorrectCount(), resultInfo.getCorrectCount());
+				assertEquals(expectedInfo.getIncorrectCount(), resultInfo.getIncorrectCount());
+			}
+		}
+		for (int parameterId : this.parameterIds) {
+			assertEquals(expected.getParameterResult(this.interactionClass, parameterId).getCorrectCount(), resultStore.getParameterResult(this.interactionClass, parameterId).getCorrectCount());
+			assertEquals(expected.getParameterResult(this.interactionClass, parameterId).getIncorrectCount(), resultStore.getParameterResult(this.interactionClass, parameterId).getIncorrectCount());
+		}
+		// The results of the added objects have the size of their class, the others of all attributes
+		assertEquals(ATTRIBUTES, resultStore.getObjectAttributeResults().get(this.objects[0]).length());
+		assertEquals(ATTRIBUTES + 1, resultStore.getObjectAttributeResults().get(this.objects[OBJECTS - 1]).length());
+		assertEquals(expected.getAttributeCoverage().getManaged(), resultStore.getAttributeCoverage().getManaged());
+		assertEquals(expected.getAttributeCoverage().getUnchecked(), resultStore.getAttributeCoverage().getUnchecked());
+		assertEquals(expected.getAttributeCoverage().getIncomplete(), resultStore.getAttributeCoverage().getIncomplete());
+		assertEquals(expected.getParameterCoverage().getManaged(), resultStore.getParameterCoverage().getManaged());
+		assertEquals(expected.getParameterCoverage().getIncomplete(), resultStore.getParameterCoverage().getIncomplete());
+		// All entries are managed and complete
+		assertEquals(ADDED_OBJECTS * ATTRIBUTES + (OBJECTS - ADDED_OBJECTS) * (ATTRIBUTES - 1), resultStore.getAttributeCoverage().getManaged());
+		assertTrue(resultStore.allAttributesChecked());
+		assertTrue(resultStore.allParametersChecked());
+		assertTrue(resultStore.isComplete());
+		assertTrue(resultStore.awaitCompletion(0));
+	}
+
+	@Test
+	public void testCompletion() throws InterruptedException {
+		final ResultStore resultStore = newStore();
+		assertFalse(resultStore.isComplete());
+		assertFalse(resultStore.awaitCompletion(10));
+		assertEquals(0, resultStore.getCompletePercent());
+		Thread updater = new Thread(() -> {
+			for (int operation = 0; operation < OPERATIONS; operation++) {
+				update(resultStore, operation);
+			}
+		});
+		updater.start();
+		// Signalled by the update which completes the last entry
+		assertTrue(resultStore.awaitCompletion(60000));
+		updater.join();
+		assertEquals(100, resultStore.getCompletePercent());
+		assertTrue(resultStore.allAttributesChecked());
+		assertTrue(resultStore.allParametersChecked());
+	}
+
+	/**
+	 * @return the number of operations which do not store a result
+	 */
+	private int skipped() {
+		int skipped = 0;
+		for (int operation = 0; operation < OPERATIONS; operation++) {
+			if (operation % 5 == 0) {
+				continue;
+			}
+			int attributeOperation = operation - operation / 5 - 1;
+			int objectIndex = attributeOperation % OBJECTS;
+			int attributeIndex = (attributeOperation / OBJECTS) % ATTRIBUTES;
+			if (objectIndex >= ADDED_OBJECTS && attributeIndex == objectIndex % ATTRIBUTES) {
+				skipped++;
+			}
+		}
+		return skipped;
+	}
+
+	@Test
+	public void testText() {
+		ResultStore resultStore = newStore();
+		assertFalse(resultStore.allAttributesChecked());
+		assertFalse(resultStore.getErrorOccurred());
+		// The first text is kept, only an incorrect result overwrites it
+		resultStore.addAttributeResult(this.objects[0], this.attributeIds[0], true, "first");
+		resultStore.addAttributeResult(this.objects[0], this.attributeIds[0], true, "second");
+		assertEquals("first", resultStore.getAttributeResult(this.objects[0], this.attributeIds[0]).getText());
+		resultStore.addAttributeResult(this.objects[0], this.attributeIds[0], false, "incorrect");
+		resultStore.addAttributeResult(this.objects[0], this.attributeIds[0], true, "third");
+		assertEquals("incorrect", resultStore.getAttributeResult(this.objects[0], this.attributeIds[0]).getText());
+		assertTrue(resultStore.getErrorOccurred());
+		assertEquals(3, resultStore.getCorrect());
+		assertEquals(1, resultStore.getIncorrect());
+	}
+
+	/**
+	 * @return a store with aggregation and the first two objects added, the first one with all its results
+	 */
+	private ResultStore newAggregatingStore() {
+		ResultStore resultStore = new ResultStore();
+		resultStore.setHandleIndex(this.handleIndex);
+		resultStore.setRequiredResults(2);
+		resultStore.setAggregation(2);
+		resultStore.addObjectInstance(this.objects[0], this.objectClass);
+		resultStore.addObjectInstance(this.objects[1], this.objectClass);
+		for (int attributeId : this.attributeIds) {
+			resultStore.addAttributeResult(this.objects[0], attributeId, true, "correct " + attributeId);
+			resultStore.addAttributeResult(this.objects[0], attributeId, true, "correct " + attributeId);
+		}
+		// The second object has one result of its first attribute
+		resultStore.addAttributeResult(this.objects[1], this.attributeIds[0], false, "incorrect " + this.attributeIds[0]);
+		return resultStore;
+	}
+
+	@Test
+	public void testRemoveIncompleteObject() throws InterruptedException {
+		ResultStore resultStore = newAggregatingStore();
+		assertFalse(resultStore.allAttributesChecked());
+		assertFalse(resultStore.isComplete());
+		assertEquals(2 * ATTRIBUTES, resultStore.getAttributeCoverage().getManaged());
+
+		resultStore.removeObjectInstance(this.objects[1], this.objectClass, "object1");
+		// Only the entries of the remaining object are managed
+		assertEquals(ATTRIBUTES, resultStore.getAttributeCoverage().getManaged());
+		assertEquals(0, resultStore.getAttributeCoverage().getUnchecked());
+		assertEquals(0, resultStore.getAttributeCoverage().getIncomplete());
+		assertTrue(resultStore.allAttributesChecked());
+		assertTrue(resultStore.isComplete());
+		assertTrue(resultStore.awaitCompletion(0));
+		assertEquals(100, resultStore.getCompletePercent());
+		// The result of the removed object is kept in those of its class
+		assertEquals(1, resultStore.getRemovedObjectResults().get(this.objectClass).getIncorrectCount(resultStore.getHandleIndex().getObjectClassAttributeIds(this.objectClass).getLocalId(this.attributeIds[0])));
+
+		// Removing the complete object leaves nothing managed
+		resultStore.removeObjectInstance(this.objects[0], this.objectClass, "object0");
+		assertEquals(0, resultStore.getAttributeCoverage().getManaged());
+		assertEquals(0, resultStore.getAttributeCoverage().getIncomplete());
+		assertTrue(resultStore.allAttributesChecked());
+	}
+
+	@Test
+	public void testCompletionWithRemovedObjects() throws InterruptedException {
+		final ResultStore resultStore = newAggregatingStore();
+		assertFalse(resultStore.awaitCompletion(10));
+		// Objects are discovered and removed all the time, most before all their attributes are checked
+		Thread updater = new Thread(() -> {
+			for (int round = 0; round < 100; round++) {
+				for (int i = 1; i < OBJECTS; i++) {
+					resultStore.addObjectInstance(this.objects[i], this.objectClass);
+					for (int attributeIndex = 0; attributeIndex < round % ATTRIBUTES; attributeIndex++) {
+						resultStore.addAttributeResult(this.objects[i], this.attributeIds[attributeIndex], true, "correct");
+					}
+					resultStore.removeObjectInstance(this.objects[i], this.objectClass, "object" + i);
+				}
+			}
+		});
+		updater.start();
+		// As waitForCompletion of TC0001 and TC0002, signalled by a removal of an incomplete object
+		assertTrue(resultStore.awaitCompletion(60000));
+		updater.join();
+		assertTrue(resultStore.isComplete());
+		assertTrue(resultStore.allAttributesChecked());
+		assertEquals(ATTRIBUTES, resultStore.getAttributeCoverage().getManaged());
+		assertEquals(100 * (OBJECTS - 1), resultStore.getRemovedObjectResults().get(this.objectClass).getInstanceCount());
+	}
+}
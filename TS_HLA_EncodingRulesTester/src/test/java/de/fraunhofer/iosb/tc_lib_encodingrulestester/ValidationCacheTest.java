@@ -0,0 +1,139 @@
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/*
+ * Tests of the verdict cache: hits need identical buffers, the number of
+ * entries is bounded by the cache size, and a cached verdict is the same
+ * as the one of a fresh test
+ */
+public class ValidationCacheTest {
+	private final HlaDataBasicType integerType = new HlaDataBasicType("HLAinteger32BE", 32, true);
+	private final HlaDataBasicType otherType = new HlaDataBasicType("HLAinteger32LE", 32, false);
+
+	/**
+	 * @param segment the segment of the hash
+	 * @param value the low bits of the hash
+	 * @return a hash which falls in the given segment of a cache with 16 segments
+	 */
+	private static long hash(final int segment, final int value) {
+		return (long) segment << 60 | value;
+	}
+
+	@Test
+	public void testCollision() {
+		ValidationCache validationCache = new ValidationCache(64);
+		byte[] buffer = { 1, 2, 3, 4 };
+		ValidationCache.Verdict verdict = new ValidationCache.Verdict(true, "TEST BUFFER CORRECT\n");
+		validationCache.put(this.integerType, 42, buffer, verdict);
+		assertSame(verdict, validationCache.get(this.integerType, 42, new byte[] { 1, 2, 3, 4 }));
+
+		// The same hash with other octets, another length or another data type is not a hit
+		assertNull(validationCache.get(this.integerType, 42, new byte[] { 1, 2, 3, 5 }));
+		assertNull(validationCache.get(this.integerType, 42, new byte[] { 1, 2, 3 }));
+		assertNull(validationCache.get(this.integerType, 42, new byte[] { 1, 2, 3, 4, 0 }));
+		assertNull(validationCache.get(this.otherType, 42, buffer));
+		assertEquals(1, validationCache.getHitCount());
+		assertEquals(4, validationCache.getMissCount());
+
+		// Both colliding buffers have their own entry
+		ValidationCache.Verdict otherVerdict = new ValidationCache.Verdict(false, "TEST BUFFER INCORRECT\n");
+		validationCache.put(this.integerType, 42, new byte[] { 1, 2, 3, 5 }, otherVerdict);
+		assertSame(verdict, validationCache.get(this.integerType, 42, buffer));
+		assertSame(otherVerdict, validationCache.get(this.integerType, 42, new byte[] { 1, 2, 3, 5 }));
+		assertEquals(2, validationCache.size());
+
+		// The stored buffer is a copy
+		buffer[3] = 9;
+		assertNull(validationCache.get(this.integerType, 42, buffer));
+		assertSame(verdict, validationCache.get(this.integerType, 42, new byte[] { 1, 2, 3, 4 }));
+	}
+
+	@Test
+	public void testEviction() {
+		// 16 segments, the first four hold two entries, the others one
+		ValidationCache validationCache = new ValidationCache(20);
+		byte[] buffer = { 0 };
+		for (int segment = 0; segment < 16; segment++) {
+			for (int value = 0; value < (segment < 4 ? 2 : 1); value++) {
+				validationCache.put(this.integerType, hash(segment, value), buffer, new ValidationCache.Verdict(true, segment + " " + value));
+			}
+		}
+		assertEquals(20, validationCache.size());
+		for (int segment = 0; segment < 16; segment++) {
+			for (int value = 0; value < (segment < 4 ? 2 : 1); value++) {
+				assertNotNull(validationCache.get(this.integerType, hash(segment, value), buffer));
+			}
+		}
+
+		// The least recently used entry of the segment is evicted, a hit counts as use
+		assertNotNull(validationCache.get(this.integerType, hash(0, 0), buffer));
+		validationCache.put(this.integerType, hash(0, 2), buffer, new ValidationCache.Verdict(true, "0 2"));
+		assertEquals(20, validationCache.size());
+		assertNull(validationCache.get(this.integerType, hash(0, 1), buffer));
+		assertNotNull(validationCache.get(this.integerType, hash(0, 0), buffer));
+		assertNotNull(validationCache.get(this.integerType, hash(0, 2), buffer));
+		// The other segments keep their entries
+		assertNotNull(validationCache.get(this.integerType, hash(1, 1), buffer));
+		validationCache.put(this.integerType, hash(15, 1), buffer, new ValidationCache.Verdict(true, "15 1"));
+		assertNull(validationCache.get(this.integerType, hash(15, 0), buffer));
+		assertNotNull(validationCache.get(this.integerType, hash(1, 0), buffer));
+		assertEquals(20, validationCache.size());
+	}
+
+	@Test
+	public void testSize() {
+		Random random = new Random(1516);
+		for (int size : new int[] { 1, 2, 3, 15, 16, 17, 20, 100, 1000 }) {
+			ValidationCache validationCache = new ValidationCache(size);
+			for (int i = 0; i < size * 20; i++) {
+				byte[] buffer = new byte[1 + random.nextInt(12)];
+				random.nextBytes(buffer);
+				validationCache.test(new HlaDataTypes(), this.integerType, buffer);
+				assertTrue("size " + size, validationCache.size() <= size);
+			}
+			// Filled up to the size
+			assertEquals(size, validationCache.size());
+		}
+	}
+
+	@Test
+	public void testFailingVerdict() {
+		HlaDataTypes hlaDataTypes = new HlaDataTypes();
+		hlaDataTypes.dataTypeMap.put("HLAinteger32BE", this.integerType);
+		ValidationCache validationCache = new ValidationCache(16);
+		byte[][] buffers = { { 1, 2, 3 }, { 1, 2, 3, 4, 5 }, { 1, 2, 3, 4 } };
+		for (byte[] buffer : buffers) {
+			ValidationCache.Verdict fresh = ValidationCache.testBuffer(hlaDataTypes, this.integerType, buffer);
+			long hits = validationCache.getHitCount();
+			ValidationCache.Verdict tested = validationCache.test(hlaDataTypes, this.integerType, buffer);
+			ValidationCache.Verdict cached = validationCache.test(hlaDataTypes, this.integerType, buffer.clone());
+			assertEquals(hits + 1, validationCache.getHitCount());
+			assertSame(tested, cached);
+			assertEquals(fresh.correct, cached.correct);
+			assertEquals(fresh.text, cached.text);
+		}
+		assertEquals(3, validationCache.getMissCount());
+
+		// Too short and too long buffers fail, also when taken from the cache
+		ValidationCache.Verdict verdict = validationCache.test(hlaDataTypes, this.integerType, buffers[0]);
+		assertFalse(verdict.correct);
+		assertTrue(verdict.text, verdict.text.startsWith("TEST BUFFER INCORRECT: HlaDataBasicType: testBuffer:"));
+		verdict = validationCache.test(hlaDataTypes, this.integerType, buffers[1]);
+		assertFalse(verdict.correct);
+		assertEquals("TEST BUFFER INCORRECT: overall length calculation: 4 Buffer length: 5\n", verdict.text);
+		verdict = validationCache.test(hlaDataTypes, this.integerType, buffers[2]);
+		assertTrue(verdict.correct);
+		assertEquals("TEST BUFFER CORRECT\n", verdict.text);
+		assertEquals(6, validationCache.getHitCount());
+	}
+}
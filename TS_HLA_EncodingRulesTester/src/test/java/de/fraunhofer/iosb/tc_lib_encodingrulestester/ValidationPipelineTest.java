@@ -0,0 +1,257 @@
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+/*
+ * Tests of the ring buffer and the worker pipeline behind the validation of
+ * the received buffers
+ */
+public class ValidationPipelineTest {
+	private static final int PRODUCERS = 4;
+	private static final int CONSUMERS = 4;
+	private static final int PER_PRODUCER = 20000;
+
+	/**
+	 * @param ids the ids to store, one buffer each
+	 * @return a task holding the ids as its buffers
+	 */
+	private static ValidationTask task(final int... ids) {
+		byte[][] values = new byte[ids.length][];
+		for (int i = 0; i < ids.length; i++) {
+			values[i] = ByteBuffer.allocate(4).putInt(ids[i]).array();
+		}
+		return new ValidationTask(null, null, null, null, values);
+	}
+
+	private static int id(final ValidationTask task, final int index) {
+		return ByteBuffer.wrap(task.values[index]).getInt();
+	}
+
+	@Test
+	public void testRingBufferWrapAround() {
+		ValidationRingBuffer<Integer> ringBuffer = new ValidationRingBuffer<Integer>(3);
+		assertEquals(4, ringBuffer.capacity());
+		int next = 0;
+		int expected = 0;
+		// Many rounds, so that the positions wrap around the slots with partly filled buffers
+		for (int round = 0; round < 100; round++) {
+			int fill = round % 5;
+			for (int i = 0; i < fill; i++) {
+				assertTrue(ringBuffer.offer(next++));
+			}
+			assertEquals(fill, ringBuffer.size());
+			for (int i = 0; i < fill; i++) {
+				assertEquals(Integer.valueOf(expected++), ringBuffer.poll());
+			}
+			assertNull(ringBuffer.poll());
+		}
+		// Full buffer refuses further elements until one is taken
+		for (int i = 0; i < 4; i++) {
+			assertTrue(ringBuffer.offer(next++));
+		}
+		assertFalse(ringBuffer.offer(-1));
+		assertEquals(4, ringBuffer.size());
+		assertEquals(Integer.valueOf(expected++), ringBuffer.poll());
+		assertTrue(ringBuffer.offer(next++));
+		for (int i = 0; i < 4; i++) {
+			assertEquals(Integer.valueOf(expected++), ringBuffer.poll());
+		}
+		assertNull(ringBuffer.poll());
+		assertEquals(0, ringBuffer.size());
+	}
+
+	@Test
+	public void testRingBufferConcurrent() throws InterruptedException {
+		final ValidationRingBuffer<Integer> ringBuffer = new ValidationRingBuffer<Integer>(64);
+		final AtomicIntegerArray seen = new AtomicIntegerArray(PRODUCERS * PER_PRODUCER);
+		final AtomicInteger taken = new AtomicInteger(0);
+		final AtomicInteger outOfOrder = new AtomicInteger(0);
+		Thread[] threads = new Thread[PRODUCERS + CONSUMERS];
+		for (int p = 0; p < PRODUCERS; p++) {
+			final int producer = p;
+			threads[p] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < PER_PRODUCER; i++) {
+						// Wait for free slots, the pipeline would drop here
+						while (ringBuffer.offer(producer * PER_PRODUCER + i) == false) {
+							Thread.yield();
+						}
+					}
+				}
+			});
+		}
+		for (int c = 0; c < CONSUMERS; c++) {
+			threads[PRODUCERS + c] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					// The elements of one producer reach one consumer in the order offered
+					int[] last = new int[PRODUCERS];
+					Arrays.fill(last, -1);
+					while (taken.get() < PRODUCERS * PER_PRODUCER) {
+						Integer element = ringBuffer.poll();
+						if (element == null) {
+							Thread.yield();
+							continue;
+						}
+						taken.incrementAndGet();
+						seen.incrementAndGet(element);
+						int producer = element / PER_PRODUCER;
+						if (element <= last[producer]) {
+							outOfOrder.incrementAndGet();
+						}
+						last[producer] = element;
+					}
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join(60000);
+			assertFalse("thread finished", thread.isAlive());
+		}
+		// Each element is taken exactly once
+		for (int i = 0; i < seen.length(); i++) {
+			assertEquals("element " + i, 1, seen.get(i));
+		}
+		assertEquals(0, outOfOrder.get());
+		assertNull(ringBuffer.poll());
+		assertEquals(0, ringBuffer.size());
+	}
+
+	@Test
+	public void testDroppedWhenFull() {
+		// Without workers nothing is taken from the ring buffer
+		ValidationPipeline validationPipeline = new ValidationPipeline(0, 4, new ValidationPipeline.Handler() {
+			@Override
+			public void validate(final ValidationTask task, final int index) {
+			}
+
+			@Override
+			public void failed(final ValidationTask task, final int index, final RuntimeException e) {
+			}
+
+			@Override
+			public void completed(final ValidationTask task) {
+			}
+		});
+		int accepted = 0;
+		for (int i = 0; i < 10; i++) {
+			if (validationPipeline.submit(task(i))) {
+				accepted++;
+			}
+		}
+		assertEquals(4, accepted);
+		assertEquals(10, validationPipeline.getSubmittedCount());
+		assertEquals(6, validationPipeline.getDroppedCount());
+		assertEquals(4, validationPipeline.getQueueDepth());
+		assertEquals(4, validationPipeline.getMaxQueueDepth());
+	}
+
+	@Test
+	public void testDrain() throws InterruptedException {
+		final int total = PRODUCERS * PER_PRODUCER;
+		final AtomicIntegerArray validated = new AtomicIntegerArray(total);
+		final AtomicIntegerArray accepted = new AtomicIntegerArray(total);
+		final ValidationPipeline validationPipeline = new ValidationPipeline(CONSUMERS, 256, new ValidationPipeline.Handler() {
+			@Override
+			public void validate(final ValidationTask task, final int index) {
+				validated.incrementAndGet(id(task, index));
+			}
+
+			@Override
+			public void failed(final ValidationTask task, final int index, final RuntimeException e) {
+			}
+
+			@Override
+			public void completed(final ValidationTask task) {
+			}
+		});
+		validationPipeline.start();
+		Thread[] producers = new Thread[PRODUCERS];
+		for (int p = 0; p < PRODUCERS; p++) {
+			final int producer = p;
+			producers[p] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					// Two buffers per task, like a callback with two attributes
+					for (int i = 0; i < PER_PRODUCER; i += 2) {
+						int id = producer * PER_PRODUCER + i;
+						if (validationPipeline.submit(task(id, id + 1))) {
+							accepted.set(id, 1);
+							accepted.set(id + 1, 1);
+						}
+					}
+				}
+			});
+			producers[p].start();
+		}
+		for (Thread producer : producers) {
+			producer.join(60000);
+		}
+		assertTrue("drained", validationPipeline.drain(60000));
+		// After drain, every accepted buffer is validated once and no dropped one
+		long acceptedCount = 0;
+		for (int i = 0; i < total; i++) {
+			assertEquals("buffer " + i, accepted.get(i), validated.get(i));
+			acceptedCount += accepted.get(i);
+		}
+		assertEquals(total / 2, validationPipeline.getSubmittedCount());
+		assertEquals(total / 2 - acceptedCount / 2, validationPipeline.getDroppedCount());
+		assertEquals(0, validationPipeline.getQueueDepth());
+		validationPipeline.stop(10000);
+	}
+
+	@Test
+	public void testFailedValidation() {
+		final AtomicIntegerArray validated = new AtomicIntegerArray(3);
+		final AtomicIntegerArray failed = new AtomicIntegerArray(3);
+		final AtomicInteger completed = new AtomicInteger(0);
+		ValidationPipeline validationPipeline = new ValidationPipeline(1, 16, new ValidationPipeline.Handler() {
+			@Override
+			public void validate(final ValidationTask task, final int index) {
+				if (id(task, index) == 1) {
+					throw new IllegalStateException("test");
+				}
+				validated.incrementAndGet(id(task, index));
+			}
+
+			@Override
+			public void failed(final ValidationTask task, final int index, final RuntimeException e) {
+				assertEquals("test", e.getMessage());
+				failed.incrementAndGet(id(task, index));
+			}
+
+			@Override
+			public void completed(final ValidationTask task) {
+				completed.incrementAndGet();
+			}
+		});
+		validationPipeline.start();
+		assertTrue(validationPipeline.submit(task(0, 1, 2)));
+		assertTrue(validationPipeline.drain(10000));
+		validationPipeline.stop(10000);
+		// The buffer which threw gets a failed result, the others are still validated
+		assertEquals(1, validated.get(0));
+		assertEquals(0, validated.get(1));
+		assertEquals(1, validated.get(2));
+		assertEquals(0, failed.get(0));
+		assertEquals(1, failed.get(1));
+		assertEquals(0, failed.get(2));
+		assertEquals(1, validationPipeline.getFailedCount());
+		// A task with a failed buffer is still completed once
+		assertEquals(1, completed.get());
+	}
+}
@@ -0,0 +1,174 @@
+package de.fraunhofer.iosb.tc_lib_encodingrulestester;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/*
+ * Tests which buffers the sampler skips, fed the way the model does: a
+ * skipped buffer is counted, a tested one adds its result
+ */
+public class ValidationSamplerTest {
+
+	/**
+	 * @param samplingThreshold the samplingThreshold parameter
+	 * @param samplingRate the samplingRate parameter, null for the default
+	 * @param samplingProbability the samplingProbability parameter, null for the default
+	 * @return the sampler made from the test case parameters as by the model, null if sampling is disabled
+	 * @throws Exception if the parameters are not accepted
+	 */
+	private static ValidationSampler sampler(final String samplingThreshold, final String samplingRate, final String samplingProbability) throws Exception {
+		String paramJson = "{ \"federationName\" : \"TheWorld\", \"rtiHostName\" : \"localhost\", \"rtiPort\" : \"8989\", \"sutFederateName\" : \"A\", \"fomFiles\" : [], \"somFiles\" : []"
+				+ ", \"samplingThreshold\" : \"" + samplingThreshold + "\""
+				+ (samplingRate != null ? ", \"samplingRate\" : \"" + samplingRate + "\"" : "")
+				+ (samplingProbability != null ? ", \"samplingProbability\" : \"" + samplingProbability + "\"" : "")
+				+ " }";
+		EncodingRulesTesterTcParam tcParam = new EncodingRulesTesterTcParam(paramJson);
+		if (tcParam.getSamplingThreshold() <= 0) {
+			return null;
+		}
+		return new ValidationSampler(tcParam.getSamplingThreshold(), tcParam.getSamplingRate(), tcParam.getSamplingProbability());
+	}
+
+	/**
+	 * Receive one buffer
+	 *
+	 * @param validationSampler the sampler
+	 * @param resultInfo the results of the key
+	 * @param correct the verdict if the buffer is tested
+	 * @return true if the buffer was tested
+	 */
+	private static boolean receive(final ValidationSampler validationSampler, final ResultInfo resultInfo, final boolean correct) {
+		if (validationSampler.isSampledOut(resultInfo)) {
+			resultInfo.addSkipped();
+			return false;
+		}
+		resultInfo.addInfo(correct, correct ? "TEST BUFFER CORRECT\n" : "TEST BUFFER INCORRECT\n");
+		return true;
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		assertEquals(null, sampler("0", "2", null));
+	}
+
+	@Test
+	public void testStableKeys() throws Exception {
+		ValidationSampler validationSampler = sampler("5", "3", null);
+		// A key without results is tested
+		assertFalse(validationSampler.isSampledOut(null));
+
+		ResultInfo stable = new ResultInfo();
+		ResultInfo failing = new ResultInfo();
+		ResultInfo unstable = new ResultInfo();
+		int skipped = 0;
+		for (int i = 0; i < 300; i++) {
+			if (receive(validationSampler, stable, true) == false) {
+				skipped++;
+			}
+			// Fails every buffer
+			assertTrue(receive(validationSampler, failing, false));
+			// Fails every fifth buffer, so never has five correct results in a row
+			assertTrue(receive(validationSampler, unstable, i % 5 != 4));
+		}
+		assertTrue(skipped > 0);
+		assertEquals(skipped, stable.getSkippedCount());
+		assertEquals(0, failing.getSkippedCount());
+		assertEquals(300, failing.getResultCount());
+		assertEquals(0, unstable.getSkippedCount());
+		assertEquals(300, unstable.getResultCount());
+	}
+
+	@Test
+	public void testThresholdAndRate() throws Exception {
+		for (int threshold : new int[] { 1, 4, 10 }) {
+			for (int rate : new int[] { 1, 2, 7 }) {
+				ValidationSampler validationSampler = sampler(Integer.toString(threshold), Integer.toString(rate), null);
+				ResultInfo resultInfo = new ResultInfo();
+				// The first buffers up to the threshold are tested
+				for (int i = 0; i < threshold; i++) {
+					assertTrue(receive(validationSampler, resultInfo, true));
+				}
+				// Then every rate-th received buffer
+				for (int i = threshold; i < threshold + 10 * rate; i++) {
+					assertEquals("threshold " + threshold + " rate " + rate + " buffer " + i, i % rate == 0, receive(validationSampler, resultInfo, true));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDefaultRate() throws Exception {
+		ValidationSampler validationSampler = sampler("2", null, null);
+		ResultInfo resultInfo = new ResultInfo();
+		int tested = 0;
+		for (int i = 0; i < 1000; i++) {
+			if (receive(validationSampler, resultInfo, true)) {
+				tested++;
+			}
+		}
+		// The two first buffers, then the 10th, 20th, ... 990th received buffer
+		assertEquals(2 + 99, tested);
+	}
+
+	@Test
+	public void testProbability() throws Exception {
+		ResultInfo resultInfo = new ResultInfo();
+		ValidationSampler validationSampler = sampler("3", "2", "0.25");
+		int tested = 0;
+		for (int i = 0; i < 40000; i++) {
+			if (receive(validationSampler, resultInfo, true)) {
+				tested++;
+			}
+		}
+		// The rate is not used, about a quarter is tested
+		assertTrue("tested " + tested, tested > 9000 && tested < 11000);
+		assertEquals(40000, resultInfo.getResultCount() + resultInfo.getSkippedCount());
+
+		// A probability of one tests all buffers
+		validationSampler = sampler("3", "2", "1");
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(receive(validationSampler, resultInfo, true));
+		}
+	}
+
+	@Test
+	public void testFailure() throws Exception {
+		int threshold = 6;
+		int rate = 4;
+		ValidationSampler validationSampler = sampler(Integer.toString(threshold), Integer.toString(rate), null);
+		ResultInfo resultInfo = new ResultInfo();
+		for (int i = 0; i < 50; i++) {
+			receive(validationSampler, resultInfo, true);
+		}
+		assertTrue(resultInfo.getSkippedCount() > 0);
+
+		// The next tested buffer fails
+		while (receive(validationSampler, resultInfo, false) == false) {
+		}
+		assertEquals(1, resultInfo.getIncorrectCount());
+		// All buffers are tested until the key is stable again
+		for (int i = 0; i < threshold; i++) {
+			assertTrue(receive(validationSampler, resultInfo, true));
+		}
+		long skipped = resultInfo.getSkippedCount();
+		for (int i = 0; i < rate; i++) {
+			receive(validationSampler, resultInfo, true);
+		}
+		assertEquals(skipped + rate - 1, resultInfo.getSkippedCount());
+
+		// A failure while not yet stable again restarts the count
+		while (receive(validationSampler, resultInfo, false) == false) {
+		}
+		for (int i = 0; i < threshold - 1; i++) {
+			assertTrue(receive(validationSampler, resultInfo, true));
+		}
+		assertTrue(receive(validationSampler, resultInfo, false));
+		for (int i = 0; i < threshold; i++) {
+			assertTrue(receive(validationSampler, resultInfo, true));
+		}
+		assertEquals(3, resultInfo.getIncorrectCount());
+	}
+}
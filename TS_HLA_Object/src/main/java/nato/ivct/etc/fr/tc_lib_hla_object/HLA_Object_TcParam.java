@@ -27,7 +27,9 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import nato.ivct.etc.fr.fctt_common.utils.ResultsWriter;
 import nato.ivct.etc.fr.fctt_common.utils.TextInternationalization;
+import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eResultsFormat;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
@@ -48,6 +50,7 @@ public class HLA_Object_TcParam implements IVCT_TcParam {
     private List<String> fomFiles = new ArrayList<String>();
     private List<String> somFiles = new ArrayList<String>();
     private long testDuration = 0;
+    private eResultsFormat resultsFormat = eResultsFormat.Text;
     private URL[] urls;
     private String settingsDesignator;
     
@@ -125,6 +128,14 @@ public class HLA_Object_TcParam implements IVCT_TcParam {
 			} catch (NumberFormatException e) {
 				throw new TcInconclusive(TextInternationalization.getString("etc_fra.notNumericalDurationKey"));
 			}
+			// get the optional results files format (text, csv or json) from the JSON object
+			String strResultsFormat =  (String) jsonObject.get("resultsFormat");
+			if (strResultsFormat != null) {
+				this.resultsFormat = ResultsWriter.parseFormat(strResultsFormat);
+				if (this.resultsFormat == null) {
+	                throw new TcInconclusive(TextInternationalization.getString("etc_fra.invalidConfig"));
+				}
+			}
 		}
 		catch (ParseException e1) {
 			throw new TcInconclusive(TextInternationalization.getString("etc_fra.invalidConfig"));
@@ -205,4 +216,12 @@ public class HLA_Object_TcParam implements IVCT_TcParam {
     public long getTestDuration() {
         return this.testDuration;
     }
+
+
+    /**
+     * @return format of the results files
+     */
+    public eResultsFormat getResultsFormat() {
+        return this.resultsFormat;
+    }
 }
@@ -65,10 +65,11 @@ import hla.rti1516e.exceptions.UnsupportedCallbackModel;
 import nato.ivct.etc.fr.fctt_common.configuration.controller.validation.FCTTFilesCheck;
 import nato.ivct.etc.fr.fctt_common.resultServices.model.ServiceHLA;
 import nato.ivct.etc.fr.fctt_common.resultServices.model.ResultServicesModel;
-import nato.ivct.etc.fr.fctt_common.utils.FCTT_Constant;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eBuildResults;
+import nato.ivct.etc.fr.fctt_common.utils.FCTT_Enum.eResultsFormat;
 import nato.ivct.etc.fr.fctt_common.utils.FCTT_Environment;
-import nato.ivct.etc.fr.fctt_common.utils.StringWrapper;
+import nato.ivct.etc.fr.fctt_common.utils.ResultsFile;
+import nato.ivct.etc.fr.fctt_common.utils.ResultsWriter;
 import nato.ivct.etc.fr.fctt_common.utils.TextInternationalization;
 
 import org.slf4j.Logger;
@@ -129,9 +130,9 @@ public class HLA_Services_BaseModel extends IVCT_BaseModel {
         this.HlaResultServicesModel = null;
 
     	// Generate result files
-		String certifiedServicesFileName = "HLA_Services_certified_services_" + FCTT_Environment.getDateForFileName() + FCTT_Constant.REPORT_FILE_NAME_EX;
+		String certifiedServicesFileName = "HLA_Services_certified_services_" + FCTT_Environment.getDateForFileName() + ResultsWriter.getFileExtension(HlaServicesTcParam.getResultsFormat());
 		certifiedServicesResultFile = new File(HlaServicesTcParam.getResultDir() + File.separator + certifiedServicesFileName);        
-		String nonCertifiedServicesFileName = "HLA_Services_non_certified_services_" + FCTT_Environment.getDateForFileName() + FCTT_Constant.REPORT_FILE_NAME_EX;
+		String nonCertifiedServicesFileName = "HLA_Services_non_certified_services_" + FCTT_Environment.getDateForFileName() + ResultsWriter.getFileExtension(HlaServicesTcParam.getResultsFormat());
 		nonCertifiedServicesResultFile = new File(HlaServicesTcParam.getResultDir() + File.separator + nonCertifiedServicesFileName);        
     }
 
@@ -292,42 +293,23 @@ public class HLA_Services_BaseModel extends IVCT_BaseModel {
 		try {
 			// Format output
 	    	int lMaxLengthService = HlaResultServicesModel.computeMaxServiceNameLength();
-	    	StringWrapper fileWriter = new StringWrapper("");
 	    	String formatter = "%-"+lMaxLengthService+"s %-5s %-45s%n";
 	    	String headerFormatter = "%-"+lMaxLengthService+"s %-5s %-45s%n";
-	    	
-	    	// Write result files & logs
-	    	String result;
+
+	    	// Write result files
+	    	String lColumns = String.format(headerFormatter, "", TextInternationalization.getString("resultsFile.headerColumns.services"), "");
+	    	String lCertifiedHeader = saveResultsWriteHeader(lCurrentDate, eBuildResults.ServicesCertificated) + lColumns;
+	    	String lNonCertifiedHeader = saveResultsWriteHeader(lCurrentDate, eBuildResults.ServicesNotCertificated) + lColumns;
+	    	ResultsFile.Rows lCertifiedRows = lWriter -> HlaResultServicesModel.writeResults(eBuildResults.ServicesCertificated, lWriter);
+	    	ResultsFile.Rows lNonCertifiedRows = lWriter -> HlaResultServicesModel.writeResults(eBuildResults.ServicesNotCertificated, lWriter);
+	    	ResultsFile.save(certifiedServicesResultFile, tcParams.getResultsFormat(), lCertifiedHeader, formatter, lCertifiedRows, logger);
+	    	ResultsFile.save(nonCertifiedServicesResultFile, tcParams.getResultsFormat(), lNonCertifiedHeader, formatter, lNonCertifiedRows, logger);
+
+	    	// Log results and results filenames
 	    	StringBuilder results = new StringBuilder("\n\n");
-	    	result = saveResultsWriteHeader(lCurrentDate, eBuildResults.ServicesCertificated);
-	    	results.append(result);
-	    	// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-	    	result = String.format(headerFormatter, "", TextInternationalization.getString("resultsFile.headerColumns.services"), "");
-	    	results.append(result);
-			// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-	    	result = HlaResultServicesModel.writeResults(eBuildResults.ServicesCertificated, fileWriter, formatter).getString();
-	    	results.append(result);
-	    	// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-	    	
-	    	result = saveResultsWriteHeader(lCurrentDate, eBuildResults.ServicesNotCertificated);
-	    	results.append(result);
-	    	// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-	    	result = String.format(headerFormatter, "", TextInternationalization.getString("resultsFile.headerColumns.services"), "");
-	    	results.append(result);
-			// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-	    	result = HlaResultServicesModel.writeResults(eBuildResults.ServicesNotCertificated, fileWriter, formatter).getString();
-	    	results.append(result);
+	    	ResultsFile.write(results, eResultsFormat.Text, lCertifiedHeader, formatter, lCertifiedRows);
+	    	ResultsFile.write(results, eResultsFormat.Text, lNonCertifiedHeader, formatter, lNonCertifiedRows);
 	    	results.append("\n\n");
-	    	// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// logger.info(result);
-			
-			// 2018/01/09 ETC FRA 1.4, Capgemini, results not logged
-			// Log results filenames
 	    	logger.info(results.toString());
 			logger.info(TextInternationalization.getString("etc_fra.lookAtResultsFiles")); 
 			logger.info(" - " + certifiedServicesResultFile.getAbsolutePath()); 